@@ -0,0 +1,93 @@
+package com.metradingplat.marketdata.domain.usecases;
+
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.metradingplat.marketdata.application.output.GestionarComunicacionExternalGatewayIntPort;
+import com.metradingplat.marketdata.domain.enums.EnumTimeframe;
+import com.metradingplat.marketdata.domain.models.Candle;
+
+/**
+ * Filtro de barras completas + since del caso de uso de /historical/batch, con
+ * el gateway devolviendo siempre el mismo lote en memoria.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HistoricalBatchFilterBenchmark {
+
+    @Param({ "20", "200" })
+    private int simbolos;
+
+    @Param({ "100" })
+    private int bars;
+
+    private List<String> symbols;
+    private OffsetDateTime since;
+    private GestionarHistoricalDataCUAdapter casoDeUso;
+
+    @Setup
+    public void setup() {
+        // Barras M1 que terminan en el minuto actual: la ultima queda en formacion
+        Instant ultima = Instant.now().truncatedTo(ChronoUnit.MINUTES);
+        Map<String, List<Candle>> lote = new HashMap<>();
+        symbols = new ArrayList<>(simbolos);
+        for (int s = 0; s < simbolos; s++) {
+            String symbol = "SYM" + s;
+            symbols.add(symbol);
+            List<Candle> candles = new ArrayList<>(bars + 1);
+            for (int i = bars; i >= 0; i--) {
+                double precio = 100 + s + i * 0.01;
+                candles.add(Candle.builder().symbol(symbol).timeframe(EnumTimeframe.M1)
+                        .timestamp(ultima.minus(i, ChronoUnit.MINUTES))
+                        .open(precio).high(precio + 0.05).low(precio - 0.05).close(precio + 0.01)
+                        .volume(1000.0 + i).build());
+            }
+            lote.put(symbol, candles);
+        }
+        since = OffsetDateTime.ofInstant(ultima.minus(bars / 2, ChronoUnit.MINUTES), ZoneOffset.UTC);
+
+        GestionarComunicacionExternalGatewayIntPort gateway = (GestionarComunicacionExternalGatewayIntPort) Proxy
+                .newProxyInstance(getClass().getClassLoader(),
+                        new Class<?>[] { GestionarComunicacionExternalGatewayIntPort.class },
+                        (proxy, method, args) -> {
+                            if (method.getName().equals("getCandlesBatch"))
+                                return lote;
+                            throw new UnsupportedOperationException(method.getName());
+                        });
+        casoDeUso = new GestionarHistoricalDataCUAdapter(gateway);
+    }
+
+    @Benchmark
+    public Map<String, List<Candle>> completas() {
+        return casoDeUso.getCandlesBatch(symbols, EnumTimeframe.M1, bars, null);
+    }
+
+    @Benchmark
+    public Map<String, List<Candle>> completasDesde() {
+        return casoDeUso.getCandlesBatch(symbols, EnumTimeframe.M1, bars, since);
+    }
+}
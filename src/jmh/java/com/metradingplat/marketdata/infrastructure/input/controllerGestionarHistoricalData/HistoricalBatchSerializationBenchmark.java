@@ -0,0 +1,86 @@
+package com.metradingplat.marketdata.infrastructure.input.controllerGestionarHistoricalData;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.metradingplat.marketdata.domain.enums.EnumTimeframe;
+import com.metradingplat.marketdata.domain.models.Candle;
+import com.metradingplat.marketdata.infrastructure.input.controllerGestionarHistoricalData.DTOAnswer.BatchCandlesDTORespuesta;
+import com.metradingplat.marketdata.infrastructure.input.controllerGestionarHistoricalData.DTOAnswer.CandleDTORespuesta;
+import com.metradingplat.marketdata.infrastructure.input.controllerGestionarHistoricalData.mapper.HistoricalDataMapper;
+import com.metradingplat.marketdata.infrastructure.input.controllerGestionarHistoricalData.mapper.HistoricalDataMapperImpl;
+
+/**
+ * Mapeo dominio -> DTO y serializacion JSON de la respuesta de
+ * /historical/batch, con el mismo ObjectMapper que configura Spring MVC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HistoricalBatchSerializationBenchmark {
+
+    @Param({ "20", "200" })
+    private int simbolos;
+
+    @Param({ "100" })
+    private int bars;
+
+    private final HistoricalDataMapper mapper = new HistoricalDataMapperImpl();
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private Map<String, List<Candle>> candlesDominio;
+
+    @Setup
+    public void setup() {
+        Instant inicio = Instant.now().truncatedTo(ChronoUnit.MINUTES).minus(bars, ChronoUnit.MINUTES);
+        candlesDominio = new HashMap<>();
+        for (int s = 0; s < simbolos; s++) {
+            String symbol = "SYM" + s;
+            List<Candle> candles = new ArrayList<>(bars);
+            for (int i = 0; i < bars; i++) {
+                double precio = 100 + s + i * 0.01;
+                candles.add(Candle.builder().symbol(symbol).timeframe(EnumTimeframe.M1)
+                        .timestamp(inicio.plus(i, ChronoUnit.MINUTES))
+                        .open(precio).high(precio + 0.05).low(precio - 0.05).close(precio + 0.01)
+                        .volume(1000.0 + i).build());
+            }
+            candlesDominio.put(symbol, candles);
+        }
+    }
+
+    @Benchmark
+    public String mapearYSerializar() throws JsonProcessingException {
+        Map<String, List<CandleDTORespuesta>> candlesDTO = new HashMap<>();
+        for (Map.Entry<String, List<Candle>> entry : candlesDominio.entrySet()) {
+            candlesDTO.put(entry.getKey(), mapper.deDominioARespuestas(entry.getValue()));
+        }
+        BatchCandlesDTORespuesta respuesta = BatchCandlesDTORespuesta.builder()
+                .candlesPorSimbolo(candlesDTO)
+                .serverTimestamp(Instant.now())
+                .build();
+        return objectMapper.writeValueAsString(respuesta);
+    }
+}
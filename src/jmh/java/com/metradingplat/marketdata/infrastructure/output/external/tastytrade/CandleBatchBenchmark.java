@@ -0,0 +1,81 @@
+package com.metradingplat.marketdata.infrastructure.output.external.tastytrade;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.metradingplat.marketdata.domain.enums.EnumTimeframe;
+import com.metradingplat.marketdata.domain.models.Candle;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Lado servidor de un batch de candles: ordenar/truncar lo recolectado del
+ * snapshot y responder desde la cache en memoria de TastyTradeService.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CandleBatchBenchmark {
+
+    @Param({ "50" })
+    private int bars;
+
+    // Candles tal como las deja el snapshot: orden de llegada (DxLink envia desc)
+    private Map<String, List<Candle>> recolectadas;
+    private List<String> symbols;
+    private TastyTradeService service;
+
+    @Setup
+    public void setup() throws IOException {
+        recolectadas = new HashMap<>();
+        String frame = DxLinkDecodeBenchmark.leer("/payloads/feed-data-candles.json");
+        DxLinkCompactDecoder.decodificar(new ObjectMapper().readTree(frame).get("data"), null,
+                (symbol, candle, completo) -> recolectadas
+                        .computeIfAbsent(symbol, k -> Collections.synchronizedList(new ArrayList<>()))
+                        .add(candle));
+        recolectadas.values().forEach(Collections::reverse);
+        symbols = List.copyOf(recolectadas.keySet());
+
+        // Solo se ejercita el camino de cache: no hace falta DxLink ni REST
+        service = new TastyTradeService(null, null, null, null, null, null, null, new SimpleMeterRegistry());
+    }
+
+    // La cache vence a los 55 s; se recarga en cada iteracion para no caer a DxLink
+    @Setup(Level.Iteration)
+    public void cargarCache() {
+        recolectadas.forEach((symbol, candles) -> service.guardarEnCache(symbol, EnumTimeframe.M1, bars,
+                TastyTradeService.ordenarYTruncar(Map.of(symbol, candles), bars).get(symbol)));
+    }
+
+    @Benchmark
+    public Map<String, List<Candle>> ordenarYTruncar() {
+        return TastyTradeService.ordenarYTruncar(recolectadas, bars);
+    }
+
+    @Benchmark
+    public Map<String, List<Candle>> batchDesdeCache() {
+        return service.getCandlesBatch(symbols, EnumTimeframe.M1, bars);
+    }
+}
@@ -0,0 +1,78 @@
+package com.metradingplat.marketdata.infrastructure.output.external.tastytrade;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Parseo + decodificacion de un frame FEED_DATA tal como llega del websocket de
+ * DxLink (texto JSON en formato COMPACT).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DxLinkDecodeBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // 20 simbolos x 50 candles M1 bajo una sola etiqueta Candle
+    private String frameCandles;
+    // 20 simbolos, un Quote y un Trade por simbolo: etiqueta Quote + 20 registros, Trade + 20
+    private String frameQuotes;
+
+    @Setup
+    public void setup() throws IOException {
+        frameCandles = leer("/payloads/feed-data-candles.json");
+        frameQuotes = leer("/payloads/feed-data-quotes.json");
+    }
+
+    @Benchmark
+    public DxLinkCompactDecoder.Conteo decodificarCandles(Blackhole bh) throws IOException {
+        JsonNode message = objectMapper.readTree(frameCandles);
+        return DxLinkCompactDecoder.decodificar(message.get("data"), null,
+                (symbol, candle, completo) -> bh.consume(candle));
+    }
+
+    @Benchmark
+    public DxLinkCompactDecoder.Conteo decodificarQuotes(Blackhole bh) throws IOException {
+        JsonNode message = objectMapper.readTree(frameQuotes);
+        return DxLinkCompactDecoder.decodificar(message.get("data"),
+                (symbol, dto) -> bh.consume(dto), null);
+    }
+
+    /**
+     * Enrutado en el hilo del socket: solo el inicio del mensaje, debe ser ajeno
+     * al tamano del snapshot.
+     */
+    @Benchmark
+    public int enrutarCandles() {
+        return DxLinkCompactDecoder.canalFeedData(frameCandles);
+    }
+
+    static String leer(String recurso) throws IOException {
+        try (InputStream in = DxLinkDecodeBenchmark.class.getResourceAsStream(recurso)) {
+            if (in == null)
+                throw new IOException("Payload no encontrado: " + recurso);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
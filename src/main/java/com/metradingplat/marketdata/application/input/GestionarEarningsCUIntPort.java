@@ -1,8 +1,20 @@
 package com.metradingplat.marketdata.application.input;
 
+import java.util.List;
+import java.util.Map;
+
 import com.metradingplat.marketdata.domain.models.EarningsReport;
 
 public interface GestionarEarningsCUIntPort {
 
     EarningsReport obtenerProximoEarnings(String symbol);
+
+    Map<String, EarningsReport> obtenerProximosEarnings(List<String> symbols);
+
+    /**
+     * Simbolos con anuncio estimado entre hoy y hoy + dias, entre los ya
+     * consultados (individual o batch). No consulta el universo: un simbolo que
+     * nunca se pidio no aparece aunque reporte en el rango.
+     */
+    List<EarningsReport> obtenerCalendarioEarnings(int dias);
 }
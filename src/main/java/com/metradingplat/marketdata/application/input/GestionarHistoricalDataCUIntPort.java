@@ -8,9 +8,11 @@ import com.metradingplat.marketdata.domain.enums.EnumTimeframe;
 import com.metradingplat.marketdata.domain.models.Candle;
 
 public interface GestionarHistoricalDataCUIntPort {
-    List<Candle> getCandles(String symbol, EnumTimeframe timeframe, OffsetDateTime endDate, Integer bars);
+    List<Candle> getCandles(String symbol, EnumTimeframe timeframe, OffsetDateTime endDate, Integer bars,
+            OffsetDateTime since);
 
-    Map<String, List<Candle>> getCandlesBatch(List<String> symbols, EnumTimeframe timeframe, int bars);
+    Map<String, List<Candle>> getCandlesBatch(List<String> symbols, EnumTimeframe timeframe, int bars,
+            OffsetDateTime since);
 
     Candle getLastCandle(String symbol, EnumTimeframe timeframe);
 
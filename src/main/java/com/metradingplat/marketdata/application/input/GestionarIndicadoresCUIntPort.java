@@ -0,0 +1,24 @@
+package com.metradingplat.marketdata.application.input;
+
+import java.util.List;
+import java.util.Map;
+
+import com.metradingplat.marketdata.domain.enums.EnumTimeframe;
+import com.metradingplat.marketdata.domain.indicadores.IndicadorSpec;
+import com.metradingplat.marketdata.domain.models.Candle;
+import com.metradingplat.marketdata.domain.models.IndicadoresSimbolo;
+
+public interface GestionarIndicadoresCUIntPort {
+
+    /**
+     * Indicadores de varios simbolos con su ultima barra cerrada. Los simbolos
+     * sin datos no aparecen en el mapa.
+     */
+    Map<String, IndicadoresSimbolo> calcularIndicadores(List<String> symbols, EnumTimeframe timeframe,
+            List<IndicadorSpec> indicadores);
+
+    /**
+     * Barra cerrada del stream en vivo.
+     */
+    void onBarraCerrada(Candle barra);
+}
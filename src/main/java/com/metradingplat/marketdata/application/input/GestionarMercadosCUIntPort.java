@@ -4,10 +4,18 @@ import java.util.List;
 
 import com.metradingplat.marketdata.domain.enums.EnumMercado;
 import com.metradingplat.marketdata.domain.models.ActiveEquity;
+import com.metradingplat.marketdata.domain.models.EquitySearchPage;
 
 public interface GestionarMercadosCUIntPort {
 
     List<EnumMercado> listarMercados();
 
     List<ActiveEquity> obtenerSimbolosPorMercados(List<String> markets);
+
+    /**
+     * Autocompletado por prefijo de simbolo o de palabra de la descripcion.
+     *
+     * @param markets codigos de mercado para filtrar; null o vacio para todos
+     */
+    EquitySearchPage buscarSimbolos(String texto, List<String> markets, int offset, int limit);
 }
@@ -1,11 +1,17 @@
 package com.metradingplat.marketdata.application.input;
 
+import java.util.concurrent.CompletableFuture;
+
 import com.metradingplat.marketdata.domain.models.BracketOrder;
 import com.metradingplat.marketdata.domain.models.OrderRequest;
 import com.metradingplat.marketdata.domain.models.OrderResponse;
 
 public interface GestionarOrdersCUIntPort {
-    void placeBracketOrder(OrderRequest request);
+    /**
+     * Envia la orden y publica su resultado; el future completa cuando el
+     * resultado quedo confirmado en orders.updates.
+     */
+    CompletableFuture<Void> placeBracketOrder(OrderRequest request);
 
     OrderResponse placeBracketOrderWithResponse(BracketOrder order);
 
@@ -1,8 +1,13 @@
 package com.metradingplat.marketdata.application.input;
 
+import java.util.List;
+import java.util.Map;
+
 import com.metradingplat.marketdata.domain.models.Quote;
 
 public interface GestionarQuoteCUIntPort {
 
     Quote obtenerQuote(String symbol);
+
+    Map<String, Quote> obtenerQuotes(List<String> symbols);
 }
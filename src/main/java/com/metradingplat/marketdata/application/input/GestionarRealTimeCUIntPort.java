@@ -1,7 +1,13 @@
 package com.metradingplat.marketdata.application.input;
 
+import java.util.List;
+
 public interface GestionarRealTimeCUIntPort {
     void subscribeToSymbol(String symbol);
 
     void unsubscribeFromSymbol(String symbol);
+
+    void subscribeToSymbols(List<String> symbols);
+
+    void unsubscribeFromSymbols(List<String> symbols);
 }
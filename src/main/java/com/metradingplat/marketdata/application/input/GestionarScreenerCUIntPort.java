@@ -0,0 +1,18 @@
+package com.metradingplat.marketdata.application.input;
+
+import java.util.List;
+
+import com.metradingplat.marketdata.domain.enums.EnumTimeframe;
+import com.metradingplat.marketdata.domain.models.ResultadoScreener;
+
+public interface GestionarScreenerCUIntPort {
+
+    /**
+     * Evalua la expresion sobre la ultima barra cerrada de cada simbolo activo de
+     * los mercados pedidos.
+     *
+     * @param markets codigos de EnumMercado (NYSE, NASDAQ, ...); null o vacio para
+     *                todos
+     */
+    ResultadoScreener filtrar(String expresion, List<String> markets, EnumTimeframe timeframe);
+}
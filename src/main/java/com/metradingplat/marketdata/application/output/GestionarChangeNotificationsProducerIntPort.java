@@ -1,10 +1,15 @@
 package com.metradingplat.marketdata.application.output;
 
+import java.util.concurrent.CompletableFuture;
+
+import com.metradingplat.marketdata.infrastructure.output.kafka.DTO.CandleStreamDTO;
 import com.metradingplat.marketdata.infrastructure.output.kafka.DTO.MarketDataStreamDTO;
 import com.metradingplat.marketdata.infrastructure.output.kafka.DTO.OrderUpdateDTO;
 
 public interface GestionarChangeNotificationsProducerIntPort {
-    void publishOrderUpdate(OrderUpdateDTO update);
+    CompletableFuture<Void> publishOrderUpdate(OrderUpdateDTO update);
 
     void publishMarketData(MarketDataStreamDTO data);
+
+    void publishCandle(CandleStreamDTO candle);
 }
@@ -7,11 +7,13 @@ import com.metradingplat.marketdata.domain.enums.EnumTimeframe;
 import com.metradingplat.marketdata.domain.models.ActiveEquity;
 import com.metradingplat.marketdata.domain.models.BracketOrder;
 import com.metradingplat.marketdata.domain.models.Candle;
+import com.metradingplat.marketdata.domain.models.EarningsReport;
 import com.metradingplat.marketdata.domain.models.OrderRequest;
 import com.metradingplat.marketdata.domain.models.OrderResponse;
+import com.metradingplat.marketdata.domain.models.Quote;
 
 public interface GestionarComunicacionExternalGatewayIntPort {
-    void sendOrder(OrderRequest request);
+    OrderResponse sendOrder(OrderRequest request);
 
     OrderResponse sendBracketOrder(BracketOrder order);
 
@@ -21,6 +23,10 @@ public interface GestionarComunicacionExternalGatewayIntPort {
 
     void unsubscribe(String symbol);
 
+    void subscribeAll(List<String> symbols);
+
+    void unsubscribeAll(List<String> symbols);
+
     List<Candle> getCandles(String symbol, EnumTimeframe timeframe);
 
     Map<String, List<Candle>> getCandlesBatch(List<String> symbols, EnumTimeframe timeframe, int bars);
@@ -31,7 +37,18 @@ public interface GestionarComunicacionExternalGatewayIntPort {
 
     List<ActiveEquity> getActiveEquities(int pageOffset, int perPage);
 
-    Map<String, Object> getMarketDataByType(String symbol);
+    Quote getQuote(String symbol);
+
+    /**
+     * Quotes de varios simbolos (en mayusculas); los simbolos sin datos no
+     * aparecen en el mapa.
+     */
+    Map<String, Quote> getQuotes(List<String> symbols);
 
-    List<Map<String, Object>> getEarningsReports(String symbol, String startDate);
+    /**
+     * Historial de earnings; vacio si el simbolo no tiene reportes.
+     *
+     * @throws RuntimeException si la consulta falla
+     */
+    List<EarningsReport> getEarningsReports(String symbol, String startDate);
 }
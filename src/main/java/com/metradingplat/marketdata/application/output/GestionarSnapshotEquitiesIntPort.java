@@ -0,0 +1,15 @@
+package com.metradingplat.marketdata.application.output;
+
+import java.util.Optional;
+
+import com.metradingplat.marketdata.domain.models.EquitySnapshot;
+
+public interface GestionarSnapshotEquitiesIntPort {
+
+    /**
+     * Ultimo snapshot persistido, si existe y se puede leer.
+     */
+    Optional<EquitySnapshot> cargarSnapshot();
+
+    void guardarSnapshot(EquitySnapshot snapshot);
+}
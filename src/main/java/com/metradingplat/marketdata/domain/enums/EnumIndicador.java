@@ -0,0 +1,21 @@
+package com.metradingplat.marketdata.domain.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum EnumIndicador {
+    SMA("Media movil simple del cierre", true),
+    VOLSMA("Media movil simple del volumen", true),
+    EMA("Media movil exponencial del cierre", true),
+    RSI("Relative Strength Index (Wilder)", true),
+    ATR("Average True Range (Wilder)", true),
+    VWAP("Precio medio ponderado por volumen de la sesion", false);
+
+    private final String descripcion;
+    private final boolean conPeriodo;
+
+    EnumIndicador(String descripcion, boolean conPeriodo) {
+        this.descripcion = descripcion;
+        this.conPeriodo = conPeriodo;
+    }
+}
@@ -1,6 +1,8 @@
 package com.metradingplat.marketdata.domain.enums;
 
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -25,6 +27,21 @@ public enum EnumMercado {
         this.micCodes = micCodes;
     }
 
+    /**
+     * Parses user-facing market codes (case-insensitive); unknown codes are ignored.
+     */
+    public static Set<EnumMercado> fromCodes(Collection<String> marketCodes) {
+        Set<EnumMercado> mercados = EnumSet.noneOf(EnumMercado.class);
+        for (String code : marketCodes) {
+            for (EnumMercado mercado : values()) {
+                if (mercado.code.equalsIgnoreCase(code.trim())) {
+                    mercados.add(mercado);
+                }
+            }
+        }
+        return mercados;
+    }
+
     /**
      * Given user-facing market codes (e.g. NYSE, NASDAQ), returns the set of
      * TastyTrade MIC codes (e.g. XNYS, XNAS) to filter by.
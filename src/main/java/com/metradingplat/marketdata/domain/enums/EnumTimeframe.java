@@ -35,4 +35,22 @@ public enum EnumTimeframe {
             case MO1 -> Duration.ofDays(30);
         };
     }
+
+    /**
+     * Resuelve el timeframe a partir de un simbolo de candle DxLink
+     * (ej. {@code AAPL{=5m}}). Devuelve null si no trae periodo reconocible.
+     */
+    public static EnumTimeframe fromDxLinkSymbol(String candleSymbol) {
+        if (candleSymbol == null)
+            return null;
+        int inicio = candleSymbol.indexOf('{');
+        if (inicio < 0)
+            return null;
+        String sufijo = candleSymbol.substring(inicio);
+        for (EnumTimeframe tf : values()) {
+            if (tf.dxLinkFormat.equals(sufijo))
+                return tf;
+        }
+        return null;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.metradingplat.marketdata.domain.indicadores;
+
+import com.metradingplat.marketdata.domain.models.Candle;
+
+/**
+ * Average True Range con el suavizado de Wilder. La primera barra usa
+ * high - low (no hay cierre anterior).
+ */
+public class Atr implements IndicadorIncremental {
+
+    private final int periodo;
+    private Double closeAnterior;
+    private int cantidad;
+    private double atr;
+
+    public Atr(int periodo) {
+        this.periodo = periodo;
+    }
+
+    @Override
+    public void actualizar(Candle barra) {
+        double high = barra.getHigh();
+        double low = barra.getLow();
+        double rango = high - low;
+        if (closeAnterior != null) {
+            rango = Math.max(rango, Math.max(Math.abs(high - closeAnterior), Math.abs(low - closeAnterior)));
+        }
+        cantidad++;
+        if (cantidad <= periodo) {
+            atr += (rango - atr) / cantidad;
+        } else {
+            atr = (atr * (periodo - 1) + rango) / periodo;
+        }
+        closeAnterior = barra.getClose();
+    }
+
+    @Override
+    public Double valor() {
+        return cantidad >= periodo ? atr : null;
+    }
+}
@@ -0,0 +1,36 @@
+package com.metradingplat.marketdata.domain.indicadores;
+
+import com.metradingplat.marketdata.domain.models.Candle;
+
+/**
+ * Media exponencial del cierre (alfa = 2 / (N + 1)), sembrada con la media
+ * simple de los primeros N cierres.
+ */
+public class Ema implements IndicadorIncremental {
+
+    private final int periodo;
+    private final double alfa;
+    private int cantidad;
+    private double ema;
+
+    public Ema(int periodo) {
+        this.periodo = periodo;
+        this.alfa = 2.0 / (periodo + 1);
+    }
+
+    @Override
+    public void actualizar(Candle barra) {
+        double close = barra.getClose();
+        cantidad++;
+        if (cantidad <= periodo) {
+            ema += (close - ema) / cantidad; // media simple acumulada
+        } else {
+            ema += alfa * (close - ema);
+        }
+    }
+
+    @Override
+    public Double valor() {
+        return cantidad >= periodo ? ema : null;
+    }
+}
@@ -0,0 +1,18 @@
+package com.metradingplat.marketdata.domain.indicadores;
+
+import com.metradingplat.marketdata.domain.models.Candle;
+
+/**
+ * Indicador que se actualiza con cada barra cerrada en O(1), sin recorrer la
+ * serie. Las barras llegan en orden ascendente y una sola vez.
+ */
+public interface IndicadorIncremental {
+
+    void actualizar(Candle barra);
+
+    /**
+     * @return el valor con la ultima barra, o null si aun no hay barras
+     *         suficientes
+     */
+    Double valor();
+}
@@ -0,0 +1,54 @@
+package com.metradingplat.marketdata.domain.indicadores;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.metradingplat.marketdata.domain.enums.EnumIndicador;
+
+/**
+ * Indicador con su periodo, en el formato de la API: {@code SMA(50)},
+ * {@code RSI(14)}, {@code VWAP}.
+ */
+public record IndicadorSpec(EnumIndicador tipo, int periodo) {
+
+    private static final Pattern FORMATO = Pattern.compile("\\s*([A-Za-z]+)\\s*(?:\\(\\s*(\\d+)\\s*\\))?\\s*");
+
+    public static IndicadorSpec parse(String texto) {
+        Matcher matcher = texto != null ? FORMATO.matcher(texto) : null;
+        if (matcher == null || !matcher.matches())
+            throw new IllegalArgumentException("Indicador invalido: " + texto);
+
+        EnumIndicador tipo;
+        try {
+            tipo = EnumIndicador.valueOf(matcher.group(1).toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Indicador desconocido: " + matcher.group(1));
+        }
+        if (tipo.isConPeriodo() != (matcher.group(2) != null))
+            throw new IllegalArgumentException(tipo.isConPeriodo()
+                    ? tipo + " requiere periodo, ej. " + tipo + "(14)"
+                    : tipo + " no lleva periodo");
+
+        int periodo = matcher.group(2) != null ? Integer.parseInt(matcher.group(2)) : 0;
+        if (tipo.isConPeriodo() && periodo < 1)
+            throw new IllegalArgumentException("Periodo invalido en " + texto);
+        return new IndicadorSpec(tipo, periodo);
+    }
+
+    public IndicadorIncremental crear() {
+        return switch (tipo) {
+            case SMA -> new Sma(periodo);
+            case VOLSMA -> Sma.deVolumen(periodo);
+            case EMA -> new Ema(periodo);
+            case RSI -> new Rsi(periodo);
+            case ATR -> new Atr(periodo);
+            case VWAP -> new Vwap();
+        };
+    }
+
+    @Override
+    public String toString() {
+        return tipo.isConPeriodo() ? tipo + "(" + periodo + ")" : tipo.name();
+    }
+}
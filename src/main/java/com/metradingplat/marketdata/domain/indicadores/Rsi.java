@@ -0,0 +1,48 @@
+package com.metradingplat.marketdata.domain.indicadores;
+
+import com.metradingplat.marketdata.domain.models.Candle;
+
+/**
+ * RSI con el suavizado de Wilder: las N primeras variaciones se promedian y
+ * luego promedio = (promedio * (N - 1) + variacion) / N.
+ */
+public class Rsi implements IndicadorIncremental {
+
+    private final int periodo;
+    private Double closeAnterior;
+    private int variaciones;
+    private double gananciaMedia;
+    private double perdidaMedia;
+
+    public Rsi(int periodo) {
+        this.periodo = periodo;
+    }
+
+    @Override
+    public void actualizar(Candle barra) {
+        double close = barra.getClose();
+        if (closeAnterior != null) {
+            double cambio = close - closeAnterior;
+            double ganancia = Math.max(cambio, 0);
+            double perdida = Math.max(-cambio, 0);
+            variaciones++;
+            if (variaciones <= periodo) {
+                gananciaMedia += (ganancia - gananciaMedia) / variaciones;
+                perdidaMedia += (perdida - perdidaMedia) / variaciones;
+            } else {
+                gananciaMedia = (gananciaMedia * (periodo - 1) + ganancia) / periodo;
+                perdidaMedia = (perdidaMedia * (periodo - 1) + perdida) / periodo;
+            }
+        }
+        closeAnterior = close;
+    }
+
+    @Override
+    public Double valor() {
+        if (variaciones < periodo)
+            return null;
+        if (perdidaMedia == 0)
+            return gananciaMedia == 0 ? 50.0 : 100.0;
+        return 100 - 100 / (1 + gananciaMedia / perdidaMedia);
+    }
+}
@@ -0,0 +1,173 @@
+package com.metradingplat.marketdata.domain.indicadores;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.metradingplat.marketdata.domain.enums.EnumTimeframe;
+import com.metradingplat.marketdata.domain.models.Candle;
+import com.metradingplat.marketdata.domain.models.IndicadoresSimbolo;
+
+/**
+ * Estado de los indicadores de un simbolo/timeframe. Cada barra cerrada se
+ * aplica una sola vez, en orden, a todos los indicadores.
+ */
+public class SerieIndicadores {
+
+    // D1/W1/MO1: con la barra esperada aun sin llegar (feriado) se vuelve a mirar la cache cada hora
+    private static final long REVISION_SIN_SESION_MS = Duration.ofHours(1).toMillis();
+
+    private final String symbol;
+    private final EnumTimeframe timeframe;
+    private final Map<IndicadorSpec, IndicadorIncremental> indicadores = new LinkedHashMap<>();
+    private final long duracionMs;
+    private final boolean intradia;
+
+    private long ultimaBarra = Long.MIN_VALUE;
+    private Candle ultimaVela;
+    private long revisadaEn;
+
+    // Ultima consulta de cada indicador (epoch ms), para soltar los que ya nadie pide
+    private final Map<IndicadorSpec, Long> ultimoUso = new HashMap<>();
+
+    public SerieIndicadores(String symbol, EnumTimeframe timeframe, Collection<IndicadorSpec> specs) {
+        this.symbol = symbol;
+        this.timeframe = timeframe;
+        this.duracionMs = timeframe.getDuration().toMillis();
+        // D1/W1/MO1 dependen del calendario de sesiones
+        this.intradia = timeframe.getDuration().compareTo(Duration.ofDays(1)) < 0;
+        for (IndicadorSpec spec : specs) {
+            indicadores.put(spec, spec.crear());
+        }
+    }
+
+    /**
+     * Barra de la serie historica: se aplica si es posterior a la ultima.
+     */
+    public synchronized boolean aplicar(Candle barra) {
+        long ts = barra.getTimestamp().toEpochMilli();
+        if (ts <= ultimaBarra || barra.getHigh() == null || barra.getLow() == null || barra.getClose() == null)
+            return false;
+        for (IndicadorIncremental indicador : indicadores.values()) {
+            indicador.actualizar(barra);
+        }
+        ultimaBarra = ts;
+        ultimaVela = barra;
+        return true;
+    }
+
+    /**
+     * Barra cerrada del stream. En intradia solo se aplica si sigue a la ultima:
+     * tras un hueco (apertura, simbolo sin trades, serie sembrada con datos
+     * viejos) la serie queda desactualizada y se completa desde la cache de
+     * candles en la siguiente consulta.
+     */
+    public synchronized boolean aplicarEnVivo(Candle barra) {
+        if (intradia && barra.getTimestamp().toEpochMilli() - ultimaBarra != duracionMs)
+            return false;
+        return aplicar(barra);
+    }
+
+    public synchronized long getUltimaBarra() {
+        return ultimaBarra;
+    }
+
+    /**
+     * La serie esta al dia si su ultima barra es la ultima que pudo cerrar: la
+     * siguiente aun esta en formacion o dentro del margen de cierre. En D1 la
+     * siguiente es la de la proxima sesion (sin fines de semana); si no llega
+     * (feriado) la serie se da por al dia hasta una hora despues de la ultima
+     * revision contra la cache de candles.
+     */
+    public synchronized boolean alDia(long ahoraMs, long margenCierreMs) {
+        if (ultimaBarra == Long.MIN_VALUE)
+            return false;
+        if (ahoraMs < siguienteBarra() + duracionMs + margenCierreMs)
+            return true;
+        return !intradia && ahoraMs - revisadaEn < REVISION_SIN_SESION_MS;
+    }
+
+    /**
+     * La cache de candles se consulto en ahoraMs y la serie quedo con lo ultimo
+     * que habia.
+     */
+    public synchronized void marcarRevisada(long ahoraMs) {
+        revisadaEn = ahoraMs;
+    }
+
+    private long siguienteBarra() {
+        long siguiente = ultimaBarra + duracionMs;
+        if (timeframe == EnumTimeframe.D1) {
+            DayOfWeek dia = Instant.ofEpochMilli(siguiente).atZone(ZoneOffset.UTC).getDayOfWeek();
+            if (dia == DayOfWeek.SATURDAY)
+                siguiente += 2 * duracionMs;
+            else if (dia == DayOfWeek.SUNDAY)
+                siguiente += duracionMs;
+        }
+        return siguiente;
+    }
+
+    public Set<IndicadorSpec> specs() {
+        return indicadores.keySet();
+    }
+
+    public synchronized void marcarUso(Collection<IndicadorSpec> specs, long ahoraMs) {
+        for (IndicadorSpec spec : specs) {
+            ultimoUso.put(spec, ahoraMs);
+        }
+    }
+
+    /**
+     * Ultima consulta de cualquiera de sus indicadores, o Long.MIN_VALUE si nunca
+     * se consulto.
+     */
+    public synchronized long getUltimoUso() {
+        long ultimo = Long.MIN_VALUE;
+        for (long uso : ultimoUso.values()) {
+            ultimo = Math.max(ultimo, uso);
+        }
+        return ultimo;
+    }
+
+    /**
+     * Indicadores consultados desde desdeMs, con su ultima consulta.
+     */
+    public synchronized Map<IndicadorSpec, Long> usosDesde(long desdeMs) {
+        Map<IndicadorSpec, Long> usos = new LinkedHashMap<>();
+        ultimoUso.forEach((spec, uso) -> {
+            if (uso >= desdeMs)
+                usos.put(spec, uso);
+        });
+        return usos;
+    }
+
+    public boolean cubre(Collection<IndicadorSpec> specs) {
+        return indicadores.keySet().containsAll(specs);
+    }
+
+    /**
+     * @return los valores pedidos con la ultima barra, o null si la serie no
+     *         tiene barras
+     */
+    public synchronized IndicadoresSimbolo valores(Collection<IndicadorSpec> specs) {
+        if (ultimaVela == null)
+            return null;
+        Map<String, Double> valores = new LinkedHashMap<>();
+        for (IndicadorSpec spec : specs) {
+            valores.put(spec.toString(), indicadores.get(spec).valor());
+        }
+        return IndicadoresSimbolo.builder()
+                .symbol(symbol)
+                .timeframe(timeframe)
+                .timestamp(Instant.ofEpochMilli(ultimaBarra))
+                .barra(ultimaVela)
+                .valores(valores)
+                .build();
+    }
+}
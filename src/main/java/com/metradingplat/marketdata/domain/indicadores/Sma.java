@@ -0,0 +1,46 @@
+package com.metradingplat.marketdata.domain.indicadores;
+
+import java.util.function.ToDoubleFunction;
+
+import com.metradingplat.marketdata.domain.models.Candle;
+
+/**
+ * Media simple de los ultimos N cierres (o volumenes): buffer circular y suma
+ * acumulada.
+ */
+public class Sma implements IndicadorIncremental {
+
+    private final ToDoubleFunction<Candle> campo;
+    private final double[] ventana;
+    private int siguiente;
+    private int cantidad;
+    private double suma;
+
+    public Sma(int periodo) {
+        this(periodo, Candle::getClose);
+    }
+
+    private Sma(int periodo, ToDoubleFunction<Candle> campo) {
+        this.campo = campo;
+        this.ventana = new double[periodo];
+    }
+
+    public static Sma deVolumen(int periodo) {
+        return new Sma(periodo, barra -> barra.getVolume() != null ? barra.getVolume() : 0);
+    }
+
+    @Override
+    public void actualizar(Candle barra) {
+        double valor = campo.applyAsDouble(barra);
+        suma += valor - ventana[siguiente];
+        ventana[siguiente] = valor;
+        siguiente = (siguiente + 1) % ventana.length;
+        if (cantidad < ventana.length)
+            cantidad++;
+    }
+
+    @Override
+    public Double valor() {
+        return cantidad == ventana.length ? suma / ventana.length : null;
+    }
+}
@@ -0,0 +1,39 @@
+package com.metradingplat.marketdata.domain.indicadores;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+import com.metradingplat.marketdata.domain.models.Candle;
+
+/**
+ * VWAP de la sesion con el precio tipico (high + low + close) / 3. Se reinicia
+ * al cambiar el dia de la sesion (hora de Nueva York); en D1 o mayor cada
+ * barra es su propia sesion.
+ */
+public class Vwap implements IndicadorIncremental {
+
+    private static final ZoneId SESION = ZoneId.of("America/New_York");
+
+    private LocalDate dia;
+    private double precioPorVolumen;
+    private double volumen;
+
+    @Override
+    public void actualizar(Candle barra) {
+        LocalDate diaBarra = LocalDate.ofInstant(barra.getTimestamp(), SESION);
+        if (!diaBarra.equals(dia)) {
+            dia = diaBarra;
+            precioPorVolumen = 0;
+            volumen = 0;
+        }
+        double volumenBarra = barra.getVolume() != null ? barra.getVolume() : 0;
+        double tipico = (barra.getHigh() + barra.getLow() + barra.getClose()) / 3;
+        precioPorVolumen += tipico * volumenBarra;
+        volumen += volumenBarra;
+    }
+
+    @Override
+    public Double valor() {
+        return volumen > 0 ? precioPorVolumen / volumen : null;
+    }
+}
@@ -15,5 +15,6 @@ public class EarningsReport {
     private String symbol;
     private LocalDate occurredDate;
     private Double eps;
+    private LocalDate estimatedEarningsDate;
     private Long daysUntilEarnings;
 }
@@ -0,0 +1,22 @@
+package com.metradingplat.marketdata.domain.models;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Pagina de resultados de la busqueda de simbolos.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class EquitySearchPage {
+    private List<ActiveEquity> items;
+    private int total;
+    private int offset;
+    private int limit;
+}
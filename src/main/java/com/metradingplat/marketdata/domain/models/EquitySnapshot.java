@@ -0,0 +1,21 @@
+package com.metradingplat.marketdata.domain.models;
+
+import java.time.Instant;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Universo de equities activas tal como se descargo de TastyTrade.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class EquitySnapshot {
+    private List<ActiveEquity> equities;
+    private Instant loadedAt;
+}
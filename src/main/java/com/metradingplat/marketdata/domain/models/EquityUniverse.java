@@ -0,0 +1,253 @@
+package com.metradingplat.marketdata.domain.models;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.metradingplat.marketdata.domain.enums.EnumMercado;
+
+/**
+ * Universo de equities indexado para filtrar por mercado y buscar por prefijo.
+ *
+ * Se construye una vez por snapshot y es inmutable:
+ * - por mercado: lista precalculada (y una mascara de bits sobre el arreglo de
+ * equities para combinarla con la busqueda);
+ * - por simbolo: arreglo ordenado de simbolos en mayusculas;
+ * - por descripcion: arreglo ordenado de palabras de la descripcion.
+ * Un prefijo se resuelve con busqueda binaria sobre el arreglo ordenado y un
+ * recorrido del rango contiguo que lo comparte. Los repetidos se descartan
+ * mirando el simbolo y las palabras de la propia equity, sin estado por busqueda.
+ */
+public final class EquityUniverse {
+
+    private static final int LARGO_MINIMO_PALABRA = 2;
+
+    private final EquitySnapshot snapshot;
+    private final ActiveEquity[] equities;
+
+    private final Map<EnumMercado, List<ActiveEquity>> porMercado = new EnumMap<>(EnumMercado.class);
+    private final Map<EnumMercado, BitSet> mascaraPorMercado = new EnumMap<>(EnumMercado.class);
+    // Combinaciones de mercados ya pedidas (como maximo 2^n)
+    private final Map<Set<EnumMercado>, List<ActiveEquity>> porCombinacion = new ConcurrentHashMap<>();
+    private final Map<Set<EnumMercado>, BitSet> mascaraPorCombinacion = new ConcurrentHashMap<>();
+
+    private final String[] simbolos;
+    private final int[] equityPorSimbolo;
+    private final String[] palabras;
+    private final int[] equityPorPalabra;
+    // Por indice de equity: simbolo en mayusculas y palabras distintas de la descripcion
+    private final String[] simboloPorEquity;
+    private final String[][] palabrasPorEquity;
+
+    private EquityUniverse(EquitySnapshot snapshot) {
+        this.snapshot = snapshot;
+        this.equities = snapshot.getEquities().toArray(new ActiveEquity[0]);
+
+        // --- Mercados ---
+        Map<String, EnumMercado> mercadoPorMic = new HashMap<>();
+        for (EnumMercado mercado : EnumMercado.values()) {
+            for (String mic : mercado.getMicCodes()) {
+                mercadoPorMic.put(mic, mercado);
+            }
+        }
+        Map<EnumMercado, List<ActiveEquity>> listas = new EnumMap<>(EnumMercado.class);
+        for (EnumMercado mercado : EnumMercado.values()) {
+            listas.put(mercado, new ArrayList<>());
+            mascaraPorMercado.put(mercado, new BitSet(equities.length));
+        }
+        for (int i = 0; i < equities.length; i++) {
+            String mic = equities[i].getListedMarket();
+            EnumMercado mercado = mic != null ? mercadoPorMic.get(mic.toUpperCase()) : null;
+            if (mercado != null) {
+                listas.get(mercado).add(equities[i]);
+                mascaraPorMercado.get(mercado).set(i);
+            }
+        }
+        listas.forEach((mercado, lista) -> porMercado.put(mercado, Collections.unmodifiableList(lista)));
+
+        // --- Simbolos ---
+        this.simboloPorEquity = new String[equities.length];
+        Entrada[] entradasSimbolo = new Entrada[equities.length];
+        for (int i = 0; i < equities.length; i++) {
+            String symbol = equities[i].getSymbol();
+            simboloPorEquity[i] = symbol != null ? symbol.toUpperCase() : "";
+            entradasSimbolo[i] = new Entrada(simboloPorEquity[i], i);
+        }
+        Arrays.sort(entradasSimbolo);
+        this.simbolos = new String[entradasSimbolo.length];
+        this.equityPorSimbolo = new int[entradasSimbolo.length];
+        for (int i = 0; i < entradasSimbolo.length; i++) {
+            simbolos[i] = entradasSimbolo[i].clave();
+            equityPorSimbolo[i] = entradasSimbolo[i].equity();
+        }
+
+        // --- Palabras de la descripcion ---
+        this.palabrasPorEquity = new String[equities.length][];
+        List<Entrada> entradasPalabra = new ArrayList<>();
+        for (int i = 0; i < equities.length; i++) {
+            String description = equities[i].getDescription();
+            Set<String> distintas = new LinkedHashSet<>();
+            if (description != null) {
+                for (String palabra : description.toUpperCase().split("[^\\p{Alnum}]+")) {
+                    if (palabra.length() >= LARGO_MINIMO_PALABRA) {
+                        distintas.add(palabra);
+                    }
+                }
+            }
+            palabrasPorEquity[i] = distintas.toArray(new String[0]);
+            for (String palabra : palabrasPorEquity[i]) {
+                entradasPalabra.add(new Entrada(palabra, i));
+            }
+        }
+        Entrada[] ordenadas = entradasPalabra.toArray(new Entrada[0]);
+        Arrays.sort(ordenadas);
+        this.palabras = new String[ordenadas.length];
+        this.equityPorPalabra = new int[ordenadas.length];
+        for (int i = 0; i < ordenadas.length; i++) {
+            palabras[i] = ordenadas[i].clave();
+            equityPorPalabra[i] = ordenadas[i].equity();
+        }
+    }
+
+    public static EquityUniverse de(EquitySnapshot snapshot) {
+        return new EquityUniverse(snapshot);
+    }
+
+    public EquitySnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public List<ActiveEquity> getEquities() {
+        return snapshot.getEquities();
+    }
+
+    public int size() {
+        return equities.length;
+    }
+
+    /**
+     * Equities listadas en alguno de los mercados. Cada combinacion se arma una
+     * sola vez por snapshot; las siguientes consultas no asignan memoria.
+     */
+    public List<ActiveEquity> porMercados(Set<EnumMercado> mercados) {
+        if (mercados.size() == 1) {
+            return porMercado.get(mercados.iterator().next());
+        }
+        List<ActiveEquity> cacheada = porCombinacion.get(mercados);
+        if (cacheada != null)
+            return cacheada;
+        return porCombinacion.computeIfAbsent(EnumSet.copyOf(mercados), combinacion -> {
+            List<ActiveEquity> lista = new ArrayList<>();
+            for (EnumMercado mercado : combinacion) {
+                lista.addAll(porMercado.get(mercado));
+            }
+            return Collections.unmodifiableList(lista);
+        });
+    }
+
+    /**
+     * Busca por prefijo de simbolo y luego por prefijo de cualquier palabra de la
+     * descripcion (sin repetir equities). Los resultados por simbolo van primero y
+     * en orden alfabetico, por lo que una coincidencia exacta encabeza la lista.
+     *
+     * @param mercados vacio para no filtrar
+     */
+    public EquitySearchPage buscar(String texto, Set<EnumMercado> mercados, int offset, int limit) {
+        String prefijo = texto.trim().toUpperCase();
+        BitSet permitidos = mercados.isEmpty() ? null : mascara(mercados);
+        List<ActiveEquity> items = new ArrayList<>(Math.min(limit, 64));
+        int total = 0;
+
+        for (int i = primeroConPrefijo(simbolos, prefijo); i < simbolos.length
+                && simbolos[i].startsWith(prefijo); i++) {
+            total = agregar(equityPorSimbolo[i], permitidos, items, total, offset, limit);
+        }
+        for (int i = primeroConPrefijo(palabras, prefijo); i < palabras.length
+                && palabras[i].startsWith(prefijo); i++) {
+            if (!repetida(equityPorPalabra[i], palabras[i], prefijo)) {
+                total = agregar(equityPorPalabra[i], permitidos, items, total, offset, limit);
+            }
+        }
+
+        return EquitySearchPage.builder()
+                .items(items)
+                .total(total)
+                .offset(offset)
+                .limit(limit)
+                .build();
+    }
+
+    private int agregar(int equity, BitSet permitidos, List<ActiveEquity> items, int total, int offset,
+            int limit) {
+        if (permitidos != null && !permitidos.get(equity))
+            return total;
+        if (total >= offset && items.size() < limit) {
+            items.add(equities[equity]);
+        }
+        return total + 1;
+    }
+
+    /**
+     * La equity ya se conto: por su simbolo o por otra palabra suya con el
+     * prefijo, que va antes en el arreglo ordenado.
+     */
+    private boolean repetida(int equity, String palabra, String prefijo) {
+        if (simboloPorEquity[equity].startsWith(prefijo))
+            return true;
+        for (String otra : palabrasPorEquity[equity]) {
+            if (otra.startsWith(prefijo) && otra.compareTo(palabra) < 0)
+                return true;
+        }
+        return false;
+    }
+
+    private BitSet mascara(Set<EnumMercado> mercados) {
+        if (mercados.size() == 1) {
+            return mascaraPorMercado.get(mercados.iterator().next());
+        }
+        BitSet cacheada = mascaraPorCombinacion.get(mercados);
+        if (cacheada != null)
+            return cacheada;
+        return mascaraPorCombinacion.computeIfAbsent(EnumSet.copyOf(mercados), combinacion -> {
+            BitSet combinada = new BitSet(equities.length);
+            for (EnumMercado mercado : combinacion) {
+                combinada.or(mascaraPorMercado.get(mercado));
+            }
+            return combinada;
+        });
+    }
+
+    /**
+     * Primer indice cuyo valor es >= prefijo (lower bound).
+     */
+    private static int primeroConPrefijo(String[] ordenado, String prefijo) {
+        int lo = 0;
+        int hi = ordenado.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (ordenado[mid].compareTo(prefijo) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private record Entrada(String clave, int equity) implements Comparable<Entrada> {
+        @Override
+        public int compareTo(Entrada otra) {
+            int cmp = clave.compareTo(otra.clave);
+            return cmp != 0 ? cmp : Integer.compare(equity, otra.equity);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.metradingplat.marketdata.domain.models;
+
+import java.time.Instant;
+import java.util.Map;
+
+import com.metradingplat.marketdata.domain.enums.EnumTimeframe;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Valores de indicadores de un simbolo con su ultima barra cerrada.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class IndicadoresSimbolo {
+    private String symbol;
+    private EnumTimeframe timeframe;
+    private Instant timestamp; // Apertura de la ultima barra cerrada aplicada
+    private Candle barra;
+    private Map<String, Double> valores; // SMA(50) -> valor (null si faltan barras)
+}
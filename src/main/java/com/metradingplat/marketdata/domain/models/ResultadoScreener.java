@@ -0,0 +1,25 @@
+package com.metradingplat.marketdata.domain.models;
+
+import java.util.List;
+
+import com.metradingplat.marketdata.domain.enums.EnumTimeframe;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Simbolos del universo que cumplen una expresion de screening.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ResultadoScreener {
+    private String expresion;
+    private EnumTimeframe timeframe;
+    private List<String> symbols; // Orden alfabetico
+    private int universo; // Simbolos de los mercados pedidos
+    private int evaluados; // Simbolos con barra e indicadores
+}
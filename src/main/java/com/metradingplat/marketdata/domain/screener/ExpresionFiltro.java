@@ -0,0 +1,390 @@
+package com.metradingplat.marketdata.domain.screener;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.metradingplat.marketdata.domain.enums.EnumIndicador;
+import com.metradingplat.marketdata.domain.indicadores.IndicadorSpec;
+import com.metradingplat.marketdata.domain.models.Candle;
+import com.metradingplat.marketdata.domain.models.IndicadoresSimbolo;
+
+/**
+ * Predicado de screening compilado, ej.
+ * {@code close > SMA(50) and volume > 2 * VOLSMA(20)}.
+ *
+ * Gramatica (palabras clave sin distinguir mayusculas):
+ *
+ * <pre>
+ * o          := y (OR y)*
+ * y          := no (AND no)*
+ * no         := NOT no | comparacion
+ * comparacion:= suma ((&gt; | &gt;= | &lt; | &lt;= | == | !=) suma)?
+ * suma       := producto ((+ | -) producto)*
+ * producto   := unario ((* | /) unario)*
+ * unario     := - unario | primario
+ * primario   := numero | open | high | low | close | volume
+ *             | INDICADOR(n) | VWAP | ( o )
+ * </pre>
+ *
+ * Se compila una vez a un arbol que evalua sobre un double[] por simbolo (los
+ * campos de la barra y luego un hueco por indicador). Los indicadores se leen
+ * del mapa de {@link IndicadoresSimbolo} una vez por simbolo, con las claves ya
+ * calculadas al compilar; el arbol no vuelve a tocar el mapa.
+ */
+public class ExpresionFiltro {
+
+    private static final List<String> CAMPOS = List.of("open", "high", "low", "close", "volume");
+
+    private final String texto;
+    private final Nodo raiz;
+    // Indicador -> posicion en el vector de valores (tras los campos de la barra)
+    private final Map<IndicadorSpec, Integer> huecos;
+    // Clave de cada indicador en IndicadoresSimbolo, en el orden de sus huecos
+    private final String[] claves;
+
+    private ExpresionFiltro(String texto, Nodo raiz, Map<IndicadorSpec, Integer> huecos) {
+        this.texto = texto;
+        this.raiz = raiz;
+        this.huecos = huecos;
+        this.claves = huecos.keySet().stream().map(IndicadorSpec::toString).toArray(String[]::new);
+    }
+
+    /**
+     * @throws IllegalArgumentException si la expresion no es valida
+     */
+    public static ExpresionFiltro compilar(String texto) {
+        if (texto == null || texto.isBlank())
+            throw new IllegalArgumentException("Expresion vacia");
+        Parser parser = new Parser(texto);
+        Nodo raiz = parser.o();
+        parser.esperarFin();
+        if (!raiz.booleano())
+            throw new IllegalArgumentException("La expresion debe ser una condicion: " + texto);
+        return new ExpresionFiltro(texto.trim(), raiz, parser.huecos);
+    }
+
+    public List<IndicadorSpec> indicadores() {
+        return List.copyOf(huecos.keySet());
+    }
+
+    /**
+     * @return false si falta la barra o algun indicador aun no tiene valor
+     */
+    public boolean evaluar(IndicadoresSimbolo datos) {
+        Candle barra = datos.getBarra();
+        if (barra == null)
+            return false;
+        double[] valores = new double[CAMPOS.size() + claves.length];
+        valores[0] = primitivo(barra.getOpen());
+        valores[1] = primitivo(barra.getHigh());
+        valores[2] = primitivo(barra.getLow());
+        valores[3] = primitivo(barra.getClose());
+        valores[4] = primitivo(barra.getVolume());
+        Map<String, Double> indicadores = datos.getValores();
+        for (int i = 0; i < claves.length; i++) {
+            valores[CAMPOS.size() + i] = primitivo(indicadores.get(claves[i]));
+        }
+        for (double valor : valores) {
+            if (Double.isNaN(valor))
+                return false;
+        }
+        return raiz.evaluar(valores) != 0;
+    }
+
+    private static double primitivo(Double valor) {
+        return valor != null ? valor : Double.NaN;
+    }
+
+    @Override
+    public String toString() {
+        return texto;
+    }
+
+    // --- Arbol ---
+
+    private interface Nodo {
+        double evaluar(double[] valores);
+
+        boolean booleano();
+    }
+
+    private record Constante(double valor) implements Nodo {
+        public double evaluar(double[] valores) {
+            return valor;
+        }
+
+        public boolean booleano() {
+            return false;
+        }
+    }
+
+    private record Variable(int hueco) implements Nodo {
+        public double evaluar(double[] valores) {
+            return valores[hueco];
+        }
+
+        public boolean booleano() {
+            return false;
+        }
+    }
+
+    private record Negativo(Nodo valor) implements Nodo {
+        public double evaluar(double[] valores) {
+            return -valor.evaluar(valores);
+        }
+
+        public boolean booleano() {
+            return false;
+        }
+    }
+
+    private record Aritmetica(char op, Nodo izq, Nodo der) implements Nodo {
+        public double evaluar(double[] valores) {
+            double a = izq.evaluar(valores);
+            double b = der.evaluar(valores);
+            return switch (op) {
+                case '+' -> a + b;
+                case '-' -> a - b;
+                case '*' -> a * b;
+                default -> a / b;
+            };
+        }
+
+        public boolean booleano() {
+            return false;
+        }
+    }
+
+    private record Comparacion(String op, Nodo izq, Nodo der) implements Nodo {
+        public double evaluar(double[] valores) {
+            double a = izq.evaluar(valores);
+            double b = der.evaluar(valores);
+            boolean resultado = switch (op) {
+                case ">" -> a > b;
+                case ">=" -> a >= b;
+                case "<" -> a < b;
+                case "<=" -> a <= b;
+                case "==" -> a == b;
+                default -> a != b;
+            };
+            return resultado ? 1 : 0;
+        }
+
+        public boolean booleano() {
+            return true;
+        }
+    }
+
+    private record Logica(boolean y, Nodo izq, Nodo der) implements Nodo {
+        public double evaluar(double[] valores) {
+            boolean a = izq.evaluar(valores) != 0;
+            boolean resultado = y ? a && der.evaluar(valores) != 0 : a || der.evaluar(valores) != 0;
+            return resultado ? 1 : 0;
+        }
+
+        public boolean booleano() {
+            return true;
+        }
+    }
+
+    private record Negacion(Nodo valor) implements Nodo {
+        public double evaluar(double[] valores) {
+            return valor.evaluar(valores) != 0 ? 0 : 1;
+        }
+
+        public boolean booleano() {
+            return true;
+        }
+    }
+
+    // --- Parser descendente recursivo ---
+
+    private static final class Parser {
+        private final String texto;
+        private final List<String> tokens = new ArrayList<>();
+        private int posicion;
+        private final Map<IndicadorSpec, Integer> huecos = new LinkedHashMap<>();
+
+        private Parser(String texto) {
+            this.texto = texto;
+            tokenizar();
+        }
+
+        private void tokenizar() {
+            int i = 0;
+            while (i < texto.length()) {
+                char c = texto.charAt(i);
+                if (Character.isWhitespace(c)) {
+                    i++;
+                } else if (Character.isDigit(c) || c == '.') {
+                    int inicio = i;
+                    while (i < texto.length() && (Character.isDigit(texto.charAt(i)) || texto.charAt(i) == '.'))
+                        i++;
+                    tokens.add(texto.substring(inicio, i));
+                } else if (Character.isLetter(c)) {
+                    int inicio = i;
+                    while (i < texto.length() && (Character.isLetterOrDigit(texto.charAt(i)) || texto.charAt(i) == '_'))
+                        i++;
+                    tokens.add(texto.substring(inicio, i));
+                } else if (i + 1 < texto.length() && List.of(">=", "<=", "==", "!=", "&&", "||")
+                        .contains(texto.substring(i, i + 2))) {
+                    tokens.add(texto.substring(i, i + 2));
+                    i += 2;
+                } else if ("<>!+-*/()".indexOf(c) >= 0) {
+                    tokens.add(String.valueOf(c));
+                    i++;
+                } else {
+                    throw new IllegalArgumentException("Caracter inesperado '" + c + "' en la posicion " + i);
+                }
+            }
+        }
+
+        private String actual() {
+            return posicion < tokens.size() ? tokens.get(posicion) : null;
+        }
+
+        private boolean consumir(String... opciones) {
+            String token = actual();
+            for (String opcion : opciones) {
+                if (opcion.equalsIgnoreCase(token)) {
+                    posicion++;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void esperar(String token) {
+            if (!consumir(token))
+                throw new IllegalArgumentException("Se esperaba '" + token + "'" + cerca());
+        }
+
+        private void esperarFin() {
+            if (actual() != null)
+                throw new IllegalArgumentException("Sobra '" + actual() + "'" + cerca());
+        }
+
+        private String cerca() {
+            return actual() != null ? " cerca de '" + actual() + "'" : " al final";
+        }
+
+        private Nodo o() {
+            Nodo izq = y();
+            while (consumir("or", "||")) {
+                izq = new Logica(false, condicion(izq), condicion(y()));
+            }
+            return izq;
+        }
+
+        private Nodo y() {
+            Nodo izq = no();
+            while (consumir("and", "&&")) {
+                izq = new Logica(true, condicion(izq), condicion(no()));
+            }
+            return izq;
+        }
+
+        private Nodo no() {
+            if (consumir("not", "!"))
+                return new Negacion(condicion(no()));
+            return comparacion();
+        }
+
+        private Nodo comparacion() {
+            Nodo izq = suma();
+            String op = actual();
+            if (consumir(">", ">=", "<", "<=", "==", "!=")) {
+                return new Comparacion(op, numero(izq), numero(suma()));
+            }
+            return izq;
+        }
+
+        private Nodo suma() {
+            Nodo izq = producto();
+            while (true) {
+                String op = actual();
+                if (!consumir("+", "-"))
+                    return izq;
+                izq = new Aritmetica(op.charAt(0), numero(izq), numero(producto()));
+            }
+        }
+
+        private Nodo producto() {
+            Nodo izq = unario();
+            while (true) {
+                String op = actual();
+                if (!consumir("*", "/"))
+                    return izq;
+                izq = new Aritmetica(op.charAt(0), numero(izq), numero(unario()));
+            }
+        }
+
+        private Nodo unario() {
+            if (consumir("-"))
+                return new Negativo(numero(unario()));
+            return primario();
+        }
+
+        private Nodo primario() {
+            String token = actual();
+            if (token == null)
+                throw new IllegalArgumentException("Expresion incompleta");
+            if (consumir("(")) {
+                Nodo interior = o();
+                esperar(")");
+                return interior;
+            }
+            if (Character.isDigit(token.charAt(0)) || token.charAt(0) == '.') {
+                posicion++;
+                try {
+                    return new Constante(Double.parseDouble(token));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Numero invalido: " + token);
+                }
+            }
+            int campo = CAMPOS.indexOf(token.toLowerCase(Locale.ROOT));
+            if (campo >= 0) {
+                posicion++;
+                return new Variable(campo);
+            }
+            return indicador(token);
+        }
+
+        private Nodo indicador(String token) {
+            EnumIndicador tipo;
+            try {
+                tipo = EnumIndicador.valueOf(token.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Campo o indicador desconocido: " + token);
+            }
+            posicion++;
+            int periodo = 0;
+            if (tipo.isConPeriodo()) {
+                esperar("(");
+                String valor = actual();
+                if (valor == null || !valor.chars().allMatch(Character::isDigit) || Integer.parseInt(valor) < 1)
+                    throw new IllegalArgumentException(tipo + " requiere un periodo entero" + cerca());
+                periodo = Integer.parseInt(valor);
+                posicion++;
+                esperar(")");
+            }
+            IndicadorSpec spec = new IndicadorSpec(tipo, periodo);
+            return new Variable(huecos.computeIfAbsent(spec, s -> CAMPOS.size() + huecos.size()));
+        }
+
+        private Nodo condicion(Nodo nodo) {
+            if (!nodo.booleano())
+                throw new IllegalArgumentException("Se esperaba una condicion" + cerca());
+            return nodo;
+        }
+
+        private Nodo numero(Nodo nodo) {
+            if (nodo.booleano())
+                throw new IllegalArgumentException("Se esperaba un valor numerico" + cerca());
+            return nodo;
+        }
+    }
+}
@@ -1,20 +1,40 @@
 package com.metradingplat.marketdata.domain.usecases;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 
 import com.metradingplat.marketdata.application.input.GestionarEarningsCUIntPort;
 import com.metradingplat.marketdata.application.output.GestionarComunicacionExternalGatewayIntPort;
 import com.metradingplat.marketdata.domain.models.EarningsReport;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-@RequiredArgsConstructor
+/**
+ * Proximos earnings por simbolo.
+ *
+ * El historial de TastyTrade cambia pocas veces por trimestre, asi que el
+ * resultado de cada simbolo se guarda en memoria y se vuelve a pedir al cambiar
+ * el dia. Los simbolos sin reportes (ETFs, fondos) tambien se guardan, con un
+ * TTL propio, para no consultarlos en cada peticion. Las fechas de anuncio
+ * estimadas se indexan por fecha para responder "quien reporta en los proximos
+ * N dias" sin llamadas externas; el indice solo cubre simbolos ya consultados.
+ */
 @Slf4j
 public class GestionarEarningsCUAdapter implements GestionarEarningsCUIntPort {
 
@@ -22,74 +42,210 @@ public class GestionarEarningsCUAdapter implements GestionarEarningsCUIntPort {
 
     private final GestionarComunicacionExternalGatewayIntPort objExternalGateway;
 
+    // Limita las llamadas simultaneas a TastyTrade de todas las peticiones batch
+    private final Semaphore llamadasPermitidas;
+
+    // TTL de los simbolos sin reportes (un fallo del gateway no se cachea)
+    private final Duration ttlSinReportes;
+
+    /**
+     * Datos que no dependen del dia de consulta; daysUntilEarnings se calcula al
+     * leer. Con venceEn == null la entrada vale hasta que cambia el dia.
+     */
+    private record EarningsCacheado(LocalDate lastReportedDate, Double eps, LocalDate proximoAnuncio,
+            LocalDate cargadoEl, Instant venceEn) {
+
+        boolean vigente(LocalDate today, Instant ahora) {
+            return venceEn == null ? cargadoEl.equals(today) : ahora.isBefore(venceEn);
+        }
+    }
+
+    private final Map<String, EarningsCacheado> cache = new ConcurrentHashMap<>();
+
+    // Fecha de anuncio estimada -> simbolos
+    private final NavigableMap<LocalDate, Set<String>> calendario = new ConcurrentSkipListMap<>();
+
+    public GestionarEarningsCUAdapter(GestionarComunicacionExternalGatewayIntPort objExternalGateway,
+            int maxLlamadasConcurrentes, Duration ttlSinReportes) {
+        this.objExternalGateway = objExternalGateway;
+        this.llamadasPermitidas = new Semaphore(Math.max(maxLlamadasConcurrentes, 1));
+        this.ttlSinReportes = ttlSinReportes;
+    }
+
     @Override
     public EarningsReport obtenerProximoEarnings(String symbol) {
+        String clave = symbol.trim().toUpperCase();
         LocalDate today = LocalDate.now();
-        String startDate = today.minusYears(2).toString();
 
-        List<Map<String, Object>> reports = this.objExternalGateway.getEarningsReports(symbol, startDate);
+        EarningsCacheado cacheado = cache.get(clave);
+        if (cacheado == null || !cacheado.vigente(today, Instant.now())) {
+            try {
+                cacheado = cargar(clave, today);
+            } catch (RuntimeException e) {
+                // Igual que en el batch: sin datos, y la proxima peticion vuelve a consultar
+                log.warn("Earnings: fallo {}: {}", clave, e.getMessage());
+                cacheado = null;
+            }
+        }
+        return aReporte(clave, cacheado, today);
+    }
+
+    @Override
+    public Map<String, EarningsReport> obtenerProximosEarnings(List<String> symbols) {
+        LocalDate today = LocalDate.now();
+        Instant ahora = Instant.now();
+        Map<String, EarningsReport> resultado = new LinkedHashMap<>();
+        List<String> faltantes = new ArrayList<>();
+
+        for (String symbol : symbols) {
+            if (symbol == null || symbol.isBlank())
+                continue;
+            String clave = symbol.trim().toUpperCase();
+            EarningsCacheado cacheado = cache.get(clave);
+            if (cacheado != null && cacheado.vigente(today, ahora)) {
+                resultado.put(clave, aReporte(clave, cacheado, today));
+            } else if (!resultado.containsKey(clave) && !faltantes.contains(clave)) {
+                resultado.put(clave, null); // Reserva la posicion para respetar el orden pedido
+                faltantes.add(clave);
+            }
+        }
+
+        if (!faltantes.isEmpty()) {
+            log.info("Earnings batch: {} en cache, {} a consultar", resultado.size() - faltantes.size(),
+                    faltantes.size());
+
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                Map<String, Future<EarningsCacheado>> futures = new LinkedHashMap<>();
+                for (String clave : faltantes) {
+                    futures.put(clave, executor.submit(() -> cargarLimitado(clave, today)));
+                }
+                for (Map.Entry<String, Future<EarningsCacheado>> entry : futures.entrySet()) {
+                    EarningsCacheado cacheado;
+                    try {
+                        cacheado = entry.getValue().get();
+                    } catch (Exception e) {
+                        log.warn("Earnings batch: fallo {}: {}", entry.getKey(), e.getMessage());
+                        cacheado = null;
+                    }
+                    resultado.put(entry.getKey(), aReporte(entry.getKey(), cacheado, today));
+                }
+            }
+        }
+        return resultado;
+    }
+
+    @Override
+    public List<EarningsReport> obtenerCalendarioEarnings(int dias) {
+        LocalDate today = LocalDate.now();
+        List<EarningsReport> reportes = new ArrayList<>();
+
+        for (Set<String> symbols : calendario.subMap(today, true, today.plusDays(dias), true).values()) {
+            for (String symbol : symbols) {
+                EarningsCacheado cacheado = cache.get(symbol);
+                if (cacheado != null) {
+                    reportes.add(aReporte(symbol, cacheado, today));
+                }
+            }
+        }
+        return reportes;
+    }
+
+    private EarningsCacheado cargarLimitado(String symbol, LocalDate today) throws InterruptedException {
+        llamadasPermitidas.acquire();
+        try {
+            return cargar(symbol, today);
+        } finally {
+            llamadasPermitidas.release();
+        }
+    }
+
+    /**
+     * Consulta el historial, estima el proximo anuncio y actualiza cache y
+     * calendario. Si TastyTrade no tiene reportes se cachea una entrada vacia que
+     * vence a los ttlSinReportes; si la consulta falla la excepcion sube y no se
+     * cachea nada.
+     */
+    private EarningsCacheado cargar(String symbol, LocalDate today) {
+        String startDate = today.minusYears(2).toString();
+        List<EarningsReport> reports = this.objExternalGateway.getEarningsReports(symbol, startDate);
 
         if (reports.isEmpty()) {
             log.warn("No earnings reports found for {}", symbol);
-            return EarningsReport.builder()
-                    .symbol(symbol)
-                    .daysUntilEarnings(-1L)
-                    .build();
+            EarningsCacheado vacio = new EarningsCacheado(null, null, null, today, Instant.now().plus(ttlSinReportes));
+            actualizarCalendario(symbol, cache.put(symbol, vacio), vacio);
+            return vacio;
         }
 
         // TastyTrade devuelve occurred-date = fin de trimestre fiscal, eps = null si aun no reportado
         // Buscar el ultimo trimestre CON eps (ya reportado)
-        Optional<Map<String, Object>> lastReportedOpt = reports.stream()
-                .filter(r -> r.get("occurred-date") != null && r.get("eps") != null)
-                .max(Comparator.comparing(r -> LocalDate.parse((String) r.get("occurred-date"))));
+        Optional<EarningsReport> lastReportedOpt = reports.stream()
+                .filter(r -> r.getOccurredDate() != null && r.getEps() != null)
+                .max(Comparator.comparing(EarningsReport::getOccurredDate));
 
         // Buscar el primer trimestre SIN eps (proximo earnings pendiente)
-        Optional<Map<String, Object>> nextPendingOpt = reports.stream()
-                .filter(r -> r.get("occurred-date") != null && r.get("eps") == null)
-                .min(Comparator.comparing(r -> LocalDate.parse((String) r.get("occurred-date"))));
+        Optional<EarningsReport> nextPendingOpt = reports.stream()
+                .filter(r -> r.getOccurredDate() != null && r.getEps() == null)
+                .min(Comparator.comparing(EarningsReport::getOccurredDate));
 
         Double eps = null;
         LocalDate lastReportedDate = null;
 
         if (lastReportedOpt.isPresent()) {
-            Map<String, Object> lastReported = lastReportedOpt.get();
-            lastReportedDate = LocalDate.parse((String) lastReported.get("occurred-date"));
-            Object epsObj = lastReported.get("eps");
-            if (epsObj instanceof Number) {
-                eps = ((Number) epsObj).doubleValue();
-            } else if (epsObj instanceof String) {
-                try {
-                    eps = Double.parseDouble((String) epsObj);
-                } catch (NumberFormatException e) {
-                    log.warn("Could not parse eps value: {}", epsObj);
-                }
-            }
+            lastReportedDate = lastReportedOpt.get().getOccurredDate();
+            eps = lastReportedOpt.get().getEps();
         }
 
-        // Calcular daysUntilEarnings
-        long daysUntil;
+        LocalDate estimatedAnnouncement = null;
         if (nextPendingOpt.isPresent()) {
             // Hay un trimestre pendiente: earnings se anuncian ~35 dias despues del fin del trimestre
-            LocalDate pendingQuarterEnd = LocalDate.parse((String) nextPendingOpt.get().get("occurred-date"));
-            LocalDate estimatedAnnouncement = pendingQuarterEnd.plusDays(EARNINGS_ANNOUNCEMENT_OFFSET);
-            daysUntil = ChronoUnit.DAYS.between(today, estimatedAnnouncement);
-            log.info("Earnings {}: ultimo reportado={} eps={}, pendiente trimestre={}, anuncio estimado={}, dias={}",
-                    symbol, lastReportedDate, eps, pendingQuarterEnd, estimatedAnnouncement, daysUntil);
+            LocalDate pendingQuarterEnd = nextPendingOpt.get().getOccurredDate();
+            estimatedAnnouncement = pendingQuarterEnd.plusDays(EARNINGS_ANNOUNCEMENT_OFFSET);
+            log.info("Earnings {}: ultimo reportado={} eps={}, pendiente trimestre={}, anuncio estimado={}",
+                    symbol, lastReportedDate, eps, pendingQuarterEnd, estimatedAnnouncement);
         } else if (lastReportedDate != null) {
             // Todos reportados, estimar siguiente trimestre
             LocalDate nextQuarterEnd = lastReportedDate.plusMonths(3);
-            LocalDate estimatedAnnouncement = nextQuarterEnd.plusDays(EARNINGS_ANNOUNCEMENT_OFFSET);
-            daysUntil = ChronoUnit.DAYS.between(today, estimatedAnnouncement);
-            log.info("Earnings {}: ultimo reportado={} eps={}, estimado proximo anuncio={}, dias={}",
-                    symbol, lastReportedDate, eps, estimatedAnnouncement, daysUntil);
-        } else {
-            daysUntil = -1L;
+            estimatedAnnouncement = nextQuarterEnd.plusDays(EARNINGS_ANNOUNCEMENT_OFFSET);
+            log.info("Earnings {}: ultimo reportado={} eps={}, estimado proximo anuncio={}",
+                    symbol, lastReportedDate, eps, estimatedAnnouncement);
+        }
+
+        EarningsCacheado nuevo = new EarningsCacheado(lastReportedDate, eps, estimatedAnnouncement, today, null);
+        EarningsCacheado anterior = cache.put(symbol, nuevo);
+        actualizarCalendario(symbol, anterior, nuevo);
+        return nuevo;
+    }
+
+    private void actualizarCalendario(String symbol, EarningsCacheado anterior, EarningsCacheado nuevo) {
+        if (anterior != null && anterior.proximoAnuncio() != null
+                && !anterior.proximoAnuncio().equals(nuevo.proximoAnuncio())) {
+            calendario.computeIfPresent(anterior.proximoAnuncio(), (fecha, symbols) -> {
+                symbols.remove(symbol);
+                return symbols.isEmpty() ? null : symbols;
+            });
+        }
+        if (nuevo.proximoAnuncio() != null) {
+            calendario.computeIfAbsent(nuevo.proximoAnuncio(), fecha -> ConcurrentHashMap.newKeySet()).add(symbol);
+        }
+    }
+
+    private EarningsReport aReporte(String symbol, EarningsCacheado cacheado, LocalDate today) {
+        if (cacheado == null) {
+            return EarningsReport.builder()
+                    .symbol(symbol)
+                    .daysUntilEarnings(-1L)
+                    .build();
         }
 
+        long daysUntil = cacheado.proximoAnuncio() != null
+                ? ChronoUnit.DAYS.between(today, cacheado.proximoAnuncio())
+                : -1L;
+
         return EarningsReport.builder()
                 .symbol(symbol)
-                .occurredDate(lastReportedDate)
-                .eps(eps)
+                .occurredDate(cacheado.lastReportedDate())
+                .eps(cacheado.eps())
+                .estimatedEarningsDate(cacheado.proximoAnuncio())
                 .daysUntilEarnings(daysUntil)
                 .build();
     }
@@ -23,7 +23,8 @@ public class GestionarHistoricalDataCUAdapter implements GestionarHistoricalData
     private final GestionarComunicacionExternalGatewayIntPort objExternalCommunicationGateway;
 
     @Override
-    public List<Candle> getCandles(String symbol, EnumTimeframe timeframe, OffsetDateTime endDate, Integer bars) {
+    public List<Candle> getCandles(String symbol, EnumTimeframe timeframe, OffsetDateTime endDate, Integer bars,
+            OffsetDateTime since) {
         List<Candle> allCandles = this.objExternalCommunicationGateway.getCandles(symbol, timeframe);
 
         if (allCandles == null || allCandles.isEmpty()) {
@@ -51,12 +52,13 @@ public class GestionarHistoricalDataCUAdapter implements GestionarHistoricalData
             completed = completed.subList(completed.size() - bars, completed.size());
         }
 
-        return completed;
+        return filtrarDesde(completed, since);
     }
 
     @Override
-    public Map<String, List<Candle>> getCandlesBatch(List<String> symbols, EnumTimeframe timeframe, int bars) {
-        log.info("Batch fetching {} symbols, timeframe={}, bars={}", symbols.size(), timeframe, bars);
+    public Map<String, List<Candle>> getCandlesBatch(List<String> symbols, EnumTimeframe timeframe, int bars,
+            OffsetDateTime since) {
+        log.info("Batch fetching {} symbols, timeframe={}, bars={}, since={}", symbols.size(), timeframe, bars, since);
 
         // Obtener datos brutos del gateway
         Map<String, List<Candle>> rawData = this.objExternalCommunicationGateway.getCandlesBatch(symbols, timeframe,
@@ -86,7 +88,7 @@ public class GestionarHistoricalDataCUAdapter implements GestionarHistoricalData
                 completed = completed.subList(completed.size() - bars, completed.size());
             }
 
-            resultado.put(symbol, completed);
+            resultado.put(symbol, filtrarDesde(completed, since));
         }
 
         log.info("Batch complete: {} simbolos procesados, {} con datos",
@@ -97,7 +99,7 @@ public class GestionarHistoricalDataCUAdapter implements GestionarHistoricalData
 
     @Override
     public Candle getLastCandle(String symbol, EnumTimeframe timeframe) {
-        List<Candle> candles = getCandles(symbol, timeframe, null, 1);
+        List<Candle> candles = getCandles(symbol, timeframe, null, 1, null);
         return candles.isEmpty() ? null : candles.get(0);
     }
 
@@ -179,4 +181,24 @@ public class GestionarHistoricalDataCUAdapter implements GestionarHistoricalData
 
         return resultado;
     }
+
+    /**
+     * Aplica el cursor incremental: conserva solo las barras con timestamp igual o
+     * posterior a {@code since}. La barra del cursor se incluye para que el cliente
+     * reciba correcciones de la ultima barra que ya tenia.
+     */
+    private List<Candle> filtrarDesde(List<Candle> candles, OffsetDateTime since) {
+        if (since == null || candles.isEmpty()) {
+            return candles;
+        }
+
+        Instant cursor = since.toInstant();
+
+        // Las barras vienen ordenadas asc: buscar el primer indice >= cursor
+        int desde = candles.size();
+        while (desde > 0 && !candles.get(desde - 1).getTimestamp().isBefore(cursor)) {
+            desde--;
+        }
+        return candles.subList(desde, candles.size());
+    }
 }
@@ -0,0 +1,190 @@
+package com.metradingplat.marketdata.domain.usecases;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.metradingplat.marketdata.application.input.GestionarIndicadoresCUIntPort;
+import com.metradingplat.marketdata.application.output.GestionarComunicacionExternalGatewayIntPort;
+import com.metradingplat.marketdata.domain.enums.EnumTimeframe;
+import com.metradingplat.marketdata.domain.indicadores.IndicadorSpec;
+import com.metradingplat.marketdata.domain.indicadores.SerieIndicadores;
+import com.metradingplat.marketdata.domain.models.Candle;
+import com.metradingplat.marketdata.domain.models.IndicadoresSimbolo;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Indicadores por simbolo/timeframe mantenidos de forma incremental.
+ *
+ * Cada serie se siembra una vez con las barras de la cache de candles y luego
+ * avanza barra a barra: las barras cerradas del stream se aplican en O(1) y,
+ * si la serie quedo atras (simbolo sin stream, hueco), la siguiente consulta
+ * aplica solo las barras nuevas de la cache. Una consulta batch trae de una vez
+ * las barras de los simbolos desactualizados y calcula en paralelo por simbolo.
+ *
+ * Las series que nadie consulta en ttlInactivaMs se descartan (el stream no
+ * cuenta como uso) y el total se limita a maxSeries. Al volver a sembrar una
+ * serie solo se conservan los indicadores consultados dentro del mismo TTL.
+ */
+@Slf4j
+public class GestionarIndicadoresCUAdapter implements GestionarIndicadoresCUIntPort {
+
+    private final GestionarComunicacionExternalGatewayIntPort objExternalGateway;
+    private final int barrasSemilla;
+    private final int periodoMaximo;
+    private final long margenCierreMs;
+    private final long ttlInactivaMs;
+    private final int maxSeries;
+
+    // symbol:TF -> serie
+    private final Map<String, SerieIndicadores> series = new ConcurrentHashMap<>();
+    private final AtomicLong ultimaPurga = new AtomicLong(System.currentTimeMillis());
+
+    public GestionarIndicadoresCUAdapter(GestionarComunicacionExternalGatewayIntPort objExternalGateway,
+            int barrasSemilla, int periodoMaximo, long margenCierreMs, long ttlInactivaMs, int maxSeries) {
+        this.objExternalGateway = objExternalGateway;
+        this.barrasSemilla = barrasSemilla;
+        this.periodoMaximo = periodoMaximo;
+        this.margenCierreMs = margenCierreMs;
+        this.ttlInactivaMs = ttlInactivaMs;
+        this.maxSeries = maxSeries;
+    }
+
+    @Override
+    public Map<String, IndicadoresSimbolo> calcularIndicadores(List<String> symbols, EnumTimeframe timeframe,
+            List<IndicadorSpec> indicadores) {
+        if (indicadores.isEmpty())
+            throw new IllegalArgumentException("Se requiere al menos un indicador");
+        for (IndicadorSpec spec : indicadores) {
+            if (spec.periodo() > periodoMaximo)
+                throw new IllegalArgumentException("Periodo maximo " + periodoMaximo + ": " + spec);
+        }
+
+        List<String> claves = symbols.stream()
+                .filter(s -> s != null && !s.isBlank())
+                .map(s -> s.trim().toUpperCase())
+                .distinct()
+                .toList();
+        long ahora = System.currentTimeMillis();
+
+        Set<String> desactualizados = new LinkedHashSet<>();
+        for (String symbol : claves) {
+            SerieIndicadores serie = series.get(clave(symbol, timeframe));
+            if (serie == null || !serie.cubre(indicadores) || !serie.alDia(ahora, margenCierreMs)) {
+                desactualizados.add(symbol);
+            }
+        }
+        Map<String, List<Candle>> barras = desactualizados.isEmpty() ? Map.of()
+                : objExternalGateway.getCandlesBatch(new ArrayList<>(desactualizados), timeframe, barrasSemilla);
+
+        Map<String, IndicadoresSimbolo> calculados = new ConcurrentHashMap<>();
+        claves.parallelStream().forEach(symbol -> {
+            SerieIndicadores serie = desactualizados.contains(symbol)
+                    ? actualizar(symbol, timeframe, indicadores, barras.getOrDefault(symbol, List.of()), ahora)
+                    : series.get(clave(symbol, timeframe));
+            if (serie == null)
+                return;
+            serie.marcarUso(indicadores, ahora);
+            IndicadoresSimbolo valores = serie.valores(indicadores);
+            if (valores != null) {
+                calculados.put(symbol, valores);
+            }
+        });
+        purgarSiToca(ahora);
+
+        log.debug("Indicadores {} {}: {} simbolos, {} actualizados desde la cache de candles", timeframe,
+                indicadores, claves.size(), desactualizados.size());
+
+        Map<String, IndicadoresSimbolo> resultado = new LinkedHashMap<>();
+        for (String symbol : claves) {
+            IndicadoresSimbolo valores = calculados.get(symbol);
+            if (valores != null) {
+                resultado.put(symbol, valores);
+            }
+        }
+        return resultado;
+    }
+
+    @Override
+    public void onBarraCerrada(Candle barra) {
+        if (barra.getTimeframe() == null || barra.getTimestamp() == null)
+            return;
+        SerieIndicadores serie = series.get(clave(barra.getSymbol(), barra.getTimeframe()));
+        if (serie != null) {
+            serie.aplicarEnVivo(barra);
+        }
+    }
+
+    /**
+     * Avanza la serie con las barras cerradas recuperadas. Si no existe, le faltan
+     * indicadores o las barras no llegan hasta su ultima barra, se siembra de
+     * nuevo.
+     */
+    private SerieIndicadores actualizar(String symbol, EnumTimeframe timeframe, List<IndicadorSpec> indicadores,
+            List<Candle> recuperadas, long ahora) {
+        long duracion = timeframe.getDuration().toMillis();
+        List<Candle> cerradas = recuperadas.stream()
+                .filter(c -> c.getTimestamp().toEpochMilli() + duracion <= ahora)
+                .toList();
+
+        String clave = clave(symbol, timeframe);
+        SerieIndicadores serie = series.get(clave);
+        boolean solapa = serie != null && !cerradas.isEmpty()
+                && cerradas.get(0).getTimestamp().toEpochMilli() <= serie.getUltimaBarra();
+        if (serie != null && serie.cubre(indicadores) && solapa) {
+            cerradas.forEach(serie::aplicar);
+            serie.marcarRevisada(ahora);
+            return serie;
+        }
+        if (serie != null && serie.cubre(indicadores) && cerradas.isEmpty()) {
+            serie.marcarRevisada(ahora);
+            return serie;
+        }
+
+        // Se conservan solo los indicadores de la serie anterior que se siguen consultando
+        Map<IndicadorSpec, Long> vigentes = serie != null ? serie.usosDesde(ahora - ttlInactivaMs) : Map.of();
+        Set<IndicadorSpec> specs = new LinkedHashSet<>(indicadores);
+        specs.addAll(vigentes.keySet());
+        SerieIndicadores nueva = new SerieIndicadores(symbol, timeframe, specs);
+        vigentes.forEach((spec, uso) -> nueva.marcarUso(List.of(spec), uso));
+        cerradas.forEach(nueva::aplicar);
+        nueva.marcarRevisada(ahora);
+        series.put(clave, nueva);
+        return nueva;
+    }
+
+    /**
+     * Como mucho una vez por minuto (o por TTL, si es menor) descarta las series
+     * inactivas y, si aun sobran, las menos usadas.
+     */
+    private void purgarSiToca(long ahora) {
+        long previa = ultimaPurga.get();
+        if (ahora - previa < Math.min(ttlInactivaMs, 60_000) || !ultimaPurga.compareAndSet(previa, ahora))
+            return;
+        int antes = series.size();
+        series.values().removeIf(serie -> serie.getUltimoUso() <= ahora - ttlInactivaMs);
+        int sobrantes = series.size() - maxSeries;
+        if (sobrantes > 0) {
+            series.entrySet().stream()
+                    .sorted(Comparator.comparingLong(entry -> entry.getValue().getUltimoUso()))
+                    .limit(sobrantes)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(series::remove);
+        }
+        if (series.size() < antes) {
+            log.debug("Indicadores: {} series descartadas, {} en memoria", antes - series.size(), series.size());
+        }
+    }
+
+    private static String clave(String symbol, EnumTimeframe timeframe) {
+        return symbol + ":" + timeframe.name();
+    }
+}
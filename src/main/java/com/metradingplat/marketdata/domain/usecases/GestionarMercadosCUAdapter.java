@@ -4,31 +4,74 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import com.metradingplat.marketdata.application.input.GestionarMercadosCUIntPort;
 import com.metradingplat.marketdata.application.output.GestionarComunicacionExternalGatewayIntPort;
+import com.metradingplat.marketdata.application.output.GestionarSnapshotEquitiesIntPort;
 import com.metradingplat.marketdata.domain.enums.EnumMercado;
 import com.metradingplat.marketdata.domain.models.ActiveEquity;
+import com.metradingplat.marketdata.domain.models.EquitySearchPage;
+import com.metradingplat.marketdata.domain.models.EquitySnapshot;
+import com.metradingplat.marketdata.domain.models.EquityUniverse;
 
-
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-@RequiredArgsConstructor
+/**
+ * Mercados y universo de equities activas.
+ *
+ * El universo es un snapshot inmutable e indexado (EquityUniverse) que se
+ * reemplaza de forma atomica; el indice se arma en el hilo de refresh. Las
+ * lecturas nunca esperan una descarga salvo en el primer arranque sin snapshot
+ * en disco: si el snapshot esta vencido se sirve igual y se dispara un refresh
+ * en segundo plano (stale-while-revalidate). Ademas se refresca periodicamente.
+ */
 @Slf4j
 public class GestionarMercadosCUAdapter implements GestionarMercadosCUIntPort {
 
-    private static final Duration CACHE_TTL = Duration.ofHours(1);
-    private static final int PAGE_SIZE = 1000;
-
     private final GestionarComunicacionExternalGatewayIntPort objExternalGateway;
+    private final GestionarSnapshotEquitiesIntPort objSnapshotEquities;
+    private final Duration ttl;
+    private final int pageSize;
+    private final int paginasEnParalelo;
+
+    private final AtomicReference<EquityUniverse> universo = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<EquityUniverse>> refrescoEnCurso = new AtomicReference<>();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("equity-universe-refresh").daemon().factory());
+
+    public GestionarMercadosCUAdapter(GestionarComunicacionExternalGatewayIntPort objExternalGateway,
+            GestionarSnapshotEquitiesIntPort objSnapshotEquities, Duration ttl, int pageSize,
+            int paginasEnParalelo) {
+        this.objExternalGateway = objExternalGateway;
+        this.objSnapshotEquities = objSnapshotEquities;
+        this.ttl = ttl;
+        this.pageSize = pageSize;
+        this.paginasEnParalelo = Math.max(paginasEnParalelo, 1);
+    }
 
-    private volatile List<ActiveEquity> cachedEquities = Collections.emptyList();
-    private volatile Instant lastRefresh = Instant.EPOCH;
+    /**
+     * Carga el snapshot de disco (si hay) y agenda el refresh periodico.
+     */
+    public void iniciar() {
+        objSnapshotEquities.cargarSnapshot().map(EquityUniverse::de).ifPresent(universo::set);
+        scheduler.execute(this::refrescarSiVencido);
+        long periodoMs = Math.max(ttl.toMillis() / 4, 60_000);
+        scheduler.scheduleAtFixedRate(this::refrescarSiVencido, periodoMs, periodoMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void detener() {
+        scheduler.shutdownNow();
+    }
 
     @Override
     public List<EnumMercado> listarMercados() {
@@ -37,53 +80,126 @@ public class GestionarMercadosCUAdapter implements GestionarMercadosCUIntPort {
 
     @Override
     public List<ActiveEquity> obtenerSimbolosPorMercados(List<String> markets) {
-        cargarEquitiesSiNecesario();
+        EquityUniverse actual = obtenerUniverso();
 
-        Set<String> userMarkets = markets != null && !markets.isEmpty()
-                ? markets.stream().map(String::toUpperCase).collect(Collectors.toSet())
-                : Set.of();
+        if (markets == null || markets.isEmpty()) {
+            return actual.getEquities();
+        }
+
+        // Codigos de usuario (NYSE, NASDAQ); el universo ya agrupo por MIC (XNYS, XNAS)
+        Set<EnumMercado> mercados = EnumMercado.fromCodes(markets);
+        if (mercados.isEmpty()) {
+            return List.of();
+        }
+
+        log.debug("Filtrando equities por mercados: {}, total en cache: {}", mercados, actual.size());
+        return actual.porMercados(mercados);
+    }
 
-        if (userMarkets.isEmpty()) {
-            return new ArrayList<>(cachedEquities);
+    @Override
+    public EquitySearchPage buscarSimbolos(String texto, List<String> markets, int offset, int limit) {
+        Set<EnumMercado> mercados = markets != null && !markets.isEmpty()
+                ? EnumMercado.fromCodes(markets)
+                : Set.of();
+        if (markets != null && !markets.isEmpty() && mercados.isEmpty()) {
+            return EquitySearchPage.builder().items(List.of()).offset(offset).limit(limit).build();
         }
+        return obtenerUniverso().buscar(texto, mercados, offset, limit);
+    }
 
-        // Convert user-facing codes (NYSE, NASDAQ) to TastyTrade MIC codes (XNYS, XNAS)
-        Set<String> micFilter = EnumMercado.toMicCodes(userMarkets);
+    private EquityUniverse obtenerUniverso() {
+        EquityUniverse actual = universo.get();
+        if (actual == null) {
+            // Arranque en frio sin snapshot en disco: no hay nada que servir todavia
+            actual = refrescar().join();
+        } else if (vencido(actual)) {
+            refrescar();
+        }
+        return actual;
+    }
 
-        log.info("Filtrando equities por mercados: {} -> MIC codes: {}, total en cache: {}", userMarkets, micFilter, cachedEquities.size());
+    private boolean vencido(EquityUniverse actual) {
+        return Instant.now().isAfter(actual.getSnapshot().getLoadedAt().plus(ttl));
+    }
 
-        return cachedEquities.stream()
-                .filter(eq -> eq.getListedMarket() != null
-                        && micFilter.contains(eq.getListedMarket().toUpperCase()))
-                .collect(Collectors.toList());
+    private void refrescarSiVencido() {
+        EquityUniverse actual = universo.get();
+        if (actual == null || vencido(actual)) {
+            try {
+                refrescar().join();
+            } catch (Exception e) {
+                log.error("Refresh del universo de equities fallo: {}", e.getMessage());
+            }
+        }
     }
 
-    private synchronized void cargarEquitiesSiNecesario() {
-        if (!cachedEquities.isEmpty() && Instant.now().isBefore(lastRefresh.plus(CACHE_TTL))) {
-            return;
+    /**
+     * Un solo refresh a la vez; las llamadas concurrentes reciben el mismo future.
+     */
+    private CompletableFuture<EquityUniverse> refrescar() {
+        CompletableFuture<EquityUniverse> nuevo = new CompletableFuture<>();
+        CompletableFuture<EquityUniverse> existente = refrescoEnCurso.compareAndExchange(null, nuevo);
+        if (existente != null) {
+            return existente;
         }
 
-        log.info("Cargando cache de equities activos desde TastyTrade...");
+        Thread.ofVirtual().name("equity-universe-download").start(() -> {
+            try {
+                EquitySnapshot descargado = descargar();
+                EquityUniverse indexado = EquityUniverse.de(descargado);
+                universo.set(indexado);
+                objSnapshotEquities.guardarSnapshot(descargado);
+                nuevo.complete(indexado);
+            } catch (Exception e) {
+                nuevo.completeExceptionally(e);
+            } finally {
+                refrescoEnCurso.set(null);
+            }
+        });
+        return nuevo;
+    }
+
+    /**
+     * Descarga las paginas en tandas paralelas hasta encontrar una incompleta.
+     */
+    private EquitySnapshot descargar() throws Exception {
+        log.info("Cargando universo de equities activos desde TastyTrade...");
+        long inicio = System.nanoTime();
         List<ActiveEquity> allEquities = new ArrayList<>();
-        int page = 0;
-
-        while (true) {
-            List<ActiveEquity> batch = this.objExternalGateway.getActiveEquities(page, PAGE_SIZE);
-            if (batch.isEmpty()) break;
-            allEquities.addAll(batch);
-            if (batch.size() < PAGE_SIZE) break;
-            page++;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            int page = 0;
+            boolean ultimaPagina = false;
+            while (!ultimaPagina) {
+                List<Future<List<ActiveEquity>>> tanda = new ArrayList<>(paginasEnParalelo);
+                for (int i = 0; i < paginasEnParalelo; i++) {
+                    int pagina = page + i;
+                    tanda.add(executor.submit(() -> this.objExternalGateway.getActiveEquities(pagina, pageSize)));
+                }
+                page += paginasEnParalelo;
+
+                // Respetar el orden de las paginas y cortar en la primera incompleta
+                for (Future<List<ActiveEquity>> futuro : tanda) {
+                    List<ActiveEquity> batch = futuro.get();
+                    allEquities.addAll(batch);
+                    if (batch.size() < pageSize) {
+                        ultimaPagina = true;
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (allEquities.isEmpty()) {
+            throw new IllegalStateException("TastyTrade devolvio un universo de equities vacio");
         }
 
-        cachedEquities = Collections.unmodifiableList(allEquities);
-        lastRefresh = Instant.now();
-        log.info("Cache de equities cargado: {} simbolos", cachedEquities.size());
+        log.info("Universo de equities cargado: {} simbolos en {} ms", allEquities.size(),
+                (System.nanoTime() - inicio) / 1_000_000);
 
-        // Debug: mostrar valores distintos de listed-market
-        var distinctMarkets = allEquities.stream()
-                .map(ActiveEquity::getListedMarket)
-                .filter(m -> m != null)
-                .collect(Collectors.toSet());
-        log.info("Valores distintos de listed-market: {}", distinctMarkets);
+        return EquitySnapshot.builder()
+                .equities(List.copyOf(allEquities))
+                .loadedAt(Instant.now())
+                .build();
     }
 }
@@ -1,10 +1,15 @@
 package com.metradingplat.marketdata.domain.usecases;
 
+import java.util.concurrent.CompletableFuture;
+
 import com.metradingplat.marketdata.application.input.GestionarOrdersCUIntPort;
+import com.metradingplat.marketdata.application.output.GestionarChangeNotificationsProducerIntPort;
 import com.metradingplat.marketdata.application.output.GestionarComunicacionExternalGatewayIntPort;
 import com.metradingplat.marketdata.domain.models.BracketOrder;
 import com.metradingplat.marketdata.domain.models.OrderRequest;
 import com.metradingplat.marketdata.domain.models.OrderResponse;
+import com.metradingplat.marketdata.infrastructure.output.exceptionsController.ownExceptions.ReglaNegocioException;
+import com.metradingplat.marketdata.infrastructure.output.kafka.DTO.OrderUpdateDTO;
 
 import lombok.RequiredArgsConstructor;
 
@@ -12,10 +17,42 @@ import lombok.RequiredArgsConstructor;
 public class GestionarOrdersCUAdapter implements GestionarOrdersCUIntPort {
 
     private final GestionarComunicacionExternalGatewayIntPort objGestionarComunicacionExterna;
+    private final GestionarChangeNotificationsProducerIntPort objGestionarNotificaciones;
 
+    /**
+     * Envia la orden y publica el resultado: PLACED, REJECTED solo si TastyTrade
+     * la rechazo (4xx) y UNKNOWN ante timeouts o errores de I/O, donde la orden
+     * pudo haberse aceptado y hay que conciliarla antes de reintentar.
+     */
     @Override
-    public void placeBracketOrder(OrderRequest request) {
-        this.objGestionarComunicacionExterna.sendOrder(request);
+    public CompletableFuture<Void> placeBracketOrder(OrderRequest request) {
+        OrderUpdateDTO update;
+        try {
+            OrderResponse response = this.objGestionarComunicacionExterna.sendOrder(request);
+            update = OrderUpdateDTO.builder()
+                    .orderId(response.getOrderId())
+                    .symbol(request.getSymbol())
+                    .status("PLACED")
+                    .price(request.getPrice() != null ? request.getPrice().doubleValue() : null)
+                    .quantity(request.getQuantity() != null ? request.getQuantity().doubleValue() : null)
+                    .message(response.getStatus())
+                    .build();
+        } catch (ReglaNegocioException e) {
+            update = resultadoFallido(request, "REJECTED", e);
+        } catch (Exception e) {
+            update = resultadoFallido(request, "UNKNOWN", e);
+        }
+        return this.objGestionarNotificaciones.publishOrderUpdate(update);
+    }
+
+    private static OrderUpdateDTO resultadoFallido(OrderRequest request, String status, Exception e) {
+        return OrderUpdateDTO.builder()
+                .symbol(request.getSymbol())
+                .status(status)
+                .price(request.getPrice() != null ? request.getPrice().doubleValue() : null)
+                .quantity(request.getQuantity() != null ? request.getQuantity().doubleValue() : null)
+                .message(e.getMessage())
+                .build();
     }
 
     @Override
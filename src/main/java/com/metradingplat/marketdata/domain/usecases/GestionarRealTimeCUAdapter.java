@@ -1,5 +1,7 @@
 package com.metradingplat.marketdata.domain.usecases;
 
+import java.util.List;
+
 import com.metradingplat.marketdata.application.input.GestionarRealTimeCUIntPort;
 import com.metradingplat.marketdata.application.output.GestionarComunicacionExternalGatewayIntPort;
 
@@ -19,4 +21,16 @@ public class GestionarRealTimeCUAdapter implements GestionarRealTimeCUIntPort {
     public void unsubscribeFromSymbol(String symbol) {
         this.objGestionarComunicacionExterna.unsubscribe(symbol);
     }
+
+    @Override
+    public void subscribeToSymbols(List<String> symbols) {
+        if (!symbols.isEmpty())
+            this.objGestionarComunicacionExterna.subscribeAll(symbols);
+    }
+
+    @Override
+    public void unsubscribeFromSymbols(List<String> symbols) {
+        if (!symbols.isEmpty())
+            this.objGestionarComunicacionExterna.unsubscribeAll(symbols);
+    }
 }
@@ -0,0 +1,105 @@
+package com.metradingplat.marketdata.domain.usecases;
+
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.metradingplat.marketdata.application.input.GestionarIndicadoresCUIntPort;
+import com.metradingplat.marketdata.application.input.GestionarMercadosCUIntPort;
+import com.metradingplat.marketdata.application.input.GestionarScreenerCUIntPort;
+import com.metradingplat.marketdata.application.output.GestionarComunicacionExternalGatewayIntPort;
+import com.metradingplat.marketdata.domain.enums.EnumMercado;
+import com.metradingplat.marketdata.domain.enums.EnumTimeframe;
+import com.metradingplat.marketdata.domain.models.ActiveEquity;
+import com.metradingplat.marketdata.domain.models.Candle;
+import com.metradingplat.marketdata.domain.models.IndicadoresSimbolo;
+import com.metradingplat.marketdata.domain.models.ResultadoScreener;
+import com.metradingplat.marketdata.domain.screener.ExpresionFiltro;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Screening sobre el universo de equities en memoria.
+ *
+ * La expresion se compila una vez; los indicadores que usa se obtienen de las
+ * series incrementales (en paralelo por simbolo) y el predicado se evalua en
+ * paralelo sobre los valores primitivos de cada simbolo. Si la expresion solo usa
+ * campos de la barra, se piden directamente las ultimas barras cerradas.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class GestionarScreenerCUAdapter implements GestionarScreenerCUIntPort {
+
+    // La ultima barra puede estar en formacion: con dos siempre hay una cerrada
+    private static final int BARRAS_SIN_INDICADORES = 2;
+
+    private final GestionarMercadosCUIntPort objGestionarMercadosCUInt;
+    private final GestionarIndicadoresCUIntPort objGestionarIndicadoresCUInt;
+    private final GestionarComunicacionExternalGatewayIntPort objExternalGateway;
+    private final int maxSimbolos;
+
+    @Override
+    public ResultadoScreener filtrar(String expresion, List<String> markets, EnumTimeframe timeframe) {
+        ExpresionFiltro filtro = ExpresionFiltro.compilar(expresion);
+
+        // Sin mercados se evalua todo el universo
+        boolean todos = markets == null || markets.isEmpty();
+        Set<EnumMercado> mercados = todos ? EnumSet.allOf(EnumMercado.class) : EnumMercado.fromCodes(markets);
+        if (mercados.isEmpty())
+            throw new IllegalArgumentException("Mercados desconocidos: " + markets);
+
+        List<String> universo = this.objGestionarMercadosCUInt
+                .obtenerSimbolosPorMercados(todos ? List.of() : mercados.stream().map(EnumMercado::getCode).toList())
+                .stream()
+                .map(ActiveEquity::getSymbol)
+                .distinct()
+                .toList();
+        if (universo.size() > maxSimbolos)
+            throw new IllegalArgumentException("El universo de " + mercados + " tiene " + universo.size()
+                    + " simbolos (maximo " + maxSimbolos + ")");
+
+        long inicio = System.nanoTime();
+        Map<String, IndicadoresSimbolo> datos = filtro.indicadores().isEmpty()
+                ? ultimasBarrasCerradas(universo, timeframe)
+                : this.objGestionarIndicadoresCUInt.calcularIndicadores(universo, timeframe, filtro.indicadores());
+        List<String> symbols = datos.values().parallelStream()
+                .filter(filtro::evaluar)
+                .map(IndicadoresSimbolo::getSymbol)
+                .sorted()
+                .toList();
+
+        log.info("Screener '{}' {} {}: {} de {} simbolos ({} con datos) en {} ms", filtro, mercados, timeframe,
+                symbols.size(), universo.size(), datos.size(), (System.nanoTime() - inicio) / 1_000_000);
+
+        return ResultadoScreener.builder()
+                .expresion(filtro.toString())
+                .timeframe(timeframe)
+                .symbols(symbols)
+                .universo(universo.size())
+                .evaluados(datos.size())
+                .build();
+    }
+
+    private Map<String, IndicadoresSimbolo> ultimasBarrasCerradas(List<String> universo, EnumTimeframe timeframe) {
+        long ahora = System.currentTimeMillis();
+        long duracion = timeframe.getDuration().toMillis();
+        Map<String, List<Candle>> barras = this.objExternalGateway.getCandlesBatch(universo, timeframe,
+                BARRAS_SIN_INDICADORES);
+
+        Map<String, IndicadoresSimbolo> datos = new LinkedHashMap<>();
+        barras.forEach((symbol, candles) -> candles.stream()
+                .filter(c -> c.getTimestamp().toEpochMilli() + duracion <= ahora)
+                .reduce((anterior, siguiente) -> siguiente)
+                .ifPresent(barra -> datos.put(symbol, IndicadoresSimbolo.builder()
+                        .symbol(symbol)
+                        .timeframe(timeframe)
+                        .timestamp(barra.getTimestamp())
+                        .barra(barra)
+                        .valores(Map.of())
+                        .build())));
+        return datos;
+    }
+}
@@ -1,15 +1,23 @@
 package com.metradingplat.marketdata.infrastructure.configuration;
 
+import java.time.Duration;
+
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import com.metradingplat.marketdata.application.input.GestionarIndicadoresCUIntPort;
+import com.metradingplat.marketdata.application.input.GestionarMercadosCUIntPort;
+import com.metradingplat.marketdata.application.output.GestionarChangeNotificationsProducerIntPort;
 import com.metradingplat.marketdata.application.output.GestionarComunicacionExternalGatewayIntPort;
+import com.metradingplat.marketdata.application.output.GestionarSnapshotEquitiesIntPort;
 import com.metradingplat.marketdata.domain.usecases.GestionarEarningsCUAdapter;
 import com.metradingplat.marketdata.domain.usecases.GestionarHistoricalDataCUAdapter;
+import com.metradingplat.marketdata.domain.usecases.GestionarIndicadoresCUAdapter;
 import com.metradingplat.marketdata.domain.usecases.GestionarMercadosCUAdapter;
 import com.metradingplat.marketdata.domain.usecases.GestionarOrdersCUAdapter;
 import com.metradingplat.marketdata.domain.usecases.GestionarQuoteCUAdapter;
 import com.metradingplat.marketdata.domain.usecases.GestionarRealTimeCUAdapter;
+import com.metradingplat.marketdata.domain.usecases.GestionarScreenerCUAdapter;
 
 @Configuration
 public class BeanConfigurations {
@@ -22,8 +30,9 @@ public class BeanConfigurations {
 
     @Bean
     public GestionarOrdersCUAdapter gestionarOrdersCUIntPort(
-            GestionarComunicacionExternalGatewayIntPort objGestionarComunicacionExterna) {
-        return new GestionarOrdersCUAdapter(objGestionarComunicacionExterna);
+            GestionarComunicacionExternalGatewayIntPort objGestionarComunicacionExterna,
+            GestionarChangeNotificationsProducerIntPort objGestionarNotificaciones) {
+        return new GestionarOrdersCUAdapter(objGestionarComunicacionExterna, objGestionarNotificaciones);
     }
 
     @Bean
@@ -32,10 +41,14 @@ public class BeanConfigurations {
         return new GestionarRealTimeCUAdapter(objGestionarComunicacionExterna);
     }
 
-    @Bean
+    @Bean(initMethod = "iniciar", destroyMethod = "detener")
     public GestionarMercadosCUAdapter gestionarMercadosCUIntPort(
-            GestionarComunicacionExternalGatewayIntPort objExternalGateway) {
-        return new GestionarMercadosCUAdapter(objExternalGateway);
+            GestionarComunicacionExternalGatewayIntPort objExternalGateway,
+            GestionarSnapshotEquitiesIntPort objSnapshotEquities,
+            EquityUniverseProperties universeProperties) {
+        return new GestionarMercadosCUAdapter(objExternalGateway, objSnapshotEquities,
+                Duration.ofMinutes(universeProperties.getRefreshIntervalMinutes()),
+                universeProperties.getPageSize(), universeProperties.getParallelPages());
     }
 
     @Bean
@@ -46,7 +59,30 @@ public class BeanConfigurations {
 
     @Bean
     public GestionarEarningsCUAdapter gestionarEarningsCUIntPort(
-            GestionarComunicacionExternalGatewayIntPort objExternalGateway) {
-        return new GestionarEarningsCUAdapter(objExternalGateway);
+            GestionarComunicacionExternalGatewayIntPort objExternalGateway,
+            EarningsProperties earningsProperties) {
+        return new GestionarEarningsCUAdapter(objExternalGateway, earningsProperties.getMaxConcurrency(),
+                Duration.ofMinutes(earningsProperties.getEmptyTtlMinutes()));
+    }
+
+    @Bean
+    public GestionarIndicadoresCUAdapter gestionarIndicadoresCUIntPort(
+            GestionarComunicacionExternalGatewayIntPort objExternalGateway,
+            IndicatorProperties indicatorProperties,
+            CandleStreamProperties candleStreamProperties) {
+        return new GestionarIndicadoresCUAdapter(objExternalGateway, indicatorProperties.getSeedBars(),
+                indicatorProperties.getMaxPeriod(), candleStreamProperties.getCloseGraceMs(),
+                Duration.ofMinutes(indicatorProperties.getIdleTtlMinutes()).toMillis(),
+                indicatorProperties.getMaxSeries());
+    }
+
+    @Bean
+    public GestionarScreenerCUAdapter gestionarScreenerCUIntPort(
+            GestionarMercadosCUIntPort objGestionarMercadosCUInt,
+            GestionarIndicadoresCUIntPort objGestionarIndicadoresCUInt,
+            GestionarComunicacionExternalGatewayIntPort objExternalGateway,
+            ScreenerProperties screenerProperties) {
+        return new GestionarScreenerCUAdapter(objGestionarMercadosCUInt, objGestionarIndicadoresCUInt,
+                objExternalGateway, screenerProperties.getMaxSymbols());
     }
 }
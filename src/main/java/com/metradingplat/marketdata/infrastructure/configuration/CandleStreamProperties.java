@@ -0,0 +1,41 @@
+package com.metradingplat.marketdata.infrastructure.configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import com.metradingplat.marketdata.domain.enums.EnumTimeframe;
+
+import lombok.Data;
+
+/**
+ * Publicacion de barras en vivo a Kafka para los simbolos suscritos por
+ * marketdata.commands.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "marketdata.kafka.candles")
+@Data
+public class CandleStreamProperties {
+
+    private boolean enabled = true;
+    private String topic = "marketdata.candles";
+    private List<EnumTimeframe> timeframes = new ArrayList<>(List.of(EnumTimeframe.M1, EnumTimeframe.M5));
+
+    // Minimo intervalo entre actualizaciones de la barra en formacion (por simbolo/timeframe)
+    private long formingThrottleMs = 1000;
+
+    // Margen tras el fin teorico de la barra antes de cerrarla sin esperar la siguiente
+    private long closeGraceMs = 2000;
+
+    // Tras una reconexion se recuperan las barras del hueco con una suscripcion acotada
+    private boolean backfillEnabled = true;
+    private int backfillMaxBars = 500;
+
+    // Topic compactado con la ultima barra cerrada por simbolo/timeframe
+    private boolean latestEnabled = true;
+    private String latestTopic = "marketdata.candles.latest";
+    private int partitions = 6;
+    private short replicationFactor = 1;
+}
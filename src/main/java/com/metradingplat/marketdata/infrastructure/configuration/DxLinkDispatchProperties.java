@@ -0,0 +1,29 @@
+package com.metradingplat.marketdata.infrastructure.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+/**
+ * Despacho de los mensajes de DxLink por canal: el canal default (quotes y
+ * trades en vivo) en un hilo propio de alta prioridad y los canales de batch en
+ * un pool acotado aparte.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "tastytrade.dxlink.dispatch")
+@Data
+public class DxLinkDispatchProperties {
+
+    // Hilos para decodificar snapshots de candles de los canales de batch
+    private int batchThreads = 2;
+
+    // Canales de batch esperando hilo; al llenarse decodifica el hilo del socket
+    private int batchQueueCapacity = 64;
+
+    // Mensajes pendientes por canal de batch; llena => el hilo del socket espera a que drene
+    private int channelQueueCapacity = 1024;
+
+    // Mensajes del canal default esperando el hilo de tiempo real; llena => se descartan quotes/trades
+    private int realtimeQueueCapacity = 8192;
+}
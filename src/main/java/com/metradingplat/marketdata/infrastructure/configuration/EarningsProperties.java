@@ -0,0 +1,24 @@
+package com.metradingplat.marketdata.infrastructure.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+/**
+ * Consulta de earnings (cache diaria por simbolo y batch).
+ */
+@Configuration
+@ConfigurationProperties(prefix = "marketdata.earnings")
+@Data
+public class EarningsProperties {
+
+    // Llamadas simultaneas a TastyTrade al resolver un batch
+    private int maxConcurrency = 16;
+
+    // Horizonte maximo del calendario de earnings
+    private int maxCalendarDays = 90;
+
+    // Vigencia de la cache para simbolos sin reportes (ETFs, fondos o fallo upstream)
+    private int emptyTtlMinutes = 60;
+}
@@ -0,0 +1,27 @@
+package com.metradingplat.marketdata.infrastructure.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+/**
+ * Universo de equities activas (/symbols).
+ */
+@Configuration
+@ConfigurationProperties(prefix = "marketdata.universe")
+@Data
+public class EquityUniverseProperties {
+
+    // Antiguedad a partir de la cual el universo se refresca en segundo plano
+    private long refreshIntervalMinutes = 60;
+
+    // Instrumentos por pagina de /instruments/equities/active
+    private int pageSize = 1000;
+
+    // Paginas descargadas en paralelo
+    private int parallelPages = 4;
+
+    private boolean persistEnabled = true;
+    private String snapshotPath = System.getProperty("java.io.tmpdir") + "/marketdata/active-equities.json";
+}
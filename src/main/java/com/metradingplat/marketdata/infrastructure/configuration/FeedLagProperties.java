@@ -0,0 +1,31 @@
+package com.metradingplat.marketdata.infrastructure.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+/**
+ * Seguimiento del retraso del feed de DxLink (exchange -> recepcion -> Kafka) y
+ * watchdog de simbolos detenidos.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "marketdata.stream.lag")
+@Data
+public class FeedLagProperties {
+
+    private boolean enabled = true;
+    private long watchdogIntervalSeconds = 10;
+
+    // Un simbolo suscrito sin eventos por mas de esto (con el resto del feed vivo) esta detenido
+    private long stallThresholdSeconds = 60;
+
+    // Feed atrasado: la mediana del retraso exchange -> recepcion supera este umbral
+    private long behindThresholdMs = 2000;
+
+    // Peso de la ultima muestra en el promedio movil por simbolo
+    private double ewmaAlpha = 0.2;
+
+    // Simbolos con mayor retraso reportados en /api/health/dxlink/lag
+    private int outliers = 20;
+}
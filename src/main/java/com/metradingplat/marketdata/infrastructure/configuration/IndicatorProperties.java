@@ -0,0 +1,27 @@
+package com.metradingplat.marketdata.infrastructure.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+/**
+ * Indicadores incrementales sobre la cache de candles.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "marketdata.indicators")
+@Data
+public class IndicatorProperties {
+
+    // Barras con las que se siembra una serie (y se completa si quedo atras)
+    private int seedBars = 500;
+
+    // EMA/RSI/ATR convergen en varias veces su periodo: se limita para que la semilla alcance
+    private int maxPeriod = 200;
+
+    // Series sin consultas en este tiempo se descartan (el stream en vivo no cuenta como uso)
+    private int idleTtlMinutes = 60;
+
+    // Tope de series symbol:TF en memoria; al superarlo se descartan las menos usadas
+    private int maxSeries = 50_000;
+}
@@ -0,0 +1,47 @@
+package com.metradingplat.marketdata.infrastructure.configuration;
+
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+
+/**
+ * Contenedores de listeners con configuracion propia. El resto usa el
+ * kafkaListenerContainerFactory autoconfigurado.
+ */
+@Configuration
+public class KafkaConsumerConfig {
+
+    /**
+     * Lotes con ack manual: el listener de ordenes confirma el offset solo cuando
+     * el resultado de cada orden del lote esta publicado.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> ordersKafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> kafkaConsumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, kafkaConsumerFactory);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        return factory;
+    }
+
+    /**
+     * Lotes sin confirmar offsets: el listener de ultimo valor asigna sus
+     * particiones a mano y relee desde el inicio, asi que nunca hace ack y no
+     * deja estado de grupo en el broker.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> lastValueKafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> kafkaConsumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, kafkaConsumerFactory);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        return factory;
+    }
+}
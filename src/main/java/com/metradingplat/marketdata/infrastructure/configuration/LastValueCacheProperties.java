@@ -0,0 +1,31 @@
+package com.metradingplat.marketdata.infrastructure.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+/**
+ * Cache de ultimo valor compartida entre replicas: cada replica publica el
+ * ultimo quote por simbolo en un topic compactado y materializa ese topic y
+ * marketdata.candles.latest en memoria.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "marketdata.kafka.last-value")
+@Data
+public class LastValueCacheProperties {
+
+    private boolean enabled = true;
+    private String quotesTopic = "marketdata.quotes.latest";
+    private int partitions = 6;
+    private short replicationFactor = 1;
+
+    // Conflacion de los ticks del stream antes de re-publicar el quote de un simbolo
+    private long publishIntervalMs = 500;
+
+    // Un quote se sirve de la cache si se actualizo hace menos de esto...
+    private long quoteMaxAgeMs = 2000;
+
+    // ...y su snapshot REST (open/high/low/prevClose, ...) no es mas viejo que esto
+    private long snapshotMaxAgeMs = 60_000;
+}
@@ -0,0 +1,25 @@
+package com.metradingplat.marketdata.infrastructure.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+/**
+ * Ejecucion de ordenes recibidas por Kafka.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "marketdata.orders.pipeline")
+@Data
+public class OrderPipelineProperties {
+
+    // Ordenes enviadas a TastyTrade sin resultado publicado; el listener espera al superarlo
+    private int maxInFlight = 64;
+
+    // Registros por poll del topic de ordenes
+    private int maxPollRecords = 200;
+
+    // Comandos cuyo resultado no se pudo publicar (la orden ya se envio, no se reintenta)
+    private String deadLetterTopic = "order-requests.DLT";
+    private long deadLetterTimeoutMs = 10_000;
+}
@@ -0,0 +1,22 @@
+package com.metradingplat.marketdata.infrastructure.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import com.metradingplat.marketdata.domain.enums.EnumTimeframe;
+
+import lombok.Data;
+
+/**
+ * Screening de expresiones sobre el universo de equities.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "marketdata.screener")
+@Data
+public class ScreenerProperties {
+
+    // Tope de simbolos por consulta (todos pasan por la cache de candles)
+    private int maxSymbols = 8000;
+
+    private EnumTimeframe defaultTimeframe = EnumTimeframe.D1;
+}
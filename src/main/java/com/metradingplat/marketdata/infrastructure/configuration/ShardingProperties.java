@@ -0,0 +1,31 @@
+package com.metradingplat.marketdata.infrastructure.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+/**
+ * Reparto de simbolos entre replicas. Los comandos de marketdata.commands se
+ * re-publican con key = simbolo en un topic compactado; cada replica es duena
+ * de los simbolos de las particiones que Kafka le asigna.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "marketdata.sharding")
+@Data
+public class ShardingProperties {
+
+    private boolean enabled = true;
+    private String ownedTopic = "marketdata.commands.owned";
+
+    // Define la granularidad del reparto: maximo de replicas con simbolos propios
+    private int partitions = 12;
+    private short replicationFactor = 1;
+    private String groupId = "marketdata-owners";
+
+    // Prefijo del client.id del consumidor; lo devuelve la consulta de dueno de un simbolo
+    private String instanceId = "local";
+
+    // Espera maxima del ack de los registros re-publicados; al vencer se reprocesa el lote
+    private long routeTimeoutMs = 30_000;
+}
@@ -0,0 +1,28 @@
+package com.metradingplat.marketdata.infrastructure.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+/**
+ * Productor dedicado a marketdata.stream, afinado para throughput.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "marketdata.kafka.stream")
+@Data
+public class StreamProducerProperties {
+
+    public enum Encoding {
+        BINARY, JSON
+    }
+
+    // JSON es el formato que ya leen los consumidores; BINARY es opt-in
+    private Encoding encoding = Encoding.JSON;
+    private String acks = "1";
+    private int lingerMs = 5;
+    private int batchSize = 128 * 1024;
+    private String compressionType = "lz4";
+    private long bufferMemory = 64L * 1024 * 1024;
+    private int maxInFlightRequests = 5;
+}
@@ -0,0 +1,33 @@
+package com.metradingplat.marketdata.infrastructure.configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import com.metradingplat.marketdata.domain.enums.EnumTimeframe;
+
+import lombok.Data;
+
+/**
+ * Calentamiento en segundo plano despues del arranque.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "marketdata.warmup")
+@Data
+public class WarmUpProperties {
+
+    private boolean enabled = true;
+
+    // Espera entre reintentos de una etapa obligatoria (tokens, DxLink, canales)
+    private long retryDelaySeconds = 15;
+
+    // Timeout de la apertura del canal de prueba
+    private long channelTimeoutMs = 5000;
+
+    // Simbolos cuyas candles se precargan en la cache historica
+    private List<String> preloadSymbols = new ArrayList<>();
+    private EnumTimeframe preloadTimeframe = EnumTimeframe.M1;
+    private int preloadBars = 390;
+}
@@ -0,0 +1,29 @@
+package com.metradingplat.marketdata.infrastructure.configuration;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+import com.metradingplat.marketdata.infrastructure.input.websocketGestionarStream.handler.MarketDataStreamWebSocketHandler;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Registra el endpoint push para quotes y barras en vivo.
+ * Los clientes se suscriben a simbolos y reciben snapshot + deltas por campo.
+ */
+@Configuration
+@EnableWebSocket
+@RequiredArgsConstructor
+public class WebSocketStreamConfig implements WebSocketConfigurer {
+
+    private final MarketDataStreamWebSocketHandler marketDataStreamWebSocketHandler;
+    private final WebSocketStreamProperties properties;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(marketDataStreamWebSocketHandler, properties.getPath())
+                .setAllowedOrigins(properties.getAllowedOrigins().toArray(String[]::new));
+    }
+}
@@ -0,0 +1,30 @@
+package com.metradingplat.marketdata.infrastructure.configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+/**
+ * Parametros del endpoint push (WebSocket) de datos en vivo.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "marketdata.stream.push")
+@Data
+public class WebSocketStreamProperties {
+
+    private String path = "/api/marketdata/stream/ws";
+    // Vacio = solo mismo origen; los origenes del frontend se configuran explicitamente
+    private List<String> allowedOrigins = new ArrayList<>();
+
+    // Conflacion: cada conexion recibe como maximo un frame por intervalo
+    private long flushIntervalMs = 100;
+
+    // Slow-consumer: si el envio tarda mas o el buffer pendiente crece, se expulsa
+    private int sendTimeLimitMs = 5000;
+    private int bufferSizeLimitBytes = 512 * 1024;
+    private int maxSymbolsPerSession = 500;
+}
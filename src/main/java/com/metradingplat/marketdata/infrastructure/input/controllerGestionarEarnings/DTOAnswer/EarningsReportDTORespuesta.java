@@ -15,5 +15,6 @@ public class EarningsReportDTORespuesta {
     private String symbol;
     private LocalDate occurredDate;
     private Double eps;
+    private LocalDate estimatedEarningsDate;
     private Long daysUntilEarnings;
 }
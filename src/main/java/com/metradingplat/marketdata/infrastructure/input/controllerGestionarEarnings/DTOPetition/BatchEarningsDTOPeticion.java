@@ -0,0 +1,16 @@
+package com.metradingplat.marketdata.infrastructure.input.controllerGestionarEarnings.DTOPetition;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchEarningsDTOPeticion {
+    private List<String> symbols;
+}
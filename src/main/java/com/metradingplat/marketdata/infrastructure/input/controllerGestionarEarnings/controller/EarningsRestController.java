@@ -1,28 +1,43 @@
 package com.metradingplat.marketdata.infrastructure.input.controllerGestionarEarnings.controller;
 
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.metradingplat.marketdata.application.input.GestionarEarningsCUIntPort;
 import com.metradingplat.marketdata.domain.models.EarningsReport;
+import com.metradingplat.marketdata.infrastructure.configuration.EarningsProperties;
+import com.metradingplat.marketdata.infrastructure.input.controllerGestionarEarnings.DTOAnswer.BatchEarningsDTORespuesta;
 import com.metradingplat.marketdata.infrastructure.input.controllerGestionarEarnings.DTOAnswer.EarningsReportDTORespuesta;
+import com.metradingplat.marketdata.infrastructure.input.controllerGestionarEarnings.DTOPetition.BatchEarningsDTOPeticion;
 import com.metradingplat.marketdata.infrastructure.input.controllerGestionarEarnings.mapper.EarningsMapper;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 @RestController
 @RequestMapping("/api/marketdata")
 @RequiredArgsConstructor
 @Validated
+@Slf4j
 public class EarningsRestController {
 
     private final GestionarEarningsCUIntPort objGestionarEarningsCUInt;
     private final EarningsMapper objMapper;
+    private final EarningsProperties earningsProperties;
 
     @GetMapping("/earnings/{symbol}")
     public ResponseEntity<EarningsReportDTORespuesta> obtenerEarnings(
@@ -31,4 +46,49 @@ public class EarningsRestController {
         EarningsReportDTORespuesta respuesta = this.objMapper.deDominioARespuesta(earnings);
         return ResponseEntity.ok(respuesta);
     }
+
+    /**
+     * Proximos earnings de varios simbolos. Los que no estan en cache se
+     * consultan en paralelo.
+     */
+    @PostMapping("/earnings/batch")
+    public ResponseEntity<BatchEarningsDTORespuesta> obtenerEarningsBatch(
+            @RequestBody @Valid BatchEarningsDTOPeticion peticion) {
+        if (peticion.getSymbols() == null || peticion.getSymbols().isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        log.info("POST /earnings/batch symbols={}", peticion.getSymbols().size());
+
+        Map<String, EarningsReport> earnings = this.objGestionarEarningsCUInt
+                .obtenerProximosEarnings(peticion.getSymbols());
+
+        Map<String, EarningsReportDTORespuesta> earningsDTO = new LinkedHashMap<>();
+        for (Map.Entry<String, EarningsReport> entry : earnings.entrySet()) {
+            earningsDTO.put(entry.getKey(), this.objMapper.deDominioARespuesta(entry.getValue()));
+        }
+
+        BatchEarningsDTORespuesta respuesta = BatchEarningsDTORespuesta.builder()
+                .earningsPorSimbolo(earningsDTO)
+                .serverTimestamp(Instant.now())
+                .build();
+
+        return ResponseEntity.ok(respuesta);
+    }
+
+    /**
+     * Simbolos con anuncio estimado en los proximos dias, ordenados por fecha.
+     * Solo incluye simbolos ya consultados (individual o batch); no recorre el
+     * universo, asi que un simbolo nunca pedido no aparece aunque reporte en el
+     * rango.
+     */
+    @GetMapping("/earnings/calendar")
+    public ResponseEntity<List<EarningsReportDTORespuesta>> obtenerCalendario(
+            @RequestParam(value = "days", defaultValue = "7") int days) {
+        if (days < 0 || days > earningsProperties.getMaxCalendarDays()) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<EarningsReport> earnings = this.objGestionarEarningsCUInt.obtenerCalendarioEarnings(days);
+        return ResponseEntity.ok(this.objMapper.deDominioARespuestas(earnings));
+    }
 }
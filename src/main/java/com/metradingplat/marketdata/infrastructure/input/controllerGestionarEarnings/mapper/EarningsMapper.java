@@ -1,5 +1,7 @@
 package com.metradingplat.marketdata.infrastructure.input.controllerGestionarEarnings.mapper;
 
+import java.util.List;
+
 import org.mapstruct.Mapper;
 import org.mapstruct.ReportingPolicy;
 
@@ -9,4 +11,6 @@ import com.metradingplat.marketdata.infrastructure.input.controllerGestionarEarn
 @Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
 public interface EarningsMapper {
     EarningsReportDTORespuesta deDominioARespuesta(EarningsReport earningsReport);
+
+    List<EarningsReportDTORespuesta> deDominioARespuestas(List<EarningsReport> earningsReports);
 }
@@ -1,5 +1,6 @@
 package com.metradingplat.marketdata.infrastructure.input.controllerGestionarHistoricalData.DTOPetition;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 
 import com.metradingplat.marketdata.domain.enums.EnumTimeframe;
@@ -17,4 +18,5 @@ public class BatchCandlesDTOPeticion {
     private List<String> symbols;
     private EnumTimeframe timeframe;
     private Integer bars;
+    private OffsetDateTime since;
 }
@@ -6,14 +6,18 @@ import java.util.List;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -47,12 +51,24 @@ public class HistoricalDataRestController {
             @PathVariable("symbol") @NotNull String symbol,
             @RequestParam("timeframe") @NotNull EnumTimeframe timeframe,
             @RequestParam(value = "endDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime endDate,
-            @RequestParam(value = "bars", required = false) Integer bars) {
+            @RequestParam(value = "bars", required = false) Integer bars,
+            @RequestParam(value = "since", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime since,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        log.info("GET /historical/{} timeframe={} endDate={} bars={} since={}", symbol, timeframe, endDate, bars,
+                since);
+        List<Candle> candles = this.objGestionarHistoricalDataCUInt.getCandles(symbol, timeframe, endDate, bars,
+                since);
+
+        // ETag basado en la ultima barra: si no cambio, el cliente ya tiene la serie
+        String etag = calcularETag(timeframe, huellaUltimaBarra(candles));
+        if (coincideETag(ifNoneMatch, etag)) {
+            log.info("GET /historical/{} -> 304 Not Modified", symbol);
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
 
-        log.info("GET /historical/{} timeframe={} endDate={} bars={}", symbol, timeframe, endDate, bars);
-        List<Candle> candles = this.objGestionarHistoricalDataCUInt.getCandles(symbol, timeframe, endDate, bars);
         log.info("GET /historical/{} -> {} candles", symbol, candles.size());
-        return ResponseEntity.ok(this.objMapper.deDominioARespuestas(candles));
+        return ResponseEntity.ok().eTag(etag).body(this.objMapper.deDominioARespuestas(candles));
     }
 
     @GetMapping("/{symbol}/current")
@@ -91,17 +107,32 @@ public class HistoricalDataRestController {
 
     @PostMapping("/batch")
     public ResponseEntity<BatchCandlesDTORespuesta> getCandlesBatch(
-            @RequestBody @Valid BatchCandlesDTOPeticion peticion) {
+            @RequestBody @Valid BatchCandlesDTOPeticion peticion,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
         int barsReq = peticion.getBars() != null ? peticion.getBars() : 100; // Limite default mas bajo
 
-        log.info("POST /historical/batch symbols={} timeframe={} bars={}",
-                peticion.getSymbols().size(), peticion.getTimeframe(), barsReq);
+        log.info("POST /historical/batch symbols={} timeframe={} bars={} since={}",
+                peticion.getSymbols().size(), peticion.getTimeframe(), barsReq, peticion.getSince());
 
         Map<String, List<Candle>> candlesDominio = this.objGestionarHistoricalDataCUInt.getCandlesBatch(
                 peticion.getSymbols(),
                 peticion.getTimeframe(),
-                barsReq);
+                barsReq,
+                peticion.getSince());
+
+        // ETag combinado de la ultima barra de cada simbolo
+        long huella = 1;
+        for (String symbol : peticion.getSymbols()) {
+            List<Candle> candles = candlesDominio.getOrDefault(symbol, List.of());
+            huella = 31 * huella + symbol.hashCode();
+            huella = 31 * huella + huellaUltimaBarra(candles);
+        }
+        String etag = calcularETag(peticion.getTimeframe(), huella);
+        if (coincideETag(ifNoneMatch, etag)) {
+            log.info("POST /historical/batch -> 304 Not Modified");
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
 
         // Convertir dominio a DTO
         Map<String, List<CandleDTORespuesta>> candlesDTO = new HashMap<>();
@@ -117,7 +148,7 @@ public class HistoricalDataRestController {
         log.info("POST /historical/batch -> {} simbolos, {} candles totales",
                 candlesDTO.size(), candlesDTO.values().stream().mapToInt(List::size).sum());
 
-        return ResponseEntity.ok(respuesta);
+        return ResponseEntity.ok().eTag(etag).body(respuesta);
     }
 
     @PostMapping("/batch/last")
@@ -173,4 +204,49 @@ public class HistoricalDataRestController {
 
         return ResponseEntity.ok(respuesta);
     }
+
+    /**
+     * Huella de la ultima barra: timestamp y OHLCV, asi una correccion de la
+     * barra (mismo timestamp, otros valores) cambia el ETag.
+     */
+    private static long huellaUltimaBarra(List<Candle> candles) {
+        if (candles.isEmpty()) {
+            return 0L;
+        }
+        Candle ultima = candles.get(candles.size() - 1);
+        long huella = ultima.getTimestamp().toEpochMilli();
+        huella = 31 * huella + Objects.hashCode(ultima.getOpen());
+        huella = 31 * huella + Objects.hashCode(ultima.getHigh());
+        huella = 31 * huella + Objects.hashCode(ultima.getLow());
+        huella = 31 * huella + Objects.hashCode(ultima.getClose());
+        huella = 31 * huella + Objects.hashCode(ultima.getVolume());
+        return huella;
+    }
+
+    private static String calcularETag(EnumTimeframe timeframe, long huella) {
+        return "W/\"" + timeframe.name() + "-" + Long.toHexString(huella) + "\"";
+    }
+
+    /**
+     * Comparacion debil de If-None-Match (acepta lista separada por comas y "*").
+     */
+    private static boolean coincideETag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        String esperado = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String candidato : ifNoneMatch.split(",")) {
+            String valor = candidato.trim();
+            if (valor.equals("*")) {
+                return true;
+            }
+            if (valor.startsWith("W/")) {
+                valor = valor.substring(2);
+            }
+            if (valor.equals(esperado)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,18 @@
+package com.metradingplat.marketdata.infrastructure.input.controllerGestionarIndicadores.DTOAnswer;
+
+import java.time.Instant;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchIndicadoresDTORespuesta {
+    private Map<String, IndicadoresDTORespuesta> indicadoresPorSimbolo;
+    private Instant serverTimestamp;
+}
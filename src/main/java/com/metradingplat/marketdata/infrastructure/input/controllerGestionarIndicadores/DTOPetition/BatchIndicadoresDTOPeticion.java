@@ -0,0 +1,20 @@
+package com.metradingplat.marketdata.infrastructure.input.controllerGestionarIndicadores.DTOPetition;
+
+import java.util.List;
+
+import com.metradingplat.marketdata.domain.enums.EnumTimeframe;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchIndicadoresDTOPeticion {
+    private List<String> symbols;
+    private EnumTimeframe timeframe;
+    private List<String> indicators; // SMA(50), EMA(20), RSI(14), ATR(14), VWAP
+}
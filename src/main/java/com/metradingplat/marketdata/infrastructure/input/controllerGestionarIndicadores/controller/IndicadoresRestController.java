@@ -0,0 +1,77 @@
+package com.metradingplat.marketdata.infrastructure.input.controllerGestionarIndicadores.controller;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.metradingplat.marketdata.application.input.GestionarIndicadoresCUIntPort;
+import com.metradingplat.marketdata.domain.indicadores.IndicadorSpec;
+import com.metradingplat.marketdata.domain.models.IndicadoresSimbolo;
+import com.metradingplat.marketdata.infrastructure.input.controllerGestionarIndicadores.DTOAnswer.BatchIndicadoresDTORespuesta;
+import com.metradingplat.marketdata.infrastructure.input.controllerGestionarIndicadores.DTOAnswer.IndicadoresDTORespuesta;
+import com.metradingplat.marketdata.infrastructure.input.controllerGestionarIndicadores.DTOPetition.BatchIndicadoresDTOPeticion;
+import com.metradingplat.marketdata.infrastructure.input.controllerGestionarIndicadores.mapper.IndicadoresMapper;
+import com.metradingplat.marketdata.infrastructure.output.exceptionsController.ownExceptions.ReglaNegocioException;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/marketdata/indicators")
+@RequiredArgsConstructor
+@Validated
+@Slf4j
+public class IndicadoresRestController {
+
+    private final GestionarIndicadoresCUIntPort objGestionarIndicadoresCUInt;
+    private final IndicadoresMapper objMapper;
+
+    /**
+     * Solo los valores de los indicadores (con la ultima barra cerrada) de varios
+     * simbolos, en lugar de la serie completa. Los simbolos sin datos no aparecen
+     * en la respuesta.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchIndicadoresDTORespuesta> calcularIndicadores(
+            @RequestBody @Valid BatchIndicadoresDTOPeticion peticion) {
+        if (peticion.getSymbols() == null || peticion.getSymbols().isEmpty() || peticion.getTimeframe() == null
+                || peticion.getIndicators() == null || peticion.getIndicators().isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        log.info("POST /indicators/batch symbols={} timeframe={} indicators={}",
+                peticion.getSymbols().size(), peticion.getTimeframe(), peticion.getIndicators());
+
+        Map<String, IndicadoresSimbolo> indicadores;
+        try {
+            List<IndicadorSpec> specs = peticion.getIndicators().stream().map(IndicadorSpec::parse).distinct().toList();
+            indicadores = this.objGestionarIndicadoresCUInt.calcularIndicadores(peticion.getSymbols(),
+                    peticion.getTimeframe(), specs);
+        } catch (IllegalArgumentException e) {
+            throw new ReglaNegocioException(e.getMessage());
+        }
+
+        Map<String, IndicadoresDTORespuesta> indicadoresDTO = new LinkedHashMap<>();
+        for (Map.Entry<String, IndicadoresSimbolo> entry : indicadores.entrySet()) {
+            indicadoresDTO.put(entry.getKey(), this.objMapper.deDominioARespuesta(entry.getValue()));
+        }
+
+        BatchIndicadoresDTORespuesta respuesta = BatchIndicadoresDTORespuesta.builder()
+                .indicadoresPorSimbolo(indicadoresDTO)
+                .serverTimestamp(Instant.now())
+                .build();
+
+        log.info("POST /indicators/batch -> {} simbolos con datos", indicadoresDTO.size());
+
+        return ResponseEntity.ok(respuesta);
+    }
+}
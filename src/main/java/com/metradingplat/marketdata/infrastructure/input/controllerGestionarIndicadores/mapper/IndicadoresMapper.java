@@ -0,0 +1,12 @@
+package com.metradingplat.marketdata.infrastructure.input.controllerGestionarIndicadores.mapper;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.ReportingPolicy;
+
+import com.metradingplat.marketdata.domain.models.IndicadoresSimbolo;
+import com.metradingplat.marketdata.infrastructure.input.controllerGestionarIndicadores.DTOAnswer.IndicadoresDTORespuesta;
+
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface IndicadoresMapper {
+    IndicadoresDTORespuesta deDominioARespuesta(IndicadoresSimbolo indicadores);
+}
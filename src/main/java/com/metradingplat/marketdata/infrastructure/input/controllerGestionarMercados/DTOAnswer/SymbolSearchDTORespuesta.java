@@ -0,0 +1,19 @@
+package com.metradingplat.marketdata.infrastructure.input.controllerGestionarMercados.DTOAnswer;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SymbolSearchDTORespuesta {
+    private List<ActiveEquityDTORespuesta> items;
+    private int total;
+    private int offset;
+    private int limit;
+}
@@ -12,10 +12,15 @@ import org.springframework.web.bind.annotation.RestController;
 import com.metradingplat.marketdata.application.input.GestionarMercadosCUIntPort;
 import com.metradingplat.marketdata.domain.enums.EnumMercado;
 import com.metradingplat.marketdata.domain.models.ActiveEquity;
+import com.metradingplat.marketdata.domain.models.EquitySearchPage;
 import com.metradingplat.marketdata.infrastructure.input.controllerGestionarMercados.DTOAnswer.ActiveEquityDTORespuesta;
 import com.metradingplat.marketdata.infrastructure.input.controllerGestionarMercados.DTOAnswer.MercadoDTORespuesta;
+import com.metradingplat.marketdata.infrastructure.input.controllerGestionarMercados.DTOAnswer.SymbolSearchDTORespuesta;
 import com.metradingplat.marketdata.infrastructure.input.controllerGestionarMercados.mapper.MercadosMapper;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
 import lombok.RequiredArgsConstructor;
 
 @RestController
@@ -41,4 +46,18 @@ public class MercadosRestController {
         List<ActiveEquityDTORespuesta> respuesta = this.objMapper.deActiveEquitiesARespuestas(activeEquities);
         return ResponseEntity.ok(respuesta);
     }
+
+    /**
+     * Autocompletado: prefijo de simbolo primero, luego prefijo de palabra de la
+     * descripcion.
+     */
+    @GetMapping("/symbols/search")
+    public ResponseEntity<SymbolSearchDTORespuesta> buscarSimbolos(
+            @RequestParam("q") @NotBlank String q,
+            @RequestParam(value = "markets", required = false) List<String> markets,
+            @RequestParam(value = "offset", defaultValue = "0") @Min(0) int offset,
+            @RequestParam(value = "limit", defaultValue = "20") @Min(1) @Max(100) int limit) {
+        EquitySearchPage pagina = this.objGestionarMercadosCUInt.buscarSimbolos(q, markets, offset, limit);
+        return ResponseEntity.ok(this.objMapper.deBusquedaARespuesta(pagina));
+    }
 }
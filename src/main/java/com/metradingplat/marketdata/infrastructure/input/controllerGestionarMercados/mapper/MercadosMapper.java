@@ -7,8 +7,10 @@ import org.mapstruct.ReportingPolicy;
 
 import com.metradingplat.marketdata.domain.enums.EnumMercado;
 import com.metradingplat.marketdata.domain.models.ActiveEquity;
+import com.metradingplat.marketdata.domain.models.EquitySearchPage;
 import com.metradingplat.marketdata.infrastructure.input.controllerGestionarMercados.DTOAnswer.ActiveEquityDTORespuesta;
 import com.metradingplat.marketdata.infrastructure.input.controllerGestionarMercados.DTOAnswer.MercadoDTORespuesta;
+import com.metradingplat.marketdata.infrastructure.input.controllerGestionarMercados.DTOAnswer.SymbolSearchDTORespuesta;
 
 @Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
 public interface MercadosMapper {
@@ -20,4 +22,6 @@ public interface MercadosMapper {
     ActiveEquityDTORespuesta deDominioARespuesta(ActiveEquity activeEquity);
 
     List<ActiveEquityDTORespuesta> deActiveEquitiesARespuestas(List<ActiveEquity> activeEquities);
+
+    SymbolSearchDTORespuesta deBusquedaARespuesta(EquitySearchPage pagina);
 }
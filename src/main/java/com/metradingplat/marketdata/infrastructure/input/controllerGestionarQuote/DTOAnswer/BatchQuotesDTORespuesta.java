@@ -0,0 +1,18 @@
+package com.metradingplat.marketdata.infrastructure.input.controllerGestionarQuote.DTOAnswer;
+
+import java.time.Instant;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchQuotesDTORespuesta {
+    private Map<String, QuoteDTORespuesta> quotePorSimbolo;
+    private Instant serverTimestamp;
+}
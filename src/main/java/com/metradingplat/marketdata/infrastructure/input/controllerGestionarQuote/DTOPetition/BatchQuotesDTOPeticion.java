@@ -0,0 +1,23 @@
+package com.metradingplat.marketdata.infrastructure.input.controllerGestionarQuote.DTOPetition;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchQuotesDTOPeticion {
+    // Cinco llamadas de max-batch-size a /market-data/by-type
+    public static final int MAX_SYMBOLS = 500;
+
+    @NotEmpty
+    @Size(max = MAX_SYMBOLS)
+    private List<String> symbols;
+}
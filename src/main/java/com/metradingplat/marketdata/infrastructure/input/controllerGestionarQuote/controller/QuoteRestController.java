@@ -1,24 +1,35 @@
 package com.metradingplat.marketdata.infrastructure.input.controllerGestionarQuote.controller;
 
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.metradingplat.marketdata.application.input.GestionarQuoteCUIntPort;
 import com.metradingplat.marketdata.domain.models.Quote;
+import com.metradingplat.marketdata.infrastructure.input.controllerGestionarQuote.DTOAnswer.BatchQuotesDTORespuesta;
 import com.metradingplat.marketdata.infrastructure.input.controllerGestionarQuote.DTOAnswer.QuoteDTORespuesta;
+import com.metradingplat.marketdata.infrastructure.input.controllerGestionarQuote.DTOPetition.BatchQuotesDTOPeticion;
 import com.metradingplat.marketdata.infrastructure.input.controllerGestionarQuote.mapper.QuoteMapper;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 @RestController
 @RequestMapping("/api/marketdata")
 @RequiredArgsConstructor
 @Validated
+@Slf4j
 public class QuoteRestController {
 
     private final GestionarQuoteCUIntPort objGestionarQuoteCUInt;
@@ -31,4 +42,31 @@ public class QuoteRestController {
         QuoteDTORespuesta respuesta = this.objMapper.deDominioARespuesta(quote);
         return ResponseEntity.ok(respuesta);
     }
+
+    /**
+     * Quotes de varios simbolos (hasta {@link BatchQuotesDTOPeticion#MAX_SYMBOLS})
+     * en una sola peticion. Los simbolos sin datos o que no llegan a tiempo no
+     * aparecen en la respuesta.
+     */
+    @PostMapping("/quote/batch")
+    public ResponseEntity<BatchQuotesDTORespuesta> obtenerQuotes(
+            @RequestBody @Valid BatchQuotesDTOPeticion peticion) {
+        log.info("POST /quote/batch symbols={}", peticion.getSymbols().size());
+
+        Map<String, Quote> quotes = this.objGestionarQuoteCUInt.obtenerQuotes(peticion.getSymbols());
+
+        Map<String, QuoteDTORespuesta> quotesDTO = new LinkedHashMap<>();
+        for (Map.Entry<String, Quote> entry : quotes.entrySet()) {
+            quotesDTO.put(entry.getKey(), this.objMapper.deDominioARespuesta(entry.getValue()));
+        }
+
+        BatchQuotesDTORespuesta respuesta = BatchQuotesDTORespuesta.builder()
+                .quotePorSimbolo(quotesDTO)
+                .serverTimestamp(Instant.now())
+                .build();
+
+        log.info("POST /quote/batch -> {} simbolos con datos", quotesDTO.size());
+
+        return ResponseEntity.ok(respuesta);
+    }
 }
@@ -0,0 +1,24 @@
+package com.metradingplat.marketdata.infrastructure.input.controllerGestionarScreener.DTOAnswer;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.metradingplat.marketdata.domain.enums.EnumTimeframe;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScreenerDTORespuesta {
+    private String expresion;
+    private EnumTimeframe timeframe;
+    private List<String> symbols;
+    private int universo;
+    private int evaluados;
+    private Instant serverTimestamp;
+}
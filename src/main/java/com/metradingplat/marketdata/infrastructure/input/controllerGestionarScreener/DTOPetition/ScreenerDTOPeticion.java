@@ -0,0 +1,20 @@
+package com.metradingplat.marketdata.infrastructure.input.controllerGestionarScreener.DTOPetition;
+
+import java.util.List;
+
+import com.metradingplat.marketdata.domain.enums.EnumTimeframe;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScreenerDTOPeticion {
+    private String expression; // ej. close > SMA(50) and volume > 2 * VOLSMA(20)
+    private List<String> markets; // NYSE, NASDAQ, ... (vacio = todos)
+    private EnumTimeframe timeframe; // Default marketdata.screener.default-timeframe
+}
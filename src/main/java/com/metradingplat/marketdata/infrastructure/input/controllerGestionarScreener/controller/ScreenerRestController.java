@@ -0,0 +1,66 @@
+package com.metradingplat.marketdata.infrastructure.input.controllerGestionarScreener.controller;
+
+import java.time.Instant;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.metradingplat.marketdata.application.input.GestionarScreenerCUIntPort;
+import com.metradingplat.marketdata.domain.enums.EnumTimeframe;
+import com.metradingplat.marketdata.domain.models.ResultadoScreener;
+import com.metradingplat.marketdata.infrastructure.configuration.ScreenerProperties;
+import com.metradingplat.marketdata.infrastructure.input.controllerGestionarScreener.DTOAnswer.ScreenerDTORespuesta;
+import com.metradingplat.marketdata.infrastructure.input.controllerGestionarScreener.DTOPetition.ScreenerDTOPeticion;
+import com.metradingplat.marketdata.infrastructure.input.controllerGestionarScreener.mapper.ScreenerMapper;
+import com.metradingplat.marketdata.infrastructure.output.exceptionsController.ownExceptions.ReglaNegocioException;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/marketdata")
+@RequiredArgsConstructor
+@Validated
+@Slf4j
+public class ScreenerRestController {
+
+    private final GestionarScreenerCUIntPort objGestionarScreenerCUInt;
+    private final ScreenerMapper objMapper;
+    private final ScreenerProperties properties;
+
+    /**
+     * Simbolos de los mercados pedidos cuya ultima barra cerrada cumple la
+     * expresion. Solo viajan los simbolos, no las series.
+     */
+    @PostMapping("/screener")
+    public ResponseEntity<ScreenerDTORespuesta> filtrar(@RequestBody @Valid ScreenerDTOPeticion peticion) {
+        if (peticion.getExpression() == null || peticion.getExpression().isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        EnumTimeframe timeframe = peticion.getTimeframe() != null ? peticion.getTimeframe()
+                : properties.getDefaultTimeframe();
+
+        log.info("POST /screener expression='{}' markets={} timeframe={}", peticion.getExpression(),
+                peticion.getMarkets(), timeframe);
+
+        ResultadoScreener resultado;
+        try {
+            resultado = this.objGestionarScreenerCUInt.filtrar(peticion.getExpression(), peticion.getMarkets(),
+                    timeframe);
+        } catch (IllegalArgumentException e) {
+            throw new ReglaNegocioException(e.getMessage());
+        }
+
+        ScreenerDTORespuesta respuesta = this.objMapper.deDominioARespuesta(resultado);
+        respuesta.setServerTimestamp(Instant.now());
+
+        log.info("POST /screener -> {} de {} simbolos", resultado.getSymbols().size(), resultado.getUniverso());
+
+        return ResponseEntity.ok(respuesta);
+    }
+}
@@ -0,0 +1,12 @@
+package com.metradingplat.marketdata.infrastructure.input.controllerGestionarScreener.mapper;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.ReportingPolicy;
+
+import com.metradingplat.marketdata.domain.models.ResultadoScreener;
+import com.metradingplat.marketdata.infrastructure.input.controllerGestionarScreener.DTOAnswer.ScreenerDTORespuesta;
+
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface ScreenerMapper {
+    ScreenerDTORespuesta deDominioARespuesta(ResultadoScreener resultado);
+}
@@ -3,11 +3,15 @@ package com.metradingplat.marketdata.infrastructure.input.health;
 import java.util.Map;
 
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.metradingplat.marketdata.infrastructure.input.kafkaGestionarRealTime.sharding.SymbolOwnership;
 import com.metradingplat.marketdata.infrastructure.output.external.tastytrade.DxLinkClient;
+import com.metradingplat.marketdata.infrastructure.output.external.tastytrade.FeedLagMonitor;
+import com.metradingplat.marketdata.infrastructure.output.kafka.cache.LastValueCache;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -23,6 +27,9 @@ import lombok.extern.slf4j.Slf4j;
 public class HealthController {
 
     private final DxLinkClient dxLinkClient;
+    private final FeedLagMonitor feedLagMonitor;
+    private final SymbolOwnership symbolOwnership;
+    private final LastValueCache lastValueCache;
 
     /**
      * Obtener el estado de la conexión DxLink.
@@ -36,6 +43,48 @@ public class HealthController {
         return dxLinkClient.getConnectionStats();
     }
 
+    /**
+     * Retraso del feed en vivo: mediana exchange -> recepcion, simbolos detenidos
+     * y simbolos con mayor retraso (ultima evaluacion del watchdog).
+     *
+     * Ejemplo: GET /api/health/dxlink/lag
+     */
+    @GetMapping("/dxlink/lag")
+    public Map<String, Object> getDxLinkLag() {
+        return feedLagMonitor.getStats();
+    }
+
+    /**
+     * Particiones y simbolos de los que esta replica es duena.
+     *
+     * Ejemplo: GET /api/health/ownership
+     */
+    @GetMapping("/ownership")
+    public Map<String, Object> getOwnership() {
+        return symbolOwnership.getStats();
+    }
+
+    /**
+     * Particion y replica duena de un simbolo, para enrutar consultas de
+     * simbolos que no son de esta replica.
+     *
+     * Ejemplo: GET /api/health/ownership/AAPL
+     */
+    @GetMapping("/ownership/{symbol}")
+    public Map<String, Object> getSymbolOwner(@PathVariable String symbol) {
+        return symbolOwnership.describir(symbol.toUpperCase());
+    }
+
+    /**
+     * Entradas materializadas de los topics de ultimo valor.
+     *
+     * Ejemplo: GET /api/health/last-value
+     */
+    @GetMapping("/last-value")
+    public Map<String, Object> getLastValueCache() {
+        return lastValueCache.getStats();
+    }
+
     /**
      * Forzar reconexión del cliente DxLink.
      * Útil cuando la conexión está en mal estado.
@@ -0,0 +1,46 @@
+package com.metradingplat.marketdata.infrastructure.input.kafkaGestionarLastValue.listener;
+
+import java.util.List;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.PartitionOffset;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.stereotype.Component;
+
+import com.metradingplat.marketdata.infrastructure.output.kafka.cache.LastValueCache;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Materializa los topics compactados de ultimo valor (quotes y barras
+ * cerradas) en LastValueCache.
+ *
+ * Cada replica lee todas las particiones: se asignan a mano, sin gestion de
+ * grupo ni offsets confirmados (ver lastValueKafkaListenerContainerFactory), y
+ * se releen desde el inicio al arrancar. Asi un reinicio no deja un group
+ * huerfano en el broker.
+ */
+@Component
+@RequiredArgsConstructor
+public class LastValueKafkaListener {
+
+    private final LastValueCache lastValueCache;
+
+    @KafkaListener(id = "marketdata-last-value", containerFactory = "lastValueKafkaListenerContainerFactory",
+            topicPartitions = {
+                    @TopicPartition(topic = "${marketdata.kafka.last-value.quotes-topic:marketdata.quotes.latest}",
+                            partitions = "#{@lastValueParticiones.de('${marketdata.kafka.last-value.quotes-topic:marketdata.quotes.latest}', ${marketdata.kafka.last-value.partitions:6})}",
+                            partitionOffsets = @PartitionOffset(partition = "*", initialOffset = "0")),
+                    @TopicPartition(topic = "${marketdata.kafka.candles.latest-topic:marketdata.candles.latest}",
+                            partitions = "#{@lastValueParticiones.de('${marketdata.kafka.candles.latest-topic:marketdata.candles.latest}', ${marketdata.kafka.candles.partitions:6})}",
+                            partitionOffsets = @PartitionOffset(partition = "*", initialOffset = "0")) },
+            autoStartup = "${marketdata.kafka.last-value.enabled:true}")
+    public void recibirUltimosValores(List<ConsumerRecord<String, Object>> records) {
+        for (ConsumerRecord<String, Object> record : records) {
+            if (record.value() != null) {
+                lastValueCache.aplicar(record.value());
+            }
+        }
+    }
+}
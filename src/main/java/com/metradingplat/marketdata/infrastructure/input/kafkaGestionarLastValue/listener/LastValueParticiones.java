@@ -0,0 +1,35 @@
+package com.metradingplat.marketdata.infrastructure.input.kafkaGestionarLastValue.listener;
+
+import java.util.stream.IntStream;
+
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Particiones que asigna a mano LastValueKafkaListener. Se leen de la metadata
+ * del topic (pudo existir antes o ampliarse); si aun no existe se usan las
+ * configuradas, que son las que crea KafkaTopicsConfig.
+ */
+@Component("lastValueParticiones")
+@RequiredArgsConstructor
+@Slf4j
+public class LastValueParticiones {
+
+    private final KafkaAdmin kafkaAdmin;
+
+    public String[] de(String topic, int configuradas) {
+        int particiones = configuradas;
+        try {
+            TopicDescription descripcion = kafkaAdmin.describeTopics(topic).get(topic);
+            particiones = descripcion.partitions().size();
+        } catch (Exception e) {
+            log.info("Last value: sin metadata de {} ({}), se asignan {} particiones", topic, e.getMessage(),
+                    configuradas);
+        }
+        return IntStream.range(0, particiones).mapToObj(String::valueOf).toArray(String[]::new);
+    }
+}
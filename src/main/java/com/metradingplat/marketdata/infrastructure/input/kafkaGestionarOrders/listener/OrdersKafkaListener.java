@@ -1,11 +1,23 @@
 package com.metradingplat.marketdata.infrastructure.input.kafkaGestionarOrders.listener;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.stereotype.Component;
 import com.metradingplat.marketdata.application.input.GestionarOrdersCUIntPort;
-import com.metradingplat.marketdata.domain.models.OrderRequest;
+import com.metradingplat.marketdata.infrastructure.configuration.OrderPipelineProperties;
 import com.metradingplat.marketdata.infrastructure.input.kafkaGestionarOrders.DTOPetition.OrderRequestDTO;
 import com.metradingplat.marketdata.infrastructure.input.kafkaGestionarOrders.mappers.OrdersKafkaMapper;
+import com.metradingplat.marketdata.infrastructure.input.kafkaGestionarOrders.pipeline.OrderExecutionPipeline;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -16,11 +28,75 @@ public class OrdersKafkaListener {
 
     private final GestionarOrdersCUIntPort objGestionarOrdersCUInt;
     private final OrdersKafkaMapper objMapper;
+    private final OrderExecutionPipeline objPipeline;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OrderPipelineProperties properties;
+
+    /**
+     * Reparte el lote en carriles por simbolo y confirma el offset cuando todas
+     * las ordenes terminaron.
+     *
+     * Una orden enviada nunca se reentrega: si su resultado no se pudo publicar
+     * en orders.updates, el comando va al dead-letter topic y el lote se
+     * confirma igual. Solo se reentregan las ordenes que no llegaron a enviarse
+     * (el listener se interrumpio al esperar capacidad).
+     */
+    @KafkaListener(topics = "order-requests", groupId = "marketdata-group",
+            containerFactory = "ordersKafkaListenerContainerFactory",
+            properties = "max.poll.records:${marketdata.orders.pipeline.max-poll-records:200}")
+    public void recibirComandosOrden(List<OrderRequestDTO> commands, Acknowledgment ack) {
+        log.info("Recibidos {} comandos de orden", commands.size());
+
+        List<CompletableFuture<Void>> resultados = new ArrayList<>(commands.size());
+        try {
+            for (OrderRequestDTO command : commands) {
+                String clave = command.getSymbol() != null ? command.getSymbol() : "";
+                resultados.add(this.objPipeline.submit(clave,
+                        () -> this.objGestionarOrdersCUInt.placeBracketOrder(this.objMapper.deDTOADominio(command))));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Lote de ordenes interrumpido: {} de {} enviadas", resultados.size(), commands.size());
+        }
+
+        // Esperar todo lo enviado antes de decidir el commit: nada queda en vuelo
+        CompletableFuture.allOf(resultados.toArray(CompletableFuture[]::new)).handle((r, ex) -> null).join();
+
+        for (int i = 0; i < resultados.size(); i++) {
+            if (resultados.get(i).isCompletedExceptionally()) {
+                Throwable causa = resultados.get(i).handle((r, ex) -> ex).join();
+                enviarADeadLetter(commands.get(i), causa);
+            }
+        }
+
+        if (resultados.size() < commands.size()) {
+            // Se confirman las enviadas; desde la primera sin enviar se reentrega
+            ack.nack(resultados.size(), Duration.ZERO);
+            return;
+        }
+        ack.acknowledge();
+    }
+
+    private void enviarADeadLetter(OrderRequestDTO command, Throwable causa) {
+        Throwable raiz = causa.getCause() != null ? causa.getCause() : causa;
+        ProducerRecord<String, Object> registro = new ProducerRecord<>(properties.getDeadLetterTopic(),
+                command.getSymbol(), command);
+        registro.headers().add(KafkaHeaders.DLT_EXCEPTION_FQCN,
+                raiz.getClass().getName().getBytes(StandardCharsets.UTF_8));
+        registro.headers().add(KafkaHeaders.DLT_EXCEPTION_MESSAGE,
+                String.valueOf(raiz.getMessage()).getBytes(StandardCharsets.UTF_8));
 
-    @KafkaListener(topics = "order-requests", groupId = "marketdata-group")
-    public void recibirComandoOrden(OrderRequestDTO command) {
-        log.info("Recibido comando de orden para símbolo: {}", command.getSymbol());
-        OrderRequest domainOrder = this.objMapper.deDTOADominio(command);
-        this.objGestionarOrdersCUInt.placeBracketOrder(domainOrder);
+        try {
+            kafkaTemplate.send(registro).get(properties.getDeadLetterTimeoutMs(), TimeUnit.MILLISECONDS);
+            log.warn("Orden {} {} sin resultado publicado, enviada a {}: {}", command.getSymbol(),
+                    command.getAction(), properties.getDeadLetterTopic(), raiz.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Orden {} sin resultado publicado ni dead-letter (interrumpido): {}", command, raiz.getMessage());
+        } catch (Exception e) {
+            // La orden ya se ejecuto: reentregarla la duplicaria en el broker
+            log.error("Orden {} sin resultado publicado ni dead-letter: {} / {}", command, raiz.getMessage(),
+                    e.getMessage());
+        }
     }
 }
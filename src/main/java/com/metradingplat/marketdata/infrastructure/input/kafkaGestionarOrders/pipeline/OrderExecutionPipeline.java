@@ -0,0 +1,79 @@
+package com.metradingplat.marketdata.infrastructure.input.kafkaGestionarOrders.pipeline;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.metradingplat.marketdata.infrastructure.configuration.OrderPipelineProperties;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Ejecuta ordenes en hilos virtuales con orden estricto por clave.
+ *
+ * Cada clave (simbolo) tiene un carril: una cadena de futures donde cada orden
+ * arranca cuando termina la anterior de la misma clave, mientras que claves
+ * distintas avanzan en paralelo. El semaforo limita las ordenes en vuelo; al
+ * agotarse, {@link #submit} bloquea al llamador (el hilo del listener), que deja
+ * de hacer poll hasta que se libere capacidad.
+ */
+@Component
+@Slf4j
+public class OrderExecutionPipeline {
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("order-exec-", 0).factory());
+    private final Map<String, CompletableFuture<Void>> carriles = new ConcurrentHashMap<>();
+    private final Semaphore enVuelo;
+    private final int maxEnVuelo;
+
+    public OrderExecutionPipeline(OrderPipelineProperties properties) {
+        this.maxEnVuelo = properties.getMaxInFlight();
+        this.enVuelo = new Semaphore(maxEnVuelo);
+    }
+
+    /**
+     * Encola la tarea en el carril de la clave. El future devuelto completa cuando
+     * termina el future de la tarea.
+     */
+    public CompletableFuture<Void> submit(String clave, Supplier<CompletableFuture<Void>> tarea)
+            throws InterruptedException {
+        enVuelo.acquire();
+
+        CompletableFuture<Void> resultado;
+        try {
+            resultado = carriles.compute(clave, (k, anterior) -> {
+                CompletableFuture<Void> previa = anterior != null ? anterior : CompletableFuture.completedFuture(null);
+                // El fallo de una orden no detiene las siguientes del mismo carril
+                return previa.handle((r, ex) -> null)
+                        .thenComposeAsync(v -> tarea.get(), executor);
+            });
+        } catch (RuntimeException e) {
+            enVuelo.release();
+            throw e;
+        }
+
+        resultado.whenComplete((r, ex) -> {
+            enVuelo.release();
+            // Si nadie encolo detras, el carril se elimina
+            carriles.remove(clave, resultado);
+        });
+        return resultado;
+    }
+
+    public int getInFlight() {
+        return maxEnVuelo - enVuelo.availablePermits();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
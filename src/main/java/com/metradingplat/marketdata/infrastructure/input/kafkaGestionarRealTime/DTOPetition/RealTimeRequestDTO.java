@@ -1,5 +1,7 @@
 package com.metradingplat.marketdata.infrastructure.input.kafkaGestionarRealTime.DTOPetition;
 
+import java.util.List;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -10,6 +12,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class RealTimeRequestDTO {
-    private String action;
+    private String action; // SUBSCRIBE, UNSUBSCRIBE, SUBSCRIBE_BATCH, UNSUBSCRIBE_BATCH
     private String symbol;
+    private List<String> symbols; // Solo para acciones *_BATCH
 }
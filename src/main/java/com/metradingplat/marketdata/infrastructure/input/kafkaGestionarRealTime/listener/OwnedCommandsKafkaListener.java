@@ -0,0 +1,81 @@
+package com.metradingplat.marketdata.infrastructure.input.kafkaGestionarRealTime.listener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import com.metradingplat.marketdata.application.input.GestionarRealTimeCUIntPort;
+import com.metradingplat.marketdata.infrastructure.input.kafkaGestionarRealTime.DTOPetition.RealTimeRequestDTO;
+import com.metradingplat.marketdata.infrastructure.input.kafkaGestionarRealTime.sharding.SymbolOwnership;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Aplica los comandos de los simbolos propios (particiones asignadas del topic
+ * compactado keyed por simbolo). Un tombstone (valor null) suelta el simbolo.
+ *
+ * Al recibir particiones se relee el topic desde el inicio para reconstruir sus
+ * suscripciones; al perderlas se sueltan. Con CooperativeStickyAssignor un
+ * rebalanceo solo mueve las particiones que cambian de replica.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OwnedCommandsKafkaListener implements ConsumerSeekAware {
+
+    private final GestionarRealTimeCUIntPort objGestionarRealTimeCUInt;
+    private final SymbolOwnership ownership;
+
+    @KafkaListener(id = "marketdata-owned-commands", topics = "${marketdata.sharding.owned-topic:marketdata.commands.owned}",
+            groupId = "${marketdata.sharding.group-id:marketdata-owners}",
+            clientIdPrefix = "${marketdata.sharding.instance-id:local}", batch = "true",
+            autoStartup = "${marketdata.sharding.enabled:true}",
+            properties = "partition.assignment.strategy:org.apache.kafka.clients.consumer.CooperativeStickyAssignor")
+    public void recibirComandosPropios(List<ConsumerRecord<String, RealTimeRequestDTO>> records) {
+        Map<String, Boolean> cambios = new LinkedHashMap<>();
+        for (ConsumerRecord<String, RealTimeRequestDTO> record : records) {
+            if (record.key() == null)
+                continue;
+            boolean subscribe = record.value() != null && "SUBSCRIBE".equalsIgnoreCase(record.value().getAction());
+            if (ownership.aplicar(record.partition(), record.key(), subscribe)) {
+                cambios.remove(record.key());
+                cambios.put(record.key(), subscribe);
+            }
+        }
+        if (cambios.isEmpty())
+            return;
+
+        List<String> suscribir = new ArrayList<>();
+        List<String> desuscribir = new ArrayList<>();
+        cambios.forEach((symbol, subscribe) -> (subscribe ? suscribir : desuscribir).add(symbol));
+        log.debug("Comandos propios: +{} / -{} símbolos", suscribir.size(), desuscribir.size());
+
+        this.objGestionarRealTimeCUInt.unsubscribeFromSymbols(desuscribir);
+        this.objGestionarRealTimeCUInt.subscribeToSymbols(suscribir);
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        ownership.asignar(assignments.keySet().stream().map(TopicPartition::partition).toList());
+        // El topic compactado es el estado deseado: se relee completo en cada asignacion
+        callback.seekToBeginning(assignments.keySet());
+    }
+
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        Set<String> liberados = ownership.revocar(partitions.stream().map(TopicPartition::partition).toList());
+        if (!liberados.isEmpty()) {
+            this.objGestionarRealTimeCUInt.unsubscribeFromSymbols(new ArrayList<>(liberados));
+        }
+    }
+}
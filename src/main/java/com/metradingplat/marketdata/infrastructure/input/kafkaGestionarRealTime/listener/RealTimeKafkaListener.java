@@ -1,8 +1,19 @@
 package com.metradingplat.marketdata.infrastructure.input.kafkaGestionarRealTime.listener;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 import com.metradingplat.marketdata.application.input.GestionarRealTimeCUIntPort;
+import com.metradingplat.marketdata.infrastructure.configuration.ShardingProperties;
 import com.metradingplat.marketdata.infrastructure.input.kafkaGestionarRealTime.DTOPetition.RealTimeRequestDTO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,17 +24,91 @@ import lombok.extern.slf4j.Slf4j;
 public class RealTimeKafkaListener {
 
     private final GestionarRealTimeCUIntPort objGestionarRealTimeCUInt;
+    private final ShardingProperties shardingProperties;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    /**
+     * Consume los comandos en lotes. Por simbolo solo cuenta la ultima accion del
+     * lote (SUBSCRIBE + UNSUBSCRIBE se anulan) y el resultado neto se aplica como
+     * una suscripcion masiva y una desuscripcion masiva.
+     *
+     * Con sharding el resultado neto no se aplica aqui: se re-publica por simbolo
+     * en el topic de duenos y lo aplica la replica duena de cada simbolo.
+     */
+    @KafkaListener(topics = "marketdata.commands", groupId = "marketdata-group", batch = "true",
+            properties = "max.poll.records:${marketdata.kafka.commands.max-poll-records:2000}")
+    public void recibirComandosRealTime(List<RealTimeRequestDTO> commands) {
+        Map<String, Boolean> neto = new LinkedHashMap<>();
+
+        for (RealTimeRequestDTO command : commands) {
+            String action = command.getAction() != null ? command.getAction().toUpperCase() : "";
+            switch (action) {
+                case "SUBSCRIBE" -> acumular(neto, command.getSymbol(), true);
+                case "UNSUBSCRIBE" -> acumular(neto, command.getSymbol(), false);
+                case "SUBSCRIBE_BATCH" -> acumular(neto, command.getSymbols(), true);
+                case "UNSUBSCRIBE_BATCH" -> acumular(neto, command.getSymbols(), false);
+                default -> log.warn("Acción no reconocida: {}", command.getAction());
+            }
+        }
+
+        if (shardingProperties.isEnabled()) {
+            enrutar(neto);
+            log.info("Recibidos {} comandos RealTime: {} símbolos enrutados a su dueño", commands.size(),
+                    neto.size());
+            return;
+        }
+
+        List<String> suscribir = new ArrayList<>();
+        List<String> desuscribir = new ArrayList<>();
+        neto.forEach((symbol, subscribe) -> (subscribe ? suscribir : desuscribir).add(symbol));
 
-    @KafkaListener(topics = "marketdata.commands", groupId = "marketdata-group")
-    public void recibirComandoRealTime(RealTimeRequestDTO command) {
-        log.info("Recibido comando RealTime: {} para símbolo: {}", command.getAction(), command.getSymbol());
+        log.info("Recibidos {} comandos RealTime: +{} / -{} símbolos", commands.size(),
+                suscribir.size(), desuscribir.size());
 
-        if ("SUBSCRIBE".equalsIgnoreCase(command.getAction())) {
-            this.objGestionarRealTimeCUInt.subscribeToSymbol(command.getSymbol());
-        } else if ("UNSUBSCRIBE".equalsIgnoreCase(command.getAction())) {
-            this.objGestionarRealTimeCUInt.unsubscribeFromSymbol(command.getSymbol());
-        } else {
-            log.warn("Acción no reconocida: {}", command.getAction());
+        this.objGestionarRealTimeCUInt.unsubscribeFromSymbols(desuscribir);
+        this.objGestionarRealTimeCUInt.subscribeToSymbols(suscribir);
+    }
+
+    /**
+     * Un registro por simbolo (key = simbolo, ultima accion): SUBSCRIBE o un
+     * tombstone (valor null) para que la compactacion borre el simbolo. Se espera el ack de
+     * todos, como maximo route-timeout-ms, antes de devolver el lote; si falla o
+     * vence se lanza la excepcion para que el contenedor reprocese el lote (el
+     * topic guarda el estado deseado, re-publicarlo no duplica nada).
+     */
+    private void enrutar(Map<String, Boolean> neto) {
+        List<CompletableFuture<?>> envios = new ArrayList<>(neto.size());
+        neto.forEach((symbol, subscribe) -> envios.add(kafkaTemplate.send(shardingProperties.getOwnedTopic(), symbol,
+                subscribe ? RealTimeRequestDTO.builder().action("SUBSCRIBE").symbol(symbol).build() : null)));
+        try {
+            CompletableFuture.allOf(envios.toArray(CompletableFuture[]::new))
+                    .get(shardingProperties.getRouteTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Sin ack de " + shardingProperties.getOwnedTopic() + " en "
+                    + shardingProperties.getRouteTimeoutMs() + " ms", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("No se pudo enrutar el lote a " + shardingProperties.getOwnedTopic(),
+                    e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Enrutado interrumpido", e);
         }
     }
+
+    private void acumular(Map<String, Boolean> neto, List<String> symbols, boolean subscribe) {
+        if (symbols == null)
+            return;
+        for (String symbol : symbols) {
+            acumular(neto, symbol, subscribe);
+        }
+    }
+
+    private void acumular(Map<String, Boolean> neto, String symbol, boolean subscribe) {
+        if (symbol == null || symbol.isBlank())
+            return;
+        String clave = symbol.trim();
+        // Reinsertar para que el orden refleje la ultima accion
+        neto.remove(clave);
+        neto.put(clave, subscribe);
+    }
 }
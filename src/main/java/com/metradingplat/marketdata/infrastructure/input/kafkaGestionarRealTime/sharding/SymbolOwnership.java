@@ -0,0 +1,212 @@
+package com.metradingplat.marketdata.infrastructure.input.kafkaGestionarRealTime.sharding;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.ConsumerGroupDescription;
+import org.apache.kafka.clients.admin.MemberDescription;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.utils.Utils;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.stereotype.Component;
+
+import com.metradingplat.marketdata.infrastructure.configuration.ShardingProperties;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Que simbolos son de esta replica.
+ *
+ * Un simbolo pertenece a la particion que le da el particionador por defecto de
+ * Kafka a su key (murmur2) sobre las particiones reales del topic (no las
+ * configuradas: el topic pudo existir antes o ampliarse) y la particion a la
+ * replica que la tiene asignada en el grupo de duenos. Por particion se guarda el estado deseado (simbolos
+ * suscritos) leido del topic compactado, para soltarlo entero si la particion
+ * se reasigna.
+ */
+@Component
+@Slf4j
+public class SymbolOwnership {
+
+    private final ShardingProperties properties;
+    private final KafkaAdmin kafkaAdmin;
+
+    // Solo las toca el hilo del consumidor; las lecturas (health, metricas) son concurrentes
+    private final Set<Integer> asignadas = ConcurrentHashMap.newKeySet();
+    private final Map<Integer, Set<String>> simbolosPorParticion = new ConcurrentHashMap<>();
+
+    private volatile AdminClient adminClient;
+
+    // Particiones del topic de duenos segun su metadata (0 = sin consultar)
+    private volatile int particionesTopic;
+
+    public SymbolOwnership(ShardingProperties properties, KafkaAdmin kafkaAdmin, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.kafkaAdmin = kafkaAdmin;
+        Gauge.builder("marketdata.sharding.partitions.owned", asignadas, Set::size)
+                .description("Particiones de comandos asignadas a esta replica")
+                .register(meterRegistry);
+        Gauge.builder("marketdata.sharding.symbols.owned", this, SymbolOwnership::getSimbolosPropios)
+                .description("Simbolos suscritos de los que esta replica es duena")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (adminClient != null)
+            adminClient.close();
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Particion del simbolo, la misma que elige el productor para su key.
+     */
+    public int particion(String symbol) {
+        return Utils.toPositive(Utils.murmur2(symbol.getBytes(StandardCharsets.UTF_8))) % particionesTopic();
+    }
+
+    /**
+     * Sin sharding toda replica es duena de todos los simbolos.
+     */
+    public boolean esPropio(String symbol) {
+        return !properties.isEnabled() || asignadas.contains(particion(symbol));
+    }
+
+    // --- Cambios de asignacion (hilo del consumidor) ---
+
+    void asignar(Collection<Integer> particiones) {
+        // Ampliar el topic provoca un rebalanceo: se vuelve a leer la metadata
+        particionesTopic = 0;
+        asignadas.addAll(particiones);
+        log.info("Sharding: particiones asignadas {} (total {})", particiones, new TreeSet<>(asignadas));
+    }
+
+    /**
+     * @return simbolos suscritos de las particiones revocadas, para soltarlos
+     */
+    Set<String> revocar(Collection<Integer> particiones) {
+        Set<String> liberados = new HashSet<>();
+        for (Integer particion : particiones) {
+            asignadas.remove(particion);
+            Set<String> simbolos = simbolosPorParticion.remove(particion);
+            if (simbolos != null)
+                liberados.addAll(simbolos);
+        }
+        log.info("Sharding: particiones revocadas {} ({} simbolos liberados)", particiones, liberados.size());
+        return liberados;
+    }
+
+    /**
+     * Aplica un comando al estado deseado de la particion.
+     *
+     * @return true si cambio el estado del simbolo
+     */
+    boolean aplicar(int particion, String symbol, boolean subscribe) {
+        Set<String> simbolos = simbolosPorParticion.computeIfAbsent(particion, k -> ConcurrentHashMap.newKeySet());
+        return subscribe ? simbolos.add(symbol) : simbolos.remove(symbol);
+    }
+
+    // --- Consultas ---
+
+    public int getSimbolosPropios() {
+        int total = 0;
+        for (Set<String> simbolos : simbolosPorParticion.values()) {
+            total += simbolos.size();
+        }
+        return total;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", properties.isEnabled());
+        stats.put("instanceId", properties.getInstanceId());
+        stats.put("partitions", particionesTopic > 0 ? particionesTopic : properties.getPartitions());
+        stats.put("ownedPartitions", new TreeSet<>(asignadas));
+        stats.put("ownedSymbols", getSimbolosPropios());
+        return stats;
+    }
+
+    /**
+     * Dueno de un simbolo segun el grupo de consumidores, para que el gateway
+     * enrute las consultas de simbolos que no son de esta replica.
+     */
+    public Map<String, Object> describir(String symbol) {
+        int particion = particion(symbol);
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        resultado.put("symbol", symbol);
+        resultado.put("partition", particion);
+        resultado.put("owned", esPropio(symbol));
+        if (!properties.isEnabled())
+            return resultado;
+
+        TopicPartition buscada = new TopicPartition(properties.getOwnedTopic(), particion);
+        try {
+            ConsumerGroupDescription grupo = admin().describeConsumerGroups(List.of(properties.getGroupId()))
+                    .describedGroups().get(properties.getGroupId()).get(5, TimeUnit.SECONDS);
+            for (MemberDescription miembro : grupo.members()) {
+                if (miembro.assignment().topicPartitions().contains(buscada)) {
+                    resultado.put("ownerClientId", miembro.clientId());
+                    resultado.put("ownerHost", miembro.host());
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Sharding: no se pudo consultar el grupo {}: {}", properties.getGroupId(), e.getMessage());
+            resultado.put("error", e.getMessage());
+        }
+        return resultado;
+    }
+
+    /**
+     * Cantidad de particiones del topic de duenos leida de su metadata. Si no se
+     * puede consultar se usa la configurada, sin guardarla, para reintentar.
+     */
+    private int particionesTopic() {
+        int actual = particionesTopic;
+        if (actual > 0)
+            return actual;
+        String topic = properties.getOwnedTopic();
+        try {
+            TopicDescription descripcion = admin().describeTopics(List.of(topic)).topicNameValues().get(topic)
+                    .get(5, TimeUnit.SECONDS);
+            actual = descripcion.partitions().size();
+            particionesTopic = actual;
+            if (actual != properties.getPartitions()) {
+                log.warn("Sharding: {} tiene {} particiones, configuradas {}", topic, actual,
+                        properties.getPartitions());
+            }
+            return actual;
+        } catch (Exception e) {
+            log.warn("Sharding: no se pudo leer la metadata de {}: {}", topic, e.getMessage());
+            return properties.getPartitions();
+        }
+    }
+
+    private AdminClient admin() {
+        AdminClient actual = adminClient;
+        if (actual == null) {
+            synchronized (this) {
+                if (adminClient == null)
+                    adminClient = AdminClient.create(kafkaAdmin.getConfigurationProperties());
+                actual = adminClient;
+            }
+        }
+        return actual;
+    }
+}
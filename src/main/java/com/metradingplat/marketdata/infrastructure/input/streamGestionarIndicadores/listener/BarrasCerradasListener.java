@@ -0,0 +1,25 @@
+package com.metradingplat.marketdata.infrastructure.input.streamGestionarIndicadores.listener;
+
+import org.springframework.stereotype.Component;
+
+import com.metradingplat.marketdata.application.input.GestionarIndicadoresCUIntPort;
+import com.metradingplat.marketdata.infrastructure.output.external.tastytrade.TastyTradeService;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Lleva las barras cerradas del stream en vivo a los indicadores incrementales.
+ */
+@Component
+@RequiredArgsConstructor
+public class BarrasCerradasListener {
+
+    private final TastyTradeService tastyTradeService;
+    private final GestionarIndicadoresCUIntPort objGestionarIndicadoresCUInt;
+
+    @PostConstruct
+    public void init() {
+        tastyTradeService.addClosedCandleListener(this.objGestionarIndicadoresCUInt::onBarraCerrada);
+    }
+}
@@ -0,0 +1,17 @@
+package com.metradingplat.marketdata.infrastructure.input.websocketGestionarStream.DTOPetition;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StreamCommandDTO {
+    private String action; // SUBSCRIBE, UNSUBSCRIBE
+    private List<String> symbols;
+}
@@ -0,0 +1,73 @@
+package com.metradingplat.marketdata.infrastructure.input.websocketGestionarStream.handler;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.metradingplat.marketdata.infrastructure.input.websocketGestionarStream.DTOPetition.StreamCommandDTO;
+import com.metradingplat.marketdata.infrastructure.input.websocketGestionarStream.hub.MarketDataStreamHub;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Handler WebSocket del stream push.
+ *
+ * Mensajes del cliente: {"action":"SUBSCRIBE","symbols":["AAPL","MSFT"]}
+ * Mensajes del servidor: {"type":"snapshot"|"delta","updates":[{"symbol":..., campos...}]}
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MarketDataStreamWebSocketHandler extends TextWebSocketHandler {
+
+    private final MarketDataStreamHub hub;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        hub.registrar(session);
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        StreamCommandDTO command;
+        try {
+            command = objectMapper.readValue(message.getPayload(), StreamCommandDTO.class);
+        } catch (Exception e) {
+            log.warn("Stream push: mensaje invalido de {}: {}", session.getId(), e.getMessage());
+            hub.enviarError(session.getId(), "Malformed JSON command");
+            return;
+        }
+
+        if (command.getSymbols() == null || command.getSymbols().isEmpty()) {
+            return;
+        }
+
+        log.debug("Stream push: {} {} simbolos (conexion {})", command.getAction(), command.getSymbols().size(),
+                session.getId());
+
+        if ("SUBSCRIBE".equalsIgnoreCase(command.getAction())) {
+            hub.suscribir(session.getId(), command.getSymbols());
+        } else if ("UNSUBSCRIBE".equalsIgnoreCase(command.getAction())) {
+            hub.desuscribir(session.getId(), command.getSymbols());
+        } else {
+            log.warn("Stream push: accion no reconocida: {}", command.getAction());
+            hub.enviarError(session.getId(), "Unknown action: " + command.getAction());
+        }
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        log.debug("Stream push: error de transporte en {}: {}", session.getId(), exception.getMessage());
+        hub.eliminar(session.getId());
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        hub.eliminar(session.getId());
+    }
+}
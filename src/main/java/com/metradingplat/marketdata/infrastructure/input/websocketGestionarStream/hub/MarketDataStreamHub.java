@@ -0,0 +1,336 @@
+package com.metradingplat.marketdata.infrastructure.input.websocketGestionarStream.hub;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.metradingplat.marketdata.domain.models.Candle;
+import com.metradingplat.marketdata.infrastructure.configuration.WebSocketStreamProperties;
+import com.metradingplat.marketdata.infrastructure.output.external.tastytrade.TastyTradeService;
+import com.metradingplat.marketdata.infrastructure.output.kafka.DTO.MarketDataStreamDTO;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Distribuye el stream en vivo de DxLink a las conexiones push.
+ *
+ * Mantiene el ultimo valor por simbolo (para el snapshot inicial) y, por
+ * conexion, un mapa de cambios pendientes que se conflaciona hasta el
+ * siguiente flush. Las conexiones que no drenan a tiempo se expulsan.
+ *
+ * Una conexion siempre recibe el snapshot de un simbolo antes que sus deltas:
+ * el snapshot se copia y la conexion entra al fan-out bajo el lock del
+ * simbolo, y el envio del snapshot y los flush de la conexion se serializan.
+ * Las suscripciones upstream (que pueden esperar una reconexion a DxLink) se
+ * deciden bajo el lock de suscriptores y se ejecutan en orden en un hilo
+ * propio, nunca en el hilo del socket.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MarketDataStreamHub {
+
+    private final TastyTradeService tastyTradeService;
+    private final WebSocketStreamProperties properties;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    // Estado consolidado por simbolo: campo -> valor
+    private final Map<String, Map<String, Object>> ultimoValor = new ConcurrentHashMap<>();
+    private final Map<String, Set<StreamSession>> suscriptores = new ConcurrentHashMap<>();
+    private final Map<String, StreamSession> sesiones = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("stream-push-flush").daemon().factory());
+
+    // Un solo hilo: acquire/release llegan a DxLink en el orden en que se decidieron
+    private final ExecutorService upstream = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("stream-push-upstream").daemon().factory());
+
+    @PostConstruct
+    public void init() {
+        tastyTradeService.addMarketDataListener(this::onMarketData);
+        tastyTradeService.addCandleListener((symbol, candle, isComplete) -> onCandle(symbol, candle));
+        flusher.scheduleAtFixedRate(this::flushAll, properties.getFlushIntervalMs(),
+                properties.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+
+        Gauge.builder("marketdata.stream.push.sessions", sesiones, Map::size)
+                .description("Conexiones push activas")
+                .register(meterRegistry);
+        Gauge.builder("marketdata.stream.push.pending", this, MarketDataStreamHub::pendientesTotales)
+                .description("Simbolos con deltas conflacionados esperando el siguiente flush")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+        upstream.shutdownNow();
+    }
+
+    // --- Ciclo de vida de conexiones ---
+
+    public void registrar(WebSocketSession session) {
+        WebSocketSession decorada = new ConcurrentWebSocketSessionDecorator(session,
+                properties.getSendTimeLimitMs(), properties.getBufferSizeLimitBytes(),
+                ConcurrentWebSocketSessionDecorator.OverflowStrategy.TERMINATE);
+        sesiones.put(session.getId(), new StreamSession(decorada));
+        log.info("Stream push: conexion {} registrada ({} activas)", session.getId(), sesiones.size());
+    }
+
+    public void eliminar(String sessionId) {
+        StreamSession sesion = sesiones.remove(sessionId);
+        if (sesion == null)
+            return;
+        desuscribir(sesion, List.copyOf(sesion.symbols));
+        log.info("Stream push: conexion {} eliminada ({} activas)", sessionId, sesiones.size());
+    }
+
+    public void suscribir(String sessionId, Collection<String> symbols) {
+        StreamSession sesion = sesiones.get(sessionId);
+        if (sesion == null)
+            return;
+
+        if (sesion.symbols.size() + symbols.size() > properties.getMaxSymbolsPerSession()) {
+            enviarError(sesion, "Max " + properties.getMaxSymbolsPerSession() + " symbols per connection");
+            return;
+        }
+
+        // Un flush de esta conexion no puede adelantarse al snapshot
+        synchronized (sesion) {
+            List<Map<String, Object>> snapshot = new ArrayList<>();
+            for (String raw : symbols) {
+                String symbol = raw.toUpperCase();
+                if (!sesion.symbols.add(symbol))
+                    continue;
+
+                // Bajo el lock del simbolo: lo anterior queda en el snapshot y lo
+                // posterior llega como delta
+                Map<String, Object> valor = ultimoValor.computeIfAbsent(symbol, k -> new LinkedHashMap<>());
+                synchronized (valor) {
+                    if (!valor.isEmpty()) {
+                        Map<String, Object> item = new LinkedHashMap<>();
+                        item.put("symbol", symbol);
+                        item.putAll(valor);
+                        snapshot.add(item);
+                    }
+                    agregarInteresado(sesion, symbol);
+                }
+            }
+
+            enviar(sesion, Map.of("type", "snapshot", "updates", snapshot));
+        }
+    }
+
+    private void agregarInteresado(StreamSession sesion, String symbol) {
+        synchronized (suscriptores) {
+            Set<StreamSession> interesados = suscriptores.computeIfAbsent(symbol,
+                    k -> ConcurrentHashMap.newKeySet());
+            if (interesados.add(sesion) && interesados.size() == 1) {
+                upstream.execute(() -> adquirir(symbol));
+            }
+        }
+    }
+
+    public void desuscribir(String sessionId, Collection<String> symbols) {
+        StreamSession sesion = sesiones.get(sessionId);
+        if (sesion != null) {
+            desuscribir(sesion, symbols);
+        }
+    }
+
+    private void desuscribir(StreamSession sesion, Collection<String> symbols) {
+        for (String raw : symbols) {
+            String symbol = raw.toUpperCase();
+            if (!sesion.symbols.remove(symbol))
+                continue;
+
+            synchronized (suscriptores) {
+                Set<StreamSession> interesados = suscriptores.get(symbol);
+                if (interesados != null && interesados.remove(sesion) && interesados.isEmpty()) {
+                    suscriptores.remove(symbol);
+                    upstream.execute(() -> liberar(symbol));
+                }
+            }
+            sesion.pendientes.remove(symbol);
+        }
+    }
+
+    private void adquirir(String symbol) {
+        try {
+            tastyTradeService.acquireStream(symbol);
+        } catch (Exception e) {
+            // El interes ya quedo registrado: la reconexion lo suscribe
+            log.warn("Stream push: no se pudo suscribir {} upstream: {}", symbol, e.getMessage());
+        }
+    }
+
+    private void liberar(String symbol) {
+        try {
+            tastyTradeService.releaseStream(symbol);
+        } catch (Exception e) {
+            log.warn("Stream push: no se pudo liberar {} upstream: {}", symbol, e.getMessage());
+        }
+    }
+
+    public int getActiveSessions() {
+        return sesiones.size();
+    }
+
+    private double pendientesTotales() {
+        int total = 0;
+        for (StreamSession sesion : sesiones.values()) {
+            total += sesion.pendientes.size();
+        }
+        return total;
+    }
+
+    // --- Entrada del stream ---
+
+    void onMarketData(MarketDataStreamDTO data) {
+        Map<String, Object> cambios = new LinkedHashMap<>();
+        cambios.put("bid", data.getBid());
+        cambios.put("ask", data.getAsk());
+        cambios.put("lastPrice", data.getLastPrice());
+        cambios.put("volume", data.getVolume());
+        aplicarDelta(data.getSymbol(), cambios,
+                data.getTimestamp() != null ? data.getTimestamp().toEpochMilli() : null);
+    }
+
+    void onCandle(String symbol, Candle candle) {
+        Map<String, Object> bar = new LinkedHashMap<>();
+        bar.put("timeframe", candle.getTimeframe() != null ? candle.getTimeframe().name() : null);
+        bar.put("timestamp", candle.getTimestamp().toEpochMilli());
+        bar.put("open", candle.getOpen());
+        bar.put("high", candle.getHigh());
+        bar.put("low", candle.getLow());
+        bar.put("close", candle.getClose());
+        bar.put("volume", candle.getVolume());
+
+        Map<String, Object> cambios = new LinkedHashMap<>();
+        cambios.put("bar", bar);
+        aplicarDelta(symbol, cambios, null);
+    }
+
+    /**
+     * Calcula los campos que cambiaron respecto al ultimo valor y los encola en
+     * cada conexion interesada (conflacionando con lo que aun no se envio).
+     */
+    private void aplicarDelta(String symbol, Map<String, Object> cambios, Long timestamp) {
+        Map<String, Object> valor = ultimoValor.computeIfAbsent(symbol, k -> new LinkedHashMap<>());
+        Map<String, Object> delta = new LinkedHashMap<>();
+
+        synchronized (valor) {
+            for (Map.Entry<String, Object> cambio : cambios.entrySet()) {
+                if (cambio.getValue() != null && !Objects.equals(valor.get(cambio.getKey()), cambio.getValue())) {
+                    valor.put(cambio.getKey(), cambio.getValue());
+                    delta.put(cambio.getKey(), cambio.getValue());
+                }
+            }
+            if (delta.isEmpty())
+                return;
+            if (timestamp != null) {
+                valor.put("timestamp", timestamp);
+                delta.put("timestamp", timestamp);
+            }
+
+            // Dentro del lock: los deltas se encolan en el mismo orden en que se aplicaron
+            Set<StreamSession> interesados = suscriptores.get(symbol);
+            if (interesados == null)
+                return;
+            for (StreamSession sesion : interesados) {
+                sesion.pendientes.merge(symbol, delta, (previo, nuevo) -> {
+                    Map<String, Object> combinado = new LinkedHashMap<>(previo);
+                    combinado.putAll(nuevo);
+                    return combinado;
+                });
+            }
+        }
+    }
+
+    // --- Salida hacia los clientes ---
+
+    void flushAll() {
+        for (StreamSession sesion : sesiones.values()) {
+            if (sesion.pendientes.isEmpty())
+                continue;
+
+            synchronized (sesion) {
+                List<Map<String, Object>> updates = new ArrayList<>(sesion.pendientes.size());
+                for (String symbol : List.copyOf(sesion.pendientes.keySet())) {
+                    Map<String, Object> delta = sesion.pendientes.remove(symbol);
+                    if (delta == null)
+                        continue;
+                    Map<String, Object> item = new LinkedHashMap<>();
+                    item.put("symbol", symbol);
+                    item.putAll(delta);
+                    updates.add(item);
+                }
+                if (!updates.isEmpty()) {
+                    enviar(sesion, Map.of("type", "delta", "updates", updates));
+                }
+            }
+        }
+    }
+
+    public void enviarError(String sessionId, String mensaje) {
+        StreamSession sesion = sesiones.get(sessionId);
+        if (sesion != null) {
+            enviarError(sesion, mensaje);
+        }
+    }
+
+    private void enviarError(StreamSession sesion, String mensaje) {
+        enviar(sesion, Map.of("type", "error", "message", mensaje));
+    }
+
+    private void enviar(StreamSession sesion, Map<String, Object> mensaje) {
+        WebSocketSession session = sesion.session;
+        if (!session.isOpen()) {
+            eliminar(session.getId());
+            return;
+        }
+        try {
+            session.sendMessage(new TextMessage(objectMapper.writeValueAsString(mensaje)));
+        } catch (Exception e) {
+            // Con OverflowStrategy.TERMINATE el decorador ya cerro la sesion
+            log.warn("Stream push: expulsando conexion lenta {}: {}", session.getId(), e.getMessage());
+            eliminar(session.getId());
+            try {
+                session.close(CloseStatus.SESSION_NOT_RELIABLE);
+            } catch (Exception ignored) {
+                /* ignore */ }
+        }
+    }
+
+    private static final class StreamSession {
+        private final WebSocketSession session;
+        private final Set<String> symbols = ConcurrentHashMap.newKeySet();
+        private final Map<String, Map<String, Object>> pendientes = new ConcurrentHashMap<>();
+
+        private StreamSession(WebSocketSession session) {
+            this.session = session;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.metradingplat.marketdata.infrastructure.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Una fase de un batch de candles por canal dedicado: OPEN_CHANNEL, SUBSCRIBE,
+ * SNAPSHOT (espera de los snapshots) y TOTAL.
+ */
+@Name("com.metradingplat.marketdata.CandleBatchPhase")
+@Label("Candle Batch Phase")
+@Category({ "MeTradingPlat", "DxLink" })
+@Description("Fase de un fetch batch de candles en un canal DxLink dedicado")
+@StackTrace(false)
+public class CandleBatchPhaseEvent extends jdk.jfr.Event {
+
+    @Label("Phase")
+    public String phase;
+
+    @Label("Channel")
+    public int channel;
+
+    @Label("Timeframe")
+    public String timeframe;
+
+    @Label("Symbols")
+    public int symbols;
+
+    @Label("Completed Symbols")
+    public int completedSymbols;
+
+    @Label("Candles")
+    public int candles;
+}
@@ -0,0 +1,35 @@
+package com.metradingplat.marketdata.infrastructure.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Decodificacion de un FEED_DATA en un canal y entrega a sus callbacks.
+ */
+@Name("com.metradingplat.marketdata.DxLinkFrame")
+@Label("DxLink Frame")
+@Category({ "MeTradingPlat", "DxLink" })
+@Description("Decodificacion de un FEED_DATA y callbacks del canal")
+@StackTrace(false)
+@Threshold("1 ms")
+public class DxLinkFrameEvent extends jdk.jfr.Event {
+
+    @Label("Channel")
+    public int channel;
+
+    @Label("Default Channel")
+    public boolean defaultChannel;
+
+    @Label("Quotes")
+    public int quotes;
+
+    @Label("Trades")
+    public int trades;
+
+    @Label("Candles")
+    public int candles;
+}
@@ -0,0 +1,32 @@
+package com.metradingplat.marketdata.infrastructure.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Un mensaje del websocket de DxLink: parseo + despacho completo (incluye el
+ * procesamiento del FEED_DATA y sus callbacks).
+ */
+@Name("com.metradingplat.marketdata.DxLinkMessage")
+@Label("DxLink Message")
+@Category({ "MeTradingPlat", "DxLink" })
+@Description("Parseo y despacho de un mensaje del websocket de DxLink")
+@StackTrace(false)
+@Threshold("1 ms")
+public class DxLinkMessageEvent extends jdk.jfr.Event {
+
+    @Label("Type")
+    public String type;
+
+    @Label("Channel")
+    public int channel;
+
+    @Label("Payload Size")
+    @DataAmount
+    public long payloadBytes;
+}
@@ -0,0 +1,37 @@
+package com.metradingplat.marketdata.infrastructure.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Un envio a Kafka desde send() hasta el ack (o el error) del broker.
+ */
+@Name("com.metradingplat.marketdata.KafkaSend")
+@Label("Kafka Send")
+@Category({ "MeTradingPlat", "Kafka" })
+@Description("Envio a Kafka hasta el ack del broker")
+@StackTrace(false)
+@Threshold("20 ms")
+public class KafkaSendEvent extends jdk.jfr.Event {
+
+    @Label("Topic")
+    public String topic;
+
+    @Label("Key")
+    public String key;
+
+    @Label("Partition")
+    public int partition = -1;
+
+    @Label("Value Size")
+    @DataAmount
+    public long valueBytes = -1;
+
+    @Label("Success")
+    public boolean success;
+}
@@ -1,5 +1,7 @@
 package com.metradingplat.marketdata.infrastructure.output.external.gateway;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -10,9 +12,12 @@ import com.metradingplat.marketdata.domain.enums.EnumTimeframe;
 import com.metradingplat.marketdata.domain.models.ActiveEquity;
 import com.metradingplat.marketdata.domain.models.BracketOrder;
 import com.metradingplat.marketdata.domain.models.Candle;
+import com.metradingplat.marketdata.domain.models.EarningsReport;
 import com.metradingplat.marketdata.domain.models.OrderRequest;
 import com.metradingplat.marketdata.domain.models.OrderResponse;
+import com.metradingplat.marketdata.domain.models.Quote;
 import com.metradingplat.marketdata.infrastructure.output.external.tastytrade.TastyTradeService;
+import com.metradingplat.marketdata.infrastructure.output.kafka.cache.LastValueCache;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -23,11 +28,12 @@ import lombok.extern.slf4j.Slf4j;
 public class GestionarComunicacionExternalGatewayImplAdapter implements GestionarComunicacionExternalGatewayIntPort {
 
     private final TastyTradeService tastyTradeService;
+    private final LastValueCache lastValueCache;
 
     @Override
-    public void sendOrder(OrderRequest request) {
+    public OrderResponse sendOrder(OrderRequest request) {
         log.info("Gateway: Sending order for symbol: {}", request.getSymbol());
-        tastyTradeService.sendOrder(request);
+        return tastyTradeService.sendOrder(request);
     }
 
     @Override
@@ -54,6 +60,18 @@ public class GestionarComunicacionExternalGatewayImplAdapter implements Gestiona
         tastyTradeService.unsubscribe(symbol);
     }
 
+    @Override
+    public void subscribeAll(List<String> symbols) {
+        log.info("Gateway: Subscribing to real-time data for {} symbols", symbols.size());
+        tastyTradeService.subscribeAll(symbols);
+    }
+
+    @Override
+    public void unsubscribeAll(List<String> symbols) {
+        log.info("Gateway: Unsubscribing from real-time data for {} symbols", symbols.size());
+        tastyTradeService.unsubscribeAll(symbols);
+    }
+
     @Override
     public List<Candle> getCandles(String symbol, EnumTimeframe timeframe) {
         log.debug("Gateway: Fetching candles for symbol: {} timeframe: {}", symbol, timeframe);
@@ -70,8 +88,22 @@ public class GestionarComunicacionExternalGatewayImplAdapter implements Gestiona
     @Override
     public Map<String, List<Candle>> getLastCandleBatch(List<String> symbols, EnumTimeframe timeframe) {
         log.debug("Gateway: Batch fetching LAST candle for {} symbols, timeframe: {}", symbols.size(), timeframe);
-        // Pedimos 50 barras sin cache para asegurar tener la ultima cerrada
-        return tastyTradeService.getCandlesBatchNoCache(symbols, timeframe, 50);
+        // Simbolos cuya ultima barra cerrada ya esta en marketdata.candles.latest
+        Map<String, List<Candle>> resultado = new LinkedHashMap<>();
+        List<String> faltantes = new ArrayList<>();
+        for (String symbol : symbols) {
+            Candle candle = lastValueCache.ultimaBarraCerrada(symbol, timeframe);
+            if (candle != null) {
+                resultado.put(symbol, List.of(candle));
+            } else {
+                faltantes.add(symbol);
+            }
+        }
+        if (!faltantes.isEmpty()) {
+            // Pedimos 50 barras sin cache para asegurar tener la ultima cerrada
+            resultado.putAll(tastyTradeService.getCandlesBatchNoCache(faltantes, timeframe, 50));
+        }
+        return resultado;
     }
 
     @Override
@@ -88,13 +120,19 @@ public class GestionarComunicacionExternalGatewayImplAdapter implements Gestiona
     }
 
     @Override
-    public Map<String, Object> getMarketDataByType(String symbol) {
+    public Quote getQuote(String symbol) {
         log.info("Gateway: Fetching market data for symbol: {}", symbol);
-        return tastyTradeService.getMarketDataByType(symbol);
+        return tastyTradeService.getQuote(symbol);
+    }
+
+    @Override
+    public Map<String, Quote> getQuotes(List<String> symbols) {
+        log.info("Gateway: Fetching market data for {} symbols", symbols.size());
+        return tastyTradeService.getQuotes(symbols);
     }
 
     @Override
-    public List<Map<String, Object>> getEarningsReports(String symbol, String startDate) {
+    public List<EarningsReport> getEarningsReports(String symbol, String startDate) {
         log.info("Gateway: Fetching earnings for symbol: {} from {}", symbol, startDate);
         return tastyTradeService.getEarningsReports(symbol, startDate);
     }
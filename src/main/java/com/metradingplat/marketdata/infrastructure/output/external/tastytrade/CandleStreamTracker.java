@@ -0,0 +1,220 @@
+package com.metradingplat.marketdata.infrastructure.output.external.tastytrade;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.springframework.stereotype.Component;
+
+import com.metradingplat.marketdata.application.output.GestionarChangeNotificationsProducerIntPort;
+import com.metradingplat.marketdata.domain.enums.EnumTimeframe;
+import com.metradingplat.marketdata.domain.models.Candle;
+import com.metradingplat.marketdata.infrastructure.configuration.CandleStreamProperties;
+import com.metradingplat.marketdata.infrastructure.output.kafka.DTO.CandleStreamDTO;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Convierte las actualizaciones de candles de DxLink en eventos de barra.
+ *
+ * DxLink reenvia la barra en formacion con el mismo timestamp en cada trade.
+ * Una barra se considera cerrada cuando llega otra con timestamp mayor o, en
+ * timeframes intradia, cuando pasa su fin teorico mas un margen (simbolos sin
+ * actividad). Cada barra cerrada se publica una sola vez; las actualizaciones
+ * de la barra en formacion se limitan a una por intervalo.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CandleStreamTracker {
+
+    private final GestionarChangeNotificationsProducerIntPort kafkaProducer;
+    private final CandleStreamProperties properties;
+
+    // symbol:TF -> estado de la barra
+    private final Map<String, BarState> barras = new ConcurrentHashMap<>();
+
+    // Oyentes de cada barra cerrada (ej. indicadores incrementales)
+    private final List<Consumer<Candle>> cierreListeners = new CopyOnWriteArrayList<>();
+
+    // Con DxLink caido no se cierran barras por tiempo: la barra en formacion se
+    // completa con el backfill al reconectar
+    private volatile boolean cierresSuspendidos = false;
+
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("candle-stream-sweep").daemon().factory());
+
+    @PostConstruct
+    public void init() {
+        if (properties.isEnabled()) {
+            sweeper.scheduleAtFixedRate(this::cerrarVencidas, 1, 1, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    public void onCandle(String symbol, Candle candle) {
+        EnumTimeframe timeframe = candle.getTimeframe();
+        if (timeframe == null || candle.getTimestamp() == null)
+            return;
+
+        BarState estado = barras.computeIfAbsent(symbol + ":" + timeframe.name(), k -> new BarState());
+        long ts = candle.getTimestamp().toEpochMilli();
+
+        synchronized (estado) {
+            if (ts <= estado.ultimoCerrado)
+                return; // Ya publicada (snapshot repetido o actualizacion tardia)
+
+            Candle formando = estado.formando;
+            if (formando != null && ts < formando.getTimestamp().toEpochMilli()) {
+                // Barra historica del snapshot inicial: ya esta completa
+                cerrar(estado, candle);
+                return;
+            }
+            if (formando != null && ts > formando.getTimestamp().toEpochMilli()) {
+                cerrar(estado, formando);
+            }
+
+            estado.formando = candle;
+            long ahora = System.currentTimeMillis();
+            if (ahora - estado.ultimaPublicacionFormando >= properties.getFormingThrottleMs()) {
+                estado.ultimaPublicacionFormando = ahora;
+                kafkaProducer.publishCandle(toDTO(candle, false));
+            }
+        }
+    }
+
+    /**
+     * Timestamp de la ultima barra vista (cerrada o en formacion) de un
+     * simbolo/timeframe, o null si no hay estado.
+     */
+    public Long ultimaBarra(String symbol, EnumTimeframe timeframe) {
+        BarState estado = barras.get(symbol + ":" + timeframe.name());
+        if (estado == null)
+            return null;
+        synchronized (estado) {
+            if (estado.formando != null)
+                return estado.formando.getTimestamp().toEpochMilli();
+            return estado.ultimoCerrado != Long.MIN_VALUE ? estado.ultimoCerrado : null;
+        }
+    }
+
+    /**
+     * Publica como cerradas las barras recuperadas tras una caida (orden asc) que
+     * no se habian publicado. La barra aun abierta queda para el stream en vivo.
+     *
+     * @return barras publicadas
+     */
+    public int rellenarHueco(String symbol, EnumTimeframe timeframe, List<Candle> recuperadas) {
+        BarState estado = barras.computeIfAbsent(symbol + ":" + timeframe.name(), k -> new BarState());
+        long ahora = System.currentTimeMillis();
+        long duracion = timeframe.getDuration().toMillis();
+        int publicadas = 0;
+
+        synchronized (estado) {
+            for (Candle candle : recuperadas) {
+                long ts = candle.getTimestamp().toEpochMilli();
+                if (ts <= estado.ultimoCerrado)
+                    continue;
+                if (ts + duracion > ahora)
+                    break;
+                // La barra en formacion de antes de la caida queda reemplazada por la recuperada
+                if (estado.formando != null && estado.formando.getTimestamp().toEpochMilli() <= ts)
+                    estado.formando = null;
+                cerrar(estado, candle);
+                publicadas++;
+            }
+        }
+        return publicadas;
+    }
+
+    public void addCierreListener(Consumer<Candle> listener) {
+        cierreListeners.add(listener);
+    }
+
+    public void suspenderCierres() {
+        cierresSuspendidos = true;
+    }
+
+    public void reanudarCierres() {
+        cierresSuspendidos = false;
+    }
+
+    /**
+     * Olvida el estado de un simbolo al desuscribirlo.
+     */
+    public void forget(String symbol) {
+        barras.keySet().removeIf(key -> key.startsWith(symbol + ":"));
+    }
+
+    private void cerrarVencidas() {
+        if (cierresSuspendidos)
+            return;
+        long ahora = System.currentTimeMillis();
+        for (BarState estado : barras.values()) {
+            synchronized (estado) {
+                Candle formando = estado.formando;
+                if (formando == null)
+                    continue;
+                Duration duracion = formando.getTimeframe().getDuration();
+                // D1/W1/MO1 dependen del calendario de sesiones: solo cierran con la barra siguiente
+                if (duracion.compareTo(Duration.ofDays(1)) >= 0)
+                    continue;
+                long fin = formando.getTimestamp().toEpochMilli() + duracion.toMillis();
+                if (ahora >= fin + properties.getCloseGraceMs()) {
+                    cerrar(estado, formando);
+                }
+            }
+        }
+    }
+
+    private void cerrar(BarState estado, Candle candle) {
+        estado.ultimoCerrado = candle.getTimestamp().toEpochMilli();
+        if (estado.formando == candle)
+            estado.formando = null;
+        try {
+            kafkaProducer.publishCandle(toDTO(candle, true));
+        } catch (Exception e) {
+            log.warn("Failed to publish closed candle for {}: {}", candle.getSymbol(), e.getMessage());
+        }
+        for (Consumer<Candle> listener : cierreListeners) {
+            try {
+                listener.accept(candle);
+            } catch (Exception e) {
+                log.warn("Closed candle listener failed for {}: {}", candle.getSymbol(), e.getMessage());
+            }
+        }
+    }
+
+    private CandleStreamDTO toDTO(Candle candle, boolean closed) {
+        return CandleStreamDTO.builder()
+                .symbol(candle.getSymbol())
+                .timeframe(candle.getTimeframe().name())
+                .timestamp(candle.getTimestamp())
+                .open(candle.getOpen())
+                .high(candle.getHigh())
+                .low(candle.getLow())
+                .close(candle.getClose())
+                .volume(candle.getVolume())
+                .closed(closed)
+                .build();
+    }
+
+    private static final class BarState {
+        private Candle formando;
+        private long ultimoCerrado = Long.MIN_VALUE;
+        private long ultimaPublicacionFormando;
+    }
+}
@@ -0,0 +1,15 @@
+package com.metradingplat.marketdata.infrastructure.output.external.tastytrade.DTO;
+
+import java.time.LocalDate;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Item de earnings-reports. eps es null mientras el trimestre no se reporta.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record EarningsItem(
+        @JsonProperty("occurred-date") LocalDate occurredDate,
+        Double eps) {
+}
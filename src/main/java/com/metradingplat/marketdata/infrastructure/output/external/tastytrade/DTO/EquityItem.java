@@ -0,0 +1,11 @@
+package com.metradingplat.marketdata.infrastructure.output.external.tastytrade.DTO;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record EquityItem(
+        String symbol,
+        String description,
+        @JsonProperty("listed-market") String listedMarket) {
+}
@@ -0,0 +1,9 @@
+package com.metradingplat.marketdata.infrastructure.output.external.tastytrade.DTO;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record ItemsData<T>(List<T> items) {
+}
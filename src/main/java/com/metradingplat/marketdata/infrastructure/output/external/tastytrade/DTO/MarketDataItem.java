@@ -0,0 +1,24 @@
+package com.metradingplat.marketdata.infrastructure.output.external.tastytrade.DTO;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Item de GET /market-data/by-type. TastyTrade envia los precios como strings;
+ * Jackson los convierte directo a double (0 si faltan).
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record MarketDataItem(
+        String symbol,
+        double bid,
+        double ask,
+        double last,
+        double open,
+        double dayHighPrice,
+        double dayLowPrice,
+        double close,
+        double prevClose,
+        double volume,
+        boolean tradingHalted,
+        String tradingHaltedReason,
+        double beta) {
+}
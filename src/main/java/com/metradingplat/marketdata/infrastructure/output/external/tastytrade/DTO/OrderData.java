@@ -0,0 +1,14 @@
+package com.metradingplat.marketdata.infrastructure.output.external.tastytrade.DTO;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * data de POST /orders ({"order": {...}}) y de POST /complex-orders ({"id": ...}).
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record OrderData(String id, Order order) {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Order(String id, String status) {
+    }
+}
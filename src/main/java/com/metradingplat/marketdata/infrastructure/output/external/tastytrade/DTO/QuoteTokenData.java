@@ -0,0 +1,13 @@
+package com.metradingplat.marketdata.infrastructure.output.external.tastytrade.DTO;
+
+import java.time.OffsetDateTime;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record QuoteTokenData(
+        String token,
+        @JsonProperty("dxlink-url") String dxlinkUrl,
+        @JsonProperty("expires-at") OffsetDateTime expiresAt) {
+}
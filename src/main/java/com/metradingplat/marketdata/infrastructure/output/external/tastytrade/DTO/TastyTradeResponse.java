@@ -0,0 +1,10 @@
+package com.metradingplat.marketdata.infrastructure.output.external.tastytrade.DTO;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Envoltorio comun de las respuestas de TastyTrade: {"data": ...}.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record TastyTradeResponse<T>(T data) {
+}
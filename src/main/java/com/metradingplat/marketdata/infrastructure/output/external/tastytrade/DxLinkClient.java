@@ -1,18 +1,29 @@
 package com.metradingplat.marketdata.infrastructure.output.external.tastytrade;
 
-import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
 import java.util.function.Supplier;
 
 import org.springframework.stereotype.Component;
@@ -28,9 +39,17 @@ import jakarta.websocket.WebSocketContainer;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.metradingplat.marketdata.domain.enums.EnumTimeframe;
 import com.metradingplat.marketdata.domain.models.Candle;
+import com.metradingplat.marketdata.infrastructure.configuration.DxLinkDispatchProperties;
+import com.metradingplat.marketdata.infrastructure.jfr.DxLinkFrameEvent;
+import com.metradingplat.marketdata.infrastructure.jfr.DxLinkMessageEvent;
 import com.metradingplat.marketdata.infrastructure.output.kafka.DTO.MarketDataStreamDTO;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 
@@ -45,6 +64,15 @@ public class DxLinkClient {
 
     private final ObjectMapper objectMapper = new ObjectMapper();
     private final Set<String> subscribedSymbols = ConcurrentHashMap.newKeySet();
+    // Interes de clientes push (WebSocket) por simbolo, con conteo de referencias
+    private final Map<String, Integer> streamRefs = new ConcurrentHashMap<>();
+    private final Object subscriptionLock = new Object();
+    // Un solo intento de conexion a la vez (warm-up, bajo demanda y reconexion
+    // automatica). ReentrantLock: el handshake tarda hasta 40 s y un monitor
+    // fijaria el carrier del hilo virtual que espera
+    private final ReentrantLock conexionLock = new ReentrantLock();
+    // Candles en vivo en el canal default: simbolo DxLink (ej. AAPL{=5m}) -> timeframe
+    private final Map<String, EnumTimeframe> candleSubscriptions = new ConcurrentHashMap<>();
     private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
 
     private WebSocketSession session;
@@ -58,6 +86,8 @@ public class DxLinkClient {
 
     // Estados de conexión (Nivel Socket)
     private volatile boolean authenticated = false;
+    // Se completa con AUTH_STATE del intento de conexion en curso
+    private volatile CompletableFuture<Void> autenticacion = new CompletableFuture<>();
 
     // Auto-reconexión
     private final AtomicBoolean reconnecting = new AtomicBoolean(false);
@@ -70,25 +100,148 @@ public class DxLinkClient {
     private ScheduledFuture<?> keepaliveTask;
     private ScheduledFuture<?> healthCheckTask;
     private Supplier<String> tokenRefresher;
+    private Supplier<String> forcedTokenRefresher;
+    // DxLink rechazo el token del ultimo intento: el siguiente pide uno nuevo
+    private volatile boolean tokenRechazado = false;
+
+    // Inicio de la caida en curso (epoch ms, 0 = conectado) y oyente de la reanudacion
+    private volatile long desconectadoDesde = 0;
+    private ReconexionListener reconexionListener;
+    private final Timer reanudacion;
+
+    // Metricas de ingesta: el canal default (stream continuo) y los canales de batch por separado
+    private final Timer parseo;
+    private final MedidorCanal medidorDefault;
+    private final MedidorCanal medidorBatch;
+
+    private record MedidorCanal(Counter quotes, Counter trades, Counter candles, Timer procesamiento) {
+
+        static MedidorCanal registrar(MeterRegistry registry, String canal) {
+            return new MedidorCanal(evento(registry, canal, "Quote"), evento(registry, canal, "Trade"),
+                    evento(registry, canal, "Candle"),
+                    Timer.builder("dxlink.frame.process")
+                            .description("Decodificacion de un FEED_DATA y sus callbacks (en el executor de su canal)")
+                            .tag("channel", canal)
+                            .register(registry));
+        }
+
+        private static Counter evento(MeterRegistry registry, String canal, String tipo) {
+            return Counter.builder("dxlink.events")
+                    .description("Eventos recibidos de DxLink")
+                    .tag("channel", canal)
+                    .tag("type", tipo)
+                    .register(registry);
+        }
+
+        void registrar(DxLinkCompactDecoder.Conteo conteo, long nanos) {
+            quotes.increment(conteo.quotes());
+            trades.increment(conteo.trades());
+            candles.increment(conteo.candles());
+            procesamiento.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Despacho por canal: el socket solo enruta; el canal default se procesa en un
+    // hilo propio y los snapshots de batch en un pool acotado, en orden por canal
+    private final ThreadPoolExecutor tiempoReal;
+    private final ThreadPoolExecutor poolBatch;
+    private final AtomicInteger framesBatchEnCola = new AtomicInteger();
+    private final int capacidadCanal;
+    private final Counter framesDescartados;
+
+    public DxLinkClient(MeterRegistry meterRegistry, DxLinkDispatchProperties dispatchProperties) {
+        // Cola acotada: con el hilo atrasado se descartan quotes/trades (ver despachar)
+        this.tiempoReal = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(dispatchProperties.getRealtimeQueueCapacity()),
+                Thread.ofPlatform().name("dxlink-realtime").priority(Thread.MAX_PRIORITY).daemon().factory());
+        this.tiempoReal.prestartCoreThread();
+        // Con la cola de canales llena el hilo del socket drena el canal el mismo
+        this.poolBatch = new ThreadPoolExecutor(dispatchProperties.getBatchThreads(),
+                dispatchProperties.getBatchThreads(), 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(dispatchProperties.getBatchQueueCapacity()),
+                Thread.ofPlatform().name("dxlink-batch-", 0).daemon().factory(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.capacidadCanal = dispatchProperties.getChannelQueueCapacity();
+        Gauge.builder("dxlink.dispatch.queue", tiempoReal, e -> e.getQueue().size())
+                .description("Mensajes de DxLink esperando su executor")
+                .tag("executor", "realtime")
+                .register(meterRegistry);
+        Gauge.builder("dxlink.dispatch.queue", framesBatchEnCola, AtomicInteger::get)
+                .description("Mensajes de DxLink esperando su executor")
+                .tag("executor", "batch")
+                .register(meterRegistry);
+        this.framesDescartados = Counter.builder("dxlink.dispatch.dropped")
+                .description("Frames de quotes/trades descartados con la cola del executor llena")
+                .tag("executor", "realtime")
+                .register(meterRegistry);
+
+        this.parseo = Timer.builder("dxlink.frame.parse")
+                .description("Parseo JSON de cada mensaje del websocket")
+                .register(meterRegistry);
+        this.medidorDefault = MedidorCanal.registrar(meterRegistry, "default");
+        this.medidorBatch = MedidorCanal.registrar(meterRegistry, "batch");
+        Gauge.builder("dxlink.channels.open", channels, Map::size)
+                .description("Canales FEED abiertos (default + batch en curso)")
+                .register(meterRegistry);
+        this.reanudacion = Timer.builder("dxlink.resume")
+                .description("Desde la caida de la conexion hasta quotes y trades restaurados")
+                .register(meterRegistry);
+    }
+
+    // Callbacks del canal default; se conservan para reaplicarlos en cada (re)conexion
+    private BiConsumer<String, MarketDataStreamDTO> onMarketData;
+    private CandleCallback onCandle;
 
     public interface CandleCallback {
         void onCandle(String symbol, Candle candle, boolean isSnapshotComplete);
     }
 
+    /**
+     * Ciclo de una caida de la conexion, para recuperar las barras perdidas.
+     */
+    public interface ReconexionListener {
+
+        /**
+         * La conexion se perdio (una vez por caida).
+         */
+        void onDesconexion();
+
+        /**
+         * Quotes y trades ya restaurados. Corre antes de volver a suscribir las
+         * candles en vivo, en un hilo propio.
+         *
+         * @param desdeEpochMs inicio de la caida
+         * @param candles      simbolos con candles en vivo por timeframe
+         */
+        void onReanudacion(long desdeEpochMs, Map<EnumTimeframe, List<String>> candles);
+    }
+
     // --- Métodos de Configuración Global (Delegados al Default Channel) ---
 
     public void setOnMarketData(BiConsumer<String, MarketDataStreamDTO> callback) {
+        this.onMarketData = callback;
         if (defaultChannel != null)
             defaultChannel.setOnMarketData(callback);
     }
 
     public void setOnCandle(CandleCallback callback) {
+        this.onCandle = callback;
         if (defaultChannel != null)
             defaultChannel.setOnCandle(callback);
     }
 
-    public void setTokenRefresher(Supplier<String> tokenRefresher) {
+    /**
+     * @param tokenRefresher       token vigente (renovado en segundo plano, sin
+     *                             llamada si no vencio)
+     * @param forcedTokenRefresher token nuevo, cuando DxLink rechazo el vigente
+     */
+    public void setTokenRefresher(Supplier<String> tokenRefresher, Supplier<String> forcedTokenRefresher) {
         this.tokenRefresher = tokenRefresher;
+        this.forcedTokenRefresher = forcedTokenRefresher;
+    }
+
+    public void setReconexionListener(ReconexionListener reconexionListener) {
+        this.reconexionListener = reconexionListener;
     }
 
     /**
@@ -106,14 +259,40 @@ public class DxLinkClient {
         return channel.initialize();
     }
 
+    /**
+     * Conecta bajo el lock de conexion si {@code hayQueConectar} sigue siendo
+     * cierto con el lock tomado: quien llega mientras otro conecta espera ese
+     * intento en vez de abrir otro. El token se pide antes que la URL.
+     */
+    public void conectarSi(BooleanSupplier hayQueConectar, Supplier<String> url, Supplier<String> token) {
+        conexionLock.lock();
+        try {
+            if (hayQueConectar.getAsBoolean()) {
+                String apiToken = token.get();
+                connect(url.get(), apiToken);
+            }
+        } finally {
+            conexionLock.unlock();
+        }
+    }
+
     /**
      * Conecta al WebSocket DxLink, autentica e inicializa el canal por defecto.
      */
     public void connect(String url, String token) {
+        conexionLock.lock();
+        try {
+            conectar(url, token);
+        } finally {
+            conexionLock.unlock();
+        }
+    }
+
+    private void conectar(String url, String token) {
         this.dxLinkUrl = url;
         this.apiQuoteToken = token;
         this.authenticated = false;
-        this.reconnectAttempts.set(0);
+        this.autenticacion = new CompletableFuture<>();
         this.channels.clear();
         this.nextChannelId.set(0);
 
@@ -130,18 +309,22 @@ public class DxLinkClient {
 
             client.execute(new DxLinkHandler(), headers, java.net.URI.create(url)).get(30, TimeUnit.SECONDS);
 
-            // Esperar autenticación
-            int waitCount = 0;
-            while (!authenticated && waitCount < 100) { // 10s max
-                Thread.sleep(100);
-                waitCount++;
+            // Esperar autenticación (AUTH_STATE completa el future)
+            try {
+                autenticacion.get(10, TimeUnit.SECONDS);
+            } catch (TimeoutException | ExecutionException e) {
+                log.debug("DxLink auth not completed: {}", e.getMessage());
             }
 
             if (authenticated) {
                 log.info("DxLink conectado y autenticado (url={})", url);
+                // El backoff se reinicia solo al conectar; un intento fallido no lo reinicia
+                reconnectAttempts.set(0);
 
                 // Inicializar canal default (ID 1)
                 this.defaultChannel = new DxLinkChannel(nextChannelId.incrementAndGet());
+                this.defaultChannel.setOnMarketData(onMarketData);
+                this.defaultChannel.setOnCandle(onCandle);
                 this.channels.put(defaultChannel.getId(), defaultChannel);
 
                 try {
@@ -165,6 +348,7 @@ public class DxLinkClient {
     }
 
     private void scheduleReconnect() {
+        marcarDesconexion();
         if (!reconnecting.compareAndSet(false, true))
             return;
 
@@ -175,8 +359,11 @@ public class DxLinkClient {
             return;
         }
 
-        int delaySeconds = Math.min(INITIAL_RECONNECT_DELAY_SECONDS * (int) Math.pow(2, attempts - 1),
-                MAX_RECONNECT_DELAY_SECONDS);
+        // El primer intento es inmediato (el token vigente ya esta en memoria); el
+        // backoff solo aplica si ese falla
+        int delaySeconds = attempts == 1 ? 0
+                : Math.min(INITIAL_RECONNECT_DELAY_SECONDS * (int) Math.pow(2, attempts - 2),
+                        MAX_RECONNECT_DELAY_SECONDS);
         log.debug("Scheduling reconnection attempt {} in {} seconds...", attempts, delaySeconds);
 
         scheduler.schedule(() -> {
@@ -185,17 +372,38 @@ public class DxLinkClient {
             } finally {
                 reconnecting.set(false);
             }
+            // Los fallos dentro del intento no pudieron reagendar (reconnecting seguia activo)
+            if (!isReady()) {
+                scheduleReconnect();
+            }
         }, delaySeconds, TimeUnit.SECONDS);
     }
 
     private void performReconnect() {
+        conexionLock.lock();
+        try {
+            // Otro camino conecto mientras se esperaba el lock: solo falta resuscribir
+            if (isReady()) {
+                log.debug("DxLink already reconnected, resubscribing");
+                resubscribeAll();
+                return;
+            }
+            reconectar();
+        } finally {
+            conexionLock.unlock();
+        }
+    }
+
+    private void reconectar() {
         log.debug("Attempting to reconnect...");
         cleanupConnection();
 
         String freshToken = apiQuoteToken;
-        if (tokenRefresher != null) {
+        Supplier<String> refresher = tokenRechazado && forcedTokenRefresher != null ? forcedTokenRefresher
+                : tokenRefresher;
+        if (refresher != null) {
             try {
-                freshToken = tokenRefresher.get();
+                freshToken = refresher.get();
             } catch (Exception e) {
                 log.error("Token refresh failed", e);
                 scheduleReconnect();
@@ -214,13 +422,86 @@ public class DxLinkClient {
         }
     }
 
+    private void marcarDesconexion() {
+        if (desconectadoDesde != 0)
+            return;
+        synchronized (subscriptionLock) {
+            if (desconectadoDesde != 0)
+                return;
+            desconectadoDesde = System.currentTimeMillis();
+        }
+        log.warn("DxLink connection lost, resume pending");
+        ReconexionListener listener = reconexionListener;
+        if (listener != null) {
+            try {
+                listener.onDesconexion();
+            } catch (Exception e) {
+                log.warn("Disconnect listener failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Restaura en bloque: un solo frame con los Quote/Trade de todos los simbolos
+     * y, tras recuperar el hueco de barras, otro con las candles en vivo.
+     */
     private void resubscribeAll() {
         if (defaultChannel == null || !defaultChannel.isReady())
             return;
 
-        Set<String> symbols = Set.copyOf(subscribedSymbols);
-        for (String symbol : symbols) {
-            defaultChannel.subscribe(symbol);
+        Set<String> symbols = activeSymbols();
+        if (!symbols.isEmpty()) {
+            defaultChannel.addSubscriptions(feedItems(symbols));
+        }
+
+        long desde = desconectadoDesde;
+        desconectadoDesde = 0;
+        if (desde != 0) {
+            reanudacion.record(System.currentTimeMillis() - desde, TimeUnit.MILLISECONDS);
+        }
+
+        ReconexionListener listener = reconexionListener;
+        if (desde == 0 || listener == null || candleSubscriptions.isEmpty()) {
+            restaurarCandles();
+            return;
+        }
+        Map<EnumTimeframe, List<String>> candles = candlesPorTimeframe();
+        Thread.ofPlatform().name("dxlink-backfill").daemon().start(() -> {
+            try {
+                listener.onReanudacion(desde, candles);
+            } catch (Exception e) {
+                log.warn("Gap backfill failed: {}", e.getMessage());
+            } finally {
+                restaurarCandles();
+            }
+        });
+    }
+
+    private void restaurarCandles() {
+        DxLinkChannel canal = defaultChannel;
+        if (canal == null || !canal.isReady() || candleSubscriptions.isEmpty())
+            return;
+        canal.addSubscriptions(candleSubscriptions.entrySet().stream()
+                .map(e -> candleItem(e.getKey(), e.getValue()))
+                .toList());
+    }
+
+    private Map<EnumTimeframe, List<String>> candlesPorTimeframe() {
+        Map<EnumTimeframe, List<String>> candles = new EnumMap<>(EnumTimeframe.class);
+        candleSubscriptions.forEach((candleSymbol, timeframe) -> candles
+                .computeIfAbsent(timeframe, k -> new ArrayList<>())
+                .add(candleSymbol.substring(0, candleSymbol.indexOf('{'))));
+        return candles;
+    }
+
+    /**
+     * Union de simbolos suscritos por comandos y por clientes push.
+     */
+    private Set<String> activeSymbols() {
+        synchronized (subscriptionLock) {
+            Set<String> symbols = new HashSet<>(subscribedSymbols);
+            symbols.addAll(streamRefs.keySet());
+            return symbols;
         }
     }
 
@@ -259,15 +540,135 @@ public class DxLinkClient {
     // --- Métodos de Suscripción (Delegados al Default Channel) ---
 
     public void subscribe(String symbol) {
-        if (defaultChannel != null)
-            defaultChannel.subscribe(symbol);
-        subscribedSymbols.add(symbol);
+        synchronized (subscriptionLock) {
+            if (defaultChannel != null)
+                defaultChannel.subscribe(symbol);
+            subscribedSymbols.add(symbol);
+        }
     }
 
     public void unsubscribe(String symbol) {
-        if (defaultChannel != null)
-            defaultChannel.unsubscribe(symbol);
-        subscribedSymbols.remove(symbol);
+        synchronized (subscriptionLock) {
+            subscribedSymbols.remove(symbol);
+            // Si algun cliente push sigue interesado, se mantiene la suscripcion upstream
+            if (defaultChannel != null && !streamRefs.containsKey(symbol))
+                defaultChannel.unsubscribe(symbol);
+        }
+    }
+
+    /**
+     * Suscripcion masiva por comando. Solo viajan upstream (en un unico frame) los
+     * simbolos que no estaban ya suscritos.
+     */
+    public void subscribeAll(Collection<String> symbols) {
+        synchronized (subscriptionLock) {
+            List<String> nuevos = new ArrayList<>();
+            for (String symbol : symbols) {
+                if (subscribedSymbols.add(symbol) && !streamRefs.containsKey(symbol))
+                    nuevos.add(symbol);
+            }
+            if (!nuevos.isEmpty() && defaultChannel != null)
+                defaultChannel.addSubscriptions(feedItems(nuevos));
+        }
+    }
+
+    public void unsubscribeAll(Collection<String> symbols) {
+        synchronized (subscriptionLock) {
+            List<String> retirados = new ArrayList<>();
+            for (String symbol : symbols) {
+                if (subscribedSymbols.remove(symbol) && !streamRefs.containsKey(symbol))
+                    retirados.add(symbol);
+            }
+            if (!retirados.isEmpty() && defaultChannel != null)
+                defaultChannel.removeSubscriptions(feedItems(retirados));
+        }
+    }
+
+    private static List<Map<String, Object>> feedItems(Collection<String> symbols) {
+        List<Map<String, Object>> items = new ArrayList<>(symbols.size() * 2);
+        for (String symbol : symbols) {
+            items.add(Map.of("symbol", symbol, "type", "Quote"));
+            items.add(Map.of("symbol", symbol, "type", "Trade"));
+        }
+        return items;
+    }
+
+    /**
+     * Registra interes de un cliente push en el simbolo. Solo el primer interesado
+     * genera la suscripcion upstream.
+     */
+    public void acquire(String symbol) {
+        synchronized (subscriptionLock) {
+            int refs = streamRefs.merge(symbol, 1, Integer::sum);
+            if (refs == 1 && !subscribedSymbols.contains(symbol) && defaultChannel != null)
+                defaultChannel.subscribe(symbol);
+        }
+    }
+
+    /**
+     * Libera el interes de un cliente push. El ultimo en salir retira la
+     * suscripcion upstream salvo que exista una suscripcion por comando.
+     */
+    public void release(String symbol) {
+        synchronized (subscriptionLock) {
+            Integer refs = streamRefs.computeIfPresent(symbol, (k, v) -> v > 1 ? v - 1 : null);
+            if (refs == null && !subscribedSymbols.contains(symbol) && defaultChannel != null)
+                defaultChannel.unsubscribe(symbol);
+        }
+    }
+
+    /**
+     * Simbolos con Quote/Trade en el canal default (por comando o por clientes
+     * push).
+     */
+    public Set<String> getStreamingSymbols() {
+        Set<String> symbols = new HashSet<>(subscribedSymbols);
+        symbols.addAll(streamRefs.keySet());
+        return symbols;
+    }
+
+    /**
+     * Suscribe candles en vivo de un simbolo/timeframe en el canal default. El
+     * fromTime cubre la barra anterior para que el consumidor reciba la ultima
+     * barra cerrada y la que se esta formando.
+     */
+    public void subscribeCandles(String symbol, EnumTimeframe timeframe) {
+        subscribeCandles(List.of(symbol), List.of(timeframe));
+    }
+
+    public void unsubscribeCandles(String symbol, EnumTimeframe timeframe) {
+        unsubscribeCandles(List.of(symbol), List.of(timeframe));
+    }
+
+    public void subscribeCandles(Collection<String> symbols, Collection<EnumTimeframe> timeframes) {
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (String symbol : symbols) {
+            for (EnumTimeframe timeframe : timeframes) {
+                String candleSymbol = symbol + timeframe.getDxLinkFormat();
+                if (candleSubscriptions.put(candleSymbol, timeframe) == null)
+                    items.add(candleItem(candleSymbol, timeframe));
+            }
+        }
+        if (!items.isEmpty() && defaultChannel != null)
+            defaultChannel.addSubscriptions(items);
+    }
+
+    public void unsubscribeCandles(Collection<String> symbols, Collection<EnumTimeframe> timeframes) {
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (String symbol : symbols) {
+            for (EnumTimeframe timeframe : timeframes) {
+                String candleSymbol = symbol + timeframe.getDxLinkFormat();
+                if (candleSubscriptions.remove(candleSymbol) != null)
+                    items.add(Map.of("type", "Candle", "symbol", candleSymbol));
+            }
+        }
+        if (!items.isEmpty() && defaultChannel != null)
+            defaultChannel.removeSubscriptions(items);
+    }
+
+    private Map<String, Object> candleItem(String candleSymbol, EnumTimeframe timeframe) {
+        long fromTime = System.currentTimeMillis() - 2 * timeframe.getDuration().toMillis();
+        return Map.of("type", "Candle", "symbol", candleSymbol, "fromTime", fromTime);
     }
 
     // --- Gestión de Conexión ---
@@ -283,6 +684,13 @@ public class DxLinkClient {
         return session != null && session.isOpen() && authenticated;
     }
 
+    /**
+     * Conectado, autenticado y con el canal default listo para suscripciones.
+     */
+    public boolean isReady() {
+        return isConnected() && defaultChannel != null && defaultChannel.isReady();
+    }
+
     public void forceReconnect() {
         reconnectAttempts.set(0);
         cleanupConnection();
@@ -295,6 +703,8 @@ public class DxLinkClient {
                 "authenticated", authenticated,
                 "channels", channels.size(),
                 "activeSubscriptions", subscribedSymbols.size(),
+                "streamSubscriptions", streamRefs.size(),
+                "candleSubscriptions", candleSubscriptions.size(),
                 "reconnectAttempts", reconnectAttempts.get(),
                 "reconnecting", reconnecting.get());
     }
@@ -302,6 +712,8 @@ public class DxLinkClient {
     @PreDestroy
     public void cleanup() {
         disconnect();
+        tiempoReal.shutdownNow();
+        poolBatch.shutdownNow();
     }
 
     // --- WebSocket Logic ---
@@ -326,23 +738,73 @@ public class DxLinkClient {
         }
     }
 
-    private void handleMessage(String payload) {
+    /**
+     * Enruta un mensaje del socket: los FEED_DATA de canales de batch van a la
+     * cola de su canal; el resto (canal default y control) al hilo de tiempo real,
+     * asi un snapshot grande no retrasa los ticks en vivo.
+     *
+     * Con la cola de tiempo real llena, un FEED_DATA de quotes/trades se descarta
+     * y se cuenta (el siguiente tick del simbolo lo reemplaza). Los que traen
+     * candles y los mensajes de control no se pueden perder: el hilo del socket
+     * espera lugar en la cola, conservando el orden.
+     */
+    private void despachar(String payload, DxLinkCompactDecoder.Recepcion recepcion) {
+        int channelId = DxLinkCompactDecoder.canalFeedData(payload);
+        DxLinkChannel channel = channelId > 0 ? channels.get(channelId) : null;
+        if (channel != null && channel != defaultChannel) {
+            channel.encolar(() -> handleMessage(payload, recepcion));
+            return;
+        }
+        try {
+            tiempoReal.execute(() -> handleMessage(payload, recepcion));
+        } catch (RejectedExecutionException e) {
+            if (tiempoReal.isShutdown())
+                return;
+            if (channelId > 0 && !payload.contains("\"Candle\"")) {
+                framesDescartados.increment();
+                return;
+            }
+            try {
+                // El hilo del executor ya esta arrancado (prestartCoreThread): toma lo que se encole
+                tiempoReal.getQueue().put(() -> handleMessage(payload, recepcion));
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void handleMessage(String payload, DxLinkCompactDecoder.Recepcion recepcion) {
+        DxLinkMessageEvent evento = new DxLinkMessageEvent();
+        evento.begin();
+        String type = null;
+        JsonNode msg = null;
         try {
-            JsonNode msg = objectMapper.readTree(payload);
-            String type = msg.path("type").asText();
+            long inicio = System.nanoTime();
+            msg = objectMapper.readTree(payload);
+            parseo.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            type = msg.path("type").asText();
 
             switch (type) {
                 case "SETUP" -> handleSetup(msg);
                 case "AUTH_STATE" -> handleAuthState(msg);
                 case "CHANNEL_OPENED" -> handleChannelOpened(msg);
                 case "FEED_CONFIG" -> handleFeedConfig(msg);
-                case "FEED_DATA" -> handleFeedData(msg);
+                case "FEED_DATA" -> handleFeedData(msg, recepcion);
                 case "KEEPALIVE" -> handleKeepalive();
                 case "ERROR" -> log.error("DxLink error: {}", msg.path("error").asText());
                 default -> log.debug("Unhandled message type: {}", type);
             }
         } catch (Exception e) {
             log.error("Error processing message", e);
+        } finally {
+            // Los campos solo se llenan si el evento supera el threshold de la grabacion
+            evento.end();
+            if (evento.shouldCommit()) {
+                evento.type = type;
+                evento.channel = msg != null ? msg.path("channel").asInt() : -1;
+                evento.payloadBytes = payload.length();
+                evento.commit();
+            }
         }
     }
 
@@ -353,10 +815,14 @@ public class DxLinkClient {
     private void handleAuthState(JsonNode msg) {
         if ("AUTHORIZED".equals(msg.path("state").asText())) {
             authenticated = true;
+            tokenRechazado = false;
             log.info("Authenticated successfully");
+            autenticacion.complete(null);
         } else {
             log.error("Authentication failed");
             authenticated = false;
+            tokenRechazado = true;
+            autenticacion.completeExceptionally(new IllegalStateException("DxLink authentication failed"));
         }
     }
 
@@ -376,7 +842,7 @@ public class DxLinkClient {
         }
     }
 
-    private void handleFeedData(JsonNode msg) {
+    private void handleFeedData(JsonNode msg, DxLinkCompactDecoder.Recepcion recepcion) {
         int channelId = msg.path("channel").asInt();
         JsonNode data = msg.path("data");
 
@@ -388,7 +854,7 @@ public class DxLinkClient {
         }
 
         if (channel != null && data.isArray()) {
-            channel.processData(data);
+            channel.processData(data, recepcion);
         }
     }
 
@@ -429,6 +895,10 @@ public class DxLinkClient {
         // Estado Snapshot Local
         private final AtomicInteger snapshotCandleCount = new AtomicInteger(0);
 
+        // Mensajes de batch pendientes; un solo drenado a la vez conserva el orden del snapshot
+        private final BlockingQueue<Runnable> pendientes = new ArrayBlockingQueue<>(capacidadCanal);
+        private final AtomicBoolean drenando = new AtomicBoolean(false);
+
         public DxLinkChannel(int id) {
             this.id = id;
         }
@@ -470,6 +940,14 @@ public class DxLinkClient {
                     List.of(Map.of("symbol", symbol, "type", "Quote"), Map.of("symbol", symbol, "type", "Trade"))));
         }
 
+        public void addSubscriptions(List<Map<String, Object>> items) {
+            sendMessage(Map.of("type", "FEED_SUBSCRIPTION", "channel", id, "add", items));
+        }
+
+        public void removeSubscriptions(List<Map<String, Object>> items) {
+            sendMessage(Map.of("type", "FEED_SUBSCRIPTION", "channel", id, "remove", items));
+        }
+
         public void subscribeCandlesBatch(List<Map<String, Object>> items) {
             snapshotCandleCount.set(0); // Reset local count
             sendMessage(Map.of("type", "FEED_SUBSCRIPTION", "channel", id, "add", items));
@@ -487,7 +965,8 @@ public class DxLinkClient {
                     "channel", id,
                     "acceptDataFormat", "COMPACT",
                     "acceptEventFields", Map.of(
-                            "Quote", List.of("eventSymbol", "bidPrice", "askPrice", "bidSize", "askSize"),
+                            "Quote",
+                            List.of("eventSymbol", "bidPrice", "askPrice", "bidSize", "askSize", "bidTime", "askTime"),
                             "Trade", List.of("eventSymbol", "price", "size", "time"),
                             "Candle",
                             List.of("eventSymbol", "time", "open", "high", "low", "close", "volume", "eventFlags"))));
@@ -503,97 +982,71 @@ public class DxLinkClient {
             }
         }
 
-        private void processData(JsonNode data) {
-            int i = 0;
-            while (i < data.size()) {
-                JsonNode item = data.get(i);
-                if (item.isTextual()) {
-                    String eventType = item.asText();
-                    if (i + 1 < data.size()) {
-                        i++;
-                        processCompactEvent(eventType, data.get(i));
+        /**
+         * Con la cola del canal llena el hilo del socket espera a que el drenado
+         * libere lugar (back-pressure hacia el websocket). Si no hay drenado en
+         * curso lo programa, y con el pool saturado lo corre el mismo hilo.
+         */
+        private void encolar(Runnable mensaje) {
+            framesBatchEnCola.incrementAndGet();
+            try {
+                while (!pendientes.offer(mensaje, 100, TimeUnit.MILLISECONDS)) {
+                    if (poolBatch.isShutdown()) {
+                        framesBatchEnCola.decrementAndGet();
+                        return;
                     }
-                } else if (item.isObject()) {
-                    String eventType = item.has("eventType") ? item.get("eventType").asText()
-                            : item.get("type").asText();
-                    processFullEvent(eventType, item);
+                    programarDrenado();
                 }
-                i++;
+            } catch (InterruptedException e) {
+                framesBatchEnCola.decrementAndGet();
+                Thread.currentThread().interrupt();
+                return;
+            }
+            programarDrenado();
+        }
+
+        private void programarDrenado() {
+            if (drenando.compareAndSet(false, true)) {
+                poolBatch.execute(this::drenar);
             }
         }
 
-        private void processCompactEvent(String eventType, JsonNode data) {
+        private void drenar() {
             try {
-                switch (eventType) {
-                    case "Quote" -> {
-                        String symbol = data.path(0).asText();
-                        if (onMarketData != null) {
-                            onMarketData.accept(symbol, MarketDataStreamDTO.builder()
-                                    .symbol(symbol)
-                                    .bid(data.path(1).asDouble())
-                                    .ask(data.path(2).asDouble())
-                                    .timestamp(Instant.now())
-                                    .build());
-                        }
-                    }
-                    case "Trade" -> {
-                        String symbol = data.path(0).asText();
-                        if (onMarketData != null) {
-                            onMarketData.accept(symbol, MarketDataStreamDTO.builder()
-                                    .symbol(symbol)
-                                    .lastPrice(data.path(1).asDouble())
-                                    .volume(data.path(2).asLong())
-                                    .timestamp(Instant.ofEpochMilli(data.path(3).asLong()))
-                                    .build());
-                        }
-                    }
-                    case "Candle" -> {
-                        if (onCandle != null) {
-                            int fieldsPerCandle = 8;
-                            // boolean lastCandleTxPending removed
-
-                            for (int idx = 0; idx < data.size(); idx += fieldsPerCandle) {
-                                String candleSymbol = data.path(idx).asText();
-                                String baseSymbol = candleSymbol.contains("{")
-                                        ? candleSymbol.substring(0, candleSymbol.indexOf("{"))
-                                        : candleSymbol;
-
-                                long timestamp = data.path(idx + 1).asLong();
-                                double open = data.path(idx + 2).asDouble();
-                                double high = data.path(idx + 3).asDouble();
-                                double low = data.path(idx + 4).asDouble();
-                                double close = data.path(idx + 5).asDouble();
-                                double volume = data.path(idx + 6).asDouble();
-                                int eventFlags = data.path(idx + 7).asInt(0);
-
-                                if (Double.isNaN(open))
-                                    continue;
-
-                                boolean isTxPending = (eventFlags & 0x01) != 0;
-                                // lastCandleTxPending logic removed as unused
-
-                                Candle candle = Candle.builder().symbol(baseSymbol)
-                                        .timestamp(Instant.ofEpochMilli(timestamp))
-                                        .open(open).high(high).low(low).close(close).volume(volume).build();
-
-                                snapshotCandleCount.incrementAndGet();
-
-                                // Snapshot complete for THIS symbol if not pending and we are processing the
-                                // last chunk or simple heuristic
-                                boolean isSnapshotComplete = !isTxPending;
-                                onCandle.onCandle(baseSymbol, candle, isSnapshotComplete);
-                            }
-                        }
-                    }
+                Runnable mensaje;
+                while ((mensaje = pendientes.poll()) != null) {
+                    framesBatchEnCola.decrementAndGet();
+                    // Canal ya cerrado: el batch termino y nadie espera estos datos
+                    if (channels.get(id) == this)
+                        mensaje.run();
                 }
-            } catch (Exception e) {
-                log.error("Error processing compact event {}", eventType, e);
+            } finally {
+                drenando.set(false);
             }
+            // Un mensaje pudo llegar entre el ultimo poll y liberar el flag
+            if (!pendientes.isEmpty())
+                programarDrenado();
         }
 
-        private void processFullEvent(String eventType, JsonNode data) {
-            // Implementación simplificada para FULL events si fuera necesario
-            // Generalmente DxLink con acceptDataFormat=COMPACT usa el otro método.
+        private void processData(JsonNode data, DxLinkCompactDecoder.Recepcion recepcion) {
+            DxLinkFrameEvent evento = new DxLinkFrameEvent();
+            evento.begin();
+            long inicio = System.nanoTime();
+            DxLinkCompactDecoder.Conteo conteo = DxLinkCompactDecoder.decodificar(data, recepcion, onMarketData,
+                    onCandle);
+            snapshotCandleCount.addAndGet(conteo.candles());
+            boolean esDefault = this == defaultChannel;
+            (esDefault ? medidorDefault : medidorBatch).registrar(conteo, System.nanoTime() - inicio);
+
+            evento.end();
+            if (evento.shouldCommit()) {
+                evento.channel = id;
+                evento.defaultChannel = esDefault;
+                evento.quotes = conteo.quotes();
+                evento.trades = conteo.trades();
+                evento.candles = conteo.candles();
+                evento.commit();
+            }
         }
     }
 
@@ -613,7 +1066,8 @@ public class DxLinkClient {
 
         @Override
         protected void handleTextMessage(WebSocketSession session, TextMessage message) {
-            DxLinkClient.this.handleMessage(message.getPayload());
+            DxLinkClient.this.despachar(message.getPayload(),
+                    new DxLinkCompactDecoder.Recepcion(System.currentTimeMillis(), System.nanoTime()));
         }
 
         @Override
@@ -0,0 +1,231 @@
+package com.metradingplat.marketdata.infrastructure.output.external.tastytrade;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.stereotype.Component;
+
+import com.metradingplat.marketdata.infrastructure.configuration.FeedLagProperties;
+import com.metradingplat.marketdata.infrastructure.output.kafka.DTO.MarketDataStreamDTO;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Retraso del feed en vivo por etapa y por simbolo.
+ *
+ * Etapas (timer marketdata.feed.latency, tag stage): exchange_receive (hora del
+ * exchange contra la llegada del frame), receive_callback (llegada hasta el
+ * callback del servicio) y callback_ack (callback hasta el ack de Kafka, lo
+ * registra KafkaProducerAdapter). Por simbolo se guarda un promedio movil del
+ * retraso exchange_receive y la hora del ultimo evento; el watchdog marca los
+ * simbolos detenidos y si el feed completo va atrasado.
+ */
+@Component
+@Slf4j
+public class FeedLagMonitor {
+
+    public static final String METRICA = "marketdata.feed.latency";
+
+    private final DxLinkClient dxLinkClient;
+    private final FeedLagProperties properties;
+
+    private final Map<String, EstadoSimbolo> simbolos = new ConcurrentHashMap<>();
+    private final Map<String, Timer> exchangeReceive = new ConcurrentHashMap<>();
+    private final Map<String, Timer> receiveCallback = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    private volatile long ultimoEventoMs;
+    private volatile Reporte ultimoReporte = new Reporte(false, false, 0, List.of(), List.of(), Instant.now());
+    private final AtomicInteger detenidos = new AtomicInteger();
+
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("feed-lag-watchdog").daemon().factory());
+
+    private static final class EstadoSimbolo {
+        private long ultimaRecepcionMs;
+        private double lagEwmaMs = -1;
+        private long lagMaxMs;
+    }
+
+    public record Outlier(String symbol, long lagEwmaMs, long lagMaxMs, long msDesdeUltimoEvento) {
+    }
+
+    public record Reporte(boolean feedActivo, boolean feedAtrasado, long lagMedianoMs, List<String> simbolosDetenidos,
+            List<Outlier> outliers, Instant evaluadoEl) {
+    }
+
+    public FeedLagMonitor(DxLinkClient dxLinkClient, FeedLagProperties properties, MeterRegistry meterRegistry) {
+        this.dxLinkClient = dxLinkClient;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("marketdata.feed.symbols.stalled", detenidos, AtomicInteger::get)
+                .description("Simbolos suscritos sin eventos con el resto del feed activo")
+                .register(meterRegistry);
+        Gauge.builder("marketdata.feed.lag.median", this, m -> m.ultimoReporte.lagMedianoMs())
+                .description("Mediana del retraso exchange -> recepcion entre simbolos (ms)")
+                .register(meterRegistry);
+        Gauge.builder("marketdata.feed.behind", this, m -> m.ultimoReporte.feedAtrasado() ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        if (properties.isEnabled()) {
+            watchdog.scheduleAtFixedRate(this::evaluar, properties.getWatchdogIntervalSeconds(),
+                    properties.getWatchdogIntervalSeconds(), TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        watchdog.shutdownNow();
+    }
+
+    /**
+     * Llamado al entrar el evento al callback del servicio; deja marcado el
+     * instante para la etapa callback_ack.
+     */
+    public void onEvento(MarketDataStreamDTO data) {
+        long ahoraNanos = System.nanoTime();
+        data.setCallbackNanos(ahoraNanos);
+        if (!properties.isEnabled() || data.getRecibidoNanos() == 0)
+            return;
+
+        String tipo = tipo(data);
+        timer(receiveCallback, "receive_callback", tipo).record(ahoraNanos - data.getRecibidoNanos(),
+                TimeUnit.NANOSECONDS);
+
+        long recibidoMs = data.getRecibidoEpochMs();
+        ultimoEventoMs = recibidoMs;
+        EstadoSimbolo estado = simbolos.computeIfAbsent(data.getSymbol(), k -> new EstadoSimbolo());
+        synchronized (estado) {
+            estado.ultimaRecepcionMs = recibidoMs;
+            if (data.isHoraExchange() && data.getTimestamp() != null) {
+                // Relojes desfasados pueden dar negativo: se toma como cero
+                long lagMs = Math.max(0, recibidoMs - data.getTimestamp().toEpochMilli());
+                timer(exchangeReceive, "exchange_receive", tipo).record(lagMs, TimeUnit.MILLISECONDS);
+                estado.lagEwmaMs = estado.lagEwmaMs < 0 ? lagMs
+                        : estado.lagEwmaMs + properties.getEwmaAlpha() * (lagMs - estado.lagEwmaMs);
+                estado.lagMaxMs = Math.max(estado.lagMaxMs, lagMs);
+            }
+        }
+    }
+
+    public Reporte getReporte() {
+        return ultimoReporte;
+    }
+
+    static String tipo(MarketDataStreamDTO data) {
+        return data.getLastPrice() != null ? "Trade" : "Quote";
+    }
+
+    private Timer timer(Map<String, Timer> timers, String etapa, String tipo) {
+        return timers.computeIfAbsent(tipo, t -> Timer.builder(METRICA)
+                .description("Retraso del feed en vivo por etapa")
+                .tag("stage", etapa)
+                .tag("type", t)
+                .register(meterRegistry));
+    }
+
+    // --- Watchdog ---
+
+    void evaluar() {
+        try {
+            long ahora = System.currentTimeMillis();
+            long umbralDetenido = TimeUnit.SECONDS.toMillis(properties.getStallThresholdSeconds());
+            Set<String> suscritos = dxLinkClient.getStreamingSymbols();
+            simbolos.keySet().retainAll(suscritos);
+
+            boolean feedActivo = ahora - ultimoEventoMs < umbralDetenido;
+            List<String> detenidosAhora = new ArrayList<>();
+            List<Outlier> candidatos = new ArrayList<>();
+            List<Long> lags = new ArrayList<>();
+
+            for (String symbol : suscritos) {
+                // Sin eventos todavia: cuenta desde que el watchdog lo vio por primera vez
+                EstadoSimbolo estado = simbolos.computeIfAbsent(symbol, k -> {
+                    EstadoSimbolo nuevo = new EstadoSimbolo();
+                    nuevo.ultimaRecepcionMs = ahora;
+                    return nuevo;
+                });
+                synchronized (estado) {
+                    long silencio = ahora - estado.ultimaRecepcionMs;
+                    if (feedActivo && silencio > umbralDetenido) {
+                        detenidosAhora.add(symbol);
+                    }
+                    if (estado.lagEwmaMs >= 0) {
+                        lags.add(Math.round(estado.lagEwmaMs));
+                        candidatos.add(new Outlier(symbol, Math.round(estado.lagEwmaMs), estado.lagMaxMs, silencio));
+                    }
+                    estado.lagMaxMs = 0; // Ventana del maximo: un intervalo del watchdog
+                }
+            }
+
+            long mediana = 0;
+            if (!lags.isEmpty()) {
+                lags.sort(Long::compare);
+                mediana = lags.get(lags.size() / 2);
+            }
+            boolean atrasado = feedActivo && mediana > properties.getBehindThresholdMs();
+            candidatos.sort(Comparator.comparingLong(Outlier::lagEwmaMs).reversed());
+            List<Outlier> outliers = List.copyOf(
+                    candidatos.subList(0, Math.min(properties.getOutliers(), candidatos.size())));
+
+            avisarCambios(ultimoReporte, feedActivo, atrasado, mediana, detenidosAhora, suscritos.size());
+            detenidos.set(detenidosAhora.size());
+            ultimoReporte = new Reporte(feedActivo, atrasado, mediana, List.copyOf(detenidosAhora), outliers,
+                    Instant.ofEpochMilli(ahora));
+        } catch (Exception e) {
+            log.warn("Feed lag watchdog failed: {}", e.getMessage());
+        }
+    }
+
+    private void avisarCambios(Reporte previo, boolean feedActivo, boolean atrasado, long mediana,
+            List<String> detenidosAhora, int suscritos) {
+        if (suscritos > 0 && previo.feedActivo() && !feedActivo) {
+            log.warn("DxLink feed silent: no events for {} s across {} subscribed symbols",
+                    properties.getStallThresholdSeconds(), suscritos);
+        }
+        if (atrasado != previo.feedAtrasado()) {
+            if (atrasado)
+                log.warn("DxLink feed falling behind: median exchange->receive lag {} ms", mediana);
+            else
+                log.info("DxLink feed caught up: median exchange->receive lag {} ms", mediana);
+        }
+        List<String> nuevos = detenidosAhora.stream().filter(s -> !previo.simbolosDetenidos().contains(s)).toList();
+        if (!nuevos.isEmpty()) {
+            log.warn("{} symbols stalled (no events for {} s): {}", nuevos.size(),
+                    properties.getStallThresholdSeconds(), nuevos.size() > 20 ? nuevos.subList(0, 20) : nuevos);
+        }
+    }
+
+    /**
+     * Vista para /api/health/dxlink/lag.
+     */
+    public Map<String, Object> getStats() {
+        Reporte reporte = ultimoReporte;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("feedActive", reporte.feedActivo());
+        stats.put("feedBehind", reporte.feedAtrasado());
+        stats.put("medianLagMs", reporte.lagMedianoMs());
+        stats.put("stalledSymbols", reporte.simbolosDetenidos());
+        stats.put("outliers", reporte.outliers());
+        stats.put("evaluatedAt", reporte.evaluadoEl().toString());
+        return stats;
+    }
+}
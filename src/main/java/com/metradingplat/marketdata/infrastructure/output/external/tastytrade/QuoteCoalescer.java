@@ -0,0 +1,219 @@
+package com.metradingplat.marketdata.infrastructure.output.external.tastytrade;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.stereotype.Component;
+
+import com.metradingplat.marketdata.domain.models.Quote;
+import com.metradingplat.marketdata.infrastructure.output.kafka.cache.LastValueCache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Agrupa las consultas de quote concurrentes en llamadas multi-simbolo.
+ *
+ * Cada simbolo pedido se encola y, pasada una ventana corta (o al llenarse un
+ * lote), se resuelve junto con los demas en una sola llamada a
+ * /market-data/by-type. Las consultas del mismo simbolo que llegan mientras su
+ * llamada esta en curso comparten el mismo future, y el resultado queda en una
+ * cache de vida corta.
+ *
+ * Antes de llamar se consulta la cache de ultimo valor compartida (quotes que
+ * otra replica ya pidio o que el stream mantiene al dia), y los quotes que se
+ * obtienen se publican en ella.
+ */
+@Component
+@Slf4j
+public class QuoteCoalescer {
+
+    private final TastyTradeClient tastyTradeClient;
+    private final TastyTradeConfig.Quotes config;
+    private final LastValueCache lastValueCache;
+
+    private record Entrada(Quote quote, long expiraEn) {
+    }
+
+    private final Map<String, Entrada> cache = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Quote>> enCurso = new ConcurrentHashMap<>();
+
+    private final Queue<String> pendientes = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger totalPendientes = new AtomicInteger();
+    private final AtomicBoolean drenadoAgendado = new AtomicBoolean();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("quote-coalescer").daemon().factory());
+    private final ExecutorService llamadas = Executors.newVirtualThreadPerTaskExecutor();
+
+    public QuoteCoalescer(TastyTradeClient tastyTradeClient, TastyTradeConfig config, LastValueCache lastValueCache) {
+        this.tastyTradeClient = tastyTradeClient;
+        this.config = config.getQuotes();
+        this.lastValueCache = lastValueCache;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (config.getCacheTtlMs() > 0) {
+            long purga = Math.max(config.getCacheTtlMs() * 10, 10_000);
+            scheduler.scheduleAtFixedRate(this::purgarCache, purga, purga, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        llamadas.shutdownNow();
+    }
+
+    /**
+     * @return future con el quote del simbolo, o null si TastyTrade no lo devuelve
+     */
+    public CompletableFuture<Quote> obtener(String symbol) {
+        String clave = symbol.trim().toUpperCase();
+
+        Entrada entrada = cache.get(clave);
+        if (entrada != null && System.currentTimeMillis() < entrada.expiraEn()) {
+            return CompletableFuture.completedFuture(entrada.quote());
+        }
+
+        Quote compartido = lastValueCache.quote(clave);
+        if (compartido != null) {
+            return CompletableFuture.completedFuture(compartido);
+        }
+
+        CompletableFuture<Quote> nuevo = new CompletableFuture<>();
+        CompletableFuture<Quote> existente = enCurso.putIfAbsent(clave, nuevo);
+        if (existente != null) {
+            return existente;
+        }
+
+        pendientes.add(clave);
+        if (totalPendientes.incrementAndGet() >= config.getMaxBatchSize()) {
+            scheduler.execute(this::drenar);
+        } else if (drenadoAgendado.compareAndSet(false, true)) {
+            scheduler.schedule(this::drenar, config.getBatchWindowMs(), TimeUnit.MILLISECONDS);
+        }
+        return nuevo;
+    }
+
+    /**
+     * Como {@link #obtener}, esperando como maximo {@code timeout-ms}.
+     *
+     * @return el quote, o null si no hay datos o no llego a tiempo
+     */
+    public Quote obtenerAhora(String symbol) {
+        return esperar(symbol, obtener(symbol), System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getTimeoutMs()));
+    }
+
+    /**
+     * Resuelve varios simbolos a la vez, esperando como maximo {@code timeout-ms}
+     * en total.
+     *
+     * @return quotes por simbolo (en mayusculas) en el orden pedido; los simbolos
+     *         sin datos o que no llegaron a tiempo no aparecen
+     */
+    public Map<String, Quote> obtenerTodos(Collection<String> symbols) {
+        Map<String, CompletableFuture<Quote>> futures = new LinkedHashMap<>();
+        for (String symbol : symbols) {
+            if (symbol != null && !symbol.isBlank()) {
+                futures.putIfAbsent(symbol.trim().toUpperCase(), obtener(symbol));
+            }
+        }
+
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getTimeoutMs());
+        Map<String, Quote> quotes = new LinkedHashMap<>();
+        futures.forEach((symbol, future) -> {
+            Quote quote = esperar(symbol, future, limite);
+            if (quote != null) {
+                quotes.put(symbol, quote);
+            }
+        });
+        return quotes;
+    }
+
+    /**
+     * Espera el future compartido sin modificarlo: un timeout de este llamador no
+     * afecta a los demas que esperan el mismo simbolo.
+     */
+    private Quote esperar(String symbol, CompletableFuture<Quote> future, long limiteNanos) {
+        try {
+            return future.get(Math.max(limiteNanos - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            log.debug("Quote for {} not available within {} ms", symbol, config.getTimeoutMs());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    private void drenar() {
+        drenadoAgendado.set(false);
+
+        List<String> lote = new ArrayList<>();
+        String symbol;
+        while ((symbol = pendientes.poll()) != null) {
+            totalPendientes.decrementAndGet();
+            lote.add(symbol);
+            if (lote.size() >= config.getMaxBatchSize()) {
+                despachar(lote);
+                lote = new ArrayList<>();
+            }
+        }
+        if (!lote.isEmpty()) {
+            despachar(lote);
+        }
+    }
+
+    private void despachar(List<String> lote) {
+        llamadas.execute(() -> {
+            Map<String, Quote> quotes = Map.of();
+            try {
+                quotes = tastyTradeClient.getQuotes(lote);
+            } catch (Exception e) {
+                log.error("Quote batch of {} symbols failed: {}", lote.size(), e.getMessage());
+            }
+
+            long expiraEn = System.currentTimeMillis() + config.getCacheTtlMs();
+            for (String symbol : lote) {
+                Quote quote = quotes.get(symbol);
+                // Solo se cachean respuestas con datos; un fallo se reintenta en la siguiente consulta
+                if (quote != null && config.getCacheTtlMs() > 0) {
+                    cache.put(symbol, new Entrada(quote, expiraEn));
+                }
+                if (quote != null) {
+                    lastValueCache.publicarSnapshot(quote);
+                }
+                CompletableFuture<Quote> future = enCurso.remove(symbol);
+                if (future != null) {
+                    future.complete(quote);
+                }
+            }
+            log.debug("Quote batch: {} symbols requested, {} returned", lote.size(), quotes.size());
+        });
+    }
+
+    private void purgarCache() {
+        long ahora = System.currentTimeMillis();
+        cache.values().removeIf(entrada -> ahora >= entrada.expiraEn());
+    }
+}
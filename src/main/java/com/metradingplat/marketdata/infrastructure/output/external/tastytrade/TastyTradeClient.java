@@ -1,138 +1,88 @@
 package com.metradingplat.marketdata.infrastructure.output.external.tastytrade;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestClient;
+import org.springframework.web.client.HttpClientErrorException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import com.metradingplat.marketdata.domain.models.ActiveEquity;
 import com.metradingplat.marketdata.domain.models.BracketOrder;
+import com.metradingplat.marketdata.domain.models.EarningsReport;
 import com.metradingplat.marketdata.domain.models.OrderRequest;
 import com.metradingplat.marketdata.domain.models.OrderResponse;
+import com.metradingplat.marketdata.domain.models.Quote;
+import com.metradingplat.marketdata.infrastructure.output.external.tastytrade.DTO.EarningsItem;
+import com.metradingplat.marketdata.infrastructure.output.external.tastytrade.DTO.EquityItem;
+import com.metradingplat.marketdata.infrastructure.output.external.tastytrade.DTO.ItemsData;
+import com.metradingplat.marketdata.infrastructure.output.external.tastytrade.DTO.MarketDataItem;
+import com.metradingplat.marketdata.infrastructure.output.external.tastytrade.DTO.OrderData;
+import com.metradingplat.marketdata.infrastructure.output.external.tastytrade.DTO.TastyTradeResponse;
+import com.metradingplat.marketdata.infrastructure.output.external.tastytrade.TastyTradeHttpTransport.Operacion;
+import com.metradingplat.marketdata.infrastructure.output.exceptionsController.ownExceptions.ReglaNegocioException;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Cliente REST para TastyTrade API.
- * Maneja autenticación OAuth 2.0 y envío de órdenes.
+ * Envía órdenes y consulta datos; los tokens los gestiona TastyTradeTokenManager.
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class TastyTradeClient {
 
-    private final RestClient tastyTradeRestClient;
+    private final TastyTradeHttpTransport http;
     private final TastyTradeConfig config;
+    private final TastyTradeTokenManager tokenManager;
+    private final ObjectMapper objectMapper;
 
-    private volatile String accessToken;
-    private volatile String apiQuoteToken;
-    private volatile String dxlinkUrl;
+    private static final ParameterizedTypeReference<TastyTradeResponse<OrderData>> ORDER_RESPONSE = new ParameterizedTypeReference<>() {
+    };
+    private static final ParameterizedTypeReference<TastyTradeResponse<ItemsData<MarketDataItem>>> MARKET_DATA_RESPONSE = new ParameterizedTypeReference<>() {
+    };
+    private static final ParameterizedTypeReference<TastyTradeResponse<ItemsData<EarningsItem>>> EARNINGS_RESPONSE = new ParameterizedTypeReference<>() {
+    };
 
     /**
-     * Obtiene access token usando OAuth refresh_token flow.
+     * Ejecuta una llamada autenticada con el token cacheado. Si la API responde
+     * 401 se reintenta una vez con el token renovado.
      */
-    public synchronized String refreshAccessToken() {
-        log.info("Refreshing OAuth access token");
-
-        Map<String, String> request = Map.of(
-                "grant_type", "refresh_token",
-                "refresh_token", config.getRefreshToken(),
-                "client_id", config.getClientId(),
-                "client_secret", config.getClientSecret());
-
-        Map<String, Object> response = tastyTradeRestClient
-                .post()
-                .uri("/oauth/token")
-                .contentType(MediaType.APPLICATION_JSON)
-                .body(request)
-                .retrieve()
-                .body(new ParameterizedTypeReference<Map<String, Object>>() {
-                });
-
-        if (response == null || !response.containsKey("access_token")) {
-            throw new RuntimeException("Failed to get access token from TastyTrade");
-        }
-
-        this.accessToken = (String) response.get("access_token");
-
-        // Guardar el nuevo refresh_token para que no expire
-        if (response.containsKey("refresh_token")) {
-            String newRefreshToken = (String) response.get("refresh_token");
-            config.setRefreshToken(newRefreshToken);
-            log.info("Refresh token updated successfully");
-        }
-
-        log.info("Access token obtained, expires in {} seconds", response.get("expires_in"));
-        return this.accessToken;
-    }
-
-    /**
-     * Obtiene API quote token para DxLink WebSocket.
-     */
-    public synchronized String refreshApiQuoteToken() {
-        log.info("Refreshing API quote token");
-
-        if (accessToken == null) {
-            refreshAccessToken();
-        }
-
-        Map<String, Object> response;
+    private <T> T conToken(Function<String, T> llamada) {
+        String token = tokenManager.getAccessToken();
         try {
-            response = tastyTradeRestClient
-                    .get()
-                    .uri("/api-quote-tokens")
-                    .header("Authorization", "Bearer " + accessToken)
-                    .retrieve()
-                    .body(new ParameterizedTypeReference<Map<String, Object>>() {
-                    });
-        } catch (Exception e) {
-            if (e.getMessage() != null && e.getMessage().contains("401")) {
-                log.info("Access token expired while getting quote token, refreshing...");
-                refreshAccessToken();
-                response = tastyTradeRestClient
-                        .get()
-                        .uri("/api-quote-tokens")
-                        .header("Authorization", "Bearer " + accessToken)
-                        .retrieve()
-                        .body(new ParameterizedTypeReference<Map<String, Object>>() {
-                        });
-            } else {
-                throw e;
-            }
+            return llamada.apply(token);
+        } catch (HttpClientErrorException.Unauthorized e) {
+            log.info("Token expired, refreshing and retrying");
+            return llamada.apply(tokenManager.onUnauthorized(token));
         }
-
-        log.info("API quote token response: {}", response);
-
-        if (response == null || !response.containsKey("data")) {
-            throw new RuntimeException("Failed to get API quote token");
-        }
-
-        @SuppressWarnings("unchecked")
-        Map<String, Object> data = (Map<String, Object>) response.get("data");
-        this.apiQuoteToken = (String) data.get("token");
-        this.dxlinkUrl = (String) data.get("dxlink-url");
-
-        log.info("API quote token obtained (length={}), DxLink URL: {}",
-                apiQuoteToken != null ? apiQuoteToken.length() : 0, dxlinkUrl);
-        return this.apiQuoteToken;
     }
 
     /**
      * Envía una orden a TastyTrade.
+     *
+     * @throws ReglaNegocioException si TastyTrade la rechaza (4xx): la orden no
+     *                               se acepto
+     * @throws RuntimeException      ante timeouts, errores de I/O o 5xx: la
+     *                               orden pudo haberse aceptado
      */
     public OrderResponse submitOrder(OrderRequest order) {
         log.info("Submitting order: {} {} {} @ {}",
                 order.getAction(), order.getQuantity(), order.getSymbol(), order.getPrice());
 
-        if (accessToken == null) {
-            refreshAccessToken();
-        }
-
         // Construir el cuerpo de la orden según TastyTrade API
         Map<String, Object> leg = Map.of(
                 "instrument-type", "Equity",
@@ -147,183 +97,226 @@ public class TastyTradeClient {
                 "legs", new Map[] { leg });
 
         try {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> response = tastyTradeRestClient
+            TastyTradeResponse<OrderData> response = conToken(token -> http.client(Operacion.ORDERS)
                     .post()
                     .uri("/accounts/{accountNumber}/orders", config.getAccountNumber())
-                    .header("Authorization", "Bearer " + accessToken)
+                    .header("Authorization", "Bearer " + token)
                     .contentType(MediaType.APPLICATION_JSON)
                     .body(orderBody)
                     .retrieve()
-                    .body(Map.class);
+                    .body(ORDER_RESPONSE));
 
-            if (response == null) {
+            if (response == null || response.data() == null || response.data().order() == null) {
                 throw new RuntimeException("Empty response from order submission");
             }
 
-            @SuppressWarnings("unchecked")
-            Map<String, Object> data = (Map<String, Object>) response.get("data");
-            @SuppressWarnings("unchecked")
-            Map<String, Object> orderData = (Map<String, Object>) data.get("order");
-
+            OrderData.Order orderData = response.data().order();
             return OrderResponse.builder()
-                    .orderId(String.valueOf(orderData.get("id")))
-                    .status((String) orderData.get("status"))
+                    .orderId(orderData.id())
+                    .status(orderData.status())
                     .build();
 
+        } catch (HttpClientErrorException e) {
+            log.warn("Order rejected: {}", e.getMessage());
+            throw new ReglaNegocioException("Order rejected: " + e.getMessage());
         } catch (Exception e) {
             log.error("Order submission failed", e);
-            // Si es 401, renovar token y reintentar
-            if (e.getMessage() != null && e.getMessage().contains("401")) {
-                log.info("Token expired, refreshing and retrying");
-                refreshAccessToken();
-                return submitOrder(order);
-            }
             throw new RuntimeException("Order submission failed: " + e.getMessage(), e);
         }
     }
 
     public String getApiQuoteToken() {
-        // Siempre obtener un token fresco para evitar problemas de expiración
-        refreshApiQuoteToken();
-        return apiQuoteToken;
+        return tokenManager.getApiQuoteToken();
+    }
+
+    /**
+     * Pide un quote token nuevo aunque el vigente no haya vencido (DxLink lo
+     * rechazo).
+     */
+    public String refreshApiQuoteToken() {
+        return tokenManager.refreshApiQuoteToken();
     }
 
     public String getDxlinkUrl() {
-        if (dxlinkUrl == null) {
-            refreshApiQuoteToken();
-        }
-        return dxlinkUrl != null ? dxlinkUrl : config.getDxlinkUrl();
+        return tokenManager.getDxlinkUrl();
     }
 
     public String getAccessToken() {
-        if (accessToken == null) {
-            refreshAccessToken();
-        }
-        return accessToken;
+        return tokenManager.getAccessToken();
     }
 
     /**
      * Obtiene equities activos (paginado) desde TastyTrade.
      * GET /instruments/equities/active?per-page={perPage}&page-offset={pageOffset}
+     *
+     * Las paginas traen hasta 1000 instrumentos: se recorre data.items en streaming
+     * y cada item se enlaza directo al record, sin armar el arbol completo.
      */
-    @SuppressWarnings("unchecked")
     public List<ActiveEquity> getActiveEquities(int pageOffset, int perPage) {
-        if (accessToken == null)
-            refreshAccessToken();
-
-        try {
-            Map<String, Object> response = tastyTradeRestClient
-                    .get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/instruments/equities/active")
-                            .queryParam("per-page", perPage)
-                            .queryParam("page-offset", pageOffset)
-                            .build())
-                    .header("Authorization", "Bearer " + accessToken)
-                    .retrieve()
-                    .body(Map.class);
+        // Sin catch: una pagina fallida debe abortar el refresh del universo, no truncarlo
+        return conToken(token -> http.client(Operacion.EQUITIES)
+                .get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/instruments/equities/active")
+                        .queryParam("per-page", perPage)
+                        .queryParam("page-offset", pageOffset)
+                        .build())
+                .header("Authorization", "Bearer " + token)
+                .exchange((request, response) -> {
+                    if (response.getStatusCode().value() == 401) {
+                        throw HttpClientErrorException.create(response.getStatusCode(),
+                                response.getStatusText(), response.getHeaders(), null, null);
+                    }
+                    if (response.getStatusCode().isError()) {
+                        throw new IllegalStateException("Active equities page " + pageOffset
+                                + " failed: HTTP " + response.getStatusCode().value());
+                    }
+                    return leerEquities(response.getBody());
+                }));
+    }
 
-            if (response == null || !response.containsKey("data")) {
-                return List.of();
+    private List<ActiveEquity> leerEquities(InputStream body) throws IOException {
+        List<ActiveEquity> equities = new ArrayList<>();
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (!avanzarA(parser, "data") || !avanzarA(parser, "items")
+                    || parser.currentToken() != JsonToken.START_ARRAY) {
+                return equities;
             }
-
-            Map<String, Object> data = (Map<String, Object>) response.get("data");
-            List<Map<String, Object>> items = (List<Map<String, Object>>) data.get("items");
-            if (items == null)
-                return List.of();
-
-            List<ActiveEquity> equities = new ArrayList<>();
-            for (Map<String, Object> item : items) {
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                EquityItem item = objectMapper.readValue(parser, EquityItem.class);
                 equities.add(ActiveEquity.builder()
-                        .symbol((String) item.get("symbol"))
-                        .description((String) item.get("description"))
-                        .listedMarket((String) item.get("listed-market"))
+                        .symbol(item.symbol())
+                        .description(item.description())
+                        .listedMarket(item.listedMarket())
                         .build());
             }
-            return equities;
+        }
+        return equities;
+    }
 
-        } catch (Exception e) {
-            log.error("Failed to get active equities: {}", e.getMessage());
-            if (e.getMessage() != null && e.getMessage().contains("401")) {
-                refreshAccessToken();
-                return getActiveEquities(pageOffset, perPage);
-            }
-            return List.of();
+    /**
+     * Avanza dentro del objeto actual hasta el valor del campo indicado, saltando
+     * los demas campos sin materializarlos.
+     */
+    private static boolean avanzarA(JsonParser parser, String campo) throws IOException {
+        if (parser.currentToken() == null)
+            parser.nextToken();
+        if (parser.currentToken() != JsonToken.START_OBJECT)
+            return false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String nombre = parser.currentName();
+            parser.nextToken();
+            if (campo.equals(nombre))
+                return true;
+            parser.skipChildren();
         }
+        return false;
     }
 
     /**
-     * Obtiene quote actual via TastyTrade market data.
      * GET /market-data/by-type?equity={symbol}
+     *
+     * @return quote del simbolo o null si TastyTrade no devuelve datos
      */
-    @SuppressWarnings("unchecked")
-    public Map<String, Object> getMarketDataByType(String symbol) {
-        if (accessToken == null)
-            refreshAccessToken();
+    public Quote getQuote(String symbol) {
+        return getQuotes(List.of(symbol)).get(symbol.toUpperCase());
+    }
 
+    /**
+     * GET /market-data/by-type?equity={s1},{s2},... en una sola llamada.
+     *
+     * @return quotes por simbolo (en mayusculas); los simbolos sin datos no
+     *         aparecen. Ante un error se devuelve un mapa vacio.
+     */
+    public Map<String, Quote> getQuotes(Collection<String> symbols) {
+        if (symbols.isEmpty()) {
+            return Map.of();
+        }
+        String equity = String.join(",", symbols);
         try {
-            Map<String, Object> response = tastyTradeRestClient
+            TastyTradeResponse<ItemsData<MarketDataItem>> response = conToken(token -> http.client(Operacion.QUOTES)
                     .get()
                     .uri(uriBuilder -> uriBuilder
                             .path("/market-data/by-type")
-                            .queryParam("equity", symbol)
+                            .queryParam("equity", equity)
                             .build())
-                    .header("Authorization", "Bearer " + accessToken)
+                    .header("Authorization", "Bearer " + token)
                     .retrieve()
-                    .body(Map.class);
+                    .body(MARKET_DATA_RESPONSE));
 
-            if (response == null || !response.containsKey("data")) {
+            if (response == null || response.data() == null || response.data().items() == null) {
                 return Map.of();
             }
-            return (Map<String, Object>) response.get("data");
 
-        } catch (Exception e) {
-            log.error("Failed to get market data for {}: {}", symbol, e.getMessage());
-            if (e.getMessage() != null && e.getMessage().contains("401")) {
-                refreshAccessToken();
-                return getMarketDataByType(symbol);
+            Map<String, Quote> quotes = new HashMap<>();
+            for (MarketDataItem item : response.data().items()) {
+                if (item.symbol() != null) {
+                    quotes.put(item.symbol().toUpperCase(), toQuote(item));
+                }
             }
+            return quotes;
+
+        } catch (Exception e) {
+            log.error("Failed to get market data for {} symbols: {}", symbols.size(), e.getMessage());
             return Map.of();
         }
     }
 
+    private Quote toQuote(MarketDataItem item) {
+        return Quote.builder()
+                .symbol(item.symbol().toUpperCase())
+                .bid(item.bid())
+                .ask(item.ask())
+                .last(item.last())
+                .open(item.open())
+                .high(item.dayHighPrice())
+                .low(item.dayLowPrice())
+                .close(item.close())
+                .prevClose(item.prevClose())
+                .volume(item.volume())
+                .tradingHalted(item.tradingHalted())
+                .tradingHaltedReason(item.tradingHaltedReason())
+                .beta(item.beta())
+                .build();
+    }
+
     /**
      * Obtiene earnings reports historicos.
      * GET
      * /market-metrics/historic-corporate-events/earnings-reports/{symbol}?start-date={startDate}
+     *
+     * Lista vacia solo si TastyTrade responde sin reportes; un fallo se propaga
+     * para que no se cachee como "sin reportes".
      */
-    @SuppressWarnings("unchecked")
-    public List<Map<String, Object>> getEarningsReports(String symbol, String startDate) {
-        if (accessToken == null)
-            refreshAccessToken();
-
+    public List<EarningsReport> getEarningsReports(String symbol, String startDate) {
         try {
-            Map<String, Object> response = tastyTradeRestClient
+            TastyTradeResponse<ItemsData<EarningsItem>> response = conToken(token -> http.client(Operacion.EARNINGS)
                     .get()
                     .uri(uriBuilder -> uriBuilder
                             .path("/market-metrics/historic-corporate-events/earnings-reports/{symbol}")
                             .queryParam("start-date", startDate)
                             .build(symbol))
-                    .header("Authorization", "Bearer " + accessToken)
+                    .header("Authorization", "Bearer " + token)
                     .retrieve()
-                    .body(Map.class);
+                    .body(EARNINGS_RESPONSE));
 
-            if (response == null || !response.containsKey("data")) {
+            if (response == null || response.data() == null || response.data().items() == null) {
                 return List.of();
             }
 
-            Map<String, Object> data = (Map<String, Object>) response.get("data");
-            List<Map<String, Object>> items = (List<Map<String, Object>>) data.get("items");
-            return items != null ? items : List.of();
+            List<EarningsReport> reports = new ArrayList<>(response.data().items().size());
+            for (EarningsItem item : response.data().items()) {
+                reports.add(EarningsReport.builder()
+                        .symbol(symbol)
+                        .occurredDate(item.occurredDate())
+                        .eps(item.eps())
+                        .build());
+            }
+            return reports;
 
         } catch (Exception e) {
             log.error("Failed to get earnings for {}: {}", symbol, e.getMessage());
-            if (e.getMessage() != null && e.getMessage().contains("401")) {
-                refreshAccessToken();
-                return getEarningsReports(symbol, startDate);
-            }
-            return List.of();
+            throw new RuntimeException("Earnings request failed for " + symbol + ": " + e.getMessage(), e);
         }
     }
 
@@ -336,9 +329,6 @@ public class TastyTradeClient {
                 order.getAction(), order.getQuantity(), order.getSymbol(),
                 order.getEntryPrice(), order.getStopLossPrice(), order.getTakeProfitPrice());
 
-        if (accessToken == null)
-            refreshAccessToken();
-
         // Accion de cierre inversa
         String closeAction = order.getAction().name().contains("BUY")
                 ? "Sell to Close"
@@ -390,35 +380,30 @@ public class TastyTradeClient {
                 "orders", new Map[] { tpOrder, slOrder });
 
         try {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> response = tastyTradeRestClient
+            TastyTradeResponse<OrderData> response = conToken(token -> http.client(Operacion.ORDERS)
                     .post()
                     .uri("/accounts/{accountNumber}/complex-orders", config.getAccountNumber())
-                    .header("Authorization", "Bearer " + accessToken)
+                    .header("Authorization", "Bearer " + token)
                     .contentType(MediaType.APPLICATION_JSON)
                     .body(otoco)
                     .retrieve()
-                    .body(Map.class);
+                    .body(ORDER_RESPONSE));
 
-            if (response == null) {
+            if (response == null || response.data() == null) {
                 throw new RuntimeException("Empty response from bracket order submission");
             }
 
-            @SuppressWarnings("unchecked")
-            Map<String, Object> data = (Map<String, Object>) response.get("data");
-
             return OrderResponse.builder()
-                    .orderId(String.valueOf(data.get("id")))
+                    .orderId(response.data().id())
                     .status("RECEIVED")
-                    .complexOrderId(String.valueOf(data.get("id")))
+                    .complexOrderId(response.data().id())
                     .build();
 
+        } catch (HttpClientErrorException e) {
+            log.warn("Bracket order rejected: {}", e.getMessage());
+            throw new ReglaNegocioException("Bracket order rejected: " + e.getMessage());
         } catch (Exception e) {
             log.error("Bracket order submission failed", e);
-            if (e.getMessage() != null && e.getMessage().contains("401")) {
-                refreshAccessToken();
-                return submitBracketOrder(order);
-            }
             throw new RuntimeException("Bracket order failed: " + e.getMessage(), e);
         }
     }
@@ -430,27 +415,19 @@ public class TastyTradeClient {
     public void cancelOrder(String orderId) {
         log.info("Cancelling order: {}", orderId);
 
-        if (accessToken == null)
-            refreshAccessToken();
-
         try {
-            tastyTradeRestClient
+            conToken(token -> http.client(Operacion.ORDERS)
                     .delete()
                     .uri("/accounts/{accountNumber}/orders/{orderId}",
                             config.getAccountNumber(), orderId)
-                    .header("Authorization", "Bearer " + accessToken)
+                    .header("Authorization", "Bearer " + token)
                     .retrieve()
-                    .toBodilessEntity();
+                    .toBodilessEntity());
 
             log.info("Order {} cancelled successfully", orderId);
 
         } catch (Exception e) {
             log.error("Failed to cancel order {}: {}", orderId, e.getMessage());
-            if (e.getMessage() != null && e.getMessage().contains("401")) {
-                refreshAccessToken();
-                cancelOrder(orderId);
-                return;
-            }
             throw new RuntimeException("Cancel order failed: " + e.getMessage(), e);
         }
     }
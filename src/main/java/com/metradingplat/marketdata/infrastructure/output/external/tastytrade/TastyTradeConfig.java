@@ -1,9 +1,11 @@
 package com.metradingplat.marketdata.infrastructure.output.external.tastytrade;
 
+import java.net.http.HttpClient;
+import java.util.EnumMap;
+import java.util.Map;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
-import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.client.RestClient;
 
 import lombok.Data;
 
@@ -18,13 +20,46 @@ public class TastyTradeConfig {
     private String accountNumber;
     private String apiBaseUrl = "https://api.tastytrade.com";
     private String dxlinkUrl = "wss://tasty.dxfeed.com/realtime";
+    private TokenRefresh tokenRefresh = new TokenRefresh();
+
+    @Data
+    public static class TokenRefresh {
+        private boolean enabled = true;
+        // Margen antes de la expiracion para renovar en segundo plano
+        private long accessMarginSeconds = 60;
+        private long quoteMarginSeconds = 600;
+        // Vigencia asumida del quote token si la respuesta no trae expires-at
+        private long quoteTokenTtlHours = 24;
+        private long retryDelaySeconds = 10;
+    }
+
+    private Http http = new Http();
+
+    @Data
+    public static class Http {
+        private HttpClient.Version version = HttpClient.Version.HTTP_2;
+        private long connectTimeoutMs = 3000;
+        // Timeout de lectura por defecto y por operacion (oauth, orders, quotes, earnings, equities)
+        private long readTimeoutMs = 10000;
+        private Map<TastyTradeHttpTransport.Operacion, Long> timeoutsMs = new EnumMap<>(
+                TastyTradeHttpTransport.Operacion.class);
+
+        public long getTimeoutMs(TastyTradeHttpTransport.Operacion operacion) {
+            return timeoutsMs.getOrDefault(operacion, readTimeoutMs);
+        }
+    }
+
+    private Quotes quotes = new Quotes();
 
-    @Bean
-    public RestClient tastyTradeRestClient() {
-        return RestClient.builder()
-                .baseUrl(apiBaseUrl)
-                .defaultHeader("Content-Type", "application/json")
-                .defaultHeader("Accept", "application/json")
-                .build();
+    @Data
+    public static class Quotes {
+        // Ventana en la que se juntan consultas de quote concurrentes en una sola llamada
+        private long batchWindowMs = 5;
+        // Simbolos por llamada a /market-data/by-type
+        private int maxBatchSize = 100;
+        // Vigencia del quote cacheado (0 = sin cache)
+        private long cacheTtlMs = 1000;
+        // Espera maxima de una consulta; los quotes que no llegan a tiempo se omiten
+        private long timeoutMs = 3000;
     }
 }
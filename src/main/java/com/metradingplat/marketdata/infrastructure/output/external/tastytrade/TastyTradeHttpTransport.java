@@ -0,0 +1,130 @@
+package com.metradingplat.marketdata.infrastructure.output.external.tastytrade;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Transporte HTTP hacia la API REST de TastyTrade.
+ *
+ * Hay dos pools (un {@link HttpClient} JDK cada uno, con HTTP/2 y conexiones
+ * reutilizadas): ordenes y market data, para que una rafaga de consultas de
+ * quotes o earnings nunca haga esperar a una orden. Cada operacion tiene su
+ * propio RestClient con timeout de lectura, pero comparte el pool de su tipo.
+ */
+@Component
+@Slf4j
+public class TastyTradeHttpTransport {
+
+    public enum Pool {
+        ORDERS, MARKET_DATA
+    }
+
+    public enum Operacion {
+        OAUTH(Pool.ORDERS),
+        ORDERS(Pool.ORDERS),
+        QUOTES(Pool.MARKET_DATA),
+        EARNINGS(Pool.MARKET_DATA),
+        EQUITIES(Pool.MARKET_DATA);
+
+        private final Pool pool;
+
+        Operacion(Pool pool) {
+            this.pool = pool;
+        }
+
+        public Pool getPool() {
+            return pool;
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Pool, HttpClient> pools = new EnumMap<>(Pool.class);
+    private final Map<Pool, AtomicInteger> enVuelo = new EnumMap<>(Pool.class);
+    private final Map<Operacion, RestClient> clientes = new EnumMap<>(Operacion.class);
+
+    public TastyTradeHttpTransport(TastyTradeConfig config, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        TastyTradeConfig.Http http = config.getHttp();
+
+        for (Pool pool : Pool.values()) {
+            pools.put(pool, HttpClient.newBuilder()
+                    .version(http.getVersion())
+                    .connectTimeout(Duration.ofMillis(http.getConnectTimeoutMs()))
+                    .followRedirects(HttpClient.Redirect.NORMAL)
+                    .executor(Executors.newThreadPerTaskExecutor(
+                            Thread.ofVirtual().name("tastytrade-http-" + pool.name().toLowerCase() + "-", 0).factory()))
+                    .build());
+
+            AtomicInteger contador = new AtomicInteger();
+            enVuelo.put(pool, contador);
+            Gauge.builder("tastytrade.http.client.in.flight", contador, AtomicInteger::get)
+                    .description("Requests en curso por pool")
+                    .tag("pool", pool.name())
+                    .register(meterRegistry);
+        }
+
+        for (Operacion operacion : Operacion.values()) {
+            JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(pools.get(operacion.getPool()));
+            factory.setReadTimeout(Duration.ofMillis(http.getTimeoutMs(operacion)));
+
+            clientes.put(operacion, RestClient.builder()
+                    .baseUrl(config.getApiBaseUrl())
+                    .defaultHeader("Content-Type", "application/json")
+                    .defaultHeader("Accept", "application/json")
+                    .requestFactory(factory)
+                    .requestInterceptor(metricas(operacion))
+                    .build());
+        }
+
+        log.info("TastyTrade HTTP transport ready: {} pools, version={}, connectTimeout={}ms",
+                pools.size(), http.getVersion(), http.getConnectTimeoutMs());
+    }
+
+    public RestClient client(Operacion operacion) {
+        return clientes.get(operacion);
+    }
+
+    private ClientHttpRequestInterceptor metricas(Operacion operacion) {
+        AtomicInteger contador = enVuelo.get(operacion.getPool());
+        return (request, body, execution) -> {
+            contador.incrementAndGet();
+            long inicio = System.nanoTime();
+            String status = "IO_ERROR";
+            try {
+                ClientHttpResponse response = execution.execute(request, body);
+                status = String.valueOf(response.getStatusCode().value());
+                return response;
+            } finally {
+                contador.decrementAndGet();
+                Timer.builder("tastytrade.http.client.requests")
+                        .tag("pool", operacion.getPool().name())
+                        .tag("operation", operacion.name())
+                        .tag("status", status)
+                        .register(meterRegistry)
+                        .record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pools.values().forEach(HttpClient::close);
+    }
+}
@@ -7,7 +7,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 // import java.util.concurrent.locks.ReentrantLock; removed
 // import java.util.stream.Collectors; removed
 
@@ -18,11 +23,20 @@ import com.metradingplat.marketdata.domain.enums.EnumTimeframe;
 import com.metradingplat.marketdata.domain.models.ActiveEquity;
 import com.metradingplat.marketdata.domain.models.BracketOrder;
 import com.metradingplat.marketdata.domain.models.Candle;
+import com.metradingplat.marketdata.domain.models.EarningsReport;
 import com.metradingplat.marketdata.domain.models.OrderRequest;
 import com.metradingplat.marketdata.domain.models.OrderResponse;
-
+import com.metradingplat.marketdata.domain.models.Quote;
+import com.metradingplat.marketdata.infrastructure.configuration.CandleStreamProperties;
+import com.metradingplat.marketdata.infrastructure.jfr.CandleBatchPhaseEvent;
+import com.metradingplat.marketdata.infrastructure.output.kafka.DTO.MarketDataStreamDTO;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -31,13 +45,17 @@ import lombok.extern.slf4j.Slf4j;
  * Los datos históricos se obtienen directamente de DxLink sin caché en BD.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class TastyTradeService {
 
     private final TastyTradeClient tastyTradeClient;
     private final DxLinkClient dxLinkClient;
     private final GestionarChangeNotificationsProducerIntPort kafkaProducer;
+    private final CandleStreamTracker candleStreamTracker;
+    private final QuoteCoalescer quoteCoalescer;
+    private final CandleStreamProperties candleStreamProperties;
+    private final FeedLagMonitor feedLagMonitor;
+    private final MeterRegistry meterRegistry;
 
     // Lock eliminado: ya no es necesario con multiplexación de canales
     // private final ReentrantLock dxLinkLock = new ReentrantLock();
@@ -45,6 +63,17 @@ public class TastyTradeService {
     // Cache en memoria con TTL de 55 segundos
     private final ConcurrentHashMap<String, CacheEntry> candleCache = new ConcurrentHashMap<>();
     private static final long CACHE_TTL_MS = 55_000;
+    private final AtomicLong ultimaPurga = new AtomicLong(System.currentTimeMillis());
+
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private final Counter cacheEvictions;
+    private final DistributionSummary batchCompletitud;
+    private final Counter backfillBarras;
+
+    // Oyentes adicionales del stream en vivo (ej. push WebSocket a clientes)
+    private final List<Consumer<MarketDataStreamDTO>> marketDataListeners = new CopyOnWriteArrayList<>();
+    private final List<DxLinkClient.CandleCallback> candleListeners = new CopyOnWriteArrayList<>();
 
     private record CacheEntry(List<Candle> candles, long timestamp) {
         boolean isExpired() {
@@ -52,57 +81,211 @@ public class TastyTradeService {
         }
     }
 
+    public TastyTradeService(TastyTradeClient tastyTradeClient, DxLinkClient dxLinkClient,
+            GestionarChangeNotificationsProducerIntPort kafkaProducer, CandleStreamTracker candleStreamTracker,
+            QuoteCoalescer quoteCoalescer, CandleStreamProperties candleStreamProperties,
+            FeedLagMonitor feedLagMonitor, MeterRegistry meterRegistry) {
+        this.tastyTradeClient = tastyTradeClient;
+        this.dxLinkClient = dxLinkClient;
+        this.kafkaProducer = kafkaProducer;
+        this.candleStreamTracker = candleStreamTracker;
+        this.quoteCoalescer = quoteCoalescer;
+        this.candleStreamProperties = candleStreamProperties;
+        this.feedLagMonitor = feedLagMonitor;
+        this.meterRegistry = meterRegistry;
+
+        this.cacheHits = Counter.builder("marketdata.candle.cache").tag("result", "hit")
+                .description("Consultas de candles por simbolo resueltas desde la cache")
+                .register(meterRegistry);
+        this.cacheMisses = Counter.builder("marketdata.candle.cache").tag("result", "miss")
+                .description("Consultas de candles por simbolo que van a DxLink")
+                .register(meterRegistry);
+        this.cacheEvictions = Counter.builder("marketdata.candle.cache.evictions")
+                .description("Entradas vencidas eliminadas de la cache")
+                .register(meterRegistry);
+        Gauge.builder("marketdata.candle.cache.size", candleCache, Map::size)
+                .register(meterRegistry);
+        this.batchCompletitud = DistributionSummary.builder("dxlink.batch.completeness")
+                .description("Fraccion de simbolos con snapshot completo al cerrar el batch")
+                .register(meterRegistry);
+        this.backfillBarras = Counter.builder("marketdata.candle.backfill")
+                .description("Barras cerradas recuperadas y publicadas tras una caida de DxLink")
+                .register(meterRegistry);
+    }
+
     @PostConstruct
     public void init() {
         log.info("Initializing TastyTrade service");
 
         // Configurar callback para datos de mercado → Kafka
         dxLinkClient.setOnMarketData((symbol, data) -> {
+            feedLagMonitor.onEvento(data);
             log.debug("Market data received for {}: bid={}, ask={}, last={}",
                     symbol, data.getBid(), data.getAsk(), data.getLastPrice());
             kafkaProducer.publishMarketData(data);
+            for (Consumer<MarketDataStreamDTO> listener : marketDataListeners) {
+                try {
+                    listener.accept(data);
+                } catch (Exception e) {
+                    log.warn("Market data listener failed for {}: {}", symbol, e.getMessage());
+                }
+            }
         });
 
-        // Configurar callback para candles (solo logging, no se guarda en BD)
+        // Configurar callback para candles en vivo → Kafka (no se guarda en BD)
         dxLinkClient.setOnCandle((symbol, candle, isComplete) -> {
             log.debug("Candle received for {}: {} O={} H={} L={} C={} complete={}",
                     symbol, candle.getTimestamp(), candle.getOpen(),
                     candle.getHigh(), candle.getLow(), candle.getClose(), isComplete);
+            try {
+                candleStreamTracker.onCandle(symbol, candle);
+            } catch (Exception e) {
+                log.warn("Candle stream failed for {}: {}", symbol, e.getMessage());
+            }
+            for (DxLinkClient.CandleCallback listener : candleListeners) {
+                try {
+                    listener.onCandle(symbol, candle, isComplete);
+                } catch (Exception e) {
+                    log.warn("Candle listener failed for {}: {}", symbol, e.getMessage());
+                }
+            }
         });
 
-        // Configurar token refresher para auto-reconexión
-        dxLinkClient.setTokenRefresher(() -> {
+        // Configurar token refresher para auto-reconexión: el token vigente ya esta
+        // en memoria (se renueva en segundo plano); solo si DxLink lo rechaza se pide otro
+        dxLinkClient.setTokenRefresher(tastyTradeClient::getApiQuoteToken, () -> {
             log.info("Token refresher called - obtaining fresh API quote token");
-            return tastyTradeClient.getApiQuoteToken();
+            return tastyTradeClient.refreshApiQuoteToken();
         });
 
-        // Conectar a DxLink
-        try {
+        dxLinkClient.setReconexionListener(new DxLinkClient.ReconexionListener() {
+            @Override
+            public void onDesconexion() {
+                candleStreamTracker.suspenderCierres();
+            }
+
+            @Override
+            public void onReanudacion(long desdeEpochMs, Map<EnumTimeframe, List<String>> candles) {
+                try {
+                    if (candleStreamProperties.isBackfillEnabled())
+                        rellenarHueco(desdeEpochMs, candles);
+                } finally {
+                    candleStreamTracker.reanudarCierres();
+                }
+            }
+        });
+
+        // La conexion a DxLink la hace el warm-up en segundo plano (MarketDataWarmUp)
+    }
+
+    /**
+     * Obtiene (o reutiliza) el access token y el API quote token.
+     */
+    public void prepararTokens() {
+        tastyTradeClient.getApiQuoteToken();
+    }
+
+    /**
+     * Conecta a DxLink si no lo esta.
+     *
+     * @return true si el canal default quedo listo
+     */
+    public boolean conectarDxLink() {
+        // El lock de conexion vive en DxLinkClient para cubrir tambien su reconexion automatica
+        dxLinkClient.conectarSi(() -> !dxLinkClient.isReady(), tastyTradeClient::getDxlinkUrl, () -> {
             log.debug("Obtaining API quote token from TastyTrade...");
-            String token = tastyTradeClient.getApiQuoteToken();
-            String url = tastyTradeClient.getDxlinkUrl();
-            log.debug("Got token and URL. Connecting to DxLink at: {}", url);
-            dxLinkClient.connect(url, token);
-        } catch (Exception e) {
-            log.error("Failed to initialize TastyTrade service: {}", e.getMessage(), e);
-        }
+            return tastyTradeClient.getApiQuoteToken();
+        });
+        return dxLinkClient.isReady();
     }
 
-    public void sendOrder(OrderRequest request) {
+    /**
+     * Abre y cierra un canal dedicado, el mismo camino que usan las consultas
+     * historicas batch.
+     */
+    public void probarCanal(long timeoutMs) throws Exception {
+        DxLinkClient.DxLinkChannel canal = dxLinkClient.openNewChannel().get(timeoutMs, TimeUnit.MILLISECONDS);
+        canal.close();
+    }
+
+    public OrderResponse sendOrder(OrderRequest request) {
         log.info("Sending order: {} {} {} @ {}",
                 request.getAction(), request.getQuantity(), request.getSymbol(), request.getPrice());
-        tastyTradeClient.submitOrder(request);
+        return tastyTradeClient.submitOrder(request);
     }
 
     public void subscribe(String symbol) {
         log.info("Subscribing to real-time data: {}", symbol);
         ensureConnected();
         dxLinkClient.subscribe(symbol);
+        if (candleStreamProperties.isEnabled()) {
+            for (EnumTimeframe timeframe : candleStreamProperties.getTimeframes()) {
+                dxLinkClient.subscribeCandles(symbol, timeframe);
+            }
+        }
     }
 
     public void unsubscribe(String symbol) {
         log.info("Unsubscribing from: {}", symbol);
         dxLinkClient.unsubscribe(symbol);
+        if (candleStreamProperties.isEnabled()) {
+            for (EnumTimeframe timeframe : candleStreamProperties.getTimeframes()) {
+                dxLinkClient.unsubscribeCandles(symbol, timeframe);
+            }
+            candleStreamTracker.forget(symbol);
+        }
+    }
+
+    /**
+     * Aplica una suscripcion masiva en un solo frame FEED_SUBSCRIPTION (mas uno
+     * para candles en vivo).
+     */
+    public void subscribeAll(List<String> symbols) {
+        log.info("Subscribing to real-time data: {} symbols", symbols.size());
+        ensureConnected();
+        dxLinkClient.subscribeAll(symbols);
+        if (candleStreamProperties.isEnabled()) {
+            dxLinkClient.subscribeCandles(symbols, candleStreamProperties.getTimeframes());
+        }
+    }
+
+    public void unsubscribeAll(List<String> symbols) {
+        log.info("Unsubscribing from: {} symbols", symbols.size());
+        dxLinkClient.unsubscribeAll(symbols);
+        if (candleStreamProperties.isEnabled()) {
+            dxLinkClient.unsubscribeCandles(symbols, candleStreamProperties.getTimeframes());
+            symbols.forEach(candleStreamTracker::forget);
+        }
+    }
+
+    /**
+     * Registra interes de un cliente push; la suscripcion upstream se comparte.
+     */
+    public void acquireStream(String symbol) {
+        log.debug("Acquiring stream subscription: {}", symbol);
+        // El interes se registra primero: si la conexion falla, la reconexion lo suscribe
+        dxLinkClient.acquire(symbol);
+        ensureConnected();
+    }
+
+    public void releaseStream(String symbol) {
+        log.debug("Releasing stream subscription: {}", symbol);
+        dxLinkClient.release(symbol);
+    }
+
+    public void addMarketDataListener(Consumer<MarketDataStreamDTO> listener) {
+        marketDataListeners.add(listener);
+    }
+
+    /**
+     * Barras cerradas del stream en vivo (una vez por barra, en orden).
+     */
+    public void addClosedCandleListener(Consumer<Candle> listener) {
+        candleStreamTracker.addCierreListener(listener);
+    }
+
+    public void addCandleListener(DxLinkClient.CandleCallback listener) {
+        candleListeners.add(listener);
     }
 
     /**
@@ -131,15 +314,21 @@ public class TastyTradeService {
         Map<String, List<Candle>> resultado = new HashMap<>();
         List<String> cacheMiss = new ArrayList<>();
 
+        purgarCacheSiToca();
         for (String symbol : symbols) {
-            String cacheKey = symbol + ":" + timeframe.name() + ":" + bars;
-            CacheEntry entry = candleCache.get(cacheKey);
+            String key = cacheKey(symbol, timeframe, bars);
+            CacheEntry entry = candleCache.get(key);
             if (entry != null && !entry.isExpired()) {
                 resultado.put(symbol, entry.candles());
             } else {
+                if (entry != null && candleCache.remove(key, entry)) {
+                    cacheEvictions.increment();
+                }
                 cacheMiss.add(symbol);
             }
         }
+        cacheHits.increment(resultado.size());
+        cacheMisses.increment(cacheMiss.size());
 
         log.debug("Batch: {} cache hits, {} cache misses", resultado.size(), cacheMiss.size());
 
@@ -152,16 +341,14 @@ public class TastyTradeService {
 
         // Guardar en cache y agregar al resultado
         for (Map.Entry<String, List<Candle>> entry : fetched.entrySet()) {
-            String cacheKey = entry.getKey() + ":" + timeframe.name() + ":" + bars;
-            candleCache.put(cacheKey, new CacheEntry(entry.getValue(), System.currentTimeMillis()));
+            guardarEnCache(entry.getKey(), timeframe, bars, entry.getValue());
             resultado.put(entry.getKey(), entry.getValue());
         }
 
         // Simbolos sin datos tambien se registran como lista vacia en cache
         for (String symbol : cacheMiss) {
             if (!fetched.containsKey(symbol)) {
-                String cacheKey = symbol + ":" + timeframe.name() + ":" + bars;
-                candleCache.put(cacheKey, new CacheEntry(List.of(), System.currentTimeMillis()));
+                guardarEnCache(symbol, timeframe, bars, List.of());
                 resultado.put(symbol, List.of());
             }
         }
@@ -172,20 +359,115 @@ public class TastyTradeService {
         return resultado;
     }
 
+    /**
+     * Recupera las barras perdidas durante una caida de DxLink. El hueco de cada
+     * simbolo empieza en su ultima barra vista (o en la caida si no hay estado);
+     * por timeframe se hace un solo batch acotado al hueco mas largo y cada barra
+     * se publica y se fusiona en la cache una sola vez.
+     */
+    void rellenarHueco(long desdeEpochMs, Map<EnumTimeframe, List<String>> candles) {
+        long ahora = System.currentTimeMillis();
+        for (Map.Entry<EnumTimeframe, List<String>> entry : candles.entrySet()) {
+            EnumTimeframe timeframe = entry.getKey();
+            long duracion = timeframe.getDuration().toMillis();
+
+            Map<String, Long> inicioHueco = new HashMap<>();
+            long masAntiguo = ahora;
+            for (String symbol : entry.getValue()) {
+                Long ultima = candleStreamTracker.ultimaBarra(symbol, timeframe);
+                long inicio = ultima != null ? ultima : desdeEpochMs - duracion;
+                inicioHueco.put(symbol, inicio);
+                masAntiguo = Math.min(masAntiguo, inicio);
+            }
+            int bars = (int) Math.min((ahora - masAntiguo) / duracion + 2, candleStreamProperties.getBackfillMaxBars());
+
+            Map<String, List<Candle>> recuperadas = fetchCandlesBatchFromDxLink(entry.getValue(), timeframe, bars);
+            int publicadas = 0;
+            for (Map.Entry<String, List<Candle>> barras : recuperadas.entrySet()) {
+                long inicio = inicioHueco.getOrDefault(barras.getKey(), masAntiguo);
+                List<Candle> hueco = barras.getValue().stream()
+                        .filter(c -> c.getTimestamp().toEpochMilli() >= inicio)
+                        .toList();
+                publicadas += candleStreamTracker.rellenarHueco(barras.getKey(), timeframe, hueco);
+                fusionarEnCache(barras.getKey(), timeframe, hueco);
+            }
+            backfillBarras.increment(publicadas);
+            log.info("Gap backfill {}: {} symbols, {} bars requested, {} closed bars published",
+                    timeframe, entry.getValue().size(), bars, publicadas);
+        }
+    }
+
+    /**
+     * Agrega las barras recuperadas a las entradas vigentes de la cache del
+     * simbolo/timeframe (por timestamp, sin duplicar) conservando su tamano.
+     */
+    private void fusionarEnCache(String symbol, EnumTimeframe timeframe, List<Candle> recuperadas) {
+        if (recuperadas.isEmpty())
+            return;
+        String prefijo = symbol + ":" + timeframe.name() + ":";
+        for (Map.Entry<String, CacheEntry> entry : candleCache.entrySet()) {
+            if (!entry.getKey().startsWith(prefijo) || entry.getValue().isExpired())
+                continue;
+            int bars = Integer.parseInt(entry.getKey().substring(prefijo.length()));
+            TreeMap<Instant, Candle> porTimestamp = new TreeMap<>();
+            entry.getValue().candles().forEach(c -> porTimestamp.put(c.getTimestamp(), c));
+            recuperadas.forEach(c -> porTimestamp.put(c.getTimestamp(), c));
+            List<Candle> fusionadas = new ArrayList<>(porTimestamp.values());
+            if (bars > 0 && fusionadas.size() > bars)
+                fusionadas = fusionadas.subList(fusionadas.size() - bars, fusionadas.size());
+            candleCache.replace(entry.getKey(), entry.getValue(),
+                    new CacheEntry(List.copyOf(fusionadas), entry.getValue().timestamp()));
+        }
+    }
+
+    private static String cacheKey(String symbol, EnumTimeframe timeframe, int bars) {
+        return symbol + ":" + timeframe.name() + ":" + bars;
+    }
+
+    void guardarEnCache(String symbol, EnumTimeframe timeframe, int bars, List<Candle> candles) {
+        candleCache.put(cacheKey(symbol, timeframe, bars), new CacheEntry(candles, System.currentTimeMillis()));
+    }
+
+    /**
+     * Como mucho una vez por TTL barre las entradas vencidas de simbolos que no se
+     * volvieron a pedir.
+     */
+    private void purgarCacheSiToca() {
+        long ahora = System.currentTimeMillis();
+        long previa = ultimaPurga.get();
+        if (ahora - previa < CACHE_TTL_MS || !ultimaPurga.compareAndSet(previa, ahora))
+            return;
+        candleCache.entrySet().removeIf(entry -> {
+            if (!entry.getValue().isExpired())
+                return false;
+            cacheEvictions.increment();
+            return true;
+        });
+    }
+
     private Map<String, List<Candle>> fetchCandlesBatchFromDxLink(
             List<String> symbols, EnumTimeframe timeframe, int bars) {
 
         ensureConnected(); // Asegura que el cliente principal esté conectado
 
+        long inicioFetch = System.nanoTime();
+        CandleBatchPhaseEvent total = new CandleBatchPhaseEvent();
+        total.begin();
         DxLinkClient.DxLinkChannel channel = null;
         try {
             // 1. Abrir un canal dedicado para este batch
+            CandleBatchPhaseEvent apertura = new CandleBatchPhaseEvent();
+            apertura.begin();
             try {
                 channel = dxLinkClient.openNewChannel().get(5, java.util.concurrent.TimeUnit.SECONDS);
             } catch (Exception e) {
                 log.error("Failed to open dedicated channel for batch", e);
+                registrarBatch(timeframe, "channel_error", inicioFetch);
+                cerrarFase(apertura, "OPEN_CHANNEL", -1, timeframe, symbols.size(), 0, 0);
+                cerrarFase(total, "TOTAL", -1, timeframe, symbols.size(), 0, 0);
                 return new HashMap<>();
             }
+            cerrarFase(apertura, "OPEN_CHANNEL", channel.getId(), timeframe, symbols.size(), 0, 0);
 
             String tf = timeframe.getLabel();
             long fromTime = Instant.now().minus(timeframe.getDuration().multipliedBy(bars + 100)).toEpochMilli();
@@ -224,11 +506,16 @@ public class TastyTradeService {
 
             // 4. Suscribir usando el canal dedicado
             log.debug("Batch subscribing {} symbols on channel {}", symbols.size(), channel.getId());
+            CandleBatchPhaseEvent suscripcion = new CandleBatchPhaseEvent();
+            suscripcion.begin();
             channel.subscribeCandlesBatch(subscriptionItems);
+            cerrarFase(suscripcion, "SUBSCRIBE", channel.getId(), timeframe, symbols.size(), 0, 0);
 
             // 5. Esperar resultados
             int maxWaitSeconds = Math.min(10 + symbols.size() / 20, 60);
             long startTime = System.currentTimeMillis();
+            CandleBatchPhaseEvent snapshot = new CandleBatchPhaseEvent();
+            snapshot.begin();
 
             while (System.currentTimeMillis() - startTime < maxWaitSeconds * 1000) {
                 if (completedSymbols.containsAll(symbols)) {
@@ -245,21 +532,13 @@ public class TastyTradeService {
             }
 
             // 6. Procesar resultados
-            Map<String, List<Candle>> resultado = new HashMap<>();
-            for (Map.Entry<String, List<Candle>> entry : candlesPorSimbolo.entrySet()) {
-                List<Candle> sorted;
-                synchronized (entry.getValue()) {
-                    sorted = entry.getValue().stream()
-                            .sorted(Comparator.comparing(Candle::getTimestamp))
-                            .toList();
-                }
-                // Truncar
-                if (sorted.size() > bars && bars > 0) {
-                    sorted = sorted.subList(sorted.size() - bars, sorted.size());
-                }
-                resultado.put(entry.getKey(), sorted);
-            }
-
+            boolean completo = completedSymbols.containsAll(symbols);
+            cerrarFase(snapshot, "SNAPSHOT", channel.getId(), timeframe, symbols.size(), completedSymbols.size(), 0);
+            registrarBatch(timeframe, completo ? "complete" : "partial", inicioFetch);
+            batchCompletitud.record(symbols.isEmpty() ? 1.0 : (double) completedSymbols.size() / symbols.size());
+            Map<String, List<Candle>> resultado = ordenarYTruncar(candlesPorSimbolo, bars);
+            cerrarFase(total, "TOTAL", channel.getId(), timeframe, symbols.size(), completedSymbols.size(),
+                    resultado.values().stream().mapToInt(List::size).sum());
             return resultado;
 
         } finally {
@@ -270,6 +549,51 @@ public class TastyTradeService {
         }
     }
 
+    private static void cerrarFase(CandleBatchPhaseEvent evento, String fase, int channelId,
+            EnumTimeframe timeframe, int symbols, int completados, int candles) {
+        evento.end();
+        if (!evento.shouldCommit())
+            return;
+        evento.phase = fase;
+        evento.channel = channelId;
+        evento.timeframe = timeframe.name();
+        evento.symbols = symbols;
+        evento.completedSymbols = completados;
+        evento.candles = candles;
+        evento.commit();
+    }
+
+    private void registrarBatch(EnumTimeframe timeframe, String resultado, long inicio) {
+        Timer.builder("dxlink.batch.fetch")
+                .description("Snapshot de candles de un batch por canal dedicado")
+                .tag("timeframe", timeframe.name())
+                .tag("outcome", resultado)
+                .register(meterRegistry)
+                .record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Ordena por timestamp asc las candles recolectadas de cada simbolo y conserva
+     * las ultimas {@code bars}.
+     */
+    static Map<String, List<Candle>> ordenarYTruncar(Map<String, List<Candle>> candlesPorSimbolo, int bars) {
+        Map<String, List<Candle>> resultado = new HashMap<>();
+        for (Map.Entry<String, List<Candle>> entry : candlesPorSimbolo.entrySet()) {
+            List<Candle> sorted;
+            synchronized (entry.getValue()) {
+                sorted = entry.getValue().stream()
+                        .sorted(Comparator.comparing(Candle::getTimestamp))
+                        .toList();
+            }
+            // Truncar
+            if (sorted.size() > bars && bars > 0) {
+                sorted = sorted.subList(sorted.size() - bars, sorted.size());
+            }
+            resultado.put(entry.getKey(), sorted);
+        }
+        return resultado;
+    }
+
     /**
      * Obtiene candles actuales (in-formation y recientes) sin caché.
      */
@@ -283,11 +607,15 @@ public class TastyTradeService {
         return tastyTradeClient.getActiveEquities(pageOffset, perPage);
     }
 
-    public Map<String, Object> getMarketDataByType(String symbol) {
-        return tastyTradeClient.getMarketDataByType(symbol);
+    public Quote getQuote(String symbol) {
+        return quoteCoalescer.obtenerAhora(symbol);
+    }
+
+    public Map<String, Quote> getQuotes(List<String> symbols) {
+        return quoteCoalescer.obtenerTodos(symbols);
     }
 
-    public List<Map<String, Object>> getEarningsReports(String symbol, String startDate) {
+    public List<EarningsReport> getEarningsReports(String symbol, String startDate) {
         return tastyTradeClient.getEarningsReports(symbol, startDate);
     }
 
@@ -300,11 +628,12 @@ public class TastyTradeService {
     }
 
     private void ensureConnected() {
-        if (!dxLinkClient.isConnected()) {
+        if (dxLinkClient.isConnected())
+            return;
+        // Si el warm-up o la reconexion automatica estan conectando, se espera a ese intento
+        dxLinkClient.conectarSi(() -> !dxLinkClient.isConnected(), tastyTradeClient::getDxlinkUrl, () -> {
             log.debug("Reconnecting to DxLink");
-            String token = tastyTradeClient.getApiQuoteToken();
-            String url = tastyTradeClient.getDxlinkUrl();
-            dxLinkClient.connect(url, token);
-        }
+            return tastyTradeClient.getApiQuoteToken();
+        });
     }
 }
@@ -0,0 +1,285 @@
+package com.metradingplat.marketdata.infrastructure.output.external.tastytrade;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import com.metradingplat.marketdata.infrastructure.output.external.tastytrade.DTO.OAuthTokenResponse;
+import com.metradingplat.marketdata.infrastructure.output.external.tastytrade.DTO.QuoteTokenData;
+import com.metradingplat.marketdata.infrastructure.output.external.tastytrade.DTO.TastyTradeResponse;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Ciclo de vida de los tokens de TastyTrade (OAuth access token y API quote
+ * token de DxLink).
+ *
+ * Los tokens vigentes se guardan en referencias volatiles inmutables, asi que
+ * leerlos no toma ningun lock. Cada token se renueva en segundo plano un margen
+ * antes de expirar; si aun asi alguien encuentra un token vencido, las demandas
+ * concurrentes comparten una sola renovacion en curso (single-flight).
+ */
+@Component
+@Slf4j
+public class TastyTradeTokenManager {
+
+    private final TastyTradeHttpTransport http;
+    private final TastyTradeConfig config;
+
+    private record AccessToken(String value, Instant expiresAt) {
+    }
+
+    private record QuoteToken(String value, String dxlinkUrl, Instant expiresAt) {
+    }
+
+    private volatile AccessToken accessToken;
+    private volatile QuoteToken quoteToken;
+
+    private final AtomicReference<CompletableFuture<AccessToken>> accessEnCurso = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<QuoteToken>> quoteEnCurso = new AtomicReference<>();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("tastytrade-token-refresh").daemon().factory());
+
+    public TastyTradeTokenManager(TastyTradeHttpTransport http, TastyTradeConfig config) {
+        this.http = http;
+        this.config = config;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (config.getTokenRefresh().isEnabled()) {
+            // Primera obtencion en segundo plano; los siguientes refresh se agendan solos
+            scheduler.execute(this::renovarAccessProgramado);
+            scheduler.execute(this::renovarQuoteProgramado);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    // --- Lectura (sin locks) ---
+
+    public String getAccessToken() {
+        AccessToken actual = accessToken;
+        if (actual != null && Instant.now().isBefore(actual.expiresAt())) {
+            return actual.value();
+        }
+        return esperar(renovarAccess()).value();
+    }
+
+    public String getApiQuoteToken() {
+        QuoteToken actual = quoteToken;
+        if (actual != null && Instant.now().isBefore(actual.expiresAt())) {
+            return actual.value();
+        }
+        return esperar(renovarQuote()).value();
+    }
+
+    public String getDxlinkUrl() {
+        QuoteToken actual = quoteToken;
+        if (actual == null) {
+            getApiQuoteToken();
+            actual = quoteToken;
+        }
+        return actual != null && actual.dxlinkUrl() != null ? actual.dxlinkUrl() : config.getDxlinkUrl();
+    }
+
+    /**
+     * La API rechazo el token con 401. Si otro hilo ya lo renovo se devuelve el
+     * nuevo; si no, se fuerza una renovacion (compartida).
+     */
+    public String onUnauthorized(String tokenRechazado) {
+        AccessToken actual = accessToken;
+        if (actual != null && !actual.value().equals(tokenRechazado)
+                && Instant.now().isBefore(actual.expiresAt())) {
+            return actual.value();
+        }
+        log.info("Access token rejected (401), refreshing");
+        return esperar(renovarAccess()).value();
+    }
+
+    /**
+     * Fuerza la renovacion del quote token (ej. DxLink rechazo la autenticacion).
+     */
+    public String refreshApiQuoteToken() {
+        return esperar(renovarQuote()).value();
+    }
+
+    public Map<String, Object> getStats() {
+        AccessToken access = accessToken;
+        QuoteToken quote = quoteToken;
+        return Map.of(
+                "accessTokenExpiresAt", access != null ? access.expiresAt().toString() : "none",
+                "quoteTokenExpiresAt", quote != null ? quote.expiresAt().toString() : "none");
+    }
+
+    // --- Renovacion single-flight ---
+
+    private CompletableFuture<AccessToken> renovarAccess() {
+        return singleFlight(accessEnCurso, this::solicitarAccessToken);
+    }
+
+    private CompletableFuture<QuoteToken> renovarQuote() {
+        return singleFlight(quoteEnCurso, this::solicitarQuoteToken);
+    }
+
+    /**
+     * El primer hilo instala el future y hace la llamada; el resto espera ese mismo
+     * future.
+     */
+    private static <T> CompletableFuture<T> singleFlight(AtomicReference<CompletableFuture<T>> enCurso,
+            Supplier<T> solicitud) {
+        while (true) {
+            CompletableFuture<T> existente = enCurso.get();
+            if (existente != null)
+                return existente;
+
+            CompletableFuture<T> nuevo = new CompletableFuture<>();
+            if (!enCurso.compareAndSet(null, nuevo))
+                continue;
+
+            try {
+                nuevo.complete(solicitud.get());
+            } catch (Exception e) {
+                nuevo.completeExceptionally(e);
+            } finally {
+                enCurso.compareAndSet(nuevo, null);
+            }
+            return nuevo;
+        }
+    }
+
+    private static <T> T esperar(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re)
+                throw re;
+            throw e;
+        }
+    }
+
+    // --- Renovacion proactiva ---
+
+    private void renovarAccessProgramado() {
+        try {
+            AccessToken token = esperar(renovarAccess());
+            agendar(this::renovarAccessProgramado, token.expiresAt(),
+                    Duration.ofSeconds(config.getTokenRefresh().getAccessMarginSeconds()));
+        } catch (Exception e) {
+            log.error("Scheduled access token refresh failed: {}", e.getMessage());
+            scheduler.schedule(this::renovarAccessProgramado,
+                    config.getTokenRefresh().getRetryDelaySeconds(), TimeUnit.SECONDS);
+        }
+    }
+
+    private void renovarQuoteProgramado() {
+        try {
+            QuoteToken token = esperar(renovarQuote());
+            agendar(this::renovarQuoteProgramado, token.expiresAt(),
+                    Duration.ofSeconds(config.getTokenRefresh().getQuoteMarginSeconds()));
+        } catch (Exception e) {
+            log.error("Scheduled quote token refresh failed: {}", e.getMessage());
+            scheduler.schedule(this::renovarQuoteProgramado,
+                    config.getTokenRefresh().getRetryDelaySeconds(), TimeUnit.SECONDS);
+        }
+    }
+
+    private void agendar(Runnable tarea, Instant expiresAt, Duration margen) {
+        long delayMs = Math.max(Duration.between(Instant.now(), expiresAt.minus(margen)).toMillis(), 1000);
+        log.debug("Next token refresh in {} s", delayMs / 1000);
+        scheduler.schedule(tarea, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    // --- Llamadas a la API ---
+
+    private AccessToken solicitarAccessToken() {
+        log.info("Refreshing OAuth access token");
+
+        Map<String, String> request = Map.of(
+                "grant_type", "refresh_token",
+                "refresh_token", config.getRefreshToken(),
+                "client_id", config.getClientId(),
+                "client_secret", config.getClientSecret());
+
+        OAuthTokenResponse response = http.client(TastyTradeHttpTransport.Operacion.OAUTH)
+                .post()
+                .uri("/oauth/token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(request)
+                .retrieve()
+                .body(OAuthTokenResponse.class);
+
+        if (response == null || response.accessToken() == null) {
+            throw new RuntimeException("Failed to get access token from TastyTrade");
+        }
+
+        // Guardar el nuevo refresh_token para que no expire
+        if (response.refreshToken() != null) {
+            config.setRefreshToken(response.refreshToken());
+            log.info("Refresh token updated successfully");
+        }
+
+        long expiresIn = response.expiresIn() != null ? response.expiresIn() : 900;
+        AccessToken token = new AccessToken(response.accessToken(), Instant.now().plusSeconds(expiresIn));
+        this.accessToken = token;
+
+        log.info("Access token obtained, expires in {} seconds", expiresIn);
+        return token;
+    }
+
+    private QuoteToken solicitarQuoteToken() {
+        log.info("Refreshing API quote token");
+
+        String access = getAccessToken();
+        TastyTradeResponse<QuoteTokenData> response;
+        try {
+            response = pedirQuoteToken(access);
+        } catch (HttpClientErrorException.Unauthorized e) {
+            response = pedirQuoteToken(onUnauthorized(access));
+        }
+
+        if (response == null || response.data() == null) {
+            throw new RuntimeException("Failed to get API quote token");
+        }
+
+        QuoteTokenData data = response.data();
+        Instant expiresAt = data.expiresAt() != null
+                ? data.expiresAt().toInstant()
+                : Instant.now().plus(Duration.ofHours(config.getTokenRefresh().getQuoteTokenTtlHours()));
+
+        QuoteToken token = new QuoteToken(data.token(), data.dxlinkUrl(), expiresAt);
+        this.quoteToken = token;
+
+        log.info("API quote token obtained (length={}), DxLink URL: {}, expires at {}",
+                token.value() != null ? token.value().length() : 0, token.dxlinkUrl(), expiresAt);
+        return token;
+    }
+
+    private TastyTradeResponse<QuoteTokenData> pedirQuoteToken(String access) {
+        return http.client(TastyTradeHttpTransport.Operacion.OAUTH)
+                .get()
+                .uri("/api-quote-tokens")
+                .header("Authorization", "Bearer " + access)
+                .retrieve()
+                .body(new ParameterizedTypeReference<TastyTradeResponse<QuoteTokenData>>() {
+                });
+    }
+}
@@ -0,0 +1,24 @@
+package com.metradingplat.marketdata.infrastructure.output.kafka.DTO;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CandleStreamDTO {
+    private String symbol;
+    private String timeframe; // M1, M5, ...
+    private Instant timestamp; // Apertura de la barra
+    private Double open;
+    private Double high;
+    private Double low;
+    private Double close;
+    private Double volume;
+    private boolean closed; // false = barra en formacion
+}
@@ -2,9 +2,12 @@ package com.metradingplat.marketdata.infrastructure.output.kafka.DTO;
 
 import java.time.Instant;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
 @Data
@@ -18,4 +21,19 @@ public class MarketDataStreamDTO {
     private Double ask;
     private Long volume;
     private Instant timestamp;
+
+    // Medicion de latencia del pipeline; no viajan a Kafka
+    // true si timestamp es la hora del exchange (Trade.time, Quote bid/askTime)
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private boolean horaExchange;
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private long recibidoEpochMs;
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private long recibidoNanos;
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private long callbackNanos;
 }
@@ -12,7 +12,7 @@ import lombok.NoArgsConstructor;
 public class OrderUpdateDTO {
     private String orderId;
     private String symbol;
-    private String status; // PLACED, FILLED, REJECTED, CANCELLED
+    private String status; // PLACED, FILLED, REJECTED, UNKNOWN, CANCELLED
     private Double price;
     private Double quantity;
     private String message;
@@ -0,0 +1,32 @@
+package com.metradingplat.marketdata.infrastructure.output.kafka.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ultimo quote de un simbolo en marketdata.quotes.latest (compactado, key =
+ * simbolo): snapshot REST con bid/ask/last/volume actualizados por el stream.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuoteLatestDTO {
+    private String symbol;
+    private Double bid;
+    private Double ask;
+    private Double last;
+    private Double open;
+    private Double high;
+    private Double low;
+    private Double close;
+    private Double prevClose;
+    private Double volume;
+    private Boolean tradingHalted;
+    private String tradingHaltedReason;
+    private Double beta;
+    private long snapshotAt; // epoch ms del snapshot REST
+    private long updatedAt; // epoch ms de la ultima actualizacion (REST o stream)
+}
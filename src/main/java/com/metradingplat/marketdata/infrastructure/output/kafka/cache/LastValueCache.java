@@ -0,0 +1,253 @@
+package com.metradingplat.marketdata.infrastructure.output.kafka.cache;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import com.metradingplat.marketdata.domain.enums.EnumTimeframe;
+import com.metradingplat.marketdata.domain.models.Candle;
+import com.metradingplat.marketdata.domain.models.Quote;
+import com.metradingplat.marketdata.infrastructure.configuration.CandleStreamProperties;
+import com.metradingplat.marketdata.infrastructure.configuration.LastValueCacheProperties;
+import com.metradingplat.marketdata.infrastructure.output.kafka.DTO.CandleStreamDTO;
+import com.metradingplat.marketdata.infrastructure.output.kafka.DTO.MarketDataStreamDTO;
+import com.metradingplat.marketdata.infrastructure.output.kafka.DTO.QuoteLatestDTO;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Ultimo quote por simbolo y ultima barra cerrada por simbolo/timeframe,
+ * compartidos entre replicas por topics compactados.
+ *
+ * Cada replica publica los quotes REST que obtiene y, conflacionados, los ticks
+ * del stream de sus simbolos; todas materializan los topics desde el inicio
+ * (LastValueKafkaListener). Una replica nueva queda caliente en cuanto termina
+ * de leerlos, sin pedir nada a TastyTrade ni a DxLink.
+ */
+@Component
+@Slf4j
+public class LastValueCache {
+
+    private final LastValueCacheProperties properties;
+    private final CandleStreamProperties candleProperties;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    private final Map<String, QuoteLatestDTO> quotes = new ConcurrentHashMap<>();
+    // symbol:TF -> ultima barra cerrada
+    private final Map<String, CandleStreamDTO> barras = new ConcurrentHashMap<>();
+    // Simbolos con ticks sin publicar desde el ultimo intervalo
+    private final Set<String> pendientes = ConcurrentHashMap.newKeySet();
+
+    private final Counter quoteHits;
+    private final Counter quoteMisses;
+    private final Counter candleHits;
+    private final Counter candleMisses;
+
+    private final ScheduledExecutorService publicador = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("last-value-publish").daemon().factory());
+
+    public LastValueCache(LastValueCacheProperties properties, CandleStreamProperties candleProperties,
+            KafkaTemplate<String, Object> kafkaTemplate, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.candleProperties = candleProperties;
+        this.kafkaTemplate = kafkaTemplate;
+        this.quoteHits = consulta(meterRegistry, "quote", "hit");
+        this.quoteMisses = consulta(meterRegistry, "quote", "miss");
+        this.candleHits = consulta(meterRegistry, "candle", "hit");
+        this.candleMisses = consulta(meterRegistry, "candle", "miss");
+        Gauge.builder("marketdata.lastvalue.size", quotes, Map::size).tag("type", "quote")
+                .description("Entradas materializadas de los topics de ultimo valor")
+                .register(meterRegistry);
+        Gauge.builder("marketdata.lastvalue.size", barras, Map::size).tag("type", "candle")
+                .description("Entradas materializadas de los topics de ultimo valor")
+                .register(meterRegistry);
+    }
+
+    private static Counter consulta(MeterRegistry registry, String tipo, String resultado) {
+        return Counter.builder("marketdata.lastvalue.lookups")
+                .description("Consultas a la cache de ultimo valor compartida")
+                .tag("type", tipo)
+                .tag("result", resultado)
+                .register(registry);
+    }
+
+    @PostConstruct
+    public void init() {
+        if (properties.isEnabled()) {
+            publicador.scheduleAtFixedRate(this::publicarPendientes, properties.getPublishIntervalMs(),
+                    properties.getPublishIntervalMs(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        publicador.shutdownNow();
+    }
+
+    // --- Materializacion (todas las replicas, incluidas las publicaciones propias) ---
+
+    public void aplicar(Object valor) {
+        if (valor instanceof QuoteLatestDTO quote && quote.getSymbol() != null) {
+            quotes.merge(quote.getSymbol(), quote,
+                    (actual, nuevo) -> nuevo.getUpdatedAt() >= actual.getUpdatedAt() ? nuevo : actual);
+        } else if (valor instanceof CandleStreamDTO candle && candle.isClosed() && candle.getTimestamp() != null) {
+            barras.merge(candle.getSymbol() + ":" + candle.getTimeframe(), candle,
+                    (actual, nuevo) -> nuevo.getTimestamp().isBefore(actual.getTimestamp()) ? actual : nuevo);
+        }
+    }
+
+    // --- Publicacion ---
+
+    /**
+     * Quote recien obtenido por REST.
+     */
+    public void publicarSnapshot(Quote quote) {
+        if (!properties.isEnabled() || quote == null || quote.getSymbol() == null)
+            return;
+        long ahora = System.currentTimeMillis();
+        QuoteLatestDTO dto = QuoteLatestDTO.builder()
+                .symbol(quote.getSymbol())
+                .bid(quote.getBid())
+                .ask(quote.getAsk())
+                .last(quote.getLast())
+                .open(quote.getOpen())
+                .high(quote.getHigh())
+                .low(quote.getLow())
+                .close(quote.getClose())
+                .prevClose(quote.getPrevClose())
+                .volume(quote.getVolume())
+                .tradingHalted(quote.getTradingHalted())
+                .tradingHaltedReason(quote.getTradingHaltedReason())
+                .beta(quote.getBeta())
+                .snapshotAt(ahora)
+                .updatedAt(ahora)
+                .build();
+        quotes.put(dto.getSymbol(), dto);
+        enviar(dto);
+    }
+
+    /**
+     * Tick del stream: actualiza bid/ask/last/volume sobre el ultimo snapshot REST
+     * (sin snapshot no hay quote completo que publicar). Se publica en el
+     * siguiente intervalo.
+     */
+    public void onTick(MarketDataStreamDTO data) {
+        if (!properties.isEnabled() || data.getSymbol() == null)
+            return;
+        QuoteLatestDTO actualizado = quotes.computeIfPresent(data.getSymbol(), (symbol, actual) -> actual.toBuilder()
+                .bid(data.getBid() != null ? data.getBid() : actual.getBid())
+                .ask(data.getAsk() != null ? data.getAsk() : actual.getAsk())
+                .last(data.getLastPrice() != null ? data.getLastPrice() : actual.getLast())
+                .volume(data.getVolume() != null ? data.getVolume() : actual.getVolume())
+                .updatedAt(System.currentTimeMillis())
+                .build());
+        if (actualizado != null) {
+            pendientes.add(data.getSymbol());
+        }
+    }
+
+    private void publicarPendientes() {
+        for (String symbol : List.copyOf(pendientes)) {
+            pendientes.remove(symbol);
+            QuoteLatestDTO quote = quotes.get(symbol);
+            if (quote != null) {
+                enviar(quote);
+            }
+        }
+    }
+
+    private void enviar(QuoteLatestDTO quote) {
+        kafkaTemplate.send(properties.getQuotesTopic(), quote.getSymbol(), quote)
+                .whenComplete((result, ex) -> {
+                    if (ex != null)
+                        log.warn("Failed to publish latest quote for {}: {}", quote.getSymbol(), ex.getMessage());
+                });
+    }
+
+    // --- Lectura ---
+
+    /**
+     * @return el quote si esta vigente, o null para ir a TastyTrade
+     */
+    public Quote quote(String symbol) {
+        QuoteLatestDTO dto = properties.isEnabled() ? quotes.get(symbol) : null;
+        long ahora = System.currentTimeMillis();
+        if (dto == null || ahora - dto.getUpdatedAt() > properties.getQuoteMaxAgeMs()
+                || ahora - dto.getSnapshotAt() > properties.getSnapshotMaxAgeMs()) {
+            quoteMisses.increment();
+            return null;
+        }
+        quoteHits.increment();
+        return Quote.builder()
+                .symbol(dto.getSymbol())
+                .bid(dto.getBid())
+                .ask(dto.getAsk())
+                .last(dto.getLast())
+                .open(dto.getOpen())
+                .high(dto.getHigh())
+                .low(dto.getLow())
+                .close(dto.getClose())
+                .prevClose(dto.getPrevClose())
+                .volume(dto.getVolume())
+                .tradingHalted(dto.getTradingHalted())
+                .tradingHaltedReason(dto.getTradingHaltedReason())
+                .beta(dto.getBeta())
+                .build();
+    }
+
+    /**
+     * Ultima barra cerrada si es la mas reciente posible: la barra siguiente aun
+     * esta en formacion. Solo intradia (D1/W1/MO1 dependen del calendario).
+     *
+     * @return la barra, o null para ir a DxLink
+     */
+    public Candle ultimaBarraCerrada(String symbol, EnumTimeframe timeframe) {
+        CandleStreamDTO dto = properties.isEnabled() ? barras.get(symbol + ":" + timeframe.name()) : null;
+        Duration duracion = timeframe.getDuration();
+        if (dto == null || duracion.compareTo(Duration.ofDays(1)) >= 0) {
+            candleMisses.increment();
+            return null;
+        }
+        Instant fin = dto.getTimestamp().plus(duracion);
+        Instant ahora = Instant.now();
+        if (fin.isAfter(ahora) || !ahora.isBefore(fin.plus(duracion).plusMillis(candleProperties.getCloseGraceMs()))) {
+            candleMisses.increment();
+            return null;
+        }
+        candleHits.increment();
+        return Candle.builder()
+                .symbol(dto.getSymbol())
+                .timeframe(timeframe)
+                .timestamp(dto.getTimestamp())
+                .open(dto.getOpen())
+                .high(dto.getHigh())
+                .low(dto.getLow())
+                .close(dto.getClose())
+                .volume(dto.getVolume())
+                .build();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", properties.isEnabled());
+        stats.put("quotes", quotes.size());
+        stats.put("candles", barras.size());
+        stats.put("pendingPublish", pendientes.size());
+        return stats;
+    }
+}
@@ -0,0 +1,82 @@
+package com.metradingplat.marketdata.infrastructure.output.kafka.config;
+
+import java.util.Map;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.ssl.SslBundles;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import com.metradingplat.marketdata.infrastructure.configuration.StreamProducerProperties;
+import com.metradingplat.marketdata.infrastructure.output.kafka.DTO.MarketDataStreamDTO;
+import com.metradingplat.marketdata.infrastructure.output.kafka.serializer.MarketDataStreamSerializer;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Productores Kafka del servicio.
+ *
+ * El productor por defecto (spring.kafka.producer.*) queda para eventos de
+ * negocio como orders.updates, con acks=all e idempotencia. El stream de
+ * mercado usa un productor aparte, afinado para throughput (batching, linger,
+ * compresion) y, opcionalmente, con codificacion binaria compacta.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class KafkaProducerConfig {
+
+    private final StreamProducerProperties streamProperties;
+
+    @Bean
+    @Primary
+    public ProducerFactory<String, Object> producerFactory(KafkaProperties kafkaProperties,
+            ObjectProvider<SslBundles> sslBundles) {
+        return new DefaultKafkaProducerFactory<>(kafkaProperties.buildProducerProperties(sslBundles.getIfAvailable()));
+    }
+
+    @Bean
+    @Primary
+    public KafkaTemplate<String, Object> kafkaTemplate(ProducerFactory<String, Object> producerFactory) {
+        return new KafkaTemplate<>(producerFactory);
+    }
+
+    @Bean
+    public ProducerFactory<String, MarketDataStreamDTO> marketDataProducerFactory(KafkaProperties kafkaProperties,
+            ObjectProvider<SslBundles> sslBundles) {
+        Map<String, Object> props = kafkaProperties.buildProducerProperties(sslBundles.getIfAvailable());
+        props.remove(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG);
+        props.remove(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG);
+        props.remove(ProducerConfig.TRANSACTIONAL_ID_CONFIG);
+        props.put(ProducerConfig.CLIENT_ID_CONFIG, "marketdata-stream");
+        props.put(ProducerConfig.ACKS_CONFIG, streamProperties.getAcks());
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, "all".equals(streamProperties.getAcks()));
+        props.put(ProducerConfig.LINGER_MS_CONFIG, streamProperties.getLingerMs());
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, streamProperties.getBatchSize());
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, streamProperties.getCompressionType());
+        props.put(ProducerConfig.BUFFER_MEMORY_CONFIG, streamProperties.getBufferMemory());
+        props.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, streamProperties.getMaxInFlightRequests());
+
+        // JSON con headers de tipo: el mismo formato que publicaba el productor por defecto
+        Serializer<MarketDataStreamDTO> valueSerializer = streamProperties
+                .getEncoding() == StreamProducerProperties.Encoding.BINARY
+                        ? new MarketDataStreamSerializer()
+                        : new JsonSerializer<>();
+
+        return new DefaultKafkaProducerFactory<>(props, new StringSerializer(), valueSerializer);
+    }
+
+    @Bean
+    public KafkaTemplate<String, MarketDataStreamDTO> marketDataKafkaTemplate(
+            ProducerFactory<String, MarketDataStreamDTO> marketDataProducerFactory) {
+        return new KafkaTemplate<>(marketDataProducerFactory);
+    }
+}
@@ -0,0 +1,84 @@
+package com.metradingplat.marketdata.infrastructure.output.kafka.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+import com.metradingplat.marketdata.infrastructure.configuration.CandleStreamProperties;
+import com.metradingplat.marketdata.infrastructure.configuration.LastValueCacheProperties;
+import com.metradingplat.marketdata.infrastructure.configuration.OrderPipelineProperties;
+import com.metradingplat.marketdata.infrastructure.configuration.ShardingProperties;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Declaracion de topics propios; KafkaAdmin los crea al arrancar si no existen.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class KafkaTopicsConfig {
+
+    private final CandleStreamProperties candleProperties;
+    private final ShardingProperties shardingProperties;
+    private final LastValueCacheProperties lastValueProperties;
+    private final OrderPipelineProperties orderPipelineProperties;
+
+    @Bean
+    @ConditionalOnProperty(prefix = "marketdata.kafka.candles", name = "enabled", matchIfMissing = true)
+    public NewTopic candlesTopic() {
+        return TopicBuilder.name(candleProperties.getTopic())
+                .partitions(candleProperties.getPartitions())
+                .replicas(candleProperties.getReplicationFactor())
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "marketdata.kafka.candles", name = { "enabled", "latest-enabled" }, matchIfMissing = true)
+    public NewTopic candlesLatestTopic() {
+        return TopicBuilder.name(candleProperties.getLatestTopic())
+                .partitions(candleProperties.getPartitions())
+                .replicas(candleProperties.getReplicationFactor())
+                .compact()
+                .config(TopicConfig.MIN_COMPACTION_LAG_MS_CONFIG, "0")
+                .build();
+    }
+
+    /**
+     * Ultimo quote por simbolo, compartido entre replicas (key = simbolo).
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "marketdata.kafka.last-value", name = "enabled", matchIfMissing = true)
+    public NewTopic quotesLatestTopic() {
+        return TopicBuilder.name(lastValueProperties.getQuotesTopic())
+                .partitions(lastValueProperties.getPartitions())
+                .replicas(lastValueProperties.getReplicationFactor())
+                .compact()
+                .config(TopicConfig.MIN_COMPACTION_LAG_MS_CONFIG, "0")
+                .build();
+    }
+
+    /**
+     * Comandos de orden ya ejecutados cuyo resultado no llego a orders.updates.
+     */
+    @Bean
+    public NewTopic ordersDeadLetterTopic() {
+        return TopicBuilder.name(orderPipelineProperties.getDeadLetterTopic()).build();
+    }
+
+    /**
+     * Estado deseado de suscripciones por simbolo (key = simbolo). Compactado: una
+     * replica que recibe una particion la relee completa.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "marketdata.sharding", name = "enabled", matchIfMissing = true)
+    public NewTopic ownedCommandsTopic() {
+        return TopicBuilder.name(shardingProperties.getOwnedTopic())
+                .partitions(shardingProperties.getPartitions())
+                .replicas(shardingProperties.getReplicationFactor())
+                .compact()
+                .build();
+    }
+}
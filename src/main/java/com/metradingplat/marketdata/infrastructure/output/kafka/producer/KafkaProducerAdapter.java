@@ -1,35 +1,168 @@
 package com.metradingplat.marketdata.infrastructure.output.kafka.producer;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.kafka.clients.producer.RecordMetadata;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
 import com.metradingplat.marketdata.application.output.GestionarChangeNotificationsProducerIntPort;
+import com.metradingplat.marketdata.infrastructure.configuration.CandleStreamProperties;
+import com.metradingplat.marketdata.infrastructure.jfr.KafkaSendEvent;
+import com.metradingplat.marketdata.infrastructure.output.external.tastytrade.FeedLagMonitor;
+import com.metradingplat.marketdata.infrastructure.output.kafka.DTO.CandleStreamDTO;
 import com.metradingplat.marketdata.infrastructure.output.kafka.DTO.MarketDataStreamDTO;
 import com.metradingplat.marketdata.infrastructure.output.kafka.DTO.OrderUpdateDTO;
+import com.metradingplat.marketdata.infrastructure.output.kafka.cache.LastValueCache;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class KafkaProducerAdapter implements GestionarChangeNotificationsProducerIntPort {
 
     private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final KafkaTemplate<String, MarketDataStreamDTO> marketDataKafkaTemplate;
+    private final CandleStreamProperties candleProperties;
+    private final LastValueCache lastValueCache;
+
+    private final MeterRegistry meterRegistry;
+    // Envios por topic: exitos/fallos, latencia hasta el ack y envios esperando ack
+    private final Map<String, MedidorTopic> medidores = new ConcurrentHashMap<>();
+
+    private record MedidorTopic(Counter enviados, Counter fallidos, Timer latencia, AtomicInteger enVuelo) {
+    }
+
+    // Etapa callback_ack del retraso del feed (ver FeedLagMonitor), por tipo de evento
+    private final Timer callbackAckQuote;
+    private final Timer callbackAckTrade;
 
     private static final String ORDERS_UPDATES_TOPIC = "orders.updates";
     private static final String MARKETDATA_STREAM_TOPIC = "marketdata.stream";
 
+    public KafkaProducerAdapter(KafkaTemplate<String, Object> kafkaTemplate,
+            KafkaTemplate<String, MarketDataStreamDTO> marketDataKafkaTemplate,
+            CandleStreamProperties candleProperties,
+            LastValueCache lastValueCache,
+            MeterRegistry meterRegistry) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.marketDataKafkaTemplate = marketDataKafkaTemplate;
+        this.candleProperties = candleProperties;
+        this.lastValueCache = lastValueCache;
+        this.meterRegistry = meterRegistry;
+        this.callbackAckQuote = callbackAck(meterRegistry, "Quote");
+        this.callbackAckTrade = callbackAck(meterRegistry, "Trade");
+    }
+
+    private static Timer callbackAck(MeterRegistry meterRegistry, String tipo) {
+        return Timer.builder(FeedLagMonitor.METRICA)
+                .description("Retraso del feed en vivo por etapa")
+                .tag("stage", "callback_ack")
+                .tag("type", tipo)
+                .register(meterRegistry);
+    }
+
+    private MedidorTopic medidor(String topic) {
+        return medidores.computeIfAbsent(topic, t -> {
+            AtomicInteger enVuelo = new AtomicInteger();
+            Gauge.builder("marketdata.kafka.send.in.flight", enVuelo, AtomicInteger::get)
+                    .description("Envios esperando el ack del broker")
+                    .tag("topic", t)
+                    .register(meterRegistry);
+            return new MedidorTopic(
+                    Counter.builder("marketdata.kafka.send").tag("topic", t).tag("result", "success")
+                            .register(meterRegistry),
+                    Counter.builder("marketdata.kafka.send").tag("topic", t).tag("result", "failure")
+                            .register(meterRegistry),
+                    Timer.builder("marketdata.kafka.send.latency")
+                            .description("Tiempo desde send() hasta el ack del broker")
+                            .tag("topic", t)
+                            .register(meterRegistry),
+                    enVuelo);
+        });
+    }
+
+    private <V> CompletableFuture<SendResult<String, V>> medir(String topic, String key,
+            CompletableFuture<SendResult<String, V>> envio) {
+        MedidorTopic medidor = medidor(topic);
+        long inicio = System.nanoTime();
+        medidor.enVuelo().incrementAndGet();
+        KafkaSendEvent evento = new KafkaSendEvent();
+        evento.begin();
+        return envio.whenComplete((result, ex) -> {
+            medidor.enVuelo().decrementAndGet();
+            medidor.latencia().record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            (ex == null ? medidor.enviados() : medidor.fallidos()).increment();
+            registrarEvento(evento, topic, key, result, ex);
+        });
+    }
+
+    private static void registrarEvento(KafkaSendEvent evento, String topic, String key, SendResult<String, ?> result,
+            Throwable ex) {
+        evento.end();
+        if (!evento.shouldCommit())
+            return;
+        evento.topic = topic;
+        evento.key = key;
+        evento.success = ex == null;
+        RecordMetadata metadata = result != null ? result.getRecordMetadata() : null;
+        if (metadata != null) {
+            evento.partition = metadata.partition();
+            evento.valueBytes = metadata.serializedValueSize();
+        }
+        evento.commit();
+    }
+
     @Override
-    public void publishOrderUpdate(OrderUpdateDTO update) {
+    public CompletableFuture<Void> publishOrderUpdate(OrderUpdateDTO update) {
         log.info("Publishing order update for symbol: {}", update.getSymbol());
-        kafkaTemplate.send(ORDERS_UPDATES_TOPIC, update.getOrderId(), update);
+        return medir(ORDERS_UPDATES_TOPIC, update.getOrderId(), kafkaTemplate.send(ORDERS_UPDATES_TOPIC, update.getOrderId(), update))
+                .thenApply(result -> null);
     }
 
     @Override
     public void publishMarketData(MarketDataStreamDTO data) {
         log.debug("Publishing market data to Kafka: symbol={}, bid={}, ask={}, last={}",
                 data.getSymbol(), data.getBid(), data.getAsk(), data.getLastPrice());
-        kafkaTemplate.send(MARKETDATA_STREAM_TOPIC, data.getSymbol(), data);
+        // No se bloquea el hilo de DxLink: el resultado se procesa al llegar el ack
+        medir(MARKETDATA_STREAM_TOPIC, data.getSymbol(), marketDataKafkaTemplate.send(MARKETDATA_STREAM_TOPIC, data.getSymbol(), data))
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        log.warn("Failed to publish market data for {}: {}", data.getSymbol(), ex.getMessage());
+                    } else if (data.getCallbackNanos() != 0) {
+                        (data.getLastPrice() != null ? callbackAckTrade : callbackAckQuote)
+                                .record(System.nanoTime() - data.getCallbackNanos(), TimeUnit.NANOSECONDS);
+                    }
+                });
+        // Quote compartido entre replicas (conflacionado, ver LastValueCache)
+        lastValueCache.onTick(data);
+    }
+
+    @Override
+    public void publishCandle(CandleStreamDTO candle) {
+        // Key symbol:TF: orden por barra y una entrada por par en el topic compactado
+        String key = candle.getSymbol() + ":" + candle.getTimeframe();
+        log.debug("Publishing candle {} {} closed={}", key, candle.getTimestamp(), candle.isClosed());
+        medir(candleProperties.getTopic(), key, kafkaTemplate.send(candleProperties.getTopic(), key, candle))
+                .whenComplete((result, ex) -> {
+                    if (ex != null)
+                        log.warn("Failed to publish candle {}: {}", key, ex.getMessage());
+                });
+        if (candle.isClosed() && candleProperties.isLatestEnabled()) {
+            medir(candleProperties.getLatestTopic(), key, kafkaTemplate.send(candleProperties.getLatestTopic(), key, candle))
+                    .whenComplete((result, ex) -> {
+                        if (ex != null)
+                            log.warn("Failed to publish latest candle {}: {}", key, ex.getMessage());
+                    });
+        }
     }
 }
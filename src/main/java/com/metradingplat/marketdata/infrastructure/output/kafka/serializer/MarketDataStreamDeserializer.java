@@ -0,0 +1,51 @@
+package com.metradingplat.marketdata.infrastructure.output.kafka.serializer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import com.metradingplat.marketdata.infrastructure.output.kafka.DTO.MarketDataStreamDTO;
+
+/**
+ * Contraparte de {@link MarketDataStreamSerializer} para consumidores de
+ * marketdata.stream.
+ */
+public class MarketDataStreamDeserializer implements Deserializer<MarketDataStreamDTO> {
+
+    @Override
+    public MarketDataStreamDTO deserialize(String topic, byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        byte version = buffer.get();
+        if (version != MarketDataStreamSerializer.VERSION) {
+            throw new SerializationException("Unsupported market data encoding version: " + version);
+        }
+
+        int mask = buffer.get();
+        byte[] symbol = new byte[buffer.getShort()];
+        buffer.get(symbol);
+
+        MarketDataStreamDTO.MarketDataStreamDTOBuilder builder = MarketDataStreamDTO.builder()
+                .symbol(new String(symbol, StandardCharsets.UTF_8));
+        if ((mask & MarketDataStreamSerializer.HAS_TIMESTAMP) != 0) {
+            long nanos = buffer.getLong();
+            builder.timestamp(Instant.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+                    Math.floorMod(nanos, 1_000_000_000L)));
+        }
+        if ((mask & MarketDataStreamSerializer.HAS_LAST) != 0)
+            builder.lastPrice(buffer.getDouble());
+        if ((mask & MarketDataStreamSerializer.HAS_BID) != 0)
+            builder.bid(buffer.getDouble());
+        if ((mask & MarketDataStreamSerializer.HAS_ASK) != 0)
+            builder.ask(buffer.getDouble());
+        if ((mask & MarketDataStreamSerializer.HAS_VOLUME) != 0)
+            builder.volume(buffer.getLong());
+        return builder.build();
+    }
+}
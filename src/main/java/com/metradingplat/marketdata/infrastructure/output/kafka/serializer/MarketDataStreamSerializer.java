@@ -0,0 +1,88 @@
+package com.metradingplat.marketdata.infrastructure.output.kafka.serializer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+import com.metradingplat.marketdata.infrastructure.output.kafka.DTO.MarketDataStreamDTO;
+
+/**
+ * Codificacion binaria compacta de {@link MarketDataStreamDTO} (version 1).
+ *
+ * <pre>
+ * byte   version (=1)
+ * byte   mascara de presencia: 0x01 lastPrice, 0x02 bid, 0x04 ask, 0x08 volume, 0x10 timestamp
+ * short  longitud del simbolo + bytes UTF-8
+ * long   timestamp en epoch-nanos        (si 0x10)
+ * double lastPrice, bid, ask             (si 0x01, 0x02, 0x04)
+ * long   volume                          (si 0x08)
+ * </pre>
+ *
+ * Los campos nulos no ocupan espacio; un quote tipico ocupa ~30 bytes frente a
+ * ~120 del JSON equivalente.
+ */
+public class MarketDataStreamSerializer implements Serializer<MarketDataStreamDTO> {
+
+    public static final byte VERSION = 1;
+
+    static final int HAS_LAST = 0x01;
+    static final int HAS_BID = 0x02;
+    static final int HAS_ASK = 0x04;
+    static final int HAS_VOLUME = 0x08;
+    static final int HAS_TIMESTAMP = 0x10;
+
+    @Override
+    public byte[] serialize(String topic, MarketDataStreamDTO data) {
+        if (data == null) {
+            return null;
+        }
+
+        byte[] symbol = data.getSymbol() != null ? data.getSymbol().getBytes(StandardCharsets.UTF_8) : new byte[0];
+
+        int mask = 0;
+        int size = 1 + 1 + 2 + symbol.length;
+        if (data.getTimestamp() != null) {
+            mask |= HAS_TIMESTAMP;
+            size += Long.BYTES;
+        }
+        if (data.getLastPrice() != null) {
+            mask |= HAS_LAST;
+            size += Double.BYTES;
+        }
+        if (data.getBid() != null) {
+            mask |= HAS_BID;
+            size += Double.BYTES;
+        }
+        if (data.getAsk() != null) {
+            mask |= HAS_ASK;
+            size += Double.BYTES;
+        }
+        if (data.getVolume() != null) {
+            mask |= HAS_VOLUME;
+            size += Long.BYTES;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(VERSION);
+        buffer.put((byte) mask);
+        buffer.putShort((short) symbol.length);
+        buffer.put(symbol);
+        if ((mask & HAS_TIMESTAMP) != 0)
+            buffer.putLong(toEpochNanos(data.getTimestamp()));
+        if ((mask & HAS_LAST) != 0)
+            buffer.putDouble(data.getLastPrice());
+        if ((mask & HAS_BID) != 0)
+            buffer.putDouble(data.getBid());
+        if ((mask & HAS_ASK) != 0)
+            buffer.putDouble(data.getAsk());
+        if ((mask & HAS_VOLUME) != 0)
+            buffer.putLong(data.getVolume());
+        return buffer.array();
+    }
+
+    static long toEpochNanos(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+}
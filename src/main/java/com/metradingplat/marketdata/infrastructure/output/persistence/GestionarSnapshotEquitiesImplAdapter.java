@@ -0,0 +1,75 @@
+package com.metradingplat.marketdata.infrastructure.output.persistence;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.metradingplat.marketdata.application.output.GestionarSnapshotEquitiesIntPort;
+import com.metradingplat.marketdata.domain.models.EquitySnapshot;
+import com.metradingplat.marketdata.infrastructure.configuration.EquityUniverseProperties;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Persiste el universo de equities en un archivo JSON local para que un
+ * arranque en frio lo sirva sin esperar la descarga desde TastyTrade.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GestionarSnapshotEquitiesImplAdapter implements GestionarSnapshotEquitiesIntPort {
+
+    private final EquityUniverseProperties properties;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public Optional<EquitySnapshot> cargarSnapshot() {
+        if (!properties.isPersistEnabled())
+            return Optional.empty();
+
+        Path archivo = Path.of(properties.getSnapshotPath());
+        if (!Files.isReadable(archivo))
+            return Optional.empty();
+
+        try (InputStream in = Files.newInputStream(archivo)) {
+            EquitySnapshot snapshot = objectMapper.readValue(in, EquitySnapshot.class);
+            if (snapshot.getEquities() == null || snapshot.getLoadedAt() == null)
+                return Optional.empty();
+            log.info("Snapshot de equities leido de {}: {} simbolos ({})", archivo,
+                    snapshot.getEquities().size(), snapshot.getLoadedAt());
+            return Optional.of(snapshot);
+        } catch (IOException e) {
+            log.warn("No se pudo leer el snapshot de equities {}: {}", archivo, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void guardarSnapshot(EquitySnapshot snapshot) {
+        if (!properties.isPersistEnabled())
+            return;
+
+        Path archivo = Path.of(properties.getSnapshotPath());
+        try {
+            Path directorio = archivo.toAbsolutePath().getParent();
+            Files.createDirectories(directorio);
+            // Escribir a un temporal y renombrar: un lector nunca ve el archivo a medias
+            Path temporal = Files.createTempFile(directorio, "equities", ".tmp");
+            try (OutputStream out = Files.newOutputStream(temporal)) {
+                objectMapper.writeValue(out, snapshot);
+            }
+            Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Snapshot de equities guardado en {}", archivo);
+        } catch (IOException e) {
+            log.warn("No se pudo guardar el snapshot de equities {}: {}", archivo, e.getMessage());
+        }
+    }
+}
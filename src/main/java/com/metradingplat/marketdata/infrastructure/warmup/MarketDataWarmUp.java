@@ -0,0 +1,159 @@
+package com.metradingplat.marketdata.infrastructure.warmup;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.metradingplat.marketdata.application.input.GestionarHistoricalDataCUIntPort;
+import com.metradingplat.marketdata.application.input.GestionarMercadosCUIntPort;
+import com.metradingplat.marketdata.infrastructure.configuration.WarmUpProperties;
+import com.metradingplat.marketdata.infrastructure.output.external.tastytrade.TastyTradeService;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Calienta el camino de datos en segundo plano una vez que la aplicacion
+ * arranco: tokens, conexion DxLink, canal dedicado, universo de equities y
+ * candles de los simbolos mas consultados.
+ *
+ * Las etapas obligatorias se reintentan hasta completarse; las opcionales
+ * registran el error y se sigue. El estado lo expone WarmUpHealthIndicator
+ * (grupo readiness), asi que el servicio no recibe trafico hasta estar listo.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MarketDataWarmUp {
+
+    public enum Etapa {
+        PENDIENTE, TOKENS, DXLINK, CANALES, UNIVERSO, CANDLES, LISTO
+    }
+
+    private final TastyTradeService tastyTradeService;
+    private final GestionarMercadosCUIntPort objGestionarMercadosCUInt;
+    private final GestionarHistoricalDataCUIntPort objGestionarHistoricalDataCUInt;
+    private final WarmUpProperties properties;
+
+    private volatile Etapa etapa = Etapa.PENDIENTE;
+    private volatile String ultimoError;
+    private final Map<Etapa, Long> duracionesMs = new LinkedHashMap<>();
+    private volatile Thread hilo;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        if (!properties.isEnabled()) {
+            etapa = Etapa.LISTO;
+            return;
+        }
+        hilo = Thread.ofVirtual().name("marketdata-warmup").start(this::ejecutar);
+    }
+
+    @PreDestroy
+    public void detener() {
+        Thread actual = hilo;
+        if (actual != null) {
+            actual.interrupt();
+        }
+    }
+
+    public Etapa getEtapa() {
+        return etapa;
+    }
+
+    public boolean isListo() {
+        return etapa == Etapa.LISTO;
+    }
+
+    public Map<String, Object> getDetalles() {
+        Map<String, Object> detalles = new LinkedHashMap<>();
+        detalles.put("stage", etapa.name());
+        synchronized (duracionesMs) {
+            duracionesMs.forEach((e, ms) -> detalles.put(e.name().toLowerCase() + "Ms", ms));
+        }
+        if (ultimoError != null) {
+            detalles.put("lastError", ultimoError);
+        }
+        return detalles;
+    }
+
+    private void ejecutar() {
+        Instant inicio = Instant.now();
+        log.info("Warm-up iniciado");
+        try {
+            obligatoria(Etapa.TOKENS, () -> {
+                tastyTradeService.prepararTokens();
+                return true;
+            });
+            obligatoria(Etapa.DXLINK, tastyTradeService::conectarDxLink);
+            obligatoria(Etapa.CANALES, () -> {
+                tastyTradeService.probarCanal(properties.getChannelTimeoutMs());
+                return true;
+            });
+            opcional(Etapa.UNIVERSO, () -> objGestionarMercadosCUInt.obtenerSimbolosPorMercados(List.of()));
+            if (!properties.getPreloadSymbols().isEmpty()) {
+                opcional(Etapa.CANDLES, () -> objGestionarHistoricalDataCUInt.getCandlesBatch(
+                        properties.getPreloadSymbols(), properties.getPreloadTimeframe(),
+                        properties.getPreloadBars(), null));
+            }
+            etapa = Etapa.LISTO;
+            log.info("Warm-up completo en {} ms: {}", Duration.between(inicio, Instant.now()).toMillis(),
+                    getDetalles());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.info("Warm-up interrumpido en etapa {}", etapa);
+        }
+    }
+
+    /**
+     * Repite la etapa hasta que devuelva true.
+     */
+    private void obligatoria(Etapa nueva, Callable<Boolean> accion) throws InterruptedException {
+        etapa = nueva;
+        long inicio = System.nanoTime();
+        while (true) {
+            try {
+                if (Boolean.TRUE.equals(accion.call())) {
+                    registrar(nueva, inicio);
+                    return;
+                }
+                ultimoError = nueva + ": not ready";
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                ultimoError = nueva + ": " + e.getMessage();
+            }
+            log.warn("Warm-up {} fallo ({}), reintento en {} s", nueva, ultimoError,
+                    properties.getRetryDelaySeconds());
+            Thread.sleep(Duration.ofSeconds(properties.getRetryDelaySeconds()));
+        }
+    }
+
+    private void opcional(Etapa nueva, Callable<?> accion) {
+        etapa = nueva;
+        long inicio = System.nanoTime();
+        try {
+            accion.call();
+        } catch (Exception e) {
+            ultimoError = nueva + ": " + e.getMessage();
+            log.warn("Warm-up {} fallo, se continua: {}", nueva, e.getMessage());
+        }
+        registrar(nueva, inicio);
+    }
+
+    private void registrar(Etapa completada, long inicioNanos) {
+        long ms = (System.nanoTime() - inicioNanos) / 1_000_000;
+        synchronized (duracionesMs) {
+            duracionesMs.put(completada, ms);
+        }
+        log.info("Warm-up {} completado en {} ms", completada, ms);
+    }
+}
@@ -0,0 +1,24 @@
+package com.metradingplat.marketdata.infrastructure.warmup;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Expone el avance del warm-up como health "warmUp". Incluido en el grupo
+ * readiness: OUT_OF_SERVICE hasta que el camino de datos este listo.
+ */
+@Component
+@RequiredArgsConstructor
+public class WarmUpHealthIndicator implements HealthIndicator {
+
+    private final MarketDataWarmUp warmUp;
+
+    @Override
+    public Health health() {
+        Health.Builder builder = warmUp.isListo() ? Health.up() : Health.outOfService();
+        return builder.withDetails(warmUp.getDetalles()).build();
+    }
+}
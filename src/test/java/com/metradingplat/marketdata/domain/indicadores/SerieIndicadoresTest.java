@@ -0,0 +1,209 @@
+package com.metradingplat.marketdata.domain.indicadores;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.metradingplat.marketdata.domain.enums.EnumTimeframe;
+import com.metradingplat.marketdata.domain.models.Candle;
+import com.metradingplat.marketdata.domain.models.IndicadoresSimbolo;
+
+/**
+ * Los indicadores incrementales coinciden con el calculo sobre la serie
+ * completa, y el stream solo avanza la serie con barras contiguas.
+ */
+class SerieIndicadoresTest {
+
+    private static final Instant INICIO = Instant.parse("2025-01-15T14:30:00Z");
+
+    @Test
+    void coincideConElCalculoSobreLaSerieCompleta() {
+        List<Candle> barras = barras(300);
+        List<IndicadorSpec> specs = List.of(IndicadorSpec.parse("SMA(50)"), IndicadorSpec.parse("ema(20)"),
+                IndicadorSpec.parse("RSI(14)"), IndicadorSpec.parse("ATR(14)"), IndicadorSpec.parse("VWAP"));
+
+        SerieIndicadores serie = new SerieIndicadores("AAPL", EnumTimeframe.M1, specs);
+        barras.forEach(serie::aplicar);
+        IndicadoresSimbolo valores = serie.valores(specs);
+
+        assertThat(valores.getTimestamp()).isEqualTo(barras.get(299).getTimestamp());
+        assertThat(valores.getValores().get("SMA(50)")).isCloseTo(sma(barras, 50), within(1e-9));
+        assertThat(valores.getValores().get("EMA(20)")).isCloseTo(ema(barras, 20), within(1e-9));
+        assertThat(valores.getValores().get("RSI(14)")).isCloseTo(rsi(barras, 14), within(1e-9));
+        assertThat(valores.getValores().get("ATR(14)")).isCloseTo(atr(barras, 14), within(1e-9));
+        assertThat(valores.getValores().get("VWAP")).isCloseTo(vwap(barras), within(1e-9));
+    }
+
+    @Test
+    void sinBarrasSuficientesDevuelveNull() {
+        List<IndicadorSpec> specs = List.of(IndicadorSpec.parse("SMA(50)"));
+        SerieIndicadores serie = new SerieIndicadores("AAPL", EnumTimeframe.M1, specs);
+        barras(10).forEach(serie::aplicar);
+
+        assertThat(serie.valores(specs).getValores()).containsEntry("SMA(50)", null);
+    }
+
+    @Test
+    void elStreamIgnoraBarrasRepetidasYHuecos() {
+        List<Candle> barras = barras(5);
+        SerieIndicadores serie = new SerieIndicadores("AAPL", EnumTimeframe.M1, List.of(IndicadorSpec.parse("SMA(2)")));
+        barras.subList(0, 3).forEach(serie::aplicar);
+
+        assertThat(serie.aplicarEnVivo(barras.get(2))).isFalse();
+        assertThat(serie.aplicarEnVivo(barras.get(4))).isFalse();
+        assertThat(serie.aplicarEnVivo(barras.get(3))).isTrue();
+        assertThat(serie.getUltimaBarra()).isEqualTo(barras.get(3).getTimestamp().toEpochMilli());
+    }
+
+    @Test
+    void soloConservaLosUsosRecientes() {
+        IndicadorSpec sma = IndicadorSpec.parse("SMA(2)");
+        IndicadorSpec rsi = IndicadorSpec.parse("RSI(2)");
+        SerieIndicadores serie = new SerieIndicadores("AAPL", EnumTimeframe.M1, List.of(sma, rsi));
+
+        assertThat(serie.getUltimoUso()).isEqualTo(Long.MIN_VALUE);
+        serie.marcarUso(List.of(sma), 1_000);
+        serie.marcarUso(List.of(rsi), 5_000);
+
+        assertThat(serie.getUltimoUso()).isEqualTo(5_000);
+        assertThat(serie.usosDesde(2_000)).containsOnlyKeys(rsi);
+    }
+
+    @Test
+    void laSerieDiariaDelViernesSigueAlDiaElFinDeSemana() {
+        SerieIndicadores serie = new SerieIndicadores("AAPL", EnumTimeframe.D1, List.of(IndicadorSpec.parse("SMA(2)")));
+        serie.aplicar(diaria("2025-01-17T00:00:00Z")); // Viernes
+
+        assertThat(serie.alDia(ms("2025-01-19T12:00:00Z"), 2000)).isTrue();
+        // La barra del lunes cierra el martes
+        assertThat(serie.alDia(ms("2025-01-20T23:00:00Z"), 2000)).isTrue();
+        assertThat(serie.alDia(ms("2025-01-21T01:00:00Z"), 2000)).isFalse();
+    }
+
+    @Test
+    void sinLaBarraEsperadaLaSerieDiariaSeRevisaCadaHora() {
+        SerieIndicadores serie = new SerieIndicadores("AAPL", EnumTimeframe.D1, List.of(IndicadorSpec.parse("SMA(2)")));
+        serie.aplicar(diaria("2025-01-17T00:00:00Z"));
+
+        // Feriado: la cache no trajo la barra del lunes
+        serie.marcarRevisada(ms("2025-01-21T01:00:00Z"));
+        assertThat(serie.alDia(ms("2025-01-21T01:30:00Z"), 2000)).isTrue();
+        assertThat(serie.alDia(ms("2025-01-21T02:00:00Z"), 2000)).isFalse();
+    }
+
+    @Test
+    void laSerieIntradiaVenceCuandoCierraLaBarraSiguiente() {
+        List<Candle> barras = barras(3);
+        SerieIndicadores serie = new SerieIndicadores("AAPL", EnumTimeframe.M1, List.of(IndicadorSpec.parse("SMA(2)")));
+        barras.forEach(serie::aplicar);
+        long ultima = barras.get(2).getTimestamp().toEpochMilli();
+
+        assertThat(serie.alDia(ultima + 120_000 + 1999, 2000)).isTrue();
+        assertThat(serie.alDia(ultima + 120_000 + 2000, 2000)).isFalse();
+    }
+
+    private static Candle diaria(String timestamp) {
+        return Candle.builder()
+                .symbol("AAPL")
+                .timeframe(EnumTimeframe.D1)
+                .timestamp(Instant.parse(timestamp))
+                .open(100.0).high(101.0).low(99.0).close(100.5)
+                .volume(1000.0)
+                .build();
+    }
+
+    private static long ms(String timestamp) {
+        return Instant.parse(timestamp).toEpochMilli();
+    }
+
+    private static List<Candle> barras(int cantidad) {
+        Random random = new Random(42);
+        List<Candle> barras = new ArrayList<>();
+        double close = 100;
+        for (int i = 0; i < cantidad; i++) {
+            double open = close;
+            close = open + random.nextGaussian();
+            double high = Math.max(open, close) + random.nextDouble();
+            double low = Math.min(open, close) - random.nextDouble();
+            barras.add(Candle.builder()
+                    .symbol("AAPL")
+                    .timeframe(EnumTimeframe.M1)
+                    .timestamp(INICIO.plusSeconds(60L * i))
+                    .open(open).high(high).low(low).close(close)
+                    .volume(1000.0 + random.nextInt(5000))
+                    .build());
+        }
+        return barras;
+    }
+
+    private static double sma(List<Candle> barras, int periodo) {
+        return barras.subList(barras.size() - periodo, barras.size()).stream().mapToDouble(Candle::getClose)
+                .average().orElseThrow();
+    }
+
+    private static double ema(List<Candle> barras, int periodo) {
+        double ema = barras.subList(0, periodo).stream().mapToDouble(Candle::getClose).average().orElseThrow();
+        double alfa = 2.0 / (periodo + 1);
+        for (int i = periodo; i < barras.size(); i++) {
+            ema = alfa * barras.get(i).getClose() + (1 - alfa) * ema;
+        }
+        return ema;
+    }
+
+    private static double rsi(List<Candle> barras, int periodo) {
+        double ganancia = 0;
+        double perdida = 0;
+        for (int i = 1; i <= periodo; i++) {
+            double cambio = barras.get(i).getClose() - barras.get(i - 1).getClose();
+            ganancia += Math.max(cambio, 0);
+            perdida += Math.max(-cambio, 0);
+        }
+        ganancia /= periodo;
+        perdida /= periodo;
+        for (int i = periodo + 1; i < barras.size(); i++) {
+            double cambio = barras.get(i).getClose() - barras.get(i - 1).getClose();
+            ganancia = (ganancia * (periodo - 1) + Math.max(cambio, 0)) / periodo;
+            perdida = (perdida * (periodo - 1) + Math.max(-cambio, 0)) / periodo;
+        }
+        return 100 - 100 / (1 + ganancia / perdida);
+    }
+
+    private static double atr(List<Candle> barras, int periodo) {
+        double[] rangos = new double[barras.size()];
+        for (int i = 0; i < barras.size(); i++) {
+            Candle barra = barras.get(i);
+            rangos[i] = barra.getHigh() - barra.getLow();
+            if (i > 0) {
+                double anterior = barras.get(i - 1).getClose();
+                rangos[i] = Math.max(rangos[i],
+                        Math.max(Math.abs(barra.getHigh() - anterior), Math.abs(barra.getLow() - anterior)));
+            }
+        }
+        double atr = 0;
+        for (int i = 0; i < periodo; i++) {
+            atr += rangos[i];
+        }
+        atr /= periodo;
+        for (int i = periodo; i < rangos.length; i++) {
+            atr = (atr * (periodo - 1) + rangos[i]) / periodo;
+        }
+        return atr;
+    }
+
+    private static double vwap(List<Candle> barras) {
+        // Todas las barras caen en la misma sesion
+        double precioPorVolumen = 0;
+        double volumen = 0;
+        for (Candle barra : barras) {
+            precioPorVolumen += (barra.getHigh() + barra.getLow() + barra.getClose()) / 3 * barra.getVolume();
+            volumen += barra.getVolume();
+        }
+        return precioPorVolumen / volumen;
+    }
+}
@@ -0,0 +1,61 @@
+package com.metradingplat.marketdata.domain.screener;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.metradingplat.marketdata.domain.indicadores.IndicadorSpec;
+import com.metradingplat.marketdata.domain.models.Candle;
+import com.metradingplat.marketdata.domain.models.IndicadoresSimbolo;
+
+class ExpresionFiltroTest {
+
+    @Test
+    void evaluaCamposEIndicadoresConPrecedencia() {
+        ExpresionFiltro filtro = ExpresionFiltro.compilar("close > SMA(50) and volume > 2 * volsma(20)");
+
+        assertThat(filtro.indicadores()).containsExactly(IndicadorSpec.parse("SMA(50)"),
+                IndicadorSpec.parse("VOLSMA(20)"));
+        assertThat(filtro.evaluar(datos(105, 5000, Map.of("SMA(50)", 100.0, "VOLSMA(20)", 2000.0)))).isTrue();
+        assertThat(filtro.evaluar(datos(105, 3000, Map.of("SMA(50)", 100.0, "VOLSMA(20)", 2000.0)))).isFalse();
+        assertThat(filtro.evaluar(datos(95, 5000, Map.of("SMA(50)", 100.0, "VOLSMA(20)", 2000.0)))).isFalse();
+    }
+
+    @Test
+    void respetaParentesisYNegacion() {
+        ExpresionFiltro filtro = ExpresionFiltro.compilar("not (RSI(14) >= 70 or RSI(14) <= 30) && (high - low) / close < 0.05");
+
+        assertThat(filtro.indicadores()).containsExactly(IndicadorSpec.parse("RSI(14)"));
+        assertThat(filtro.evaluar(datos(100, 1000, Map.of("RSI(14)", 55.0)))).isTrue();
+        assertThat(filtro.evaluar(datos(100, 1000, Map.of("RSI(14)", 75.0)))).isFalse();
+    }
+
+    @Test
+    void sinValorDelIndicadorNoCumple() {
+        Map<String, Double> valores = new LinkedHashMap<>();
+        valores.put("SMA(200)", null);
+
+        assertThat(ExpresionFiltro.compilar("not close > SMA(200)").evaluar(datos(100, 1000, valores))).isFalse();
+    }
+
+    @Test
+    void rechazaExpresionesInvalidas() {
+        assertThatThrownBy(() -> ExpresionFiltro.compilar("close + 1")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ExpresionFiltro.compilar("close > SMA")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ExpresionFiltro.compilar("close > FOO(3)")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ExpresionFiltro.compilar("(close > 1")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ExpresionFiltro.compilar("close > 1 and 2")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static IndicadoresSimbolo datos(double close, double volume, Map<String, Double> valores) {
+        return IndicadoresSimbolo.builder()
+                .symbol("AAPL")
+                .barra(Candle.builder().open(close).high(close + 1).low(close - 1).close(close).volume(volume).build())
+                .valores(valores)
+                .build();
+    }
+}
@@ -0,0 +1,78 @@
+package com.metradingplat.marketdata.domain.usecases;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.metradingplat.marketdata.application.output.GestionarComunicacionExternalGatewayIntPort;
+import com.metradingplat.marketdata.domain.models.EarningsReport;
+
+/**
+ * Cache de simbolos sin reportes (ETFs) con TTL propio; los fallos no se
+ * cachean.
+ */
+class GestionarEarningsCUAdapterTest {
+
+    private final GestionarComunicacionExternalGatewayIntPort gateway = mock(
+            GestionarComunicacionExternalGatewayIntPort.class);
+
+    @Test
+    void simboloSinReportesSeCacheaDentroDelTtl() {
+        GestionarEarningsCUAdapter cu = new GestionarEarningsCUAdapter(gateway, 4, Duration.ofHours(1));
+        when(gateway.getEarningsReports(eq("SPY"), anyString())).thenReturn(List.of());
+
+        EarningsReport primero = cu.obtenerProximoEarnings("SPY");
+        EarningsReport segundo = cu.obtenerProximoEarnings("spy");
+
+        assertThat(primero.getDaysUntilEarnings()).isEqualTo(-1L);
+        assertThat(segundo.getDaysUntilEarnings()).isEqualTo(-1L);
+        verify(gateway, times(1)).getEarningsReports(eq("SPY"), anyString());
+    }
+
+    @Test
+    void elBatchReutilizaElVacioCacheado() {
+        GestionarEarningsCUAdapter cu = new GestionarEarningsCUAdapter(gateway, 4, Duration.ofHours(1));
+        when(gateway.getEarningsReports(eq("SPY"), anyString())).thenReturn(List.of());
+
+        cu.obtenerProximoEarnings("SPY");
+        Map<String, EarningsReport> batch = cu.obtenerProximosEarnings(List.of("SPY"));
+
+        assertThat(batch.get("SPY").getDaysUntilEarnings()).isEqualTo(-1L);
+        verify(gateway, times(1)).getEarningsReports(eq("SPY"), anyString());
+    }
+
+    @Test
+    void vencidoElTtlSeVuelveAConsultar() {
+        GestionarEarningsCUAdapter cu = new GestionarEarningsCUAdapter(gateway, 4, Duration.ZERO);
+        when(gateway.getEarningsReports(eq("SPY"), anyString())).thenReturn(List.of());
+
+        cu.obtenerProximoEarnings("SPY");
+        cu.obtenerProximoEarnings("SPY");
+
+        verify(gateway, times(2)).getEarningsReports(eq("SPY"), anyString());
+    }
+
+    @Test
+    void unFalloNoSeCacheaComoSinReportes() {
+        GestionarEarningsCUAdapter cu = new GestionarEarningsCUAdapter(gateway, 4, Duration.ofHours(1));
+        when(gateway.getEarningsReports(eq("AAPL"), anyString()))
+                .thenThrow(new RuntimeException("timeout"))
+                .thenReturn(List.of());
+
+        EarningsReport fallido = cu.obtenerProximoEarnings("AAPL");
+        cu.obtenerProximosEarnings(List.of("AAPL"));
+
+        assertThat(fallido.getDaysUntilEarnings()).isEqualTo(-1L);
+        verify(gateway, times(2)).getEarningsReports(eq("AAPL"), anyString());
+    }
+}
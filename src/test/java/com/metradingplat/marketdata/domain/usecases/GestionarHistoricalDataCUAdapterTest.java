@@ -0,0 +1,85 @@
+package com.metradingplat.marketdata.domain.usecases;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.metradingplat.marketdata.application.output.GestionarComunicacionExternalGatewayIntPort;
+import com.metradingplat.marketdata.domain.enums.EnumTimeframe;
+import com.metradingplat.marketdata.domain.models.Candle;
+
+/**
+ * Cursor incremental {@code since} sobre las barras completas.
+ */
+class GestionarHistoricalDataCUAdapterTest {
+
+    private static final Instant INICIO = Instant.parse("2025-01-15T14:30:00Z");
+
+    private final GestionarComunicacionExternalGatewayIntPort gateway = mock(
+            GestionarComunicacionExternalGatewayIntPort.class);
+    private final GestionarHistoricalDataCUAdapter cu = new GestionarHistoricalDataCUAdapter(gateway);
+
+    @Test
+    void sinCursorDevuelveTodasLasBarras() {
+        when(gateway.getCandles("AAPL", EnumTimeframe.M1)).thenReturn(barras(5));
+
+        assertThat(timestamps(cu.getCandles("AAPL", EnumTimeframe.M1, null, null, null))).containsExactly(0, 1, 2, 3, 4);
+    }
+
+    @Test
+    void elCursorIncluyeLaBarraDelCursor() {
+        when(gateway.getCandles("AAPL", EnumTimeframe.M1)).thenReturn(barras(5));
+
+        assertThat(timestamps(cu.getCandles("AAPL", EnumTimeframe.M1, null, null, minuto(3)))).containsExactly(3, 4);
+    }
+
+    @Test
+    void elCursorEntreBarrasEmpiezaEnLaSiguiente() {
+        when(gateway.getCandles("AAPL", EnumTimeframe.M1)).thenReturn(barras(5));
+
+        OffsetDateTime entreBarras = minuto(1).plusSeconds(30);
+        assertThat(timestamps(cu.getCandles("AAPL", EnumTimeframe.M1, null, null, entreBarras))).containsExactly(2, 3, 4);
+    }
+
+    @Test
+    void cursorPosteriorALaUltimaBarraNoDevuelveNada() {
+        when(gateway.getCandles("AAPL", EnumTimeframe.M1)).thenReturn(barras(5));
+
+        assertThat(cu.getCandles("AAPL", EnumTimeframe.M1, null, null, minuto(10))).isEmpty();
+    }
+
+    @Test
+    void elCursorSeAplicaDespuesDeBars() {
+        when(gateway.getCandles("AAPL", EnumTimeframe.M1)).thenReturn(barras(5));
+
+        assertThat(timestamps(cu.getCandles("AAPL", EnumTimeframe.M1, null, 2, minuto(0)))).containsExactly(3, 4);
+    }
+
+    private static List<Candle> barras(int n) {
+        return IntStream.range(0, n)
+                .mapToObj(i -> Candle.builder()
+                        .symbol("AAPL")
+                        .timeframe(EnumTimeframe.M1)
+                        .timestamp(INICIO.plusSeconds(60L * i))
+                        .open(100.0).high(101.0).low(99.0).close(100.5).volume(1000.0)
+                        .build())
+                .toList();
+    }
+
+    private static OffsetDateTime minuto(int i) {
+        return INICIO.plusSeconds(60L * i).atOffset(ZoneOffset.UTC);
+    }
+
+    private static List<Integer> timestamps(List<Candle> candles) {
+        return candles.stream().map(c -> (int) ((c.getTimestamp().getEpochSecond() - INICIO.getEpochSecond()) / 60))
+                .toList();
+    }
+}
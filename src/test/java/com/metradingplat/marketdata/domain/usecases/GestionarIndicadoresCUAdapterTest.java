@@ -0,0 +1,84 @@
+package com.metradingplat.marketdata.domain.usecases;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.metradingplat.marketdata.application.output.GestionarComunicacionExternalGatewayIntPort;
+import com.metradingplat.marketdata.domain.enums.EnumTimeframe;
+import com.metradingplat.marketdata.domain.indicadores.IndicadorSpec;
+import com.metradingplat.marketdata.domain.models.Candle;
+
+/**
+ * Series en memoria: se reutilizan mientras se consultan y se descartan al
+ * quedar inactivas.
+ */
+class GestionarIndicadoresCUAdapterTest {
+
+    private static final List<IndicadorSpec> SMA = List.of(IndicadorSpec.parse("SMA(2)"));
+
+    private final GestionarComunicacionExternalGatewayIntPort gateway = mock(
+            GestionarComunicacionExternalGatewayIntPort.class);
+
+    @Test
+    void laSerieAlDiaSeReutiliza() {
+        GestionarIndicadoresCUAdapter cu = new GestionarIndicadoresCUAdapter(gateway, 10, 200, 2000, 3_600_000,
+                100);
+        when(gateway.getCandlesBatch(anyList(), any(), anyInt())).thenReturn(Map.of("AAPL", barrasHastaAhora(5)));
+
+        cu.calcularIndicadores(List.of("AAPL"), EnumTimeframe.M1, SMA);
+        cu.calcularIndicadores(List.of("AAPL"), EnumTimeframe.M1, SMA);
+
+        verify(gateway, times(1)).getCandlesBatch(anyList(), any(), anyInt());
+    }
+
+    @Test
+    void laSerieInactivaSeDescartaYSeVuelveASembrar() {
+        GestionarIndicadoresCUAdapter cu = new GestionarIndicadoresCUAdapter(gateway, 10, 200, 2000, 0, 100);
+        when(gateway.getCandlesBatch(anyList(), any(), anyInt())).thenReturn(Map.of("AAPL", barrasHastaAhora(5)));
+
+        assertThat(cu.calcularIndicadores(List.of("AAPL"), EnumTimeframe.M1, SMA)).containsKey("AAPL");
+        assertThat(cu.calcularIndicadores(List.of("AAPL"), EnumTimeframe.M1, SMA)).containsKey("AAPL");
+
+        verify(gateway, times(2)).getCandlesBatch(anyList(), any(), anyInt());
+    }
+
+    @Test
+    void sinIndicadoresFalla() {
+        GestionarIndicadoresCUAdapter cu = new GestionarIndicadoresCUAdapter(gateway, 10, 200, 2000, 3_600_000,
+                100);
+
+        assertThatThrownBy(() -> cu.calcularIndicadores(List.of("AAPL"), EnumTimeframe.M1, List.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("al menos un indicador");
+    }
+
+    // Barras M1 cerradas; la ultima es la del minuto anterior al actual
+    private static List<Candle> barrasHastaAhora(int cantidad) {
+        Instant actual = Instant.now().truncatedTo(ChronoUnit.MINUTES);
+        List<Candle> barras = new ArrayList<>();
+        for (int i = cantidad; i >= 1; i--) {
+            barras.add(Candle.builder()
+                    .symbol("AAPL")
+                    .timeframe(EnumTimeframe.M1)
+                    .timestamp(actual.minus(i, ChronoUnit.MINUTES))
+                    .open(100.0).high(101.0).low(99.0).close(100.0 + i).volume(1000.0)
+                    .build());
+        }
+        return barras;
+    }
+}
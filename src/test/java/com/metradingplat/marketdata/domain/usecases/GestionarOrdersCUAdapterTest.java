@@ -0,0 +1,63 @@
+package com.metradingplat.marketdata.domain.usecases;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.metradingplat.marketdata.application.output.GestionarChangeNotificationsProducerIntPort;
+import com.metradingplat.marketdata.application.output.GestionarComunicacionExternalGatewayIntPort;
+import com.metradingplat.marketdata.domain.models.OrderRequest;
+import com.metradingplat.marketdata.domain.models.OrderResponse;
+import com.metradingplat.marketdata.infrastructure.output.exceptionsController.ownExceptions.ReglaNegocioException;
+import com.metradingplat.marketdata.infrastructure.output.kafka.DTO.OrderUpdateDTO;
+
+/**
+ * Resultado publicado segun como termino el envio: un rechazo del broker no es
+ * lo mismo que un timeout con la orden posiblemente aceptada.
+ */
+class GestionarOrdersCUAdapterTest {
+
+    private final GestionarComunicacionExternalGatewayIntPort gateway = mock(
+            GestionarComunicacionExternalGatewayIntPort.class);
+    private final GestionarChangeNotificationsProducerIntPort notificaciones = mock(
+            GestionarChangeNotificationsProducerIntPort.class);
+    private final GestionarOrdersCUAdapter cu = new GestionarOrdersCUAdapter(gateway, notificaciones);
+
+    @Test
+    void ordenAceptadaSePublicaComoPlaced() {
+        when(gateway.sendOrder(any())).thenReturn(OrderResponse.builder().orderId("42").status("Received").build());
+
+        assertThat(publicado().getStatus()).isEqualTo("PLACED");
+    }
+
+    @Test
+    void rechazoDelBrokerSePublicaComoRejected() {
+        when(gateway.sendOrder(any())).thenThrow(new ReglaNegocioException("Order rejected: 422"));
+
+        assertThat(publicado().getStatus()).isEqualTo("REJECTED");
+    }
+
+    @Test
+    void timeoutSePublicaComoUnknown() {
+        when(gateway.sendOrder(any())).thenThrow(new RuntimeException("Order submission failed: Read timed out"));
+
+        OrderUpdateDTO update = publicado();
+        assertThat(update.getStatus()).isEqualTo("UNKNOWN");
+        assertThat(update.getMessage()).contains("timed out");
+    }
+
+    private OrderUpdateDTO publicado() {
+        when(notificaciones.publishOrderUpdate(any())).thenReturn(CompletableFuture.completedFuture(null));
+        cu.placeBracketOrder(OrderRequest.builder().symbol("AAPL").build());
+        ArgumentCaptor<OrderUpdateDTO> captor = ArgumentCaptor.forClass(OrderUpdateDTO.class);
+        verify(notificaciones).publishOrderUpdate(captor.capture());
+        return captor.getValue();
+    }
+}
@@ -0,0 +1,65 @@
+package com.metradingplat.marketdata.domain.usecases;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.metradingplat.marketdata.application.input.GestionarIndicadoresCUIntPort;
+import com.metradingplat.marketdata.application.input.GestionarMercadosCUIntPort;
+import com.metradingplat.marketdata.application.output.GestionarComunicacionExternalGatewayIntPort;
+import com.metradingplat.marketdata.domain.enums.EnumTimeframe;
+import com.metradingplat.marketdata.domain.models.ActiveEquity;
+import com.metradingplat.marketdata.domain.models.Candle;
+import com.metradingplat.marketdata.domain.models.ResultadoScreener;
+
+/**
+ * Expresiones sin indicadores: se evaluan sobre la ultima barra cerrada.
+ */
+class GestionarScreenerCUAdapterTest {
+
+    private final GestionarMercadosCUIntPort mercados = mock(GestionarMercadosCUIntPort.class);
+    private final GestionarIndicadoresCUIntPort indicadores = mock(GestionarIndicadoresCUIntPort.class);
+    private final GestionarComunicacionExternalGatewayIntPort gateway = mock(
+            GestionarComunicacionExternalGatewayIntPort.class);
+    private final GestionarScreenerCUAdapter cu = new GestionarScreenerCUAdapter(mercados, indicadores, gateway,
+            100);
+
+    @Test
+    void sinIndicadoresUsaLaUltimaBarraCerradaSinElMotorDeIndicadores() {
+        when(mercados.obtenerSimbolosPorMercados(List.of())).thenReturn(List.of(equity("AAPL"), equity("MSFT")));
+        Instant actual = Instant.now().truncatedTo(ChronoUnit.MINUTES);
+        when(gateway.getCandlesBatch(anyList(), eq(EnumTimeframe.M1), eq(2))).thenReturn(Map.of(
+                // La barra en formacion (close 50) no cuenta
+                "AAPL", List.of(barra("AAPL", actual.minus(1, ChronoUnit.MINUTES), 150.0), barra("AAPL", actual, 50.0)),
+                "MSFT", List.of(barra("MSFT", actual.minus(1, ChronoUnit.MINUTES), 90.0))));
+
+        ResultadoScreener resultado = cu.filtrar("close > 100", List.of(), EnumTimeframe.M1);
+
+        assertThat(resultado.getSymbols()).containsExactly("AAPL");
+        assertThat(resultado.getEvaluados()).isEqualTo(2);
+        verifyNoInteractions(indicadores);
+    }
+
+    private static ActiveEquity equity(String symbol) {
+        return ActiveEquity.builder().symbol(symbol).build();
+    }
+
+    private static Candle barra(String symbol, Instant timestamp, double close) {
+        return Candle.builder()
+                .symbol(symbol)
+                .timeframe(EnumTimeframe.M1)
+                .timestamp(timestamp)
+                .open(close).high(close).low(close).close(close).volume(1000.0)
+                .build();
+    }
+}
@@ -0,0 +1,89 @@
+package com.metradingplat.marketdata.infrastructure.input.controllerGestionarHistoricalData.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.metradingplat.marketdata.application.input.GestionarHistoricalDataCUIntPort;
+import com.metradingplat.marketdata.domain.enums.EnumTimeframe;
+import com.metradingplat.marketdata.domain.models.Candle;
+import com.metradingplat.marketdata.infrastructure.input.controllerGestionarHistoricalData.mapper.HistoricalDataMapper;
+
+/**
+ * ETag / If-None-Match de {@code GET /historical/{symbol}}.
+ */
+class HistoricalDataRestControllerTest {
+
+    private static final Instant ULTIMA = Instant.parse("2025-01-15T14:31:00Z");
+
+    private final GestionarHistoricalDataCUIntPort cu = mock(GestionarHistoricalDataCUIntPort.class);
+    private final MockMvc mockMvc = MockMvcBuilders
+            .standaloneSetup(new HistoricalDataRestController(cu, Mappers.getMapper(HistoricalDataMapper.class)))
+            .build();
+
+    @Test
+    void mismaSerieResponde304SinCuerpo() throws Exception {
+        devolver(100.5);
+        String etag = etag();
+
+        mockMvc.perform(get("/api/marketdata/historical/AAPL").param("timeframe", "M1")
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void correccionDeLaUltimaBarraCambiaElETag() throws Exception {
+        devolver(100.5);
+        String etag = etag();
+
+        // Misma barra (mismo timestamp) corregida en su lugar
+        devolver(100.7);
+        mockMvc.perform(get("/api/marketdata/historical/AAPL").param("timeframe", "M1")
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+        assertThat(etag()).isNotEqualTo(etag);
+    }
+
+    @Test
+    void ifNoneMatchDistintoDevuelveLaSerie() throws Exception {
+        devolver(100.5);
+
+        mockMvc.perform(get("/api/marketdata/historical/AAPL").param("timeframe", "M1")
+                .header(HttpHeaders.IF_NONE_MATCH, "W/\"M1-0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG));
+    }
+
+    private void devolver(double close) {
+        when(cu.getCandles(eq("AAPL"), eq(EnumTimeframe.M1), any(), any(), any())).thenReturn(List.of(
+                Candle.builder().symbol("AAPL").timeframe(EnumTimeframe.M1).timestamp(ULTIMA.minusSeconds(60))
+                        .open(100.0).high(101.0).low(99.0).close(100.2).volume(900.0).build(),
+                Candle.builder().symbol("AAPL").timeframe(EnumTimeframe.M1).timestamp(ULTIMA)
+                        .open(100.2).high(101.0).low(99.5).close(close).volume(1000.0).build()));
+    }
+
+    private String etag() throws Exception {
+        String etag = mockMvc.perform(get("/api/marketdata/historical/AAPL").param("timeframe", "M1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("W/\"M1-");
+        return etag;
+    }
+}
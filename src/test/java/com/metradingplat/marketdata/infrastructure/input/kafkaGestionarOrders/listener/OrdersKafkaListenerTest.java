@@ -0,0 +1,161 @@
+package com.metradingplat.marketdata.infrastructure.input.kafkaGestionarOrders.listener;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+
+import com.metradingplat.marketdata.application.input.GestionarOrdersCUIntPort;
+import com.metradingplat.marketdata.domain.enums.EnumOrderAction;
+import com.metradingplat.marketdata.domain.models.BracketOrder;
+import com.metradingplat.marketdata.domain.models.OrderRequest;
+import com.metradingplat.marketdata.domain.models.OrderResponse;
+import com.metradingplat.marketdata.infrastructure.configuration.OrderPipelineProperties;
+import com.metradingplat.marketdata.infrastructure.input.kafkaGestionarOrders.DTOPetition.OrderRequestDTO;
+import com.metradingplat.marketdata.infrastructure.input.kafkaGestionarOrders.mappers.OrdersKafkaMapper;
+import com.metradingplat.marketdata.infrastructure.input.kafkaGestionarOrders.pipeline.OrderExecutionPipeline;
+
+/**
+ * Una orden ya enviada nunca se reentrega, aunque su resultado no se haya
+ * podido publicar.
+ */
+class OrdersKafkaListenerTest {
+
+    private final OrderPipelineProperties properties = new OrderPipelineProperties();
+    private final OrdenesSimuladas ordenes = new OrdenesSimuladas();
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, Object> kafkaTemplate = mock(KafkaTemplate.class);
+    private final Acknowledgment ack = mock(Acknowledgment.class);
+
+    private OrderExecutionPipeline pipeline;
+
+    @AfterEach
+    void cerrar() {
+        if (pipeline != null)
+            pipeline.shutdown();
+    }
+
+    @Test
+    void unaOrdenSinResultadoVaAlDeadLetterYElLoteSeConfirma() {
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+        ordenes.fallar("TSLA");
+
+        listener().recibirComandosOrden(List.of(orden("AAPL"), orden("TSLA"), orden("MSFT")), ack);
+
+        verify(ack).acknowledge();
+        verify(ack, never()).nack(anyInt(), any(Duration.class));
+        assertThat(ordenes.enviadas).containsOnlyKeys("AAPL", "TSLA", "MSFT");
+        assertThat(ordenes.enviadas.values()).allMatch(n -> n.get() == 1);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<ProducerRecord<String, Object>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate).send(captor.capture());
+        ProducerRecord<String, Object> registro = captor.getValue();
+        assertThat(registro.topic()).isEqualTo("order-requests.DLT");
+        assertThat(registro.key()).isEqualTo("TSLA");
+        assertThat(registro.value()).isEqualTo(orden("TSLA"));
+        assertThat(new String(registro.headers().lastHeader(KafkaHeaders.DLT_EXCEPTION_MESSAGE).value(),
+                StandardCharsets.UTF_8)).isEqualTo("orders.updates no disponible");
+    }
+
+    @Test
+    void siElDeadLetterTambienFallaElLoteSeConfirmaIgual() {
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker caido")));
+        ordenes.fallar("AAPL");
+
+        listener().recibirComandosOrden(List.of(orden("AAPL"), orden("AAPL")), ack);
+
+        verify(ack).acknowledge();
+        assertThat(ordenes.enviadas.get("AAPL")).hasValue(2);
+    }
+
+    @Test
+    void alInterrumpirseSoloSeReentreganLasNoEnviadas() throws Exception {
+        properties.setMaxInFlight(1);
+        CompletableFuture<Void> primera = new CompletableFuture<>();
+        ordenes.pendiente("AAPL", primera);
+        OrdersKafkaListener listener = listener();
+
+        Thread consumidor = Thread.ofPlatform().start(
+                () -> listener.recibirComandosOrden(List.of(orden("AAPL"), orden("MSFT"), orden("NVDA")), ack));
+        assertThat(ordenes.primeraEnviada.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // El consumidor espera capacidad para MSFT: se interrumpe (ej. apagado)
+        consumidor.interrupt();
+        primera.complete(null);
+        consumidor.join(5000);
+
+        verify(ack).nack(1, Duration.ZERO);
+        verify(ack, never()).acknowledge();
+        assertThat(ordenes.enviadas).containsOnlyKeys("AAPL");
+    }
+
+    private OrdersKafkaListener listener() {
+        pipeline = new OrderExecutionPipeline(properties);
+        return new OrdersKafkaListener(ordenes, Mappers.getMapper(OrdersKafkaMapper.class), pipeline, kafkaTemplate,
+                properties);
+    }
+
+    private static OrderRequestDTO orden(String symbol) {
+        return OrderRequestDTO.builder().symbol(symbol).action(EnumOrderAction.BUY_TO_OPEN).quantity(10).build();
+    }
+
+    /**
+     * Caso de uso que cuenta los envios por simbolo; el resultado de los simbolos
+     * marcados no se puede publicar.
+     */
+    private static final class OrdenesSimuladas implements GestionarOrdersCUIntPort {
+
+        private final Map<String, AtomicInteger> enviadas = new ConcurrentHashMap<>();
+        private final Map<String, CompletableFuture<Void>> resultados = new ConcurrentHashMap<>();
+        private final CountDownLatch primeraEnviada = new CountDownLatch(1);
+
+        void fallar(String symbol) {
+            resultados.put(symbol, CompletableFuture.failedFuture(new IllegalStateException("orders.updates no disponible")));
+        }
+
+        void pendiente(String symbol, CompletableFuture<Void> resultado) {
+            resultados.put(symbol, resultado);
+        }
+
+        @Override
+        public CompletableFuture<Void> placeBracketOrder(OrderRequest request) {
+            enviadas.computeIfAbsent(request.getSymbol(), k -> new AtomicInteger()).incrementAndGet();
+            primeraEnviada.countDown();
+            return resultados.getOrDefault(request.getSymbol(), CompletableFuture.completedFuture(null));
+        }
+
+        @Override
+        public OrderResponse placeBracketOrderWithResponse(BracketOrder order) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void cancelOrder(String orderId) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.metradingplat.marketdata.infrastructure.input.kafkaGestionarRealTime.listener;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import com.metradingplat.marketdata.application.input.GestionarRealTimeCUIntPort;
+import com.metradingplat.marketdata.infrastructure.configuration.ShardingProperties;
+import com.metradingplat.marketdata.infrastructure.input.kafkaGestionarRealTime.DTOPetition.RealTimeRequestDTO;
+import com.metradingplat.marketdata.infrastructure.input.kafkaGestionarRealTime.sharding.SymbolOwnership;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Dos replicas en el mismo grupo de duenos sobre un broker embebido: cada una
+ * suscribe un subconjunto disjunto de simbolos y, al salir una, la otra
+ * recupera sus particiones releyendo el topic compactado. La config declara
+ * mas particiones que el topic real: el reparto tiene que salir de la metadata
+ * del topic, y un tombstone suelta el simbolo.
+ */
+@EmbeddedKafka(partitions = OwnedCommandsKafkaListenerTest.PARTICIONES, topics = OwnedCommandsKafkaListenerTest.TOPIC)
+class OwnedCommandsKafkaListenerTest {
+
+    static final int PARTICIONES = 4;
+    static final int PARTICIONES_CONFIGURADAS = 12;
+    static final String TOPIC = "marketdata.commands.owned";
+
+    private static final Duration ESPERA = Duration.ofSeconds(60);
+
+    @Test
+    void reparteSimbolosEntreReplicasYRebalancea(EmbeddedKafkaBroker broker) {
+        Set<String> simbolos = new HashSet<>(IntStream.range(0, 40).mapToObj(i -> "SYM" + i).toList());
+        publicar(broker, simbolos, true);
+        publicar(broker, Set.of("SYM0"), false);
+        simbolos.remove("SYM0");
+
+        try (Replica a = new Replica(broker, "a")) {
+            await().atMost(ESPERA).untilAsserted(() -> assertThat(a.activos()).isEqualTo(simbolos));
+
+            try (Replica b = new Replica(broker, "b")) {
+                await().atMost(ESPERA).untilAsserted(() -> {
+                    assertThat(b.activos()).isNotEmpty();
+                    assertThat(a.activos()).doesNotContainAnyElementsOf(b.activos());
+                    Set<String> union = new HashSet<>(a.activos());
+                    union.addAll(b.activos());
+                    assertThat(union).isEqualTo(simbolos);
+                });
+                for (String symbol : a.activos()) {
+                    assertThat(a.ownership().esPropio(symbol)).isTrue();
+                    assertThat(b.ownership().esPropio(symbol)).isFalse();
+                }
+            }
+
+            await().atMost(ESPERA).untilAsserted(() -> assertThat(a.activos()).isEqualTo(simbolos));
+        }
+    }
+
+    private static void publicar(EmbeddedKafkaBroker broker, Set<String> simbolos, boolean subscribe) {
+        DefaultKafkaProducerFactory<String, Object> factory = new DefaultKafkaProducerFactory<>(
+                KafkaTestUtils.producerProps(broker), new StringSerializer(), new JsonSerializer<>());
+        KafkaTemplate<String, Object> template = new KafkaTemplate<>(factory);
+        for (String symbol : simbolos) {
+            template.send(TOPIC, symbol,
+                    subscribe ? RealTimeRequestDTO.builder().action("SUBSCRIBE").symbol(symbol).build() : null);
+        }
+        template.flush();
+        factory.destroy();
+    }
+
+    /**
+     * Una replica del servicio reducida al consumidor de duenos.
+     */
+    private static final class Replica implements AutoCloseable {
+
+        private final AnnotationConfigApplicationContext contexto = new AnnotationConfigApplicationContext();
+
+        Replica(EmbeddedKafkaBroker broker, String instanceId) {
+            contexto.getEnvironment().getPropertySources().addFirst(new MapPropertySource("replica", Map.of(
+                    "spring.embedded.kafka.brokers", broker.getBrokersAsString(),
+                    "marketdata.sharding.instance-id", instanceId)));
+            contexto.register(ReplicaConfig.class);
+            contexto.refresh();
+        }
+
+        Set<String> activos() {
+            return Set.copyOf(contexto.getBean(RegistroSuscripciones.class).activos);
+        }
+
+        SymbolOwnership ownership() {
+            return contexto.getBean(SymbolOwnership.class);
+        }
+
+        @Override
+        public void close() {
+            contexto.close();
+        }
+    }
+
+    @Configuration
+    @EnableKafka
+    static class ReplicaConfig {
+
+        @Bean
+        static PropertySourcesPlaceholderConfigurer placeholders() {
+            return new PropertySourcesPlaceholderConfigurer();
+        }
+
+        @Bean
+        ShardingProperties shardingProperties(Environment env) {
+            ShardingProperties properties = new ShardingProperties();
+            properties.setOwnedTopic(TOPIC);
+            properties.setPartitions(PARTICIONES_CONFIGURADAS);
+            properties.setInstanceId(env.getProperty("marketdata.sharding.instance-id"));
+            return properties;
+        }
+
+        @Bean
+        KafkaAdmin kafkaAdmin(Environment env) {
+            return new KafkaAdmin(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG,
+                    env.getProperty("spring.embedded.kafka.brokers")));
+        }
+
+        @Bean
+        SymbolOwnership symbolOwnership(ShardingProperties properties, KafkaAdmin kafkaAdmin) {
+            return new SymbolOwnership(properties, kafkaAdmin, new SimpleMeterRegistry());
+        }
+
+        @Bean
+        RegistroSuscripciones registroSuscripciones() {
+            return new RegistroSuscripciones();
+        }
+
+        @Bean
+        OwnedCommandsKafkaListener ownedCommandsKafkaListener(RegistroSuscripciones registro,
+                SymbolOwnership ownership) {
+            return new OwnedCommandsKafkaListener(registro, ownership);
+        }
+
+        @Bean
+        ConcurrentKafkaListenerContainerFactory<String, RealTimeRequestDTO> kafkaListenerContainerFactory(
+                Environment env) {
+            Map<String, Object> props = new HashMap<>();
+            props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, env.getProperty("spring.embedded.kafka.brokers"));
+            props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+            ConcurrentKafkaListenerContainerFactory<String, RealTimeRequestDTO> factory = new ConcurrentKafkaListenerContainerFactory<>();
+            factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(),
+                    new JsonDeserializer<>(RealTimeRequestDTO.class, false)));
+            return factory;
+        }
+    }
+
+    /**
+     * Suscripciones que la replica mandaria a DxLink.
+     */
+    static final class RegistroSuscripciones implements GestionarRealTimeCUIntPort {
+
+        private final Set<String> activos = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public void subscribeToSymbol(String symbol) {
+            activos.add(symbol);
+        }
+
+        @Override
+        public void unsubscribeFromSymbol(String symbol) {
+            activos.remove(symbol);
+        }
+
+        @Override
+        public void subscribeToSymbols(List<String> symbols) {
+            activos.addAll(symbols);
+        }
+
+        @Override
+        public void unsubscribeFromSymbols(List<String> symbols) {
+            activos.removeAll(symbols);
+        }
+    }
+}
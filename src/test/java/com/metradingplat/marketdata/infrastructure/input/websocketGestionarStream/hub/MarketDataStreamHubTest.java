@@ -0,0 +1,146 @@
+package com.metradingplat.marketdata.infrastructure.input.websocketGestionarStream.hub;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.metradingplat.marketdata.infrastructure.configuration.WebSocketStreamProperties;
+import com.metradingplat.marketdata.infrastructure.output.external.tastytrade.TastyTradeService;
+import com.metradingplat.marketdata.infrastructure.output.kafka.DTO.MarketDataStreamDTO;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Orden snapshot/deltas por conexion y conteo de referencias upstream.
+ */
+class MarketDataStreamHubTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final TastyTradeService tastyTradeService = mock(TastyTradeService.class);
+    private final WebSocketStreamProperties properties = new WebSocketStreamProperties();
+    private final MarketDataStreamHub hub = new MarketDataStreamHub(tastyTradeService, properties, objectMapper,
+            new SimpleMeterRegistry());
+
+    @AfterEach
+    void cerrar() {
+        hub.shutdown();
+    }
+
+    @Test
+    void elSnapshotLlegaAntesQueLosDeltas() throws Exception {
+        List<Map<String, Object>> recibidos = conectar("s1");
+        hub.onMarketData(quote("AAPL", 235.45, 235.55));
+
+        hub.suscribir("s1", List.of("aapl"));
+        hub.onMarketData(quote("AAPL", 235.46, 235.55));
+        hub.flushAll();
+
+        assertThat(recibidos).hasSize(2);
+        assertThat(recibidos.get(0)).containsEntry("type", "snapshot");
+        assertThat(updates(recibidos.get(0))).singleElement()
+                .satisfies(u -> assertThat(u).containsEntry("symbol", "AAPL").containsEntry("bid", 235.45));
+        assertThat(recibidos.get(1)).containsEntry("type", "delta");
+        assertThat(updates(recibidos.get(1))).singleElement()
+                .satisfies(u -> assertThat(u).containsEntry("bid", 235.46).doesNotContainKey("ask"));
+    }
+
+    @Test
+    void trasDesuscribirNoLleganDeltas() throws Exception {
+        List<Map<String, Object>> recibidos = conectar("s1");
+
+        hub.suscribir("s1", List.of("AAPL"));
+        hub.onMarketData(quote("AAPL", 235.45, 235.55));
+        hub.desuscribir("s1", List.of("AAPL"));
+        hub.flushAll();
+
+        assertThat(recibidos).singleElement().satisfies(m -> assertThat(m).containsEntry("type", "snapshot"));
+    }
+
+    @Test
+    void elPrimeroAdquiereYElUltimoLibera() throws Exception {
+        conectar("s1");
+        conectar("s2");
+
+        hub.suscribir("s1", List.of("AAPL"));
+        hub.suscribir("s2", List.of("AAPL"));
+        hub.desuscribir("s1", List.of("AAPL"));
+        verify(tastyTradeService, timeout(2000)).acquireStream("AAPL");
+        verify(tastyTradeService, never()).releaseStream("AAPL");
+
+        hub.eliminar("s2");
+        InOrder orden = inOrder(tastyTradeService);
+        orden.verify(tastyTradeService, timeout(2000)).acquireStream("AAPL");
+        orden.verify(tastyTradeService, timeout(2000)).releaseStream("AAPL");
+        verify(tastyTradeService, times(1)).acquireStream("AAPL");
+    }
+
+    @Test
+    void laSuscripcionNoEsperaLaConexionUpstream() throws Exception {
+        CountDownLatch conectado = new CountDownLatch(1);
+        doAnswer(invocation -> conectado.await(5, TimeUnit.SECONDS)).when(tastyTradeService)
+                .acquireStream("AAPL");
+        List<Map<String, Object>> recibidos = conectar("s1");
+
+        hub.suscribir("s1", List.of("AAPL"));
+        assertThat(recibidos).singleElement().satisfies(m -> assertThat(m).containsEntry("type", "snapshot"));
+
+        // La liberacion espera a la adquisicion en curso
+        hub.desuscribir("s1", List.of("AAPL"));
+        verify(tastyTradeService, never()).releaseStream("AAPL");
+        conectado.countDown();
+        verify(tastyTradeService, timeout(2000)).releaseStream("AAPL");
+    }
+
+    @Test
+    void rechazaMasSimbolosQueElMaximo() throws Exception {
+        properties.setMaxSymbolsPerSession(1);
+        List<Map<String, Object>> recibidos = conectar("s1");
+
+        hub.suscribir("s1", List.of("AAPL", "MSFT"));
+
+        assertThat(recibidos).singleElement().satisfies(m -> assertThat(m).containsEntry("type", "error"));
+        verify(tastyTradeService, never()).acquireStream(any());
+    }
+
+    private List<Map<String, Object>> conectar(String id) throws Exception {
+        List<Map<String, Object>> recibidos = new CopyOnWriteArrayList<>();
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        when(session.isOpen()).thenReturn(true);
+        doAnswer(invocation -> recibidos.add(objectMapper.readValue(
+                invocation.<TextMessage>getArgument(0).getPayload(), new TypeReference<Map<String, Object>>() {
+                }))).when(session).sendMessage(any());
+        hub.registrar(session);
+        return recibidos;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> updates(Map<String, Object> mensaje) {
+        return (List<Map<String, Object>>) mensaje.get("updates");
+    }
+
+    private static MarketDataStreamDTO quote(String symbol, double bid, double ask) {
+        return MarketDataStreamDTO.builder().symbol(symbol).bid(bid).ask(ask).build();
+    }
+}
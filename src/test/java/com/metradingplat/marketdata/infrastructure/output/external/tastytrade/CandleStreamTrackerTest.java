@@ -0,0 +1,95 @@
+package com.metradingplat.marketdata.infrastructure.output.external.tastytrade;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.metradingplat.marketdata.application.output.GestionarChangeNotificationsProducerIntPort;
+import com.metradingplat.marketdata.domain.enums.EnumTimeframe;
+import com.metradingplat.marketdata.domain.models.Candle;
+import com.metradingplat.marketdata.infrastructure.configuration.CandleStreamProperties;
+import com.metradingplat.marketdata.infrastructure.output.kafka.DTO.CandleStreamDTO;
+
+/**
+ * Relleno del hueco de barras tras una caida de DxLink.
+ */
+class CandleStreamTrackerTest {
+
+    // Minuto en curso: la barra que aun esta abierta
+    private final Instant actual = Instant.now().truncatedTo(ChronoUnit.MINUTES);
+
+    private final GestionarChangeNotificationsProducerIntPort kafkaProducer = mock(
+            GestionarChangeNotificationsProducerIntPort.class);
+    private final CandleStreamTracker tracker = new CandleStreamTracker(kafkaProducer, new CandleStreamProperties());
+
+    @Test
+    void publicaCerradasLasBarrasDelHuecoYDejaLaAbierta() {
+        List<Candle> cerradas = new ArrayList<>();
+        tracker.addCierreListener(cerradas::add);
+
+        int publicadas = tracker.rellenarHueco("AAPL", EnumTimeframe.M1, List.of(barra(-3), barra(-2), barra(-1),
+                barra(0)));
+
+        assertThat(publicadas).isEqualTo(3);
+        assertThat(publicadas()).allMatch(CandleStreamDTO::isClosed)
+                .extracting(CandleStreamDTO::getTimestamp)
+                .containsExactly(minuto(-3), minuto(-2), minuto(-1));
+        assertThat(cerradas).hasSize(3);
+    }
+
+    @Test
+    void noRepiteBarrasYaPublicadas() {
+        tracker.onCandle("AAPL", barra(-3));
+        tracker.onCandle("AAPL", barra(-2)); // Cierra la de -3
+        clearInvocations(kafkaProducer);
+
+        int publicadas = tracker.rellenarHueco("AAPL", EnumTimeframe.M1, List.of(barra(-3), barra(-2), barra(-1)));
+
+        assertThat(publicadas).isEqualTo(2);
+        assertThat(publicadas()).extracting(CandleStreamDTO::getTimestamp).containsExactly(minuto(-2), minuto(-1));
+    }
+
+    @Test
+    void laBarraRecuperadaReemplazaALaQueSeFormabaAntesDeLaCaida() {
+        tracker.onCandle("AAPL", barra(-2));
+        clearInvocations(kafkaProducer);
+
+        tracker.rellenarHueco("AAPL", EnumTimeframe.M1, List.of(barra(-2), barra(-1)));
+        assertThat(tracker.ultimaBarra("AAPL", EnumTimeframe.M1)).isEqualTo(minuto(-1).toEpochMilli());
+        clearInvocations(kafkaProducer);
+
+        // Una actualizacion tardia de la barra ya rellenada se ignora
+        tracker.onCandle("AAPL", barra(-2));
+        verifyNoInteractions(kafkaProducer);
+    }
+
+    private List<CandleStreamDTO> publicadas() {
+        ArgumentCaptor<CandleStreamDTO> captor = ArgumentCaptor.forClass(CandleStreamDTO.class);
+        verify(kafkaProducer, atLeast(0)).publishCandle(captor.capture());
+        return captor.getAllValues();
+    }
+
+    private Candle barra(int minutos) {
+        return Candle.builder()
+                .symbol("AAPL")
+                .timeframe(EnumTimeframe.M1)
+                .timestamp(minuto(minutos))
+                .open(100.0).high(101.0).low(99.0).close(100.5).volume(1000.0)
+                .build();
+    }
+
+    private Instant minuto(int minutos) {
+        return actual.plus(minutos, ChronoUnit.MINUTES);
+    }
+}
@@ -0,0 +1,73 @@
+package com.metradingplat.marketdata.infrastructure.output.external.tastytrade;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.metradingplat.marketdata.domain.models.Candle;
+import com.metradingplat.marketdata.infrastructure.output.kafka.DTO.MarketDataStreamDTO;
+
+/**
+ * FEED_DATA COMPACT con varios eventos aplanados bajo una sola etiqueta.
+ */
+class DxLinkCompactDecoderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<MarketDataStreamDTO> marketData = new ArrayList<>();
+    private final List<Candle> candles = new ArrayList<>();
+
+    @Test
+    void decodificaTodosLosQuotesDelArreglo() throws Exception {
+        DxLinkCompactDecoder.Conteo conteo = decodificar("""
+                ["Quote", ["AAPL", 195.71, 195.73, 500.0, 1300.0, 1760961604744, 1760961604746,
+                           "MSFT", 419.56, 419.58, 400.0, 1200.0, 1760961603798, 1760961603800,
+                           "NVDA", 459.36, 459.38, 700.0, 200.0, 1760961628416, 1760961628418]]
+                """);
+
+        assertThat(conteo.quotes()).isEqualTo(3);
+        assertThat(marketData).extracting(MarketDataStreamDTO::getSymbol).containsExactly("AAPL", "MSFT", "NVDA");
+        assertThat(marketData.get(1).getBid()).isEqualTo(419.56);
+        assertThat(marketData.get(1).getAsk()).isEqualTo(419.58);
+        assertThat(marketData.get(1).getTimestamp()).isEqualTo(Instant.ofEpochMilli(1760961603800L));
+    }
+
+    @Test
+    void decodificaTodosLosTradesDelArreglo() throws Exception {
+        DxLinkCompactDecoder.Conteo conteo = decodificar("""
+                ["Trade", ["AAPL", 195.72, 100.0, 1760961604747,
+                           "MSFT", 419.57, 500.0, 1760961603801]]
+                """);
+
+        assertThat(conteo.trades()).isEqualTo(2);
+        assertThat(marketData).extracting(MarketDataStreamDTO::getSymbol).containsExactly("AAPL", "MSFT");
+        assertThat(marketData.get(1).getLastPrice()).isEqualTo(419.57);
+        assertThat(marketData.get(1).getVolume()).isEqualTo(500L);
+        assertThat(marketData.get(1).getTimestamp()).isEqualTo(Instant.ofEpochMilli(1760961603801L));
+    }
+
+    @Test
+    void frameMixtoCuentaCadaRegistroPorTipo() throws Exception {
+        DxLinkCompactDecoder.Conteo conteo = decodificar("""
+                ["Quote", ["AAPL", 1.0, 2.0, 1.0, 1.0, 10, 11, "MSFT", 3.0, 4.0, 1.0, 1.0, 12, 13],
+                 "Trade", ["AAPL", 1.5, 10.0, 14, "MSFT", 3.5, 20.0, 15, "NVDA", 5.5, 30.0, 16],
+                 "Candle", ["AAPL{=1m}", 1760961600000, 1.0, 2.0, 0.5, 1.5, 100.0, 0,
+                            "AAPL{=1m}", 1760961660000, 1.5, 2.5, 1.0, 2.0, 200.0, 0]]
+                """);
+
+        assertThat(conteo).isEqualTo(new DxLinkCompactDecoder.Conteo(2, 3, 2));
+        assertThat(marketData).hasSize(5);
+        assertThat(candles).extracting(Candle::getSymbol).containsExactly("AAPL", "AAPL");
+    }
+
+    private DxLinkCompactDecoder.Conteo decodificar(String data) throws Exception {
+        JsonNode nodo = objectMapper.readTree(data);
+        return DxLinkCompactDecoder.decodificar(nodo, (symbol, dto) -> marketData.add(dto),
+                (symbol, candle, completo) -> candles.add(candle));
+    }
+}
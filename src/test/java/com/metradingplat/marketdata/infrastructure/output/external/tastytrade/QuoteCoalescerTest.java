@@ -0,0 +1,65 @@
+package com.metradingplat.marketdata.infrastructure.output.external.tastytrade;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.metradingplat.marketdata.domain.models.Quote;
+import com.metradingplat.marketdata.infrastructure.output.kafka.cache.LastValueCache;
+
+/**
+ * Las consultas de quotes esperan como maximo timeout-ms.
+ */
+class QuoteCoalescerTest {
+
+    private final TastyTradeClient tastyTradeClient = mock(TastyTradeClient.class);
+    private final TastyTradeConfig config = new TastyTradeConfig();
+    private QuoteCoalescer coalescer;
+
+    @AfterEach
+    void cerrar() {
+        coalescer.shutdown();
+    }
+
+    @Test
+    void devuelveLosQuotesEnElOrdenPedido() {
+        when(tastyTradeClient.getQuotes(anyCollection())).thenReturn(Map.of(
+                "AAPL", quote("AAPL", 235.5), "MSFT", quote("MSFT", 410.2)));
+        coalescer = new QuoteCoalescer(tastyTradeClient, config, mock(LastValueCache.class));
+
+        Map<String, Quote> quotes = coalescer.obtenerTodos(List.of("msft", "AAPL", "NOPE"));
+
+        assertThat(quotes).containsOnlyKeys("MSFT", "AAPL");
+        assertThat(quotes.keySet()).containsExactly("MSFT", "AAPL");
+    }
+
+    @Test
+    void losQuotesQueNoLleganATiempoSeOmitenSinCortarALosDemas() throws Exception {
+        config.getQuotes().setTimeoutMs(100);
+        when(tastyTradeClient.getQuotes(anyCollection())).thenAnswer(invocation -> {
+            Thread.sleep(1000);
+            return Map.of("AAPL", quote("AAPL", 235.5));
+        });
+        coalescer = new QuoteCoalescer(tastyTradeClient, config, mock(LastValueCache.class));
+
+        long inicio = System.nanoTime();
+        assertThat(coalescer.obtenerTodos(List.of("AAPL"))).isEmpty();
+        assertThat(coalescer.obtenerAhora("AAPL")).isNull();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio)).isLessThan(800);
+
+        // La llamada compartida sigue en curso y completa para quien espere mas
+        assertThat(coalescer.obtener("AAPL").get(5, TimeUnit.SECONDS).getLast()).isEqualTo(235.5);
+    }
+
+    private static Quote quote(String symbol, double last) {
+        return Quote.builder().symbol(symbol).last(last).build();
+    }
+}
@@ -0,0 +1,90 @@
+package com.metradingplat.marketdata.infrastructure.output.kafka.serializer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import com.metradingplat.marketdata.infrastructure.output.kafka.DTO.MarketDataStreamDTO;
+
+/**
+ * Ida y vuelta de las dos codificaciones de marketdata.stream.
+ */
+class MarketDataStreamSerializerTest {
+
+    private static final String TOPIC = "marketdata.stream";
+
+    private final MarketDataStreamSerializer serializer = new MarketDataStreamSerializer();
+    private final MarketDataStreamDeserializer deserializer = new MarketDataStreamDeserializer();
+
+    @Test
+    void binarioConservaTodosLosCamposYLosNanos() {
+        MarketDataStreamDTO quote = MarketDataStreamDTO.builder()
+                .symbol("AAPL")
+                .lastPrice(235.5)
+                .bid(235.45)
+                .ask(235.55)
+                .volume(12_345_678L)
+                .timestamp(Instant.parse("2025-01-15T14:30:00.123456789Z"))
+                .build();
+
+        assertThat(deserializer.deserialize(TOPIC, serializer.serialize(TOPIC, quote))).isEqualTo(quote);
+    }
+
+    @Test
+    void binarioOmiteLosCamposNulos() {
+        MarketDataStreamDTO trade = MarketDataStreamDTO.builder().symbol("BRK/B").lastPrice(470.1).build();
+
+        byte[] bytes = serializer.serialize(TOPIC, trade);
+
+        assertThat(bytes).hasSize(1 + 1 + 2 + "BRK/B".length() + Double.BYTES);
+        assertThat(deserializer.deserialize(TOPIC, bytes)).isEqualTo(trade);
+    }
+
+    @Test
+    void binarioAdmiteTimestampsAnterioresAlEpoch() {
+        MarketDataStreamDTO quote = MarketDataStreamDTO.builder()
+                .symbol("X")
+                .timestamp(Instant.parse("1969-12-31T23:59:59.900Z"))
+                .build();
+
+        assertThat(deserializer.deserialize(TOPIC, serializer.serialize(TOPIC, quote)).getTimestamp())
+                .isEqualTo(quote.getTimestamp());
+    }
+
+    @Test
+    void binarioRechazaVersionesDesconocidas() {
+        byte[] bytes = serializer.serialize(TOPIC, MarketDataStreamDTO.builder().symbol("AAPL").build());
+        bytes[0] = 2;
+
+        assertThatThrownBy(() -> deserializer.deserialize(TOPIC, bytes)).isInstanceOf(SerializationException.class);
+        assertThat(serializer.serialize(TOPIC, null)).isNull();
+        assertThat(deserializer.deserialize(TOPIC, null)).isNull();
+    }
+
+    @Test
+    void jsonMantieneElFormatoConHeadersDeTipo() {
+        MarketDataStreamDTO quote = MarketDataStreamDTO.builder()
+                .symbol("AAPL")
+                .bid(235.45)
+                .ask(235.55)
+                .timestamp(Instant.parse("2025-01-15T14:30:00.123Z"))
+                .build();
+        RecordHeaders headers = new RecordHeaders();
+
+        try (JsonSerializer<MarketDataStreamDTO> json = new JsonSerializer<>();
+                JsonDeserializer<MarketDataStreamDTO> lector = new JsonDeserializer<MarketDataStreamDTO>()
+                        .trustedPackages("*")) {
+            byte[] bytes = json.serialize(TOPIC, headers, quote);
+
+            assertThat(headers.lastHeader("__TypeId__")).isNotNull();
+            assertThat(lector.deserialize(TOPIC, headers, bytes)).isEqualTo(quote);
+        }
+    }
+}
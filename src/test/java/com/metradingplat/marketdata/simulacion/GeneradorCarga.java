@@ -0,0 +1,188 @@
+package com.metradingplat.marketdata.simulacion;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Generador de carga de lazo cerrado para {@code POST /historical/batch} y
+ * {@code GET /quote/{symbol}}: N trabajadores (hilos virtuales) envian
+ * peticiones sin pausa durante un tiempo fijo y al final se reporta throughput
+ * y percentiles de latencia por escenario.
+ *
+ * Se configura con system properties {@code carga.*}:
+ * <ul>
+ * <li>baseUrl (http://localhost:8082), concurrencia (32), duracionSegundos (30),
+ * calentamientoSegundos (5)</li>
+ * <li>escenario: batch | quote | mixto (mixto)</li>
+ * <li>simbolosPorBatch (20), bars (100), timeframe (M1), universo (500): los
+ * simbolos se eligen al azar entre los primeros {@code universo} del
+ * simulador</li>
+ * </ul>
+ */
+public class GeneradorCarga {
+
+    private static final String BASE = "/api/marketdata";
+
+    private final String baseUrl = System.getProperty("carga.baseUrl", "http://localhost:8082");
+    private final int concurrencia = Integer.getInteger("carga.concurrencia", 32);
+    private final int duracionSegundos = Integer.getInteger("carga.duracionSegundos", 30);
+    private final int calentamientoSegundos = Integer.getInteger("carga.calentamientoSegundos", 5);
+    private final String escenario = System.getProperty("carga.escenario", "mixto");
+    private final int simbolosPorBatch = Integer.getInteger("carga.simbolosPorBatch", 20);
+    private final int bars = Integer.getInteger("carga.bars", 100);
+    private final String timeframe = System.getProperty("carga.timeframe", "M1");
+    private final int universo = Integer.getInteger("carga.universo", 500);
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Latencias (ns) y errores de un escenario; una instancia por trabajador para
+     * no sincronizar en el camino de medicion.
+     */
+    private static final class Muestras {
+        private long[] latencias = new long[1024];
+        private int total;
+        private int errores;
+
+        void agregar(long nanos) {
+            if (total == latencias.length)
+                latencias = Arrays.copyOf(latencias, total * 2);
+            latencias[total++] = nanos;
+        }
+
+        static Muestras unir(List<Muestras> partes) {
+            Muestras todas = new Muestras();
+            todas.latencias = new long[partes.stream().mapToInt(m -> m.total).sum()];
+            for (Muestras parte : partes) {
+                System.arraycopy(parte.latencias, 0, todas.latencias, todas.total, parte.total);
+                todas.total += parte.total;
+                todas.errores += parte.errores;
+            }
+            Arrays.sort(todas.latencias, 0, todas.total);
+            return todas;
+        }
+
+        double percentilMs(double p) {
+            if (total == 0)
+                return 0;
+            int indice = (int) Math.min(total - 1, Math.ceil(p / 100 * total) - 1);
+            return latencias[Math.max(indice, 0)] / 1_000_000.0;
+        }
+    }
+
+    private final class Trabajador implements Runnable {
+        private final Muestras batch = new Muestras();
+        private final Muestras quote = new Muestras();
+        private final long inicioMedicion;
+        private final long fin;
+
+        private Trabajador(long inicioMedicion, long fin) {
+            this.inicioMedicion = inicioMedicion;
+            this.fin = fin;
+        }
+
+        @Override
+        public void run() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (System.nanoTime() < fin) {
+                boolean esBatch = switch (escenario) {
+                    case "batch" -> true;
+                    case "quote" -> false;
+                    default -> random.nextInt(4) == 0; // mixto: 1 batch cada 4 peticiones
+                };
+                Muestras destino = esBatch ? batch : quote;
+                long inicio = System.nanoTime();
+                boolean ok;
+                try {
+                    HttpResponse<Void> response = client.send(esBatch ? peticionBatch(random) : peticionQuote(random),
+                            HttpResponse.BodyHandlers.discarding());
+                    ok = response.statusCode() < 400;
+                } catch (Exception e) {
+                    ok = false;
+                }
+                long latencia = System.nanoTime() - inicio;
+                if (inicio < inicioMedicion)
+                    continue;
+                destino.agregar(latencia);
+                if (!ok)
+                    destino.errores++;
+            }
+        }
+    }
+
+    private HttpRequest peticionBatch(ThreadLocalRandom random) throws Exception {
+        List<String> symbols = new ArrayList<>(simbolosPorBatch);
+        for (int i = 0; i < simbolosPorBatch; i++) {
+            symbols.add(SimuladorRestServlet.simbolo(random.nextInt(universo)));
+        }
+        String body = objectMapper.writeValueAsString(Map.of(
+                "symbols", symbols, "timeframe", timeframe, "bars", bars));
+        return HttpRequest.newBuilder(URI.create(baseUrl + BASE + "/historical/batch"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest peticionQuote(ThreadLocalRandom random) {
+        String symbol = SimuladorRestServlet.simbolo(random.nextInt(universo));
+        return HttpRequest.newBuilder(URI.create(baseUrl + BASE + "/quote/" + symbol))
+                .timeout(Duration.ofSeconds(10))
+                .GET()
+                .build();
+    }
+
+    void ejecutar() throws InterruptedException {
+        System.out.printf("Carga: %s, escenario=%s, concurrencia=%d, %ds (+%ds calentamiento)%n",
+                baseUrl, escenario, concurrencia, duracionSegundos, calentamientoSegundos);
+
+        long ahora = System.nanoTime();
+        long inicioMedicion = ahora + Duration.ofSeconds(calentamientoSegundos).toNanos();
+        long fin = inicioMedicion + Duration.ofSeconds(duracionSegundos).toNanos();
+
+        List<Trabajador> trabajadores = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrencia; i++) {
+                Trabajador trabajador = new Trabajador(inicioMedicion, fin);
+                trabajadores.add(trabajador);
+                executor.execute(trabajador);
+            }
+        }
+
+        System.out.printf("%-8s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errores", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        reportar("batch", Muestras.unir(trabajadores.stream().map(t -> t.batch).toList()));
+        reportar("quote", Muestras.unir(trabajadores.stream().map(t -> t.quote).toList()));
+    }
+
+    private void reportar(String nombre, Muestras muestras) {
+        if (muestras.total == 0)
+            return;
+        System.out.printf(Locale.ROOT, "%-8s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                nombre, muestras.total, muestras.errores, (double) muestras.total / duracionSegundos,
+                muestras.percentilMs(50), muestras.percentilMs(90), muestras.percentilMs(99),
+                muestras.percentilMs(99.9), muestras.percentilMs(100));
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        new GeneradorCarga().ejecutar();
+    }
+}
@@ -0,0 +1,57 @@
+package com.metradingplat.marketdata.simulacion;
+
+import java.util.SplittableRandom;
+
+/**
+ * Precios sinteticos deterministas: la misma barra (simbolo, periodo, inicio)
+ * siempre da el mismo OHLCV, asi que snapshots repetidos y barras vistas desde
+ * distintos canales son consistentes entre si.
+ */
+final class GeneradorPrecios {
+
+    record Barra(long inicio, double open, double high, double low, double close, double volume) {
+    }
+
+    private GeneradorPrecios() {
+    }
+
+    static double base(String symbol) {
+        return 20 + Math.floorMod(symbol.hashCode(), 480);
+    }
+
+    /**
+     * Precio "medio" en un instante: onda lenta alrededor del precio base.
+     */
+    static double precio(String symbol, long epochMs) {
+        double fase = Math.floorMod(symbol.hashCode(), 1000) / 1000.0 * 2 * Math.PI;
+        double t = epochMs / 3_600_000.0; // horas
+        return redondear(base(symbol) * (1 + 0.03 * Math.sin(t / 3 + fase) + 0.01 * Math.sin(t * 7 + fase)));
+    }
+
+    static Barra barra(String symbol, long periodoMs, long inicio) {
+        SplittableRandom random = new SplittableRandom(symbol.hashCode() * 31L + inicio / periodoMs);
+        double open = precio(symbol, inicio);
+        double close = precio(symbol, inicio + periodoMs);
+        double rango = base(symbol) * 0.002 * (1 + random.nextDouble());
+        double high = redondear(Math.max(open, close) + rango * random.nextDouble());
+        double low = redondear(Math.min(open, close) - rango * random.nextDouble());
+        double volume = 1000 + random.nextInt(100_000);
+        return new Barra(inicio, open, high, low, close, volume);
+    }
+
+    /**
+     * Barra en formacion: close y volumen avanzan segun el tiempo transcurrido.
+     */
+    static Barra barraEnFormacion(String symbol, long periodoMs, long ahora) {
+        long inicio = ahora - Math.floorMod(ahora, periodoMs);
+        Barra completa = barra(symbol, periodoMs, inicio);
+        double avance = (double) (ahora - inicio) / periodoMs;
+        double close = precio(symbol, ahora);
+        return new Barra(inicio, completa.open(), Math.max(completa.high(), close), Math.min(completa.low(), close),
+                close, Math.floor(completa.volume() * avance));
+    }
+
+    static double redondear(double precio) {
+        return Math.round(precio * 100) / 100.0;
+    }
+}
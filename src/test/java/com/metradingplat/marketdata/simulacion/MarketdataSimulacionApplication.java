@@ -0,0 +1,39 @@
+package com.metradingplat.marketdata.simulacion;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.event.ContextClosedEvent;
+
+import com.metradingplat.marketdata.MarketdataServiceApplication;
+
+/**
+ * Levanta el servicio completo contra {@link SimuladorTastyTrade} (perfil
+ * {@code sim}) para pruebas de carga locales sin credenciales.
+ *
+ * <pre>
+ * ./mvnw test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.metradingplat.marketdata.simulacion.MarketdataSimulacionApplication
+ * </pre>
+ */
+public class MarketdataSimulacionApplication {
+
+    public static void main(String[] args) throws Exception {
+        SimuladorTastyTrade simulador = new SimuladorTastyTrade(SimuladorTastyTrade.Opciones.desdeSystemProperties())
+                .iniciar();
+
+        // System properties: pisan lo que traiga application-sim.yml
+        System.setProperty("tastytrade.api-base-url", simulador.getBaseUrl());
+        System.setProperty("tastytrade.dxlink-url", simulador.getDxLinkUrl());
+
+        new SpringApplicationBuilder(MarketdataServiceApplication.class)
+                .profiles("sim")
+                .listeners(event -> {
+                    if (event instanceof ContextClosedEvent) {
+                        try {
+                            simulador.close();
+                        } catch (Exception ignored) {
+                            /* ignore */ }
+                    }
+                })
+                .run(args);
+    }
+}
@@ -0,0 +1,229 @@
+package com.metradingplat.marketdata.simulacion;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.metradingplat.marketdata.domain.enums.EnumTimeframe;
+
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.Endpoint;
+import jakarta.websocket.EndpointConfig;
+import jakarta.websocket.MessageHandler;
+import jakarta.websocket.Session;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Una conexion DxLink simulada: responde SETUP/AUTH/CHANNEL_REQUEST/FEED_SETUP,
+ * guarda las suscripciones por canal y envia los snapshots de candles. El
+ * stream en vivo lo empuja {@link SimuladorTastyTrade} con {@link #emitir}.
+ */
+@Slf4j
+class SimuladorDxLinkEndpoint extends Endpoint {
+
+    // eventFlags de dxFeed
+    static final int TX_PENDING = 0x01;
+    static final int SNAPSHOT_BEGIN = 0x04;
+    static final int SNAPSHOT_END = 0x08;
+
+    private final SimuladorTastyTrade simulador;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Integer, Canal> canales = new ConcurrentHashMap<>();
+    private Session session;
+
+    private static final class Canal {
+        private final Set<String> quotes = ConcurrentHashMap.newKeySet();
+        private final Set<String> trades = ConcurrentHashMap.newKeySet();
+        // Simbolo DxLink (AAPL{=5m}) -> periodo en ms
+        private final Map<String, Long> candles = new ConcurrentHashMap<>();
+    }
+
+    SimuladorDxLinkEndpoint(SimuladorTastyTrade simulador) {
+        this.simulador = simulador;
+    }
+
+    @Override
+    public void onOpen(Session session, EndpointConfig config) {
+        this.session = session;
+        session.setMaxTextMessageBufferSize(1 << 20);
+        session.addMessageHandler(String.class, (MessageHandler.Whole<String>) this::recibir);
+        simulador.registrar(this);
+    }
+
+    @Override
+    public void onClose(Session session, CloseReason closeReason) {
+        simulador.eliminar(this);
+    }
+
+    @Override
+    public void onError(Session session, Throwable error) {
+        log.debug("Simulador DxLink: error en la sesion {}: {}", session.getId(), error.getMessage());
+    }
+
+    // --- Protocolo ---
+
+    private void recibir(String payload) {
+        try {
+            JsonNode msg = objectMapper.readTree(payload);
+            int channel = msg.path("channel").asInt();
+            switch (msg.path("type").asText()) {
+                case "SETUP" -> enviar(Map.of("type", "SETUP", "channel", 0, "version", "1.0.2-sim",
+                        "keepaliveTimeout", 60, "acceptKeepaliveTimeout", 60));
+                case "AUTH" -> enviar(Map.of("type", "AUTH_STATE", "channel", 0,
+                        "state", msg.path("token").asText().isEmpty() ? "UNAUTHORIZED" : "AUTHORIZED"));
+                case "CHANNEL_REQUEST" -> {
+                    canales.put(channel, new Canal());
+                    enviar(Map.of("type", "CHANNEL_OPENED", "channel", channel, "service", "FEED",
+                            "parameters", Map.of("contract", "AUTO")));
+                }
+                case "CHANNEL_CANCEL" -> canales.remove(channel);
+                case "FEED_SETUP" -> enviar(Map.of("type", "FEED_CONFIG", "channel", channel,
+                        "dataFormat", "COMPACT", "aggregationPeriod", 0,
+                        "eventFields", msg.path("acceptEventFields")));
+                case "FEED_SUBSCRIPTION" -> suscripcion(channel, msg);
+                // El cliente hace eco de cada KEEPALIVE: no se responde para no entrar en bucle
+                case "KEEPALIVE" -> {
+                }
+                default -> log.debug("Simulador DxLink: mensaje ignorado {}", payload);
+            }
+        } catch (Exception e) {
+            log.warn("Simulador DxLink: mensaje invalido: {}", e.getMessage());
+        }
+    }
+
+    private void suscripcion(int channel, JsonNode msg) throws IOException {
+        Canal canal = canales.computeIfAbsent(channel, k -> new Canal());
+        if (msg.path("reset").asBoolean(false)) {
+            canal.quotes.clear();
+            canal.trades.clear();
+            canal.candles.clear();
+        }
+        for (JsonNode item : msg.path("remove")) {
+            String symbol = item.path("symbol").asText();
+            switch (item.path("type").asText()) {
+                case "Quote" -> canal.quotes.remove(symbol);
+                case "Trade" -> canal.trades.remove(symbol);
+                case "Candle" -> canal.candles.remove(symbol);
+                default -> {
+                }
+            }
+        }
+        for (JsonNode item : msg.path("add")) {
+            String symbol = item.path("symbol").asText();
+            switch (item.path("type").asText()) {
+                case "Quote" -> canal.quotes.add(symbol);
+                case "Trade" -> canal.trades.add(symbol);
+                case "Candle" -> {
+                    long periodo = periodoMs(symbol);
+                    canal.candles.put(symbol, periodo);
+                    enviarSnapshot(channel, symbol, periodo, item.path("fromTime").asLong(0));
+                }
+                default -> {
+                }
+            }
+        }
+    }
+
+    /**
+     * Snapshot en orden descendente (como DxLink) partido en frames; la ultima
+     * barra lleva SNAPSHOT_END sin TX_PENDING.
+     */
+    private void enviarSnapshot(int channel, String candleSymbol, long periodoMs, long fromTime) throws IOException {
+        String symbol = simboloBase(candleSymbol);
+        long ahora = System.currentTimeMillis();
+        long actual = ahora - Math.floorMod(ahora, periodoMs);
+        int maximo = simulador.getOpciones().getBarrasSnapshot();
+        // Sin fromTime DxLink solo entrega la ultima barra
+        long barras = fromTime > 0 ? Math.min(maximo, (ahora - fromTime) / periodoMs + 1) : 1;
+        int porFrame = simulador.getOpciones().getBarrasPorFrame();
+
+        List<Object> campos = new ArrayList<>();
+        for (long i = 0; i < barras; i++) {
+            long inicio = actual - i * periodoMs;
+            GeneradorPrecios.Barra barra = i == 0
+                    ? GeneradorPrecios.barraEnFormacion(symbol, periodoMs, ahora)
+                    : GeneradorPrecios.barra(symbol, periodoMs, inicio);
+            int flags = (i == 0 ? SNAPSHOT_BEGIN : 0) | (i == barras - 1 ? SNAPSHOT_END : TX_PENDING);
+            agregarCandle(campos, candleSymbol, barra, flags);
+            if ((i + 1) % porFrame == 0 || i == barras - 1) {
+                enviar(Map.of("type", "FEED_DATA", "channel", channel, "data", List.of("Candle", campos)));
+                campos = new ArrayList<>();
+            }
+        }
+    }
+
+    // --- Stream en vivo ---
+
+    /**
+     * Un frame FEED_DATA por canal con los eventos del tipo pedido para cada
+     * simbolo suscrito, en formato COMPACT: una sola etiqueta de tipo seguida de
+     * los campos de todos los eventos aplanados.
+     */
+    void emitir(String tipo, long ahora) {
+        for (Map.Entry<Integer, Canal> entry : canales.entrySet()) {
+            Canal canal = entry.getValue();
+            List<Object> campos = new ArrayList<>();
+            switch (tipo) {
+                case "Quote" -> canal.quotes.forEach(symbol -> {
+                    double precio = GeneradorPrecios.precio(symbol, ahora);
+                    // bidTime/askTime unos ms antes del envio, como un feed real
+                    long hora = ahora - ThreadLocalRandom.current().nextInt(1, 20);
+                    campos.addAll(List.of(symbol, GeneradorPrecios.redondear(precio - 0.01),
+                            GeneradorPrecios.redondear(precio + 0.01), 100.0, 100.0, hora, hora));
+                });
+                case "Trade" -> canal.trades.forEach(symbol -> campos
+                        .addAll(List.of(symbol, GeneradorPrecios.precio(symbol, ahora), 100.0, ahora)));
+                case "Candle" -> canal.candles.forEach((candleSymbol, periodo) -> agregarCandle(campos, candleSymbol,
+                        GeneradorPrecios.barraEnFormacion(simboloBase(candleSymbol), periodo, ahora), 0));
+                default -> {
+                }
+            }
+            if (!campos.isEmpty()) {
+                try {
+                    enviar(Map.of("type", "FEED_DATA", "channel", entry.getKey(), "data", List.of(tipo, campos)));
+                } catch (IOException e) {
+                    log.debug("Simulador DxLink: no se pudo enviar a {}: {}", session.getId(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static void agregarCandle(List<Object> campos, String candleSymbol, GeneradorPrecios.Barra barra,
+            int flags) {
+        campos.add(candleSymbol);
+        campos.add(barra.inicio());
+        campos.add(barra.open());
+        campos.add(barra.high());
+        campos.add(barra.low());
+        campos.add(barra.close());
+        campos.add(barra.volume());
+        campos.add(flags);
+    }
+
+    private void enviar(Map<String, Object> mensaje) throws IOException {
+        String json = objectMapper.writeValueAsString(mensaje);
+        // BasicRemote no admite envios concurrentes
+        synchronized (session) {
+            if (session.isOpen()) {
+                session.getBasicRemote().sendText(json);
+            }
+        }
+    }
+
+    private static String simboloBase(String candleSymbol) {
+        int inicio = candleSymbol.indexOf('{');
+        return inicio < 0 ? candleSymbol : candleSymbol.substring(0, inicio);
+    }
+
+    private static long periodoMs(String candleSymbol) {
+        EnumTimeframe timeframe = EnumTimeframe.fromDxLinkSymbol(candleSymbol);
+        return (timeframe != null ? timeframe.getDuration() : Duration.ofMinutes(1)).toMillis();
+    }
+}
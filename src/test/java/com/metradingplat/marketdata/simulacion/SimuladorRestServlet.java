@@ -0,0 +1,156 @@
+package com.metradingplat.marketdata.simulacion;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Respuestas sinteticas para los endpoints REST de TastyTrade que usa el
+ * servicio: OAuth, quote token, equities activas, quotes, earnings y ordenes.
+ */
+class SimuladorRestServlet extends HttpServlet {
+
+    private static final String[] MERCADOS = { "XNYS", "XNAS", "XNAS", "XASE", "ARCX", "BATS" };
+    // Simbolos reales al inicio del universo para que los ejemplos del README funcionen
+    private static final List<String> CONOCIDOS = List.of("SPY", "QQQ", "AAPL", "MSFT", "NVDA", "AMZN", "META",
+            "GOOGL", "TSLA", "AMD");
+
+    private final transient SimuladorTastyTrade simulador;
+    private final transient ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong tokens = new AtomicLong();
+
+    SimuladorRestServlet(SimuladorTastyTrade simulador) {
+        this.simulador = simulador;
+    }
+
+    @Override
+    protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        demorar();
+        String path = request.getRequestURI();
+        String metodo = request.getMethod();
+
+        Object cuerpo;
+        if (path.equals("/oauth/token") && metodo.equals("POST")) {
+            cuerpo = Map.of("access_token", "sim-access-" + tokens.incrementAndGet(),
+                    "refresh_token", "sim-refresh", "expires_in", 900);
+        } else if (path.equals("/api-quote-tokens")) {
+            cuerpo = datos(Map.of("token", "sim-quote-" + tokens.incrementAndGet(),
+                    "dxlink-url", simulador.getDxLinkUrl(),
+                    "expires-at", Instant.now().plus(24, ChronoUnit.HOURS).toString()));
+        } else if (path.equals("/instruments/equities/active")) {
+            cuerpo = datos(Map.of("items", equities(entero(request, "page-offset", 0),
+                    entero(request, "per-page", 1000))));
+        } else if (path.equals("/market-data/by-type")) {
+            cuerpo = datos(Map.of("items", quotes(request.getParameter("equity"))));
+        } else if (path.startsWith("/market-metrics/historic-corporate-events/earnings-reports/")) {
+            cuerpo = datos(Map.of("items", earnings(path.substring(path.lastIndexOf('/') + 1))));
+        } else if (path.startsWith("/accounts/") && metodo.equals("DELETE")) {
+            cuerpo = datos(Map.of("id", path.substring(path.lastIndexOf('/') + 1), "status", "Cancelled"));
+        } else if (path.startsWith("/accounts/") && metodo.equals("POST")) {
+            String id = UUID.randomUUID().toString();
+            cuerpo = datos(Map.of("id", id, "order", Map.of("id", id, "status", "Received")));
+        } else {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "Simulador: " + metodo + " " + path);
+            return;
+        }
+
+        response.setContentType("application/json");
+        objectMapper.writeValue(response.getOutputStream(), cuerpo);
+    }
+
+    private static Map<String, Object> datos(Object data) {
+        return Map.of("data", data);
+    }
+
+    private List<Map<String, Object>> equities(int pagina, int porPagina) {
+        int total = simulador.getOpciones().getEquities();
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (int i = pagina * porPagina; i < Math.min(total, (pagina + 1) * porPagina); i++) {
+            String symbol = simbolo(i);
+            items.add(Map.of("symbol", symbol,
+                    "description", symbol + " Simulated Holdings Inc",
+                    "listed-market", MERCADOS[i % MERCADOS.length]));
+        }
+        return items;
+    }
+
+    static String simbolo(int indice) {
+        if (indice < CONOCIDOS.size())
+            return CONOCIDOS.get(indice);
+        // AAAA, AAAB, ... (4 letras, 456976 combinaciones)
+        char[] letras = new char[4];
+        int n = indice - CONOCIDOS.size();
+        for (int i = 3; i >= 0; i--) {
+            letras[i] = (char) ('A' + n % 26);
+            n /= 26;
+        }
+        return new String(letras);
+    }
+
+    private List<Map<String, Object>> quotes(String equity) {
+        List<Map<String, Object>> items = new ArrayList<>();
+        if (equity == null || equity.isBlank())
+            return items;
+        long ahora = System.currentTimeMillis();
+        long dia = ahora - Math.floorMod(ahora, 86_400_000L);
+        for (String symbol : equity.split(",")) {
+            double precio = GeneradorPrecios.precio(symbol, ahora);
+            GeneradorPrecios.Barra sesion = GeneradorPrecios.barraEnFormacion(symbol, 86_400_000L, ahora);
+            Map<String, Object> item = new HashMap<>();
+            item.put("symbol", symbol);
+            item.put("bid", GeneradorPrecios.redondear(precio - 0.01));
+            item.put("ask", GeneradorPrecios.redondear(precio + 0.01));
+            item.put("last", precio);
+            item.put("open", sesion.open());
+            item.put("dayHighPrice", sesion.high());
+            item.put("dayLowPrice", sesion.low());
+            item.put("close", precio);
+            item.put("prevClose", GeneradorPrecios.precio(symbol, dia - 1));
+            item.put("volume", sesion.volume());
+            item.put("tradingHalted", false);
+            item.put("beta", 1.0);
+            items.add(item);
+        }
+        return items;
+    }
+
+    private static List<Map<String, Object>> earnings(String symbol) {
+        // Ultimos 8 trimestres, desplazados por simbolo
+        LocalDate ultimo = LocalDate.now().minusDays(Math.floorMod(symbol.hashCode(), 90) + 1);
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (int q = 7; q >= 0; q--) {
+            items.add(Map.of("occurred-date", ultimo.minusMonths(3L * q).toString(),
+                    "eps", GeneradorPrecios.redondear(GeneradorPrecios.base(symbol) / 100 * (1 + 0.05 * q))));
+        }
+        return items;
+    }
+
+    private void demorar() {
+        long latencia = simulador.getOpciones().getLatenciaRestMs();
+        if (latencia <= 0)
+            return;
+        try {
+            Thread.sleep(latencia);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static int entero(HttpServletRequest request, String parametro, int porDefecto) {
+        String valor = request.getParameter(parametro);
+        return valor != null ? Integer.parseInt(valor) : porDefecto;
+    }
+}
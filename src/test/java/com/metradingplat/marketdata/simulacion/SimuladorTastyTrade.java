@@ -0,0 +1,176 @@
+package com.metradingplat.marketdata.simulacion;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.tomcat.websocket.server.WsSci;
+
+import jakarta.websocket.DeploymentException;
+import jakarta.websocket.server.ServerContainer;
+import jakarta.websocket.server.ServerEndpointConfig;
+import lombok.Data;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Doble local de TastyTrade para pruebas de carga sin credenciales: en un solo
+ * puerto expone el websocket DxLink ({@code /realtime}) y los endpoints REST
+ * que usan TastyTradeClient y TastyTradeTokenManager.
+ *
+ * Uso embebido: {@code new SimuladorTastyTrade(opciones).iniciar()} y apuntar
+ * {@code tastytrade.api-base-url} a {@link #getBaseUrl()}; el quote token ya
+ * devuelve la URL del websocket.
+ */
+@Slf4j
+public class SimuladorTastyTrade implements AutoCloseable {
+
+    @Data
+    public static class Opciones {
+        private int puerto = 18090;
+        // Eventos por segundo y por simbolo suscrito
+        private int quotesPorSegundo = 10;
+        private int tradesPorSegundo = 5;
+        // Actualizaciones por segundo de la barra en formacion
+        private int candlesPorSegundo = 1;
+        // Barras maximas por snapshot de Candle y barras por frame FEED_DATA
+        private int barrasSnapshot = 1000;
+        private int barrasPorFrame = 250;
+        // Tamano del universo de /instruments/equities/active
+        private int equities = 5000;
+        // Latencia artificial de cada respuesta REST
+        private long latenciaRestMs = 0;
+
+        /**
+         * Lee {@code sim.<campo>} de las system properties (ej. -Dsim.quotesPorSegundo=50).
+         */
+        public static Opciones desdeSystemProperties() {
+            Opciones opciones = new Opciones();
+            opciones.setPuerto(Integer.getInteger("sim.puerto", opciones.getPuerto()));
+            opciones.setQuotesPorSegundo(Integer.getInteger("sim.quotesPorSegundo", opciones.getQuotesPorSegundo()));
+            opciones.setTradesPorSegundo(Integer.getInteger("sim.tradesPorSegundo", opciones.getTradesPorSegundo()));
+            opciones.setCandlesPorSegundo(
+                    Integer.getInteger("sim.candlesPorSegundo", opciones.getCandlesPorSegundo()));
+            opciones.setBarrasSnapshot(Integer.getInteger("sim.barrasSnapshot", opciones.getBarrasSnapshot()));
+            opciones.setBarrasPorFrame(Integer.getInteger("sim.barrasPorFrame", opciones.getBarrasPorFrame()));
+            opciones.setEquities(Integer.getInteger("sim.equities", opciones.getEquities()));
+            opciones.setLatenciaRestMs(Long.getLong("sim.latenciaRestMs", opciones.getLatenciaRestMs()));
+            return opciones;
+        }
+    }
+
+    @Getter
+    private final Opciones opciones;
+    private final Set<SimuladorDxLinkEndpoint> conexiones = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService ticker = Executors.newScheduledThreadPool(3,
+            Thread.ofPlatform().name("sim-dxlink-tick-", 0).daemon().factory());
+    private Tomcat tomcat;
+
+    public SimuladorTastyTrade(Opciones opciones) {
+        this.opciones = opciones;
+    }
+
+    public SimuladorTastyTrade iniciar() throws LifecycleException, IOException {
+        File baseDir = Files.createTempDirectory("sim-tastytrade").toFile();
+        tomcat = new Tomcat();
+        tomcat.setBaseDir(baseDir.getAbsolutePath());
+        tomcat.setPort(opciones.getPuerto());
+        tomcat.getConnector();
+
+        Context context = tomcat.addContext("", baseDir.getAbsolutePath());
+        context.addServletContainerInitializer(new WsSci(), null);
+        // Despues de WsSci: el ServerContainer ya existe
+        context.addServletContainerInitializer((clases, servletContext) -> {
+            ServerContainer container = (ServerContainer) servletContext
+                    .getAttribute(ServerContainer.class.getName());
+            try {
+                container.addEndpoint(ServerEndpointConfig.Builder
+                        .create(SimuladorDxLinkEndpoint.class, "/realtime")
+                        .configurator(new ServerEndpointConfig.Configurator() {
+                            @Override
+                            @SuppressWarnings("unchecked")
+                            public <T> T getEndpointInstance(Class<T> endpointClass) {
+                                return (T) new SimuladorDxLinkEndpoint(SimuladorTastyTrade.this);
+                            }
+                        })
+                        .build());
+            } catch (DeploymentException e) {
+                throw new IllegalStateException(e);
+            }
+        }, null);
+        Tomcat.addServlet(context, "rest", new SimuladorRestServlet(this));
+        context.addServletMappingDecoded("/", "rest");
+
+        tomcat.start();
+        programar("Quote", opciones.getQuotesPorSegundo());
+        programar("Trade", opciones.getTradesPorSegundo());
+        programar("Candle", opciones.getCandlesPorSegundo());
+
+        log.info("Simulador TastyTrade en {} (DxLink {})", getBaseUrl(), getDxLinkUrl());
+        return this;
+    }
+
+    @Override
+    public void close() throws LifecycleException {
+        ticker.shutdownNow();
+        if (tomcat != null) {
+            tomcat.stop();
+            tomcat.destroy();
+        }
+    }
+
+    public int getPuertoLocal() {
+        return tomcat.getConnector().getLocalPort();
+    }
+
+    public String getBaseUrl() {
+        return "http://localhost:" + getPuertoLocal();
+    }
+
+    public String getDxLinkUrl() {
+        return "ws://localhost:" + getPuertoLocal() + "/realtime";
+    }
+
+    public int getConexionesActivas() {
+        return conexiones.size();
+    }
+
+    void registrar(SimuladorDxLinkEndpoint conexion) {
+        conexiones.add(conexion);
+    }
+
+    void eliminar(SimuladorDxLinkEndpoint conexion) {
+        conexiones.remove(conexion);
+    }
+
+    private void programar(String tipo, int porSegundo) {
+        if (porSegundo <= 0)
+            return;
+        long periodoUs = 1_000_000L / porSegundo;
+        ticker.scheduleAtFixedRate(() -> {
+            long ahora = System.currentTimeMillis();
+            for (SimuladorDxLinkEndpoint conexion : conexiones) {
+                conexion.emitir(tipo, ahora);
+            }
+        }, periodoUs, periodoUs, TimeUnit.MICROSECONDS);
+    }
+
+    public static void main(String[] args) throws Exception {
+        SimuladorTastyTrade simulador = new SimuladorTastyTrade(Opciones.desdeSystemProperties()).iniciar();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                simulador.close();
+            } catch (LifecycleException ignored) {
+                /* ignore */ }
+        }));
+        simulador.tomcat.getServer().await();
+    }
+}